@@ -1,12 +1,20 @@
 package com.gestion.evenements.auth;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.gestion.evenements.repository.EventRepository;
+import com.gestion.evenements.repository.FichierUserRepository;
+import com.gestion.evenements.repository.JdbcUserRepository;
+import com.gestion.evenements.repository.UserRepository;
+import com.gestion.evenements.serialization.SerializationManager;
+import com.gestion.evenements.serialization.journal.JournalAcces;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Service d'authentification pour gérer les utilisateurs
@@ -14,38 +22,53 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class AuthenticationService {
     private static final String USERS_FILE = "users.json";
-    private static final String SESSIONS_FILE = "sessions.json";
+    private static final String USERS_BINARY_FILE = "users.bin";
+    private static final String SESSIONS_FILE = "sessions.bin";
+    private static final Duration DUREE_SESSION = Duration.ofHours(24);
+    private static final String USERS_ACCESS_LOG = "users.acces.log";
+    // Au-delà de ce nombre de connexions journalisées, le journal est compacté en arrière-plan
+    private static final long SEUIL_COMPACTION_ACCES = 1000;
     
     private Map<String, User> users; // Map: email -> User
-    private Map<String, UserSession> activeSessions; // Map: sessionId -> UserSession
-    private ObjectMapper objectMapper;
+    private SessionManager activeSessions; // sessionId -> UserSession, expiration par roue temporelle
+    // Persistance des utilisateurs : snapshot binaire, ou base JDBC si configurée
+    private UserRepository depot;
+    // Derniers accès : une ligne par connexion, repliée périodiquement dans le dépôt
+    private JournalAcces journalAcces;
+    // Une seule compaction en arrière-plan à la fois : une rafale de connexions ne réécrit
+    // pas le dépôt une fois par connexion
+    private final AtomicBoolean compactionEnCours = new AtomicBoolean();
     
-    // Singleton pattern
-    private static AuthenticationService instance;
-    
-    public AuthenticationService() {
+    private AuthenticationService() {
         this.users = new ConcurrentHashMap<>();
-        this.activeSessions = new ConcurrentHashMap<>();
-        
-        // Configuration Jackson pour JSON
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
-        this.objectMapper.configure(
-            com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false
-        );
+        this.activeSessions = new SessionManager(DUREE_SESSION, Path.of(SESSIONS_FILE));
         
         // Charger les utilisateurs existants
+        this.depot = creerDepot();
         loadUsers();
+        ouvrirJournalAcces();
+        
+        // Sessions encore valides du précédent lancement, puis éviction en arrière-plan
+        activeSessions.charger(email -> {
+            User user = users.get(email.toLowerCase().trim());
+            return user != null && user.isActif() ? user.toSafeUser() : null;
+        });
+        activeSessions.demarrer();
         
         // Créer un utilisateur admin par défaut si aucun utilisateur n'existe
         createDefaultUsers();
     }
     
+    /**
+     * Singleton initialisé à la demande par la classe Detenteur, sans verrou : une seule
+     * instance même si plusieurs threads se connectent au démarrage
+     */
+    private static final class Detenteur {
+        private static final AuthenticationService INSTANCE = new AuthenticationService();
+    }
+    
     public static AuthenticationService getInstance() {
-        if (instance == null) {
-            instance = new AuthenticationService();
-        }
-        return instance;
+        return Detenteur.INSTANCE;
     }
     
     /**
@@ -76,7 +99,7 @@ public class AuthenticationService {
         users.put(email, user);
         
         // Sauvegarder
-        saveUsers();
+        saveUser(user);
         
         System.out.println("✅ Utilisateur enregistré: " + user.getNom() + " (" + user.getRole() + ")");
         return true;
@@ -106,10 +129,10 @@ public class AuthenticationService {
             user.marquerAcces();
             
             // Stocker la session
-            activeSessions.put(sessionId, session);
+            activeSessions.ouvrir(session);
             
-            // Sauvegarder les modifications
-            saveUsers();
+            // Journaliser l'accès : pas de réécriture du fichier des utilisateurs
+            enregistrerAcces(emailKey, user);
             
             System.out.println("✅ Connexion réussie pour: " + user.getNom());
             return session;
@@ -123,7 +146,7 @@ public class AuthenticationService {
      * Déconnecte un utilisateur
      */
     public boolean logout(String sessionId) {
-        UserSession session = activeSessions.remove(sessionId);
+        UserSession session = activeSessions.fermer(sessionId);
         if (session != null) {
             System.out.println("✅ Déconnexion réussie pour: " + session.getUser().getNom());
             return true;
@@ -135,30 +158,15 @@ public class AuthenticationService {
      * Vérifie si une session est valide
      */
     public boolean isValidSession(String sessionId) {
-        UserSession session = activeSessions.get(sessionId);
-        if (session == null) {
-            return false;
-        }
-        
-        // Vérifier l'expiration (session valide pendant 24h)
-        LocalDateTime expiration = session.getDateConnexion().plusHours(24);
-        if (LocalDateTime.now().isAfter(expiration)) {
-            activeSessions.remove(sessionId);
-            return false;
-        }
-        
-        return true;
+        // Session valide pendant 24h ; une session expirée est retirée au passage
+        return activeSessions.obtenir(sessionId) != null;
     }
     
     /**
      * Récupère l'utilisateur d'une session
      */
     public User getUserFromSession(String sessionId) {
-        if (!isValidSession(sessionId)) {
-            return null;
-        }
-        
-        UserSession session = activeSessions.get(sessionId);
+        UserSession session = activeSessions.obtenir(sessionId);
         return session != null ? session.getUser() : null;
     }
     
@@ -184,7 +192,7 @@ public class AuthenticationService {
         }
         
         users.put(email, user);
-        saveUsers();
+        saveUser(user);
         return true;
     }
     
@@ -245,7 +253,7 @@ public class AuthenticationService {
         long activeUsers = users.values().stream().filter(User::isActif).count();
         long participants = users.values().stream().filter(User::isParticipant).count();
         long organisateurs = users.values().stream().filter(User::isOrganisateur).count();
-        long activeSessions = this.activeSessions.size();
+        long activeSessions = this.activeSessions.taille();
         
         stats.put("totalUsers", totalUsers);
         stats.put("activeUsers", activeUsers);
@@ -334,30 +342,167 @@ public class AuthenticationService {
         }
     }
     
+    /**
+     * Base JDBC si la propriété système gestion.evenements.jdbc.url est définie, snapshot binaire sinon
+     */
+    private UserRepository creerDepot() {
+        String url = System.getProperty(EventRepository.PROPRIETE_URL_JDBC);
+        if (url != null && !url.isBlank()) {
+            try {
+                UserRepository jdbc = new JdbcUserRepository(url);
+                System.out.println("🗄️ Utilisateurs persistés en base: " + url);
+                return jdbc;
+            } catch (IOException e) {
+                System.err.println("⚠️ Base indisponible, retour au fichier binaire: " + e.getMessage());
+            }
+        }
+        return new FichierUserRepository(USERS_BINARY_FILE);
+    }
+    
     private void loadUsers() {
         try {
             File file = new File(USERS_FILE);
-            if (file.exists()) {
-                Map<String, User> loadedUsers = objectMapper.readValue(file,
-                    objectMapper.getTypeFactory().constructMapType(HashMap.class, String.class, User.class));
-                users.putAll(loadedUsers);
+            // Génération précédente reprise si le snapshot courant est illisible
+            users.putAll(depot.chargerTout());
+            
+            if (users.isEmpty() && depot.ecrituresUnitaires()
+                    && SerializationManager.snapshotBinaireExiste(USERS_BINARY_FILE)) {
+                // Première ouverture de la base : reprendre le snapshot binaire existant
+                users.putAll(SerializationManager.chargerUtilisateursBinaire(USERS_BINARY_FILE));
+                depot.remplacerTout(users);
+            } else if (users.isEmpty() && file.exists()) {
+                // Installation antérieure au format binaire (avec ou sans en-tête de format)
+                users.putAll(SerializationManager.chargerUtilisateursJSON(USERS_FILE));
+            }
+            if (!users.isEmpty()) {
                 System.out.println("✅ " + users.size() + " utilisateurs chargés");
             }
         } catch (IOException e) {
             System.err.println("⚠️ Erreur lors du chargement des utilisateurs: " + e.getMessage());
-            // Continuer avec une map vide
+            // Aucun snapshot lisible : le conserver à part, puis continuer avec une map vide
+            if (!depot.ecrituresUnitaires()) {
+                SerializationManager.mettreEnQuarantaine(USERS_BINARY_FILE);
+            }
         }
     }
     
+    public SessionManager getSessionManager() {
+        return activeSessions;
+    }
+    
+    /**
+     * Arrêt : derniers accès compactés, sessions persistées pour le prochain lancement
+     */
+    public void arreter() {
+        compacterJournalAcces();
+        activeSessions.arreter();
+    }
+    
+    // ================================
+    // JOURNAL DES ACCÈS
+    // ================================
+    
+    /**
+     * Ouvre le journal des accès et applique les dates non encore compactées
+     */
+    private void ouvrirJournalAcces() {
+        try {
+            journalAcces = new JournalAcces(USERS_ACCESS_LOG);
+            Map<String, LocalDateTime> acces = journalAcces.rejouer();
+            acces.forEach((email, date) -> {
+                User user = users.get(email);
+                if (user != null && (user.getDernierAcces() == null || date.isAfter(user.getDernierAcces()))) {
+                    user.setDernierAcces(date);
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("⚠️ Journal des accès indisponible, sauvegarde à chaque connexion: " + e.getMessage());
+            journalAcces = null;
+        }
+    }
+    
+    private void enregistrerAcces(String email, User user) {
+        if (journalAcces == null) {
+            saveUser(user);
+            return;
+        }
+        try {
+            journalAcces.enregistrer(email, user.getDernierAcces());
+            if (journalAcces.getLignesDepuisCompaction() >= SEUIL_COMPACTION_ACCES
+                    && compactionEnCours.compareAndSet(false, true)) {
+                CompletableFuture.runAsync(() -> {
+                    try {
+                        compacterJournalAcces();
+                    } finally {
+                        compactionEnCours.set(false);
+                    }
+                });
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Accès non journalisé, sauvegarde directe: " + e.getMessage());
+            saveUser(user);
+        }
+    }
+    
+    /**
+     * Replie le journal des accès dans le dépôt des utilisateurs
+     * (une ligne par utilisateur concerné en base, le fichier complet sinon)
+     */
+    public void compacterJournalAcces() {
+        if (journalAcces == null) return;
+        try {
+            int compactes = journalAcces.compacter(acces -> {
+                if (depot.ecrituresUnitaires()) {
+                    for (String email : acces.keySet()) {
+                        User user = users.get(email);
+                        if (user != null) {
+                            depot.enregistrer(user);
+                        }
+                    }
+                } else {
+                    depot.remplacerTout(users);
+                }
+            });
+            if (compactes > 0) {
+                System.out.println("🧹 Journal des accès compacté: " + compactes + " utilisateurs");
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Erreur lors de la compaction du journal des accès: " + e.getMessage());
+        }
+    }
+    
+    // ================================
+    // PERSISTANCE
+    // ================================
+    
+    /**
+     * Réécrit tous les utilisateurs
+     */
     private void saveUsers() {
         try {
-            objectMapper.writeValue(new File(USERS_FILE), users);
+            // Binaire compact ou base ; le JSON reste disponible via SerializationManager.exporterUtilisateurs
+            depot.remplacerTout(users);
             System.out.println("✅ Utilisateurs sauvegardés");
         } catch (IOException e) {
             System.err.println("❌ Erreur lors de la sauvegarde des utilisateurs: " + e.getMessage());
         }
     }
     
+    /**
+     * Sauvegarde un seul utilisateur : une ligne en base, le fichier complet sinon
+     */
+    private void saveUser(User user) {
+        if (!depot.ecrituresUnitaires()) {
+            saveUsers();
+            return;
+        }
+        try {
+            depot.enregistrer(user);
+        } catch (IOException e) {
+            System.err.println("❌ Erreur lors de la sauvegarde de l'utilisateur " + user.getEmail() + ": " + e.getMessage());
+        }
+    }
+    
     /**
      * Classe interne pour gérer les sessions utilisateur
      */
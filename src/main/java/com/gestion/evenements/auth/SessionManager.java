@@ -0,0 +1,401 @@
+package com.gestion.evenements.auth;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import com.gestion.evenements.auth.AuthenticationService.UserSession;
+import com.gestion.evenements.util.RoueTemporelle;
+
+/**
+ * Sessions actives avec expiration par roue temporelle
+ *
+ * Ouvrir, fermer et vérifier une session coûtent O(1). Un balayeur en arrière-plan fait
+ * avancer la roue à chaque tick et évince les sessions arrivées à échéance, même si plus
+ * personne ne les consulte. Les sessions peuvent être persistées dans un fichier binaire
+ * compact pour survivre à un redémarrage ; le fichier est réécrit au balayage s'il y a eu
+ * des changements, jamais à chaque connexion.
+ *
+ * Les sessions sont indexées par l'empreinte SHA-256 de leur identifiant : le fichier ne
+ * contient que ces empreintes (lisibles par le seul propriétaire), un identifiant valide ne
+ * peut donc pas en être extrait.
+ */
+public class SessionManager {
+    private static final int MAGIC = 0x47534553; // "GSES"
+    private static final int VERSION = 2;
+    // Version 1 : identifiants en clair, relus et convertis en empreintes
+    private static final int VERSION_IDENTIFIANTS_EN_CLAIR = 1;
+    private static final int TAILLE_EMPREINTE = 32;
+    private static final HexFormat HEX = HexFormat.of();
+    public static final long TICK_PAR_DEFAUT_MS = 60_000;
+    private static final int NOMBRE_CASES = 512;
+
+    // Empreinte de l'identifiant -> session
+    private final Map<String, EntreeSession> sessions = new ConcurrentHashMap<>();
+    private final RoueTemporelle<String> roue;
+    private final long dureeSessionMs;
+    private final Path fichier;
+    private final LongSupplier horlogeMs;
+    private volatile boolean modifie;
+    private ScheduledExecutorService balayeur;
+
+    // Métriques
+    private final AtomicLong sessionsOuvertes = new AtomicLong();
+    private final AtomicLong sessionsFermees = new AtomicLong();
+    private final AtomicLong sessionsExpirees = new AtomicLong();
+    private final AtomicLong sessionsRestaurees = new AtomicLong();
+    private final AtomicLong balayages = new AtomicLong();
+
+    /**
+     * @param fichier fichier de persistance, ou null pour des sessions en mémoire seulement
+     */
+    public SessionManager(Duration dureeSession, Path fichier) {
+        this(dureeSession, TICK_PAR_DEFAUT_MS, fichier, System::currentTimeMillis);
+    }
+
+    /**
+     * @param horlogeMs horloge murale en millisecondes (les échéances persistées sont absolues)
+     */
+    public SessionManager(Duration dureeSession, long dureeTickMs, Path fichier, LongSupplier horlogeMs) {
+        this.dureeSessionMs = dureeSession.toMillis();
+        this.fichier = fichier;
+        this.horlogeMs = horlogeMs;
+        this.roue = new RoueTemporelle<>(NOMBRE_CASES, dureeTickMs, horlogeMs.getAsLong());
+    }
+
+    // ================================
+    // SESSIONS
+    // ================================
+
+    /**
+     * Ouvre une session expirant après la durée de session
+     */
+    public void ouvrir(UserSession session) {
+        inserer(session, horlogeMs.getAsLong() + dureeSessionMs);
+        sessionsOuvertes.incrementAndGet();
+    }
+
+    private void inserer(UserSession session, long expirationMs) {
+        inserer(empreinte(session.getSessionId()), session, expirationMs);
+    }
+
+    private void inserer(String empreinte, UserSession session, long expirationMs) {
+        sessions.put(empreinte, new EntreeSession(session, expirationMs));
+        roue.planifier(empreinte, expirationMs);
+        modifie = true;
+    }
+
+    /**
+     * Session valide, ou null si elle n'existe pas ou a expiré depuis le dernier balayage
+     */
+    public UserSession obtenir(String sessionId) {
+        if (sessionId == null) return null;
+        String empreinte = empreinte(sessionId);
+        EntreeSession entree = sessions.get(empreinte);
+        if (entree == null) {
+            return null;
+        }
+        if (horlogeMs.getAsLong() >= entree.expirationMs) {
+            if (sessions.remove(empreinte, entree)) {
+                roue.annuler(empreinte);
+                sessionsExpirees.incrementAndGet();
+                modifie = true;
+            }
+            return null;
+        }
+        return entree.session(sessionId);
+    }
+
+    /**
+     * Ferme une session (déconnexion)
+     *
+     * @return la session fermée, ou null si elle n'existait pas
+     */
+    public UserSession fermer(String sessionId) {
+        if (sessionId == null) return null;
+        String empreinte = empreinte(sessionId);
+        EntreeSession entree = sessions.remove(empreinte);
+        if (entree == null) {
+            return null;
+        }
+        roue.annuler(empreinte);
+        sessionsFermees.incrementAndGet();
+        modifie = true;
+        return entree.session(sessionId);
+    }
+
+    public int taille() {
+        return sessions.size();
+    }
+
+    // ================================
+    // BALAYAGE
+    // ================================
+
+    /**
+     * Évince les sessions arrivées à échéance et persiste les changements
+     *
+     * @return nombre de sessions évincées
+     */
+    public int balayer() {
+        List<String> expirees = roue.avancer(horlogeMs.getAsLong());
+        int evincees = 0;
+        for (String empreinte : expirees) {
+            if (sessions.remove(empreinte) != null) {
+                evincees++;
+            }
+        }
+        if (evincees > 0) {
+            sessionsExpirees.addAndGet(evincees);
+            modifie = true;
+        }
+        balayages.incrementAndGet();
+
+        if (modifie && fichier != null) {
+            try {
+                persister();
+            } catch (IOException e) {
+                System.err.println("⚠️ Erreur lors de la sauvegarde des sessions: " + e.getMessage());
+            }
+        }
+        return evincees;
+    }
+
+    /**
+     * Démarre le balayeur en arrière-plan, un passage par tick
+     */
+    public synchronized void demarrer() {
+        if (balayeur != null) return;
+        balayeur = Executors.newSingleThreadScheduledExecutor(tache -> {
+            Thread thread = new Thread(tache, "balayeur-sessions");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long tick = roue.getDureeTickMs();
+        balayeur.scheduleWithFixedDelay(this::balayer, tick, tick, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Arrête le balayeur et persiste les sessions restantes
+     */
+    public synchronized void arreter() {
+        if (balayeur != null) {
+            balayeur.shutdownNow();
+            balayeur = null;
+        }
+        if (fichier != null) {
+            try {
+                persister();
+            } catch (IOException e) {
+                System.err.println("⚠️ Erreur lors de la sauvegarde des sessions: " + e.getMessage());
+            }
+        }
+    }
+
+    // ================================
+    // PERSISTANCE
+    // ================================
+
+    /**
+     * Écrit les sessions dans le fichier (temporaire synchronisé sur disque puis renommage atomique)
+     * Seuls l'empreinte de l'identifiant et l'email de l'utilisateur sont conservés : la session
+     * est reconstruite à partir du compte. Le fichier n'est lisible que par son propriétaire
+     * quand le système de fichiers gère les permissions POSIX.
+     */
+    public synchronized void persister() throws IOException {
+        if (fichier == null) return;
+        modifie = false;
+        Path temporaire = fichier.resolveSibling(fichier.getFileName() + ".tmp");
+        Files.deleteIfExists(temporaire);
+        try (FileChannel canal = FileChannel.open(temporaire, Set.of(StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE), permissionsProprietaire())) {
+            DataOutputStream sortie = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(canal)));
+            List<Map.Entry<String, EntreeSession>> entrees = List.copyOf(sessions.entrySet());
+            sortie.writeInt(MAGIC);
+            sortie.writeByte(VERSION);
+            sortie.writeInt(entrees.size());
+            for (Map.Entry<String, EntreeSession> entree : entrees) {
+                UserSession session = entree.getValue().session;
+                sortie.write(HEX.parseHex(entree.getKey()));
+                sortie.writeUTF(session.getUser().getEmail());
+                sortie.writeLong(session.getDateConnexion().toEpochSecond(ZoneOffset.UTC));
+                sortie.writeInt(session.getDateConnexion().getNano());
+                sortie.writeLong(entree.getValue().expirationMs);
+            }
+            sortie.flush();
+            // Contenu durable avant le renommage : une coupure ne laisse jamais un fichier vide
+            canal.force(true);
+        }
+        Files.move(temporaire, fichier, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static FileAttribute<?>[] permissionsProprietaire() {
+        if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            return new FileAttribute<?>[0];
+        }
+        return new FileAttribute<?>[] { PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")) };
+    }
+
+    /**
+     * Restaure les sessions persistées encore valides
+     * Un fichier de la version 1 (identifiants en clair) est relu ; il sera réécrit avec les
+     * empreintes au prochain balayage.
+     *
+     * @param utilisateurs compte (version sécurisée) associé à un email, ou null s'il n'existe plus
+     * @return nombre de sessions restaurées
+     */
+    public int charger(Function<String, User> utilisateurs) {
+        if (fichier == null) return 0;
+        int restaurees = 0;
+        long maintenant = horlogeMs.getAsLong();
+        try (DataInputStream entree = new DataInputStream(new BufferedInputStream(Files.newInputStream(fichier)))) {
+            if (entree.readInt() != MAGIC) {
+                throw new IOException("Fichier de sessions non reconnu");
+            }
+            int version = entree.readUnsignedByte();
+            if (version != VERSION && version != VERSION_IDENTIFIANTS_EN_CLAIR) {
+                throw new IOException("Version de fichier de sessions non reconnue: " + version);
+            }
+            int nombre = entree.readInt();
+            for (int i = 0; i < nombre; i++) {
+                String empreinte;
+                if (version == VERSION_IDENTIFIANTS_EN_CLAIR) {
+                    empreinte = empreinte(entree.readUTF());
+                } else {
+                    byte[] octets = new byte[TAILLE_EMPREINTE];
+                    entree.readFully(octets);
+                    empreinte = HEX.formatHex(octets);
+                }
+                String email = entree.readUTF();
+                LocalDateTime dateConnexion = LocalDateTime.ofEpochSecond(entree.readLong(), entree.readInt(), ZoneOffset.UTC);
+                long expirationMs = entree.readLong();
+
+                User user = utilisateurs.apply(email);
+                if (expirationMs > maintenant && user != null) {
+                    // Identifiant inconnu jusqu'à ce que le client le présente
+                    inserer(empreinte, new UserSession(null, user, dateConnexion), expirationMs);
+                    restaurees++;
+                }
+            }
+            if (version == VERSION_IDENTIFIANTS_EN_CLAIR) {
+                modifie = true;
+            }
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (IOException e) {
+            System.err.println("⚠️ Sessions persistées illisibles, ignorées: " + e.getMessage());
+        }
+        sessionsRestaurees.addAndGet(restaurees);
+        if (restaurees > 0) {
+            System.out.println("🔑 " + restaurees + " sessions restaurées");
+        }
+        return restaurees;
+    }
+
+    /**
+     * Empreinte SHA-256 de l'identifiant, en hexadécimal : clé des sessions en mémoire et sur disque
+     */
+    private static String empreinte(String sessionId) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HEX.formatHex(digest.digest(sessionId.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    // ================================
+    // MÉTRIQUES
+    // ================================
+
+    public Statistiques getStatistiques() {
+        return new Statistiques(sessions.size(), sessionsOuvertes.get(), sessionsFermees.get(),
+            sessionsExpirees.get(), sessionsRestaurees.get(), balayages.get());
+    }
+
+    /**
+     * Instantané des compteurs de sessions
+     */
+    public static class Statistiques {
+        private final long sessionsActives;
+        private final long sessionsOuvertes;
+        private final long sessionsFermees;
+        private final long sessionsExpirees;
+        private final long sessionsRestaurees;
+        private final long balayages;
+
+        Statistiques(long sessionsActives, long sessionsOuvertes, long sessionsFermees,
+                     long sessionsExpirees, long sessionsRestaurees, long balayages) {
+            this.sessionsActives = sessionsActives;
+            this.sessionsOuvertes = sessionsOuvertes;
+            this.sessionsFermees = sessionsFermees;
+            this.sessionsExpirees = sessionsExpirees;
+            this.sessionsRestaurees = sessionsRestaurees;
+            this.balayages = balayages;
+        }
+
+        // Getters
+        public long getSessionsActives() { return sessionsActives; }
+        public long getSessionsOuvertes() { return sessionsOuvertes; }
+        public long getSessionsFermees() { return sessionsFermees; }
+        public long getSessionsExpirees() { return sessionsExpirees; }
+        public long getSessionsRestaurees() { return sessionsRestaurees; }
+        public long getBalayages() { return balayages; }
+
+        @Override
+        public String toString() {
+            return String.format("Sessions{actives=%d, ouvertes=%d, fermees=%d, expirees=%d, restaurees=%d}",
+                sessionsActives, sessionsOuvertes, sessionsFermees, sessionsExpirees, sessionsRestaurees);
+        }
+    }
+
+    private static class EntreeSession {
+        final UserSession session;
+        final long expirationMs;
+
+        EntreeSession(UserSession session, long expirationMs) {
+            this.session = session;
+            this.expirationMs = expirationMs;
+        }
+
+        /**
+         * Session restaurée : l'identifiant présenté par le client (dont l'empreinte correspond)
+         * complète la session reconstruite
+         */
+        UserSession session(String sessionId) {
+            if (session.getSessionId() == null) {
+                session.setSessionId(sessionId);
+            }
+            return session;
+        }
+    }
+}
@@ -48,8 +48,8 @@ public class OrganisateurController {
         );
         
         // Associer quelques événements existants aux organisateurs (simulation)
-        if (!gestionEvenements.getEvenements().isEmpty()) {
-            List<Evenement> events = gestionEvenements.getEvenements().values().stream().collect(Collectors.toList());
+        if (!gestionEvenements.getCatalogue().isEmpty()) {
+            List<Evenement> events = gestionEvenements.getCatalogue().values().stream().collect(Collectors.toList());
             for (int i = 0; i < Math.min(events.size(), organisateurs.size()); i++) {
                 organisateurs.get(i % organisateurs.size()).organiserEvenement(events.get(i));
             }
@@ -60,7 +60,7 @@ public class OrganisateurController {
         this.uiObserver = new UIObserver(statusLabel, this::refreshOrganizersList);
         
         // Ajouter l'observer à tous les événements pour être notifié des changements
-        for (Evenement evenement : gestionEvenements.getEvenements().values()) {
+        for (Evenement evenement : gestionEvenements.getCatalogue().values()) {
             evenement.ajouterObservateur(uiObserver);
         }
     }
@@ -330,7 +330,7 @@ public class OrganisateurController {
             for (Evenement evenement : organisateur.getEvenementsOrganises()) {
                 details.append("- ").append(evenement.getNom())
                        .append(" (").append(evenement.getDate().toLocalDate())
-                       .append(", ").append(evenement.getParticipants().size()).append(" participants)\n");
+                       .append(", ").append(evenement.getNombreParticipants()).append(" participants)\n");
             }
         } else {
             details.append("Aucun événement assigné pour le moment.");
@@ -389,7 +389,7 @@ public class OrganisateurController {
     
     private void assignEventToOrganizer(Organisateur organisateur) {
         // Afficher la liste des événements non encore assignés à cet organisateur
-        List<Evenement> availableEvents = gestionEvenements.getEvenements().values().stream()
+        List<Evenement> availableEvents = gestionEvenements.getCatalogue().values().stream()
             .filter(e -> !organisateur.getEvenementsOrganises().contains(e))
             .collect(Collectors.toList());
         
@@ -441,7 +441,7 @@ public class OrganisateurController {
             eventsList.append("• ").append(evenement.getNom()).append("\n");
             eventsList.append("  Date: ").append(evenement.getDate().toLocalDate()).append("\n");
             eventsList.append("  Lieu: ").append(evenement.getLieu()).append("\n");
-            eventsList.append("  Participants: ").append(evenement.getParticipants().size())
+            eventsList.append("  Participants: ").append(evenement.getNombreParticipants())
                       .append("/").append(evenement.getCapaciteMax()).append("\n\n");
         }
         
@@ -488,7 +488,7 @@ public class OrganisateurController {
             return;
         }
         
-        if (gestionEvenements.getEvenements().isEmpty()) {
+        if (gestionEvenements.getCatalogue().isEmpty()) {
             showInfo("Aucun événement disponible");
             return;
         }
@@ -517,7 +517,7 @@ public class OrganisateurController {
         });
         
         ComboBox<Evenement> eventCombo = new ComboBox<>();
-        eventCombo.getItems().addAll(gestionEvenements.getEvenements().values());
+        eventCombo.getItems().addAll(gestionEvenements.getCatalogue().values());
         eventCombo.getStyleClass().add("search-field");
         eventCombo.setConverter(new javafx.util.StringConverter<Evenement>() {
             @Override
@@ -600,7 +600,7 @@ public class OrganisateurController {
             
             if (!org.getEvenementsOrganises().isEmpty()) {
                 int totalParticipants = org.getEvenementsOrganises().stream()
-                    .mapToInt(e -> e.getParticipants().size())
+                    .mapToInt(e -> e.getNombreParticipants())
                     .sum();
                 report.append("Participants totaux: ").append(totalParticipants).append("\n");
             }
@@ -1,16 +1,25 @@
 package com.gestion.evenements.controller;
 
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.stage.Modality;
 import javafx.scene.Scene;
 
 import com.gestion.evenements.model.*;
 import com.gestion.evenements.observer.UIObserver;
+import com.gestion.evenements.serialization.export.ExportEnFlux;
+import com.gestion.evenements.serialization.importation.ImportParticipantsCsv;
+import com.gestion.evenements.serialization.importation.RapportImport;
+import com.gestion.evenements.util.DataSynchronizer;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -21,6 +30,7 @@ public class ParticipantController {
     private Label statusLabel;
     private UIObserver uiObserver;
     private GestionEvenements gestionEvenements;
+    private DataSynchronizer dataSynchronizer;
     
     // Statistiques dynamiques
     private Label totalParticipantsLabel;
@@ -29,6 +39,7 @@ public class ParticipantController {
     
     public ParticipantController() {
         this.gestionEvenements = GestionEvenements.getInstance();
+        this.dataSynchronizer = DataSynchronizer.getInstance();
         createView();
         setupObserver();
         refreshParticipantsList();
@@ -39,7 +50,7 @@ public class ParticipantController {
         this.uiObserver = new UIObserver(statusLabel, this::refreshParticipantsList);
         
         // Ajouter l'observer à tous les événements pour être notifié des changements de participants
-        for (Evenement evenement : gestionEvenements.getEvenements().values()) {
+        for (Evenement evenement : gestionEvenements.getCatalogue().values()) {
             evenement.ajouterObservateur(uiObserver);
         }
     }
@@ -158,7 +169,7 @@ public class ParticipantController {
         participantsContainer.getChildren().clear();
         
         // Récupérer tous les participants uniques de tous les événements
-        List<Participant> allParticipants = gestionEvenements.getEvenements().values().stream()
+        List<Participant> allParticipants = gestionEvenements.getCatalogue().values().stream()
             .flatMap(e -> e.getParticipants().stream())
             .distinct()
             .collect(Collectors.toList());
@@ -194,8 +205,8 @@ public class ParticipantController {
         emailLabel.getStyleClass().add("event-date");
         
         // Compter dans combien d'événements ce participant est inscrit
-        long eventCount = gestionEvenements.getEvenements().values().stream()
-            .filter(e -> e.getParticipants().contains(participant))
+        long eventCount = gestionEvenements.getCatalogue().values().stream()
+            .filter(e -> e.estInscrit(participant))
             .count();
         
         Label eventsLabel = new Label("Inscrit à " + eventCount + " événement(s)");
@@ -251,7 +262,7 @@ public class ParticipantController {
         eventCombo.getStyleClass().add("search-field");
         
         // Remplir la liste des événements
-        for (Evenement evenement : gestionEvenements.getEvenements().values()) {
+        for (Evenement evenement : gestionEvenements.getCatalogue().values()) {
             eventCombo.getItems().add(evenement.getNom() + " - " + evenement.getId());
         }
         
@@ -303,7 +314,7 @@ public class ParticipantController {
             Evenement evenement = gestionEvenements.rechercherEvenement(eventId);
             if (evenement != null) {
                 try {
-                    evenement.ajouterParticipant(participant);
+                    dataSynchronizer.inscrireParticipantAvecSync(evenement, participant);
                 } catch (Exception e) {
                     throw new RuntimeException("Erreur lors de l'ajout à l'événement: " + e.getMessage());
                 }
@@ -323,8 +334,8 @@ public class ParticipantController {
         details.append("Email: ").append(participant.getEmail()).append("\n\n");
         
         details.append("Événements inscrits:\n");
-        for (Evenement evenement : gestionEvenements.getEvenements().values()) {
-            if (evenement.getParticipants().contains(participant)) {
+        for (Evenement evenement : gestionEvenements.getCatalogue().values()) {
+            if (evenement.estInscrit(participant)) {
                 details.append("- ").append(evenement.getNom())
                        .append(" (").append(evenement.getDate().toLocalDate()).append(")\n");
             }
@@ -383,8 +394,8 @@ public class ParticipantController {
     
     private void addParticipantToEvent(Participant participant) {
         // Afficher la liste des événements où le participant n'est pas encore inscrit
-        List<Evenement> availableEvents = gestionEvenements.getEvenements().values().stream()
-            .filter(e -> !e.getParticipants().contains(participant))
+        List<Evenement> availableEvents = gestionEvenements.getCatalogue().values().stream()
+            .filter(e -> !e.estInscrit(participant))
             .collect(Collectors.toList());
         
         if (availableEvents.isEmpty()) {
@@ -405,7 +416,9 @@ public class ParticipantController {
         Optional<Evenement> result = dialog.showAndWait();
         result.ifPresent(evenement -> {
             try {
-                evenement.ajouterParticipant(participant);
+                if (!dataSynchronizer.inscrireParticipantAvecSync(evenement, participant)) {
+                    showError(participant.getNom() + " est déjà inscrit à " + evenement.getNom());
+                }
             } catch (Exception e) {
                 showError("Erreur lors de l'inscription: " + e.getMessage());
             }
@@ -422,9 +435,9 @@ public class ParticipantController {
         Optional<ButtonType> result = confirmation.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
             // Retirer le participant de tous les événements
-            for (Evenement evenement : gestionEvenements.getEvenements().values()) {
-                if (evenement.getParticipants().contains(participant)) {
-                    evenement.retirerParticipant(participant);
+            for (Evenement evenement : gestionEvenements.getCatalogue().values()) {
+                if (evenement.estInscrit(participant)) {
+                    dataSynchronizer.desinscrireParticipantAvecSync(evenement, participant);
                 }
             }
         }
@@ -437,7 +450,7 @@ public class ParticipantController {
     
     private void updateStatistics() {
         // Récupérer tous les participants uniques
-        List<Participant> allParticipants = gestionEvenements.getEvenements().values().stream()
+        List<Participant> allParticipants = gestionEvenements.getCatalogue().values().stream()
             .flatMap(e -> e.getParticipants().stream())
             .distinct()
             .collect(Collectors.toList());
@@ -445,8 +458,8 @@ public class ParticipantController {
         int totalParticipants = allParticipants.size();
         int activeParticipants = totalParticipants; // Tous sont considérés actifs pour l'instant
         
-        int totalInscriptions = gestionEvenements.getEvenements().values().stream()
-            .mapToInt(e -> e.getParticipants().size())
+        int totalInscriptions = gestionEvenements.getCatalogue().values().stream()
+            .mapToInt(e -> e.getNombreParticipants())
             .sum();
         
         totalParticipantsLabel.setText(String.valueOf(totalParticipants));
@@ -454,8 +467,62 @@ public class ParticipantController {
         eventParticipationsLabel.setText(String.valueOf(totalInscriptions));
     }
     
+    /**
+     * Import CSV (evenementId,id,nom,email) en arrière-plan ; un seul bilan à la fin,
+     * les lignes rejetées sont détaillées dans un rapport CSV
+     */
     private void importParticipants() {
-        showInfo("Fonctionnalité d'import à implémenter");
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Importer des participants");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV", "*.csv"));
+        File fichier = chooser.showOpenDialog(view.getScene() != null ? view.getScene().getWindow() : null);
+        if (fichier == null) {
+            return;
+        }
+        
+        statusLabel.setText("Import en cours: " + fichier.getName() + "...");
+        CatalogueInstantane catalogue = gestionEvenements.getCatalogue();
+        Thread importeur = new Thread(() -> {
+            try {
+                RapportImport rapport = new ImportParticipantsCsv().importer(
+                    fichier.toPath(), catalogue, dataSynchronizer::inscrireParticipantsEnMasseAvecSync);
+                Path rapportErreurs = null;
+                if (!rapport.getErreurs().isEmpty()) {
+                    rapportErreurs = Path.of(ExportEnFlux.DOSSIER_EXPORTS,
+                        "import_erreurs_" + System.currentTimeMillis() + ".csv");
+                    rapport.ecrireErreurs(rapportErreurs);
+                }
+                Path fichierErreurs = rapportErreurs;
+                Platform.runLater(() -> {
+                    refreshParticipantsList();
+                    statusLabel.setText("Import terminé: " + rapport.getInscrits() + " inscriptions");
+                    showInfo(resumerImport(rapport, fichierErreurs));
+                });
+            } catch (IOException e) {
+                Platform.runLater(() -> {
+                    statusLabel.setText("Import échoué");
+                    showError("Erreur lors de l'import: " + e.getMessage());
+                });
+            }
+        }, "import-participants");
+        importeur.setDaemon(true);
+        importeur.start();
+    }
+    
+    private String resumerImport(RapportImport rapport, Path fichierErreurs) {
+        StringBuilder resume = new StringBuilder()
+            .append(rapport.getLignesLues()).append(" lignes lues, ")
+            .append(rapport.getInscrits()).append(" inscriptions sur ")
+            .append(rapport.getEvenementsModifies()).append(" événements, ")
+            .append(rapport.getErreurs().size()).append(" lignes rejetées");
+        if (fichierErreurs != null) {
+            resume.append("\n\nDétail des erreurs: ").append(fichierErreurs);
+            rapport.getErreurs().stream().limit(5).forEach(erreur -> resume.append("\n").append(erreur));
+            if (rapport.getErreurs().size() > 5) {
+                resume.append("\n...");
+            }
+        }
+        return resume.toString();
     }
     
     private void exportParticipants() {
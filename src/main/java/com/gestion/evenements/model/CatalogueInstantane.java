@@ -0,0 +1,121 @@
+package com.gestion.evenements.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import com.gestion.evenements.util.MapPersistante;
+
+/**
+ * Version immuable du catalogue d'événements
+ *
+ * Obtenue en O(1) auprès de GestionEvenements.getCatalogue(), elle ne change plus :
+ * statistiques, sérialiseurs et vues la parcourent sans verrou ni risque de
+ * ConcurrentModificationException pendant que les écrivains publient les versions suivantes.
+ * Seule la structure du catalogue est figée ; les événements restent les objets du modèle.
+ */
+public final class CatalogueInstantane extends AbstractMap<String, Evenement> {
+    static final CatalogueInstantane VIDE = new CatalogueInstantane(MapPersistante.vide(), 0);
+
+    private final MapPersistante<String, Evenement> evenements;
+    // Vue figée fournie par le stockage (catalogue mappé), null pour les versions persistantes
+    private final Map<String, Evenement> vue;
+    private final long version;
+    private Set<Map.Entry<String, Evenement>> entrees;
+
+    private CatalogueInstantane(MapPersistante<String, Evenement> evenements, long version) {
+        this.evenements = evenements;
+        this.vue = null;
+        this.version = version;
+    }
+
+    private CatalogueInstantane(Map<String, Evenement> vue) {
+        this.evenements = null;
+        this.vue = vue;
+        this.version = 0;
+    }
+
+    /**
+     * Instantané d'une map quelconque (copie O(n)), pour les stockages sans versions
+     */
+    public static CatalogueInstantane copier(Map<String, Evenement> evenements) {
+        MapPersistante<String, Evenement> copie = MapPersistante.vide();
+        for (Map.Entry<String, Evenement> entree : evenements.entrySet()) {
+            copie = copie.avec(entree.getKey(), entree.getValue());
+        }
+        return new CatalogueInstantane(copie, 0);
+    }
+
+    /**
+     * Instantané adossé à une vue que le stockage a déjà figée (O(1), sans copie) ; la structure
+     * de la vue ne doit plus changer, ses valeurs peuvent être décodées au premier accès
+     */
+    public static CatalogueInstantane surVue(Map<String, Evenement> vueFigee) {
+        return new CatalogueInstantane(vueFigee);
+    }
+
+    /**
+     * Numéro de version, incrémenté à chaque publication du catalogue
+     */
+    public long getVersion() { return version; }
+
+    // ================================
+    // VERSIONS SUIVANTES (stockage copy-on-write)
+    // ================================
+
+    CatalogueInstantane avec(String cle, Evenement evenement) {
+        return new CatalogueInstantane(evenements.avec(cle, evenement), version + 1);
+    }
+
+    CatalogueInstantane sans(String cle) {
+        MapPersistante<String, Evenement> reste = evenements.sans(cle);
+        return reste == evenements ? this : new CatalogueInstantane(reste, version + 1);
+    }
+
+    CatalogueInstantane vider() {
+        return new CatalogueInstantane(MapPersistante.vide(), version + 1);
+    }
+
+    // ================================
+    // LECTURE (Map non modifiable)
+    // ================================
+
+    @Override
+    public Evenement get(Object cle) {
+        return vue != null ? vue.get(cle) : evenements.get(cle);
+    }
+
+    @Override
+    public boolean containsKey(Object cle) {
+        return vue != null ? vue.containsKey(cle) : evenements.contient(cle);
+    }
+
+    @Override
+    public int size() {
+        return vue != null ? vue.size() : evenements.taille();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Evenement>> entrySet() {
+        if (vue != null) {
+            return Collections.unmodifiableSet(vue.entrySet());
+        }
+        if (entrees == null) {
+            entrees = new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<String, Evenement>> iterator() {
+                    return evenements.iterator();
+                }
+
+                @Override
+                public int size() {
+                    return evenements.taille();
+                }
+            };
+        }
+        return entrees;
+    }
+}
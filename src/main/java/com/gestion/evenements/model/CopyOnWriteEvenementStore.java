@@ -0,0 +1,132 @@
+package com.gestion.evenements.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stockage du catalogue par versions immuables publiées atomiquement
+ *
+ * Chaque écriture construit la version suivante (seul le chemin modifié est recopié)
+ * puis la publie par compare-and-set ; les lectures et les instantanés ne prennent
+ * aucun verrou. C'est le stockage par défaut de GestionEvenements.
+ */
+public class CopyOnWriteEvenementStore implements EvenementStore {
+    private final AtomicReference<CatalogueInstantane> courant = new AtomicReference<>(CatalogueInstantane.VIDE);
+    private final VueMap vue = new VueMap();
+
+    @Override
+    public Evenement rechercher(String id) { return courant.get().get(id); }
+
+    @Override
+    public boolean contient(String id) { return courant.get().containsKey(id); }
+
+    @Override
+    public void ajouter(Evenement evenement) {
+        remplacer(evenement.getId(), evenement);
+    }
+
+    @Override
+    public boolean ajouterSiAbsent(Evenement evenement) {
+        while (true) {
+            CatalogueInstantane version = courant.get();
+            if (version.containsKey(evenement.getId())) {
+                return false;
+            }
+            if (courant.compareAndSet(version, version.avec(evenement.getId(), evenement))) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public Evenement supprimer(String id) {
+        while (true) {
+            CatalogueInstantane version = courant.get();
+            Evenement ancien = version.get(id);
+            if (ancien == null || courant.compareAndSet(version, version.sans(id))) {
+                return ancien;
+            }
+        }
+    }
+
+    @Override
+    public int taille() { return courant.get().size(); }
+
+    @Override
+    public CatalogueInstantane instantane() { return courant.get(); }
+
+    @Override
+    public Map<String, Evenement> vueMap() { return vue; }
+
+    private Evenement remplacer(String cle, Evenement evenement) {
+        while (true) {
+            CatalogueInstantane version = courant.get();
+            if (courant.compareAndSet(version, version.avec(cle, evenement))) {
+                return version.get(cle);
+            }
+        }
+    }
+
+    /**
+     * Vue modifiable pour les appelants historiques : chaque lecture porte sur la version
+     * courante, chaque écriture publie une nouvelle version, et un parcours reste sur la
+     * version en cours au moment où il a commencé
+     */
+    private class VueMap extends AbstractMap<String, Evenement> {
+        @Override
+        public Evenement get(Object cle) { return courant.get().get(cle); }
+
+        @Override
+        public boolean containsKey(Object cle) { return courant.get().containsKey(cle); }
+
+        @Override
+        public Evenement put(String cle, Evenement evenement) { return remplacer(cle, evenement); }
+
+        @Override
+        public Evenement remove(Object cle) { return cle instanceof String ? supprimer((String) cle) : null; }
+
+        @Override
+        public void clear() { courant.updateAndGet(CatalogueInstantane::vider); }
+
+        @Override
+        public int size() { return courant.get().size(); }
+
+        @Override
+        public Set<Entry<String, Evenement>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Evenement>> iterator() {
+                    Iterator<Entry<String, Evenement>> parcours = courant.get().entrySet().iterator();
+                    return new Iterator<>() {
+                        private Entry<String, Evenement> derniere;
+
+                        @Override
+                        public boolean hasNext() { return parcours.hasNext(); }
+
+                        @Override
+                        public Entry<String, Evenement> next() {
+                            derniere = parcours.next();
+                            return derniere;
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (derniere == null) {
+                                throw new IllegalStateException();
+                            }
+                            supprimer(derniere.getKey());
+                            derniere = null;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() { return courant.get().size(); }
+            };
+        }
+    }
+}
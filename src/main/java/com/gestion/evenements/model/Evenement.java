@@ -10,6 +10,11 @@ import com.gestion.evenements.model.evenementparticulier.Concert;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import com.fasterxml.jackson.annotation.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -28,11 +33,22 @@ public abstract class Evenement implements EvenementObservable {
     protected String lieu;
     protected int capaciteMax;
     protected List<Participant> participants;
+    @JsonIgnore
     public List<ParticipantObserver> observers;
+    // Places réservées, séparées de la liste : la capacité se contrôle par CAS, sans verrou ;
+    // la liste n'est modifiée qu'une fois la place obtenue
+    private final transient AtomicInteger placesReservees = new AtomicInteger();
+    // Protège uniquement la liste des participants (ajout ou retrait, jamais la capacité)
+    private final transient Object verrouInscriptions = new Object();
+    // Suivi des modifications pour les snapshots incrémentaux (non persisté)
+    private final transient AtomicLong versionModification = new AtomicLong();
+    // Sous-ensemble : modifications hors inscriptions (nom, date, lieu, capacité, champs des sous-types)
+    private final transient AtomicLong versionEntete = new AtomicLong();
 
     public Evenement() {
-        this.participants = new ArrayList<>();
-        this.observers = new ArrayList<>();
+        this.participants = new ParticipantsInscrits();
+        // Notifié depuis plusieurs threads, rarement modifié
+        this.observers = new CopyOnWriteArrayList<>();
     }
 
     public Evenement(String id, String nom, LocalDateTime date, String lieu, int capaciteMax) {
@@ -44,19 +60,299 @@ public abstract class Evenement implements EvenementObservable {
         this.capaciteMax = capaciteMax;
     }
 
-    public void ajouterParticipant(Participant participant) throws CapaciteMaxAtteinteException {
-        if (participants.size() >= capaciteMax) {
+    /**
+     * @return faux si le participant était déjà inscrit : aucune place consommée, aucune notification
+     */
+    public boolean ajouterParticipant(Participant participant) throws CapaciteMaxAtteinteException {
+        return ajouterParticipant(participant, inscrit -> Boolean.TRUE) != null;
+    }
+
+    /**
+     * Inscription avec une action exécutée sous le verrou d'inscriptions, seulement si le
+     * participant est ajouté : la journalisation suit ainsi l'ordre des modifications de la liste.
+     * Le contrôle de capacité se fait avant, sans verrou ; un événement complet refuse donc
+     * aussi une personne déjà inscrite.
+     *
+     * @return résultat de l'action (jamais null), null si le participant était déjà inscrit
+     */
+    public <R> R ajouterParticipant(Participant participant, Function<Participant, R> sousVerrou)
+            throws CapaciteMaxAtteinteException {
+        // Complet : refus immédiat, sans toucher au verrou de la liste
+        if (!reserverPlaces(1)) {
             throw new CapaciteMaxAtteinteException("Capacité maximale atteinte pour l'événement " + nom);
         }
-        participants.add(participant);
+        R resultat = null;
+        boolean ajoute = false;
+        try {
+            synchronized (verrouInscriptions) {
+                // Doublon détecté par l'index lui-même : une seule prise du verrou par inscription
+                ajoute = participants.add(participant);
+                if (ajoute) {
+                    resultat = sousVerrou.apply(participant);
+                }
+            }
+        } finally {
+            if (!ajoute) {
+                placesReservees.decrementAndGet();
+            }
+        }
+        if (!ajoute) {
+            return null;
+        }
+        marquerModifie();
+        // Observateurs notifiés hors du verrou : une notification lente ne bloque pas les inscriptions
         notifierObservateurs("Nouveau participant ajouté: " + participant.getNom());
+        return resultat;
+    }
+
+    /**
+     * Inscrit un lot de participants : une seule vérification de capacité, une seule notification
+     * Les personnes déjà inscrites (ou en double dans le lot) sont écartées avant de réserver :
+     * seules les nouvelles inscriptions comptent dans la capacité.
+     *
+     * @return nombre de participants effectivement inscrits
+     */
+    public int ajouterParticipants(Collection<Participant> nouveaux) throws CapaciteMaxAtteinteException {
+        List<Participant> aInscrire = nonInscrits(nouveaux);
+        if (aInscrire.isEmpty()) {
+            return 0;
+        }
+        if (!reserverPlaces(aInscrire.size())) {
+            throw new CapaciteMaxAtteinteException("Capacité maximale atteinte pour l'événement " + nom);
+        }
+        return inscrireReserves(aInscrire, aInscrire.size()).size();
+    }
+
+    /**
+     * Inscrit un lot dans la limite des places restantes, dans l'ordre du lot : un événement
+     * presque complet admet les premiers au lieu de refuser tout le lot. Même déduplication
+     * que ajouterParticipants.
+     *
+     * @return participants effectivement inscrits, dans l'ordre du lot
+     */
+    public List<Participant> ajouterParticipantsDansLaLimite(Collection<Participant> nouveaux) {
+        List<Participant> aInscrire = nonInscrits(nouveaux);
+        if (aInscrire.isEmpty()) {
+            return List.of();
+        }
+        int places = reserverPlacesJusqua(aInscrire.size());
+        if (places == 0) {
+            return List.of();
+        }
+        return inscrireReserves(aInscrire, places);
+    }
+
+    /**
+     * Participants du lot pas encore inscrits, doublons du lot retirés
+     */
+    private List<Participant> nonInscrits(Collection<Participant> nouveaux) {
+        if (nouveaux.isEmpty()) {
+            return List.of();
+        }
+        synchronized (verrouInscriptions) {
+            ParticipantsInscrits lot = new ParticipantsInscrits(nouveaux.size());
+            for (Participant participant : nouveaux) {
+                if (!participants.contains(participant)) {
+                    lot.add(participant);
+                }
+            }
+            return new ArrayList<>(lot);
+        }
+    }
+
+    /**
+     * Ajoute au plus {@code places} participants sur des places déjà réservées ;
+     * les places non utilisées sont rendues
+     */
+    private List<Participant> inscrireReserves(List<Participant> aInscrire, int places) {
+        List<Participant> ajoutes = new ArrayList<>(places);
+        try {
+            synchronized (verrouInscriptions) {
+                for (Participant participant : aInscrire) {
+                    if (ajoutes.size() == places) {
+                        break;
+                    }
+                    // Une inscription unitaire a pu précéder le lot entre les deux verrous
+                    if (participants.add(participant)) {
+                        ajoutes.add(participant);
+                    }
+                }
+            }
+        } finally {
+            placesReservees.addAndGet(ajoutes.size() - places);
+        }
+        if (!ajoutes.isEmpty()) {
+            marquerModifie();
+            notifierObservateurs(ajoutes.size() + " nouveaux participants ajoutés");
+        }
+        return ajoutes;
     }
 
     public void retirerParticipant(Participant participant) {
-        participants.remove(participant);
+        retirerParticipant(participant, retire -> Boolean.TRUE);
+    }
+
+    /**
+     * Désinscription avec une action exécutée sous le verrou d'inscriptions si le participant
+     * est effectivement retiré
+     *
+     * @return résultat de l'action, null si le participant n'était pas inscrit
+     */
+    public <R> R retirerParticipant(Participant participant, Function<Participant, R> sousVerrou) {
+        R resultat = null;
+        synchronized (verrouInscriptions) {
+            if (participants.remove(participant)) {
+                resultat = sousVerrou.apply(participant);
+                // Place rendue seulement une fois le participant effectivement retiré
+                placesReservees.decrementAndGet();
+            }
+        }
+        if (resultat != null) {
+            marquerModifie();
+        }
         notifierObservateurs("Participant retiré: " + participant.getNom());
+        return resultat;
+    }
+
+    /**
+     * Remplace un inscrit par une autre instance, à la même position et sans rendre sa place :
+     * aucune inscription concurrente ne peut la prendre entre le retrait et le réajout.
+     * L'action est exécutée sous le verrou d'inscriptions si le remplacement a lieu.
+     *
+     * @return résultat de l'action, null si l'ancien n'est pas inscrit ou si le nouveau l'est déjà
+     */
+    public <R> R remplacerParticipant(Participant ancien, Participant nouveau, Function<Participant, R> sousVerrou) {
+        R resultat;
+        synchronized (verrouInscriptions) {
+            int position = participants.indexOf(ancien);
+            if (position < 0 || (!Objects.equals(ancien.getId(), nouveau.getId()) && participants.contains(nouveau))) {
+                return null;
+            }
+            participants.set(position, nouveau);
+            resultat = sousVerrou.apply(nouveau);
+        }
+        marquerModifie();
+        return resultat;
+    }
+
+    /**
+     * Réinscription lors du rejeu du journal : ni contrôle de capacité ni notification,
+     * l'inscription ayant déjà été acceptée avant l'arrêt
+     *
+     * @return faux si le participant était déjà inscrit
+     */
+    public boolean restaurerInscription(Participant participant) {
+        synchronized (verrouInscriptions) {
+            if (!participants.add(participant)) {
+                return false;
+            }
+            placesReservees.incrementAndGet();
+        }
+        marquerModifie();
+        return true;
+    }
+
+    /**
+     * Désinscription lors du rejeu du journal, sans notification
+     */
+    public boolean restaurerDesinscription(Participant participant) {
+        synchronized (verrouInscriptions) {
+            if (!participants.remove(participant)) {
+                return false;
+            }
+            placesReservees.decrementAndGet();
+        }
+        marquerModifie();
+        return true;
+    }
+
+    /**
+     * Exécute l'action sous le verrou d'inscriptions : aucune inscription ne s'intercale.
+     * Sert à journaliser l'état complet de l'événement dans l'ordre des inscriptions journalisées.
+     */
+    public <R> R sousVerrouInscriptions(Supplier<R> action) {
+        synchronized (verrouInscriptions) {
+            return action.get();
+        }
+    }
+
+    // ================================
+    // RÉSERVATION DES PLACES
+    // ================================
+
+    /**
+     * Réserve des places par compare-and-set : aucune attente entre threads, et la capacité
+     * ne peut jamais être dépassée même si la liste n'a pas encore reçu les participants
+     *
+     * @return faux si les places restantes ne suffisent pas (rien n'est réservé)
+     */
+    private boolean reserverPlaces(int nombre) {
+        while (true) {
+            int reservees = placesReservees.get();
+            if (reservees + nombre > capaciteMax) {
+                return false;
+            }
+            if (placesReservees.compareAndSet(reservees, reservees + nombre)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Réserve autant de places que possible, au plus {@code nombre}
+     *
+     * @return nombre de places réservées, 0 si l'événement est complet
+     */
+    private int reserverPlacesJusqua(int nombre) {
+        while (true) {
+            int reservees = placesReservees.get();
+            int places = Math.min(nombre, capaciteMax - reservees);
+            if (places <= 0) {
+                return 0;
+            }
+            if (placesReservees.compareAndSet(reservees, reservees + places)) {
+                return places;
+            }
+        }
     }
 
+    /**
+     * Places réservées : inscriptions en cours comprises, toujours au moins le nombre d'inscrits
+     */
+    @JsonIgnore
+    public int getPlacesReservees() { return placesReservees.get(); }
+
+    @JsonIgnore
+    public int getPlacesDisponibles() { return Math.max(0, capaciteMax - placesReservees.get()); }
+
+    /**
+     * Signale une modification de l'état persisté de l'événement
+     */
+    protected void marquerModifie() {
+        versionModification.incrementAndGet();
+    }
+
+    /**
+     * Signale une modification de l'en-tête (tout sauf la liste des participants)
+     */
+    protected void marquerEnteteModifie() {
+        versionEntete.incrementAndGet();
+        marquerModifie();
+    }
+
+    /**
+     * Version incrémentée à chaque modification, utilisée pour détecter les événements à réencoder
+     */
+    @JsonIgnore
+    public long getVersionModification() { return versionModification.get(); }
+
+    /**
+     * Version incrémentée par les seules modifications d'en-tête : inchangée, seules les
+     * inscriptions ont pu changer depuis une lecture précédente
+     */
+    @JsonIgnore
+    public long getVersionEntete() { return versionEntete.get(); }
+
     public abstract void annuler();
     
     public abstract void afficherDetails();
@@ -81,16 +377,82 @@ public abstract class Evenement implements EvenementObservable {
 
     // Getters et Setters
     public String getId() { return id; }
-    public void setId(String id) { this.id = id; }
+    public void setId(String id) { this.id = id; marquerEnteteModifie(); }
     public String getNom() { return nom; }
-    public void setNom(String nom) { this.nom = nom; }
+    public void setNom(String nom) { this.nom = nom; marquerEnteteModifie(); }
     public LocalDateTime getDate() { return date; }
-    public void setDate(LocalDateTime date) { this.date = date; }
+    public void setDate(LocalDateTime date) { this.date = date; marquerEnteteModifie(); }
     public String getLieu() { return lieu; }
-    public void setLieu(String lieu) { this.lieu = lieu; }
+    public void setLieu(String lieu) { this.lieu = lieu; marquerEnteteModifie(); }
     public int getCapaciteMax() { return capaciteMax; }
-    public void setCapaciteMax(int capaciteMax) { this.capaciteMax = capaciteMax; }
-    public List<Participant> getParticipants() { return participants; }
-    public void setParticipants(List<Participant> participants) { this.participants = participants; }
+    public void setCapaciteMax(int capaciteMax) { this.capaciteMax = capaciteMax; marquerEnteteModifie(); }
+    /**
+     * Copie en lecture seule : la liste interne n'est modifiée et lue que sous le verrou
+     * d'inscriptions (ajouterParticipant, retirerParticipant, lireParticipants)
+     */
+    public List<Participant> getParticipants() {
+        return Collections.unmodifiableList(copierParticipants());
+    }
+    /**
+     * Une liste ordinaire est indexée (doublons retirés) ; les listes spécialisées,
+     * chargées à la demande ou en lecture seule, sont gardées telles quelles
+     */
+    public void setParticipants(List<Participant> participants) {
+        if (participants instanceof ArrayList) {
+            participants = new ParticipantsInscrits(participants);
+        }
+        synchronized (verrouInscriptions) {
+            this.participants = participants;
+            // size() d'une liste chargée à la demande ne la décode pas
+            placesReservees.set(participants != null ? participants.size() : 0);
+        }
+        marquerModifie();
+    }
+
+    /**
+     * Lecture de la liste des participants sous le verrou d'inscriptions : aucune inscription
+     * ou désinscription ne la modifie pendant la lecture. La liste ne doit pas sortir de la fonction.
+     */
+    public <R> R lireParticipants(Function<List<Participant>, R> lecture) {
+        synchronized (verrouInscriptions) {
+            return lecture.apply(participants);
+        }
+    }
+
+    /**
+     * Remplace chaque participant par l'instance partagée du registre (chargement JSON ou XML)
+     */
+    public void partagerParticipants(RegistreParticipants registre) {
+        synchronized (verrouInscriptions) {
+            registre.partagerTous(participants);
+        }
+    }
+
+    /**
+     * Copie des participants, cohérente même pendant des inscriptions concurrentes
+     */
+    public List<Participant> copierParticipants() {
+        return lireParticipants(ArrayList::new);
+    }
+
+    /**
+     * Nombre d'inscrits ; ne déclenche pas le décodage d'une liste chargée à la demande
+     */
+    @JsonIgnore
+    public int getNombreParticipants() {
+        synchronized (verrouInscriptions) {
+            return participants.size();
+        }
+    }
+
+    /**
+     * Vrai si le participant est inscrit : O(1) par l'index, et une liste chargée à la demande
+     * est parcourue sans être matérialisée
+     */
+    public boolean estInscrit(Participant participant) {
+        synchronized (verrouInscriptions) {
+            return participants.contains(participant);
+        }
+    }
 }
 
@@ -0,0 +1,61 @@
+package com.gestion.evenements.model;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Stockage du catalogue d'événements utilisé par GestionEvenements
+ * Implémentations : CopyOnWriteEvenementStore (versions immuables, par défaut),
+ * HashMapEvenementStore (tout en mémoire) et MappedEvenementStore (fichier mappé,
+ * événements décodés à la demande).
+ */
+public interface EvenementStore {
+
+    Evenement rechercher(String id);
+
+    boolean contient(String id);
+
+    void ajouter(Evenement evenement);
+
+    /**
+     * Ajoute l'événement si son identifiant est libre
+     *
+     * @return faux si un événement de même identifiant existe déjà
+     */
+    default boolean ajouterSiAbsent(Evenement evenement) {
+        if (contient(evenement.getId())) {
+            return false;
+        }
+        ajouter(evenement);
+        return true;
+    }
+
+    Evenement supprimer(String id);
+
+    int taille();
+
+    /**
+     * Vue Map modifiable du catalogue, pour les appelants historiques de getEvenements()
+     */
+    Map<String, Evenement> vueMap();
+
+    /**
+     * Version immuable du catalogue ; par défaut une copie de la vue Map (O(n)),
+     * O(1) pour les stockages copy-on-write, sans décodage pour le catalogue mappé
+     */
+    default CatalogueInstantane instantane() {
+        return CatalogueInstantane.copier(vueMap());
+    }
+
+    /**
+     * Parcourt les événements présents en mémoire, sans en décoder de nouveaux
+     */
+    default void pourChaqueEvenementCharge(Consumer<Evenement> action) {
+        vueMap().values().forEach(action);
+    }
+
+    /**
+     * Libère les ressources du stockage (fichiers, mappings)
+     */
+    default void fermer() {}
+}
@@ -2,7 +2,6 @@ package com.gestion.evenements.model;
 
 import java.time.LocalDateTime;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -12,54 +11,85 @@ import com.gestion.evenements.model.notification.EmailNotificationService;
 import com.gestion.evenements.model.notification.NotificationService;
 
 public class GestionEvenements {
-    private static GestionEvenements instance;
-    private final Map<String, Evenement> evenements;
-    private NotificationService notificationService;
+    private volatile EvenementStore store;
+    private final RegistreParticipants registreParticipants = new RegistreParticipants();
+    private volatile NotificationService notificationService;
 
     private GestionEvenements() {
-        this.evenements = new HashMap<>();
+        this.store = new CopyOnWriteEvenementStore();
         this.notificationService = new EmailNotificationService();
     }
 
-    public static synchronized GestionEvenements getInstance() {
-        if (instance == null) {
-            instance = new GestionEvenements();
-        }
-        return instance;
+    /**
+     * Initialisation à la demande sans verrou : la JVM garantit que la classe Detenteur
+     * n'est initialisée qu'une fois, au premier appel, et publie l'instance à tous les threads
+     */
+    private static final class Detenteur {
+        private static final GestionEvenements INSTANCE = new GestionEvenements();
+    }
+
+    public static GestionEvenements getInstance() {
+        return Detenteur.INSTANCE;
     }
 
     public void ajouterEvenement(Evenement evenement) throws EvenementDejaExistantException {
-        if (evenements.containsKey(evenement.getId())) {
+        if (!store.ajouterSiAbsent(evenement)) {
             throw new EvenementDejaExistantException("Événement avec l'ID " + evenement.getId() + " existe déjà");
         }
-        evenements.put(evenement.getId(), evenement);
         notificationService.envoyerNotification("Nouvel événement créé: " + evenement.getNom());
     }
 
     public void supprimerEvenement(String id) {
-        Evenement evenement = evenements.remove(id);
+        Evenement evenement = store.supprimer(id);
         if (evenement != null) {
             evenement.annuler();
         }
     }
 
     public Evenement rechercherEvenement(String id) {
-        return evenements.get(id);
+        return store.rechercher(id);
     }
 
     public List<Evenement> rechercherParLieu(String lieu) {
-        return evenements.values().stream()
+        return getCatalogue().values().stream()
                 .filter(e -> e.getLieu().toLowerCase().contains(lieu.toLowerCase()))
                 .collect(Collectors.toList());
     }
 
     public List<Evenement> getEvenementsFuturs() {
-        return evenements.values().stream()
+        return getCatalogue().values().stream()
                 .filter(e -> e.getDate().isAfter(LocalDateTime.now()))
                 .sorted(Comparator.comparing(Evenement::getDate))
                 .collect(Collectors.toList());
     }
 
-    public Map<String, Evenement> getEvenements() { return evenements; }
+    /**
+     * Vue modifiable du catalogue (appelants historiques) ; les lecteurs utilisent getCatalogue()
+     */
+    public Map<String, Evenement> getEvenements() { return store.vueMap(); }
+
+    /**
+     * Version immuable courante du catalogue, à parcourir sans verrou
+     */
+    public CatalogueInstantane getCatalogue() { return store.instantane(); }
+
+    public EvenementStore getStore() { return store; }
+
+    /**
+     * Registre central : une instance de Participant par identifiant, partagée entre les événements
+     */
+    public RegistreParticipants getRegistreParticipants() { return registreParticipants; }
+
+    /**
+     * Remplace le stockage du catalogue ; l'ancien est fermé
+     */
+    public synchronized void setStore(EvenementStore nouveauStore) {
+        EvenementStore ancien = this.store;
+        this.store = nouveauStore;
+        if (ancien != null && ancien != nouveauStore) {
+            ancien.fermer();
+        }
+    }
+
     public void setNotificationService(NotificationService service) { this.notificationService = service; }
 }
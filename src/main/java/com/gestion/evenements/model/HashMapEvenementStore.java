@@ -0,0 +1,29 @@
+package com.gestion.evenements.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stockage en mémoire du catalogue (comportement historique)
+ */
+public class HashMapEvenementStore implements EvenementStore {
+    private final Map<String, Evenement> evenements = new HashMap<>();
+
+    @Override
+    public Evenement rechercher(String id) { return evenements.get(id); }
+
+    @Override
+    public boolean contient(String id) { return evenements.containsKey(id); }
+
+    @Override
+    public void ajouter(Evenement evenement) { evenements.put(evenement.getId(), evenement); }
+
+    @Override
+    public Evenement supprimer(String id) { return evenements.remove(id); }
+
+    @Override
+    public int taille() { return evenements.size(); }
+
+    @Override
+    public Map<String, Evenement> vueMap() { return evenements; }
+}
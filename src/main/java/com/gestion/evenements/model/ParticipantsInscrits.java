@@ -0,0 +1,196 @@
+package com.gestion.evenements.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Participants d'un événement, indexés par identifiant dans l'ordre d'inscription
+ * Appartenance, ajout et retrait en O(1) ; une personne n'apparaît qu'une fois (même règle
+ * que Participant.equals, fondée sur l'identifiant). Reste une List pour les vues et les
+ * sérialiseurs : l'accès par position passe par un tableau reconstruit seulement après
+ * une modification.
+ *
+ * Non synchronisée : Evenement ne l'expose pas et n'y accède que sous son verrou d'inscriptions.
+ */
+public class ParticipantsInscrits extends AbstractList<Participant> {
+    private final LinkedHashMap<String, Participant> parIdentifiant;
+    // Vue par position, invalidée à chaque modification
+    private Participant[] positions;
+
+    public ParticipantsInscrits() {
+        this.parIdentifiant = new LinkedHashMap<>();
+    }
+
+    public ParticipantsInscrits(int capaciteInitiale) {
+        this.parIdentifiant = new LinkedHashMap<>(Math.max(16, (int) (capaciteInitiale / 0.75f) + 1));
+    }
+
+    /**
+     * Copie indexée ; les doublons de la collection source ne sont gardés qu'une fois
+     */
+    public ParticipantsInscrits(Collection<? extends Participant> participants) {
+        this(participants.size());
+        for (Participant participant : participants) {
+            add(participant);
+        }
+    }
+
+    // ================================
+    // ACCÈS PAR IDENTIFIANT
+    // ================================
+
+    public boolean contientId(String id) {
+        return parIdentifiant.containsKey(id);
+    }
+
+    public Participant rechercher(String id) {
+        return parIdentifiant.get(id);
+    }
+
+    // ================================
+    // LIST
+    // ================================
+
+    /**
+     * @return faux si un participant de même identifiant est déjà inscrit (la liste est inchangée)
+     */
+    @Override
+    public boolean add(Participant participant) {
+        Objects.requireNonNull(participant, "participant");
+        if (parIdentifiant.putIfAbsent(participant.getId(), participant) != null) {
+            return false;
+        }
+        modifie();
+        return true;
+    }
+
+    @Override
+    public void add(int index, Participant participant) {
+        if (index == size()) {
+            add(participant);
+            return;
+        }
+        // Insertion au milieu : rare, l'ordre est reconstruit
+        List<Participant> ordre = new ArrayList<>(parIdentifiant.values());
+        ordre.add(index, participant);
+        remplacerOrdre(ordre);
+    }
+
+    @Override
+    public boolean contains(Object objet) {
+        return objet instanceof Participant && estMembre((Participant) objet);
+    }
+
+    @Override
+    public boolean remove(Object objet) {
+        if (!(objet instanceof Participant) || !estMembre((Participant) objet)) {
+            return false;
+        }
+        parIdentifiant.remove(((Participant) objet).getId());
+        modifie();
+        return true;
+    }
+
+    @Override
+    public Participant remove(int index) {
+        Participant retire = get(index);
+        parIdentifiant.remove(retire.getId());
+        modifie();
+        return retire;
+    }
+
+    /**
+     * Remplacement à la même position ; utilisé pour substituer l'instance partagée d'un participant
+     */
+    @Override
+    public Participant set(int index, Participant participant) {
+        Objects.requireNonNull(participant, "participant");
+        Participant ancien = get(index);
+        if (Objects.equals(ancien.getId(), participant.getId())) {
+            // Même clé : LinkedHashMap conserve la position
+            parIdentifiant.put(participant.getId(), participant);
+            positions = null;
+            return ancien;
+        }
+        List<Participant> ordre = new ArrayList<>(parIdentifiant.values());
+        ordre.set(index, participant);
+        remplacerOrdre(ordre);
+        return ancien;
+    }
+
+    @Override
+    public Participant get(int index) {
+        // Une seule lecture du champ : une modification concurrente ne peut pas l'annuler entre
+        // le test et l'accès
+        Participant[] tableau = positions;
+        if (tableau == null) {
+            tableau = parIdentifiant.values().toArray(new Participant[0]);
+            positions = tableau;
+        }
+        if (index < 0 || index >= tableau.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", taille: " + tableau.length);
+        }
+        return tableau[index];
+    }
+
+    @Override
+    public int indexOf(Object objet) {
+        if (!contains(objet)) {
+            return -1;
+        }
+        return super.indexOf(objet);
+    }
+
+    @Override
+    public int size() {
+        return parIdentifiant.size();
+    }
+
+    @Override
+    public void clear() {
+        parIdentifiant.clear();
+        modifie();
+    }
+
+    @Override
+    public Iterator<Participant> iterator() {
+        Iterator<Participant> valeurs = parIdentifiant.values().iterator();
+        return new Iterator<Participant>() {
+            @Override
+            public boolean hasNext() { return valeurs.hasNext(); }
+
+            @Override
+            public Participant next() { return valeurs.next(); }
+
+            @Override
+            public void remove() {
+                valeurs.remove();
+                modifie();
+            }
+        };
+    }
+
+    private boolean estMembre(Participant participant) {
+        // Identifiant présent et même classe : equals de Participant sans parcourir la liste
+        Participant inscrit = parIdentifiant.get(participant.getId());
+        return inscrit != null && inscrit.equals(participant);
+    }
+
+    private void remplacerOrdre(List<Participant> ordre) {
+        parIdentifiant.clear();
+        for (Participant participant : ordre) {
+            parIdentifiant.putIfAbsent(participant.getId(), participant);
+        }
+        modifie();
+    }
+
+    private void modifie() {
+        positions = null;
+        modCount++;
+    }
+}
@@ -0,0 +1,67 @@
+package com.gestion.evenements.model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registre central des participants : une seule instance de Participant par identifiant
+ * Les snapshots binaires stockent chaque participant une fois et les événements n'en
+ * gardent que la référence ; à l'hydratation, toutes les inscriptions d'une même personne
+ * pointent vers l'instance du registre.
+ */
+public class RegistreParticipants {
+    private final Map<String, Participant> participants = new ConcurrentHashMap<>();
+
+    /**
+     * Instance partagée pour cet identifiant, créée si elle n'existe pas encore
+     */
+    public Participant partager(String id, String nom, String email) {
+        if (id == null) {
+            return new Participant(id, nom, email);
+        }
+        return participants.computeIfAbsent(id, cle -> new Participant(id, nom, email));
+    }
+
+    /**
+     * Retourne l'instance déjà enregistrée pour cet identifiant, sinon enregistre celle-ci
+     */
+    public Participant partager(Participant participant) {
+        if (participant == null || participant.getId() == null) {
+            return participant;
+        }
+        Participant existant = participants.putIfAbsent(participant.getId(), participant);
+        return existant != null ? existant : participant;
+    }
+
+    /**
+     * Remplace les participants de la liste par les instances partagées (chargement JSON ou XML)
+     */
+    public void partagerTous(List<Participant> liste) {
+        for (int i = 0; i < liste.size(); i++) {
+            Participant participant = liste.get(i);
+            Participant partage = partager(participant);
+            if (partage != participant) {
+                liste.set(i, partage);
+            }
+        }
+    }
+
+    public Participant rechercher(String id) {
+        return id != null ? participants.get(id) : null;
+    }
+
+    public int taille() {
+        return participants.size();
+    }
+
+    public Collection<Participant> getParticipants() {
+        return Collections.unmodifiableCollection(participants.values());
+    }
+
+    public void vider() {
+        participants.clear();
+    }
+}
@@ -0,0 +1,52 @@
+package com.gestion.evenements.model;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Verrous répartis par identifiant d'événement (lock striping)
+ * Un nombre fixe de verrous couvre tout le catalogue : deux opérations ne s'attendent que si
+ * leurs événements tombent sur le même segment, et la mémoire ne dépend pas du nombre
+ * d'événements. Un même identifiant obtient toujours le même verrou.
+ */
+public final class VerrousEvenements {
+    private static final int SEGMENTS_PAR_DEFAUT = 64;
+
+    private final ReentrantLock[] verrous;
+    private final int decalage;
+
+    public VerrousEvenements() {
+        this(SEGMENTS_PAR_DEFAUT);
+    }
+
+    /**
+     * @param segments nombre minimal de verrous, arrondi à la puissance de deux supérieure
+     */
+    public VerrousEvenements(int segments) {
+        if (segments <= 0) {
+            throw new IllegalArgumentException("Nombre de segments invalide: " + segments);
+        }
+        int taille = Integer.highestOneBit(segments);
+        if (taille < segments) {
+            taille <<= 1;
+        }
+        this.verrous = new ReentrantLock[taille];
+        for (int i = 0; i < taille; i++) {
+            verrous[i] = new ReentrantLock();
+        }
+        this.decalage = Integer.SIZE - Integer.numberOfTrailingZeros(taille);
+    }
+
+    /**
+     * Verrou du segment de cet événement
+     */
+    public ReentrantLock pour(String evenementId) {
+        if (evenementId == null) {
+            return verrous[0];
+        }
+        // Hachage de Fibonacci : des identifiants séquentiels (EVT1, EVT2...) se dispersent
+        // sur tous les segments, là où leurs bits de poids faible se ressemblent
+        return verrous[(int) ((evenementId.hashCode() * 0x9E3779B9L & 0xFFFFFFFFL) >>> decalage)];
+    }
+
+    public int getNombreSegments() { return verrous.length; }
+}
@@ -38,8 +38,8 @@ public class Concert extends Evenement{
 
     // Getters et Setters
     public String getArtiste() { return artiste; }
-    public void setArtiste(String artiste) { this.artiste = artiste; }
+    public void setArtiste(String artiste) { this.artiste = artiste; marquerEnteteModifie(); }
     public String getGenreMusical() { return genreMusical; }
-    public void setGenreMusical(String genreMusical) { this.genreMusical = genreMusical; }
+    public void setGenreMusical(String genreMusical) { this.genreMusical = genreMusical; marquerEnteteModifie(); }
 
 }
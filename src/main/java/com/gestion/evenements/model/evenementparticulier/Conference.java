@@ -43,7 +43,7 @@ public class Conference extends Evenement {
 
     // Getters et Setters
     public String getTheme() { return theme; }
-    public void setTheme(String theme) { this.theme = theme; }
+    public void setTheme(String theme) { this.theme = theme; marquerEnteteModifie(); }
     public List<Intervenant> getIntervenants() { return intervenants; }
-    public void setIntervenants(List<Intervenant> intervenants) { this.intervenants = intervenants; }
+    public void setIntervenants(List<Intervenant> intervenants) { this.intervenants = intervenants; marquerEnteteModifie(); }
 }
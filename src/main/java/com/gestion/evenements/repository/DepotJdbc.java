@@ -0,0 +1,123 @@
+package com.gestion.evenements.repository;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Base commune des dépôts JDBC : une connexion par dépôt, transactions explicites,
+ * lots de requêtes préparées
+ *
+ * Le SQL reste portable entre H2 et SQLite (mode fichier) : pas de MERGE ni d'UPSERT,
+ * un remplacement est une suppression suivie d'une insertion dans la même transaction.
+ */
+abstract class DepotJdbc {
+    // Nombre de lignes envoyées par executeBatch
+    static final int TAILLE_LOT = 500;
+
+    private final Connection connexion;
+
+    DepotJdbc(String url) throws IOException {
+        try {
+            this.connexion = DriverManager.getConnection(url);
+            this.connexion.setAutoCommit(false);
+            try (Statement statement = connexion.createStatement()) {
+                for (String ddl : schema()) {
+                    statement.execute(ddl);
+                }
+            }
+            connexion.commit();
+        } catch (SQLException e) {
+            throw new IOException("Base indisponible (" + url + "): " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Tables et index créés s'ils n'existent pas
+     */
+    abstract String[] schema();
+
+    @FunctionalInterface
+    interface TravailJdbc<T> {
+        T executer(Connection connexion) throws SQLException;
+    }
+
+    /**
+     * Exécute le travail dans une transaction ; annulée entièrement en cas d'erreur
+     */
+    synchronized <T> T transaction(TravailJdbc<T> travail) throws IOException {
+        try {
+            T resultat = travail.executer(connexion);
+            connexion.commit();
+            return resultat;
+        } catch (SQLException e) {
+            try {
+                connexion.rollback();
+            } catch (SQLException annulation) {
+                e.addSuppressed(annulation);
+            }
+            throw new IOException("Erreur SQL: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Requête préparée envoyée par lots de TAILLE_LOT lignes
+     */
+    static final class Lot implements AutoCloseable {
+        private final PreparedStatement statement;
+        private int enAttente;
+
+        Lot(Connection connexion, String sql) throws SQLException {
+            this.statement = connexion.prepareStatement(sql);
+        }
+
+        PreparedStatement parametres() { return statement; }
+
+        /**
+         * Ajoute la ligne courante au lot et l'envoie quand il est plein
+         */
+        void ajouter() throws SQLException {
+            statement.addBatch();
+            if (++enAttente >= TAILLE_LOT) {
+                statement.executeBatch();
+                enAttente = 0;
+            }
+        }
+
+        /**
+         * Envoie les lignes restantes
+         */
+        void terminer() throws SQLException {
+            if (enAttente > 0) {
+                statement.executeBatch();
+                enAttente = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            statement.close();
+        }
+    }
+
+    static Timestamp horodatage(LocalDateTime date) {
+        return date != null ? Timestamp.valueOf(date) : null;
+    }
+
+    static LocalDateTime date(Timestamp horodatage) {
+        return horodatage != null ? horodatage.toLocalDateTime() : null;
+    }
+
+    public synchronized void fermer() throws IOException {
+        try {
+            connexion.close();
+        } catch (SQLException e) {
+            throw new IOException("Erreur à la fermeture de la base: " + e.getMessage(), e);
+        }
+    }
+}
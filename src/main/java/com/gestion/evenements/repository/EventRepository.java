@@ -0,0 +1,97 @@
+package com.gestion.evenements.repository;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.gestion.evenements.model.Evenement;
+
+/**
+ * Dépôt persistant du catalogue d'événements
+ *
+ * Trois implémentations : FichierEventRepository (snapshot binaire, comportement historique),
+ * MemoireEventRepository (tests) et JdbcEventRepository (base embarquée, écritures à la ligne).
+ */
+public interface EventRepository {
+
+    /**
+     * Propriété système donnant l'URL JDBC de la base ; absente, la persistance reste sur fichiers
+     */
+    String PROPRIETE_URL_JDBC = "gestion.evenements.jdbc.url";
+
+    /**
+     * Charge le catalogue complet, indexé par identifiant
+     */
+    Map<String, Evenement> chargerTout() throws IOException;
+
+    /**
+     * Insère ou remplace un événement, avec ses participants
+     */
+    void enregistrer(Evenement evenement) throws IOException;
+
+    /**
+     * Insère ou remplace plusieurs événements en une seule écriture
+     */
+    default void enregistrerTous(Collection<Evenement> evenements) throws IOException {
+        for (Evenement evenement : evenements) {
+            enregistrer(evenement);
+        }
+    }
+
+    /**
+     * Enregistre des événements dont seules les inscriptions ont changé ; par défaut,
+     * chaque événement est réécrit en entier
+     */
+    default void enregistrerInscriptions(Collection<ModificationInscriptions> modifications) throws IOException {
+        enregistrerTous(modifications.stream()
+            .map(ModificationInscriptions::getEvenement)
+            .collect(Collectors.toList()));
+    }
+
+    void supprimer(String id) throws IOException;
+
+    /**
+     * Remplace tout le contenu du dépôt par ce catalogue
+     */
+    void remplacerTout(Map<String, Evenement> evenements) throws IOException;
+
+    /**
+     * Événements dont la date est dans [debut, fin[
+     */
+    default List<Evenement> rechercherEntre(LocalDateTime debut, LocalDateTime fin) throws IOException {
+        return chargerTout().values().stream()
+            .filter(e -> e.getDate() != null && !e.getDate().isBefore(debut) && e.getDate().isBefore(fin))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Événements d'un lieu donné (égalité exacte)
+     */
+    default List<Evenement> rechercherParLieu(String lieu) throws IOException {
+        return chargerTout().values().stream()
+            .filter(e -> lieu.equals(e.getLieu()))
+            .collect(Collectors.toList());
+    }
+
+    default List<Evenement> rechercherParType(Class<? extends Evenement> type) throws IOException {
+        return chargerTout().values().stream()
+            .filter(type::isInstance)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Vrai si enregistrer/supprimer n'écrivent que la ligne concernée ; faux si chaque
+     * écriture réécrit le catalogue entier (il vaut alors mieux regrouper avec remplacerTout)
+     */
+    default boolean ecrituresUnitaires() {
+        return true;
+    }
+
+    /**
+     * Libère les ressources du dépôt (connexions, fichiers)
+     */
+    default void fermer() throws IOException {}
+}
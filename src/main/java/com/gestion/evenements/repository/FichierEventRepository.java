@@ -0,0 +1,77 @@
+package com.gestion.evenements.repository;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.gestion.evenements.model.Evenement;
+import com.gestion.evenements.model.RegistreParticipants;
+import com.gestion.evenements.serialization.SerializationManager;
+
+/**
+ * Dépôt sur snapshot binaire (format de SerializationManager)
+ *
+ * Le fichier ne sait pas se mettre à jour partiellement : chaque écriture réécrit
+ * le catalogue complet, de façon atomique.
+ */
+public class FichierEventRepository implements EventRepository {
+    private final String fichier;
+    private final RegistreParticipants registre;
+    // Dernier catalogue lu ou écrit, base des écritures unitaires
+    private Map<String, Evenement> catalogue;
+
+    public FichierEventRepository(String fichier, RegistreParticipants registre) {
+        this.fichier = fichier;
+        this.registre = registre;
+    }
+
+    @Override
+    public synchronized Map<String, Evenement> chargerTout() throws IOException {
+        catalogue = SerializationManager.snapshotBinaireExiste(fichier)
+            ? SerializationManager.chargerEvenementsBinaire(fichier, registre)
+            : new HashMap<>();
+        return new HashMap<>(catalogue);
+    }
+
+    @Override
+    public synchronized void enregistrer(Evenement evenement) throws IOException {
+        catalogue().put(evenement.getId(), evenement);
+        SerializationManager.sauvegarderEvenementsBinaire(catalogue, fichier);
+    }
+
+    @Override
+    public synchronized void enregistrerTous(Collection<Evenement> evenements) throws IOException {
+        for (Evenement evenement : evenements) {
+            catalogue().put(evenement.getId(), evenement);
+        }
+        SerializationManager.sauvegarderEvenementsBinaire(catalogue, fichier);
+    }
+
+    @Override
+    public synchronized void supprimer(String id) throws IOException {
+        if (catalogue().remove(id) != null) {
+            SerializationManager.sauvegarderEvenementsBinaire(catalogue, fichier);
+        }
+    }
+
+    @Override
+    public synchronized void remplacerTout(Map<String, Evenement> evenements) throws IOException {
+        catalogue = new HashMap<>(evenements);
+        SerializationManager.sauvegarderEvenementsBinaire(catalogue, fichier);
+    }
+
+    @Override
+    public boolean ecrituresUnitaires() {
+        return false;
+    }
+
+    private Map<String, Evenement> catalogue() throws IOException {
+        if (catalogue == null) {
+            chargerTout();
+        }
+        return catalogue;
+    }
+
+    public String getFichier() { return fichier; }
+}
@@ -0,0 +1,61 @@
+package com.gestion.evenements.repository;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.gestion.evenements.auth.User;
+import com.gestion.evenements.serialization.SerializationManager;
+
+/**
+ * Dépôt d'utilisateurs sur snapshot binaire ; chaque écriture réécrit le fichier complet
+ */
+public class FichierUserRepository implements UserRepository {
+    private final String fichier;
+    private Map<String, User> utilisateurs;
+
+    public FichierUserRepository(String fichier) {
+        this.fichier = fichier;
+    }
+
+    @Override
+    public synchronized Map<String, User> chargerTout() throws IOException {
+        utilisateurs = SerializationManager.snapshotBinaireExiste(fichier)
+            ? SerializationManager.chargerUtilisateursBinaire(fichier)
+            : new HashMap<>();
+        return new HashMap<>(utilisateurs);
+    }
+
+    @Override
+    public synchronized void enregistrer(User user) throws IOException {
+        utilisateurs().put(UserRepository.cle(user), user);
+        SerializationManager.sauvegarderUtilisateursBinaire(utilisateurs, fichier);
+    }
+
+    @Override
+    public synchronized void supprimer(String email) throws IOException {
+        if (utilisateurs().remove(email) != null) {
+            SerializationManager.sauvegarderUtilisateursBinaire(utilisateurs, fichier);
+        }
+    }
+
+    @Override
+    public synchronized void remplacerTout(Map<String, User> nouveaux) throws IOException {
+        utilisateurs = new HashMap<>(nouveaux);
+        SerializationManager.sauvegarderUtilisateursBinaire(utilisateurs, fichier);
+    }
+
+    @Override
+    public boolean ecrituresUnitaires() {
+        return false;
+    }
+
+    private Map<String, User> utilisateurs() throws IOException {
+        if (utilisateurs == null) {
+            chargerTout();
+        }
+        return utilisateurs;
+    }
+
+    public String getFichier() { return fichier; }
+}
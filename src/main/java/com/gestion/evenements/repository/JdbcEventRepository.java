@@ -0,0 +1,400 @@
+package com.gestion.evenements.repository;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.gestion.evenements.model.Evenement;
+import com.gestion.evenements.model.Intervenant;
+import com.gestion.evenements.model.Participant;
+import com.gestion.evenements.model.RegistreParticipants;
+import com.gestion.evenements.model.evenementparticulier.Concert;
+import com.gestion.evenements.model.evenementparticulier.Conference;
+
+/**
+ * Dépôt d'événements sur base embarquée (H2 ou SQLite en mode fichier)
+ *
+ * Une ligne par événement, colonnes indexées sur la date, le lieu et le type ; les
+ * participants sont stockés une fois et les inscriptions les référencent par identifiant.
+ * Enregistrer un événement ne touche que ses lignes, sans réécrire le catalogue.
+ */
+public class JdbcEventRepository extends DepotJdbc implements EventRepository {
+    private static final String TYPE_CONFERENCE = "conference";
+    private static final String TYPE_CONCERT = "concert";
+
+    private static final String COLONNES_EVENEMENT =
+        "e.id, e.type, e.nom, e.date_evenement, e.lieu, e.capacite_max, e.theme, e.artiste, e.genre_musical";
+
+    private final RegistreParticipants registre;
+
+    /**
+     * @param url      URL JDBC, par exemple jdbc:h2:./data/evenements
+     * @param registre registre partagé des participants chargés, ou null
+     */
+    public JdbcEventRepository(String url, RegistreParticipants registre) throws IOException {
+        super(url);
+        this.registre = registre;
+    }
+
+    @Override
+    String[] schema() {
+        return new String[] {
+            "CREATE TABLE IF NOT EXISTS evenements ("
+                + "id VARCHAR(255) PRIMARY KEY, type VARCHAR(32) NOT NULL, nom VARCHAR(255), "
+                + "date_evenement TIMESTAMP(9), lieu VARCHAR(255), capacite_max INT NOT NULL, "
+                + "theme VARCHAR(255), artiste VARCHAR(255), genre_musical VARCHAR(255))",
+            "CREATE TABLE IF NOT EXISTS participants ("
+                + "id VARCHAR(255) PRIMARY KEY, nom VARCHAR(255), email VARCHAR(255))",
+            "CREATE TABLE IF NOT EXISTS inscriptions ("
+                + "evenement_id VARCHAR(255) NOT NULL, rang INT NOT NULL, participant_id VARCHAR(255) NOT NULL, "
+                + "PRIMARY KEY (evenement_id, rang))",
+            "CREATE TABLE IF NOT EXISTS intervenants ("
+                + "evenement_id VARCHAR(255) NOT NULL, rang INT NOT NULL, nom VARCHAR(255), specialite VARCHAR(255), "
+                + "PRIMARY KEY (evenement_id, rang))",
+            "CREATE INDEX IF NOT EXISTS idx_evenements_date ON evenements (date_evenement)",
+            "CREATE INDEX IF NOT EXISTS idx_evenements_lieu ON evenements (lieu)",
+            "CREATE INDEX IF NOT EXISTS idx_evenements_type ON evenements (type)"
+        };
+    }
+
+    // ================================
+    // LECTURE
+    // ================================
+
+    @Override
+    public Map<String, Evenement> chargerTout() throws IOException {
+        Map<String, Evenement> evenements = new HashMap<>();
+        for (Evenement evenement : charger(null)) {
+            evenements.put(evenement.getId(), evenement);
+        }
+        return evenements;
+    }
+
+    /**
+     * Utilise l'index sur date_evenement
+     */
+    @Override
+    public List<Evenement> rechercherEntre(LocalDateTime debut, LocalDateTime fin) throws IOException {
+        return charger("e.date_evenement >= ? AND e.date_evenement < ?", horodatage(debut), horodatage(fin));
+    }
+
+    @Override
+    public List<Evenement> rechercherParLieu(String lieu) throws IOException {
+        return charger("e.lieu = ?", lieu);
+    }
+
+    @Override
+    public List<Evenement> rechercherParType(Class<? extends Evenement> type) throws IOException {
+        if (type == Conference.class) {
+            return charger("e.type = ?", TYPE_CONFERENCE);
+        }
+        if (type == Concert.class) {
+            return charger("e.type = ?", TYPE_CONCERT);
+        }
+        return EventRepository.super.rechercherParType(type);
+    }
+
+    /**
+     * Charge les événements satisfaisant la condition (sur l'alias e), puis leurs
+     * participants et intervenants avec la même condition
+     */
+    private List<Evenement> charger(String condition, Object... parametres) throws IOException {
+        String filtre = condition != null ? " WHERE " + condition : "";
+        return transaction(connexion -> {
+            Map<String, Evenement> evenements = new LinkedHashMap<>();
+            try (PreparedStatement statement = preparer(connexion,
+                    "SELECT " + COLONNES_EVENEMENT + " FROM evenements e" + filtre, parametres);
+                 ResultSet lignes = statement.executeQuery()) {
+                while (lignes.next()) {
+                    Evenement evenement = lireEvenement(lignes);
+                    evenements.put(evenement.getId(), evenement);
+                }
+            }
+
+            Map<String, List<Participant>> inscrits = new HashMap<>();
+            Map<String, Participant> partages = new HashMap<>();
+            try (PreparedStatement statement = preparer(connexion,
+                    "SELECT i.evenement_id, p.id, p.nom, p.email FROM inscriptions i "
+                        + "JOIN participants p ON p.id = i.participant_id "
+                        + "JOIN evenements e ON e.id = i.evenement_id" + filtre
+                        + " ORDER BY i.evenement_id, i.rang", parametres);
+                 ResultSet lignes = statement.executeQuery()) {
+                while (lignes.next()) {
+                    Participant participant = partager(partages, lignes.getString(2), lignes.getString(3), lignes.getString(4));
+                    inscrits.computeIfAbsent(lignes.getString(1), id -> new ArrayList<>()).add(participant);
+                }
+            }
+
+            Map<String, List<Intervenant>> intervenants = new HashMap<>();
+            try (PreparedStatement statement = preparer(connexion,
+                    "SELECT i.evenement_id, i.nom, i.specialite FROM intervenants i "
+                        + "JOIN evenements e ON e.id = i.evenement_id" + filtre
+                        + " ORDER BY i.evenement_id, i.rang", parametres);
+                 ResultSet lignes = statement.executeQuery()) {
+                while (lignes.next()) {
+                    intervenants.computeIfAbsent(lignes.getString(1), id -> new ArrayList<>())
+                        .add(new Intervenant(lignes.getString(2), lignes.getString(3)));
+                }
+            }
+
+            for (Evenement evenement : evenements.values()) {
+                evenement.setParticipants(inscrits.getOrDefault(evenement.getId(), new ArrayList<>()));
+                if (evenement instanceof Conference) {
+                    ((Conference) evenement).setIntervenants(
+                        intervenants.getOrDefault(evenement.getId(), new ArrayList<>()));
+                }
+            }
+            return new ArrayList<>(evenements.values());
+        });
+    }
+
+    private Evenement lireEvenement(ResultSet ligne) throws SQLException {
+        String type = ligne.getString(2);
+        String id = ligne.getString(1);
+        String nom = ligne.getString(3);
+        LocalDateTime date = date(ligne.getTimestamp(4));
+        String lieu = ligne.getString(5);
+        int capaciteMax = ligne.getInt(6);
+        switch (type) {
+            case TYPE_CONFERENCE:
+                return new Conference(id, nom, date, lieu, capaciteMax, ligne.getString(7));
+            case TYPE_CONCERT:
+                return new Concert(id, nom, date, lieu, capaciteMax, ligne.getString(8), ligne.getString(9));
+            default:
+                throw new SQLException("Type d'événement inconnu: " + type + " (" + id + ")");
+        }
+    }
+
+    private Participant partager(Map<String, Participant> partages, String id, String nom, String email) {
+        if (registre != null) {
+            return registre.partager(id, nom, email);
+        }
+        return partages.computeIfAbsent(id, cle -> new Participant(id, nom, email));
+    }
+
+    private static PreparedStatement preparer(Connection connexion, String sql, Object... parametres) throws SQLException {
+        PreparedStatement statement = connexion.prepareStatement(sql);
+        for (int i = 0; i < parametres.length; i++) {
+            statement.setObject(i + 1, parametres[i]);
+        }
+        return statement;
+    }
+
+    // ================================
+    // ÉCRITURE
+    // ================================
+
+    @Override
+    public void enregistrer(Evenement evenement) throws IOException {
+        enregistrerTous(List.of(evenement));
+    }
+
+    /**
+     * Remplace les lignes de ces événements en une transaction, par lots
+     */
+    @Override
+    public void enregistrerTous(Collection<Evenement> evenements) throws IOException {
+        transaction(connexion -> {
+            try (Lot evenement = new Lot(connexion, "DELETE FROM evenements WHERE id = ?");
+                 Lot inscriptions = new Lot(connexion, "DELETE FROM inscriptions WHERE evenement_id = ?");
+                 Lot intervenants = new Lot(connexion, "DELETE FROM intervenants WHERE evenement_id = ?")) {
+                for (Evenement e : evenements) {
+                    for (Lot lot : new Lot[] {evenement, inscriptions, intervenants}) {
+                        lot.parametres().setString(1, e.getId());
+                        lot.ajouter();
+                    }
+                }
+                evenement.terminer();
+                inscriptions.terminer();
+                intervenants.terminer();
+            }
+            inserer(connexion, evenements, true);
+            return null;
+        });
+    }
+
+    /**
+     * Une ligne d'inscription supprimée par désinscription et une insérée par inscription ;
+     * les rangs des nouvelles lignes suivent le plus grand rang de l'événement
+     */
+    @Override
+    public void enregistrerInscriptions(Collection<ModificationInscriptions> modifications) throws IOException {
+        transaction(connexion -> {
+            Map<String, Participant> personnes = new LinkedHashMap<>();
+            try (Lot retraits = new Lot(connexion,
+                     "DELETE FROM inscriptions WHERE evenement_id = ? AND participant_id = ?");
+                 Lot ajouts = new Lot(connexion,
+                     "INSERT INTO inscriptions (evenement_id, rang, participant_id) VALUES (?, ?, ?)");
+                 PreparedStatement dernierRang = connexion.prepareStatement(
+                     "SELECT MAX(rang) FROM inscriptions WHERE evenement_id = ?")) {
+                for (ModificationInscriptions modification : modifications) {
+                    String evenementId = modification.getEvenement().getId();
+                    for (String participantId : modification.getRetraits()) {
+                        PreparedStatement retrait = retraits.parametres();
+                        retrait.setString(1, evenementId);
+                        retrait.setString(2, participantId);
+                        retraits.ajouter();
+                    }
+                    if (modification.getAjouts().isEmpty()) {
+                        continue;
+                    }
+                    dernierRang.setString(1, evenementId);
+                    int rang;
+                    try (ResultSet ligne = dernierRang.executeQuery()) {
+                        // Événement sans inscription : MAX vaut NULL, la première ligne prend le rang 0
+                        rang = ligne.next() && ligne.getObject(1) != null ? ligne.getInt(1) + 1 : 0;
+                    }
+                    for (Participant participant : modification.getAjouts()) {
+                        personnes.putIfAbsent(participant.getId(), participant);
+                        PreparedStatement ajout = ajouts.parametres();
+                        ajout.setString(1, evenementId);
+                        ajout.setInt(2, rang++);
+                        ajout.setString(3, participant.getId());
+                        ajouts.ajouter();
+                    }
+                }
+                retraits.terminer();
+                ajouts.terminer();
+            }
+            remplacerParticipants(connexion, personnes, true);
+            return null;
+        });
+    }
+
+    @Override
+    public void supprimer(String id) throws IOException {
+        transaction(connexion -> {
+            for (String table : new String[] {"inscriptions", "intervenants"}) {
+                try (PreparedStatement statement = connexion.prepareStatement(
+                        "DELETE FROM " + table + " WHERE evenement_id = ?")) {
+                    statement.setString(1, id);
+                    statement.executeUpdate();
+                }
+            }
+            try (PreparedStatement statement = connexion.prepareStatement("DELETE FROM evenements WHERE id = ?")) {
+                statement.setString(1, id);
+                statement.executeUpdate();
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void remplacerTout(Map<String, Evenement> evenements) throws IOException {
+        transaction(connexion -> {
+            try (Statement statement = connexion.createStatement()) {
+                statement.executeUpdate("DELETE FROM inscriptions");
+                statement.executeUpdate("DELETE FROM intervenants");
+                statement.executeUpdate("DELETE FROM participants");
+                statement.executeUpdate("DELETE FROM evenements");
+            }
+            inserer(connexion, evenements.values(), false);
+            return null;
+        });
+    }
+
+    /**
+     * Insère les lignes des événements, dont les lignes d'inscription et d'intervenant ont été supprimées
+     *
+     * @param participantsExistants vrai si la table participants peut déjà contenir ces personnes
+     */
+    private void inserer(Connection connexion, Collection<Evenement> evenements, boolean participantsExistants)
+            throws SQLException {
+        // Chaque personne n'est écrite qu'une fois, même inscrite à plusieurs événements du lot
+        Map<String, Participant> personnes = new LinkedHashMap<>();
+
+        try (Lot lignes = new Lot(connexion,
+                 "INSERT INTO evenements (id, type, nom, date_evenement, lieu, capacite_max, theme, artiste, genre_musical) "
+                     + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+             Lot inscriptions = new Lot(connexion,
+                 "INSERT INTO inscriptions (evenement_id, rang, participant_id) VALUES (?, ?, ?)");
+             Lot intervenants = new Lot(connexion,
+                 "INSERT INTO intervenants (evenement_id, rang, nom, specialite) VALUES (?, ?, ?, ?)")) {
+            for (Evenement evenement : evenements) {
+                PreparedStatement ligne = lignes.parametres();
+                ligne.setString(1, evenement.getId());
+                ligne.setString(2, type(evenement));
+                ligne.setString(3, evenement.getNom());
+                ligne.setTimestamp(4, horodatage(evenement.getDate()));
+                ligne.setString(5, evenement.getLieu());
+                ligne.setInt(6, evenement.getCapaciteMax());
+                ligne.setString(7, evenement instanceof Conference ? ((Conference) evenement).getTheme() : null);
+                ligne.setString(8, evenement instanceof Concert ? ((Concert) evenement).getArtiste() : null);
+                ligne.setString(9, evenement instanceof Concert ? ((Concert) evenement).getGenreMusical() : null);
+                lignes.ajouter();
+
+                int rang = 0;
+                for (Participant participant : evenement.getParticipants()) {
+                    personnes.putIfAbsent(participant.getId(), participant);
+                    PreparedStatement inscription = inscriptions.parametres();
+                    inscription.setString(1, evenement.getId());
+                    inscription.setInt(2, rang++);
+                    inscription.setString(3, participant.getId());
+                    inscriptions.ajouter();
+                }
+
+                if (evenement instanceof Conference && ((Conference) evenement).getIntervenants() != null) {
+                    rang = 0;
+                    for (Intervenant intervenant : ((Conference) evenement).getIntervenants()) {
+                        PreparedStatement ligneIntervenant = intervenants.parametres();
+                        ligneIntervenant.setString(1, evenement.getId());
+                        ligneIntervenant.setInt(2, rang++);
+                        ligneIntervenant.setString(3, intervenant.getNom());
+                        ligneIntervenant.setString(4, intervenant.getSpecialite());
+                        intervenants.ajouter();
+                    }
+                }
+            }
+            lignes.terminer();
+            inscriptions.terminer();
+            intervenants.terminer();
+        }
+        remplacerParticipants(connexion, personnes, participantsExistants);
+    }
+
+    /**
+     * Écrit la ligne de chaque personne, en remplaçant celle qui existe déjà si demandé
+     */
+    private static void remplacerParticipants(Connection connexion, Map<String, Participant> personnes,
+                                              boolean participantsExistants) throws SQLException {
+        if (participantsExistants) {
+            try (Lot suppressions = new Lot(connexion, "DELETE FROM participants WHERE id = ?")) {
+                for (String id : personnes.keySet()) {
+                    suppressions.parametres().setString(1, id);
+                    suppressions.ajouter();
+                }
+                suppressions.terminer();
+            }
+        }
+        try (Lot participants = new Lot(connexion, "INSERT INTO participants (id, nom, email) VALUES (?, ?, ?)")) {
+            for (Participant participant : personnes.values()) {
+                PreparedStatement ligne = participants.parametres();
+                ligne.setString(1, participant.getId());
+                ligne.setString(2, participant.getNom());
+                ligne.setString(3, participant.getEmail());
+                participants.ajouter();
+            }
+            participants.terminer();
+        }
+    }
+
+    private static String type(Evenement evenement) throws SQLException {
+        if (evenement instanceof Conference) {
+            return TYPE_CONFERENCE;
+        }
+        if (evenement instanceof Concert) {
+            return TYPE_CONCERT;
+        }
+        throw new SQLException("Type d'événement non persistable: " + evenement.getClass().getName());
+    }
+}
@@ -0,0 +1,121 @@
+package com.gestion.evenements.repository;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.gestion.evenements.auth.User;
+import com.gestion.evenements.auth.UserRole;
+
+/**
+ * Dépôt d'utilisateurs sur base embarquée : une ligne par utilisateur, clé = email normalisé
+ */
+public class JdbcUserRepository extends DepotJdbc implements UserRepository {
+
+    public JdbcUserRepository(String url) throws IOException {
+        super(url);
+    }
+
+    @Override
+    String[] schema() {
+        return new String[] {
+            "CREATE TABLE IF NOT EXISTS utilisateurs ("
+                + "cle VARCHAR(255) PRIMARY KEY, id VARCHAR(255), nom VARCHAR(255), email VARCHAR(255), "
+                + "mot_de_passe VARCHAR(255), role VARCHAR(32), telephone VARCHAR(64), organisation VARCHAR(255), "
+                + "date_creation TIMESTAMP(9), dernier_acces TIMESTAMP(9), actif BOOLEAN NOT NULL, "
+                + "photo_profile VARCHAR(4000), preferences VARCHAR(4000))"
+        };
+    }
+
+    @Override
+    public Map<String, User> chargerTout() throws IOException {
+        return transaction(connexion -> {
+            Map<String, User> utilisateurs = new HashMap<>();
+            try (Statement statement = connexion.createStatement();
+                 ResultSet lignes = statement.executeQuery(
+                     "SELECT cle, id, nom, email, mot_de_passe, role, telephone, organisation, "
+                         + "date_creation, dernier_acces, actif, photo_profile, preferences FROM utilisateurs")) {
+                while (lignes.next()) {
+                    String role = lignes.getString(6);
+                    User user = new User(lignes.getString(2), lignes.getString(3), lignes.getString(4),
+                        lignes.getString(5), role != null ? UserRole.valueOf(role) : null,
+                        lignes.getString(7), lignes.getString(8));
+                    user.setDateCreation(date(lignes.getTimestamp(9)));
+                    user.setDernierAcces(date(lignes.getTimestamp(10)));
+                    user.setActif(lignes.getBoolean(11));
+                    user.setPhotoProfile(lignes.getString(12));
+                    user.setPreferences(lignes.getString(13));
+                    utilisateurs.put(lignes.getString(1), user);
+                }
+            }
+            return utilisateurs;
+        });
+    }
+
+    @Override
+    public void enregistrer(User user) throws IOException {
+        transaction(connexion -> {
+            try (PreparedStatement statement = connexion.prepareStatement("DELETE FROM utilisateurs WHERE cle = ?")) {
+                statement.setString(1, UserRepository.cle(user));
+                statement.executeUpdate();
+            }
+            inserer(connexion, List.of(user));
+            return null;
+        });
+    }
+
+    @Override
+    public void supprimer(String email) throws IOException {
+        transaction(connexion -> {
+            try (PreparedStatement statement = connexion.prepareStatement("DELETE FROM utilisateurs WHERE cle = ?")) {
+                statement.setString(1, email);
+                statement.executeUpdate();
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void remplacerTout(Map<String, User> utilisateurs) throws IOException {
+        transaction(connexion -> {
+            try (Statement statement = connexion.createStatement()) {
+                statement.executeUpdate("DELETE FROM utilisateurs");
+            }
+            inserer(connexion, utilisateurs.values());
+            return null;
+        });
+    }
+
+    private void inserer(Connection connexion, Collection<User> utilisateurs) throws SQLException {
+        try (Lot lot = new Lot(connexion,
+                "INSERT INTO utilisateurs (cle, id, nom, email, mot_de_passe, role, telephone, organisation, "
+                    + "date_creation, dernier_acces, actif, photo_profile, preferences) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (User user : utilisateurs) {
+                PreparedStatement ligne = lot.parametres();
+                ligne.setString(1, UserRepository.cle(user));
+                ligne.setString(2, user.getId());
+                ligne.setString(3, user.getNom());
+                ligne.setString(4, user.getEmail());
+                ligne.setString(5, user.getMotDePasse());
+                ligne.setString(6, user.getRole() != null ? user.getRole().name() : null);
+                ligne.setString(7, user.getTelephone());
+                ligne.setString(8, user.getOrganisation());
+                ligne.setTimestamp(9, horodatage(user.getDateCreation()));
+                ligne.setTimestamp(10, horodatage(user.getDernierAcces()));
+                ligne.setBoolean(11, user.isActif());
+                ligne.setString(12, user.getPhotoProfile());
+                ligne.setString(13, user.getPreferences());
+                lot.ajouter();
+            }
+            lot.terminer();
+        }
+    }
+}
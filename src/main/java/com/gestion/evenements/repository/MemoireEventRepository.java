@@ -0,0 +1,35 @@
+package com.gestion.evenements.repository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.gestion.evenements.model.Evenement;
+
+/**
+ * Dépôt en mémoire, sans persistance : pour les tests et les démonstrations
+ */
+public class MemoireEventRepository implements EventRepository {
+    private final Map<String, Evenement> evenements = new ConcurrentHashMap<>();
+
+    @Override
+    public Map<String, Evenement> chargerTout() {
+        return new HashMap<>(evenements);
+    }
+
+    @Override
+    public void enregistrer(Evenement evenement) {
+        evenements.put(evenement.getId(), evenement);
+    }
+
+    @Override
+    public void supprimer(String id) {
+        evenements.remove(id);
+    }
+
+    @Override
+    public synchronized void remplacerTout(Map<String, Evenement> catalogue) {
+        evenements.clear();
+        evenements.putAll(catalogue);
+    }
+}
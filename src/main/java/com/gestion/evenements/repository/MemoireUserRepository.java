@@ -0,0 +1,35 @@
+package com.gestion.evenements.repository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.gestion.evenements.auth.User;
+
+/**
+ * Dépôt d'utilisateurs en mémoire, sans persistance
+ */
+public class MemoireUserRepository implements UserRepository {
+    private final Map<String, User> utilisateurs = new ConcurrentHashMap<>();
+
+    @Override
+    public Map<String, User> chargerTout() {
+        return new HashMap<>(utilisateurs);
+    }
+
+    @Override
+    public void enregistrer(User user) {
+        utilisateurs.put(UserRepository.cle(user), user);
+    }
+
+    @Override
+    public void supprimer(String email) {
+        utilisateurs.remove(email);
+    }
+
+    @Override
+    public synchronized void remplacerTout(Map<String, User> nouveaux) {
+        utilisateurs.clear();
+        utilisateurs.putAll(nouveaux);
+    }
+}
@@ -0,0 +1,99 @@
+package com.gestion.evenements.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import com.gestion.evenements.model.Evenement;
+import com.gestion.evenements.model.Participant;
+
+/**
+ * Inscriptions et désinscriptions d'un événement depuis son dernier enregistrement,
+ * son en-tête étant inchangé : le dépôt n'écrit que les lignes d'inscription concernées
+ */
+public final class ModificationInscriptions {
+    private final Evenement evenement;
+    private final List<String> retraits;
+    private final List<Participant> ajouts;
+    private final List<String> identifiants;
+
+    private ModificationInscriptions(Evenement evenement, List<String> retraits, List<Participant> ajouts,
+                                     List<String> identifiants) {
+        this.evenement = evenement;
+        this.retraits = retraits;
+        this.ajouts = ajouts;
+        this.identifiants = identifiants;
+    }
+
+    /**
+     * Compare les inscriptions actuelles de l'événement à celles enregistrées
+     *
+     * @param enregistres identifiants des inscrits enregistrés, dans l'ordre
+     * @return null si la liste actuelle ne s'obtient pas par des retraits suivis d'ajouts en fin
+     *         de liste (ordre modifié, remplacement sur place) : l'événement est alors réécrit
+     */
+    public static ModificationInscriptions calculer(Evenement evenement, List<String> enregistres) {
+        return evenement.lireParticipants(participants -> {
+            Set<String> actuels = new HashSet<>();
+            for (Participant participant : participants) {
+                actuels.add(participant.getId());
+            }
+            List<String> retraits = new ArrayList<>();
+            for (String id : enregistres) {
+                if (!actuels.contains(id)) {
+                    retraits.add(id);
+                }
+            }
+
+            // Les inscrits conservés doivent garder leur ordre, en tête de liste
+            int conserves = enregistres.size() - retraits.size();
+            if (conserves > participants.size()) {
+                return null;
+            }
+            List<String> identifiants = new ArrayList<>(participants.size());
+            int position = 0;
+            for (String id : enregistres) {
+                if (actuels.contains(id)) {
+                    if (!Objects.equals(id, participants.get(position++).getId())) {
+                        return null;
+                    }
+                    identifiants.add(id);
+                }
+            }
+            Set<String> dejaEnregistres = new HashSet<>(enregistres);
+            List<Participant> ajouts = new ArrayList<>(participants.size() - conserves);
+            for (Participant participant : participants.subList(conserves, participants.size())) {
+                if (dejaEnregistres.contains(participant.getId())) {
+                    return null;
+                }
+                ajouts.add(participant);
+                identifiants.add(participant.getId());
+            }
+            return new ModificationInscriptions(evenement, retraits, ajouts, identifiants);
+        });
+    }
+
+    public Evenement getEvenement() { return evenement; }
+
+    /**
+     * Identifiants des participants désinscrits
+     */
+    public List<String> getRetraits() { return Collections.unmodifiableList(retraits); }
+
+    /**
+     * Participants inscrits, dans l'ordre, à placer après les inscriptions conservées
+     */
+    public List<Participant> getAjouts() { return Collections.unmodifiableList(ajouts); }
+
+    /**
+     * Identifiants de tous les inscrits une fois la modification enregistrée
+     */
+    public List<String> getIdentifiants() { return Collections.unmodifiableList(identifiants); }
+
+    public boolean estVide() {
+        return retraits.isEmpty() && ajouts.isEmpty();
+    }
+}
@@ -0,0 +1,49 @@
+package com.gestion.evenements.repository;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+
+import com.gestion.evenements.auth.User;
+
+/**
+ * Dépôt persistant des utilisateurs, indexés par email normalisé
+ */
+public interface UserRepository {
+
+    /**
+     * Charge tous les utilisateurs, indexés par cle(user)
+     */
+    Map<String, User> chargerTout() throws IOException;
+
+    /**
+     * Insère ou remplace un utilisateur
+     */
+    void enregistrer(User user) throws IOException;
+
+    /**
+     * @param email email de l'utilisateur, normalisé comme par cle(user)
+     */
+    void supprimer(String email) throws IOException;
+
+    /**
+     * Remplace tout le contenu du dépôt par ces utilisateurs
+     */
+    void remplacerTout(Map<String, User> utilisateurs) throws IOException;
+
+    /**
+     * Vrai si enregistrer/supprimer n'écrivent que la ligne concernée
+     */
+    default boolean ecrituresUnitaires() {
+        return true;
+    }
+
+    default void fermer() throws IOException {}
+
+    /**
+     * Clé d'un utilisateur : email en minuscules, sans espaces (comme AuthenticationService)
+     */
+    static String cle(User user) {
+        return user.getEmail().toLowerCase(Locale.ROOT).trim();
+    }
+}
@@ -0,0 +1,946 @@
+package com.gestion.evenements.serialization;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+import com.gestion.evenements.auth.User;
+import com.gestion.evenements.auth.UserRole;
+import com.gestion.evenements.model.Evenement;
+import com.gestion.evenements.model.Intervenant;
+import com.gestion.evenements.model.Participant;
+import com.gestion.evenements.model.ParticipantsInscrits;
+import com.gestion.evenements.model.RegistreParticipants;
+import com.gestion.evenements.model.evenementparticulier.Concert;
+import com.gestion.evenements.model.evenementparticulier.Conference;
+
+/**
+ * Format binaire compact des snapshots d'événements et d'utilisateurs
+ *
+ * Structure d'un fichier (version 3) :
+ *   magic "GEVB" | version (1 octet) | contenu ('E' événements, 'U' utilisateurs)
+ *   section d'en-tête : dictionnaire (lieux, thèmes, genres, rôles, organisations) puis
+ *                       nombre de participants et nombre d'enregistrements
+ *   sections du registre : chaque participant (id, nom, email) une seule fois ; section vide
+ *   sections d'enregistrements : nombre puis, pour chacun, longueur en varint suivie du corps
+ *   section vide : fin du snapshot
+ *
+ * Un événement ne stocke que les références (rang dans le registre) de ses participants :
+ * une personne inscrite à plusieurs événements est écrite et décodée une seule fois, et
+ * l'hydratation passe par un RegistreParticipants qui fournit une instance par identifiant.
+ *
+ * Chaque section est encadrée : longueur en varint | contenu | CRC32C du contenu (4 octets).
+ * Une écriture interrompue ou un secteur corrompu est ainsi détecté à la lecture au lieu
+ * de produire un catalogue partiel. Les versions 1 (sans sections) et 2 (participants
+ * en ligne dans chaque événement) restent lisibles.
+ *
+ * Les champs très répétés sont remplacés par leur indice dans le dictionnaire, les entiers
+ * et les dates sont encodés en varint. Chaque événement porte aussi la longueur de son bloc
+ * de participants, ce qui permet de lire ses seuls en-têtes sans décoder la liste.
+ */
+public final class BinarySnapshotCodec {
+    static final byte[] MAGIC = { 'G', 'E', 'V', 'B' };
+    static final int VERSION = 3;
+    static final int VERSION_SANS_SECTIONS = 1;
+    static final int VERSION_PARTICIPANTS_EN_LIGNE = 2;
+    static final byte CONTENU_EVENEMENTS = 'E';
+    static final byte CONTENU_UTILISATEURS = 'U';
+
+    // Taille visée d'une section d'enregistrements (une section n'est jamais coupée)
+    static final int TAILLE_SECTION = 64 * 1024;
+    static final int TAILLE_CRC = 4;
+
+    static final int TYPE_CONFERENCE = 1;
+    static final int TYPE_CONCERT = 2;
+
+    private BinarySnapshotCodec() {}
+
+    // ================================
+    // ÉVÉNEMENTS
+    // ================================
+
+    /**
+     * Écrit les événements ; le flux n'est pas fermé
+     */
+    public static void ecrireEvenements(Map<String, Evenement> evenements, OutputStream sortie) throws IOException {
+        Dictionnaire dictionnaire = new Dictionnaire();
+        TableParticipants table = new TableParticipants();
+        // Un seul relevé par événement, sous son verrou d'inscriptions : le registre et les
+        // blocs écrits ensuite portent exactement les mêmes participants. Une liste différée
+        // encore encodée n'est pas décodée : seul son bloc est gardé.
+        Map<Evenement, List<Participant>> inscrits = new IdentityHashMap<>();
+        Map<Evenement, ListeParticipantsDifferee.BlocEncode> blocs = new IdentityHashMap<>();
+        // Rangs référencés par registre source (identité du tableau), dans l'ordre de rencontre
+        Map<Participant[], BitSet> rangsUtilises = new LinkedHashMap<>();
+        // Chaînes du dictionnaire relevées une fois : l'encodage ne relit pas les getters
+        Map<Evenement, ChainesDictionnaire> chaines = new IdentityHashMap<>();
+        for (Evenement evenement : evenements.values()) {
+            chaines.put(evenement, ajouterAuDictionnaire(dictionnaire, evenement));
+            ListeParticipantsDifferee.BlocEncode bloc = evenement.lireParticipants(ListeParticipantsDifferee::blocEncode);
+            if (bloc != null) {
+                blocs.put(evenement, bloc);
+                BitSet utilises = rangsUtilises.computeIfAbsent(bloc.registre, registre -> new BitSet(registre.length));
+                for (int rang : bloc.rangs()) {
+                    utilises.set(rang);
+                }
+            } else {
+                inscrits.put(evenement, evenement.copierParticipants());
+            }
+        }
+
+        // Le premier registre source ouvre le nouveau registre, dans son ordre : si toutes ses
+        // entrées sont encore référencées, les rangs sont inchangés et ses blocs sont recopiés
+        // octet pour octet
+        Participant[] registreConserve = null;
+        boolean premier = true;
+        for (Map.Entry<Participant[], BitSet> entree : rangsUtilises.entrySet()) {
+            Participant[] registre = entree.getKey();
+            BitSet utilises = entree.getValue();
+            for (int rang = utilises.nextSetBit(0); rang >= 0; rang = utilises.nextSetBit(rang + 1)) {
+                table.ajouter(registre[rang]);
+            }
+            if (premier && table.participants.size() == registre.length) {
+                registreConserve = registre;
+            }
+            premier = false;
+        }
+        for (Evenement evenement : evenements.values()) {
+            List<Participant> participants = inscrits.get(evenement);
+            if (participants != null) {
+                for (Participant participant : participants) {
+                    table.ajouter(participant);
+                }
+            }
+        }
+
+        EcrivainSections sections = new EcrivainSections(sortie);
+        sections.ecrireEntete(CONTENU_EVENEMENTS, dictionnaire, table.participants.size(), evenements.size());
+        TamponBinaire enregistrement = new TamponBinaire(4096);
+        ecrireRegistre(table, sections, enregistrement);
+
+        TamponBinaire blocParticipants = new TamponBinaire(4096);
+        for (Map.Entry<String, Evenement> entry : evenements.entrySet()) {
+            enregistrement.reinitialiser();
+            Evenement evenement = entry.getValue();
+            encoderEvenement(entry.getKey(), evenement, chaines.get(evenement), dictionnaire, enregistrement);
+            encoderParticipants(inscrits.get(evenement), blocs.get(evenement), registreConserve, table,
+                enregistrement, blocParticipants);
+            sections.ajouter(enregistrement);
+        }
+        sections.terminer();
+    }
+
+    private static ChainesDictionnaire ajouterAuDictionnaire(Dictionnaire dictionnaire, Evenement evenement) {
+        ChainesDictionnaire chaines = ChainesDictionnaire.de(evenement);
+        dictionnaire.ajouter(chaines.lieu);
+        dictionnaire.ajouter(chaines.categorie);
+        return chaines;
+    }
+
+    /**
+     * Registre : chaque participant une seule fois, puis la section vide
+     */
+    private static void ecrireRegistre(TableParticipants table, EcrivainSections sections,
+                                       TamponBinaire enregistrement) throws IOException {
+        for (Participant participant : table.participants) {
+            enregistrement.reinitialiser();
+            enregistrement.ecrireChaine(participant.getId());
+            enregistrement.ecrireChaine(participant.getNom());
+            enregistrement.ecrireChaine(participant.getEmail());
+            sections.ajouter(enregistrement);
+        }
+        sections.terminer();
+    }
+
+    public static Map<String, Evenement> lireEvenements(ByteBuffer buffer) throws IOException {
+        return lireEvenements(buffer, new RegistreParticipants());
+    }
+
+    /**
+     * Décode les événements ; les participants sont obtenus auprès du registre (une instance par id)
+     */
+    public static Map<String, Evenement> lireEvenements(ByteBuffer buffer, RegistreParticipants registre)
+            throws IOException {
+        return lireEvenements(buffer, registre, false);
+    }
+
+    /**
+     * @param participantsDifferes si vrai, seuls les en-têtes sont matérialisés : chaque liste de
+     *                             participants est décodée depuis le tampon à son premier accès
+     */
+    public static Map<String, Evenement> lireEvenements(ByteBuffer buffer, RegistreParticipants registre,
+                                                        boolean participantsDifferes) throws IOException {
+        Map<String, Evenement> evenements = new HashMap<>();
+        lireEvenements(buffer, registre, participantsDifferes, evenements::put);
+        return evenements;
+    }
+
+    public static int lireEvenements(ByteBuffer buffer, BiConsumer<String, Evenement> consommateur)
+            throws IOException {
+        return lireEvenements(buffer, new RegistreParticipants(), consommateur);
+    }
+
+    /**
+     * Décode chaque événement et le transmet au consommateur avec sa clé
+     * @return le nombre d'événements lus
+     */
+    public static int lireEvenements(ByteBuffer buffer, RegistreParticipants registre,
+                                     BiConsumer<String, Evenement> consommateur) throws IOException {
+        return lireEvenements(buffer, registre, false, consommateur);
+    }
+
+    private static int lireEvenements(ByteBuffer buffer, RegistreParticipants registre, boolean participantsDifferes,
+                                      BiConsumer<String, Evenement> consommateur) throws IOException {
+        LecteurBinaire lecteur = new LecteurBinaire(buffer);
+        Entete entete = lireEntete(lecteur, CONTENU_EVENEMENTS);
+        lireRegistre(lecteur, entete, registre);
+
+        parcourirEnregistrements(lecteur, entete, (enregistrement, fin) -> {
+            String cle = enregistrement.lireChaine();
+            Evenement evenement = decoderEvenement(enregistrement, entete, participantsDifferes);
+            terminerEnregistrement(enregistrement, fin);
+            consommateur.accept(cle, evenement);
+        });
+        return entete.nombre;
+    }
+
+    private static void encoderEvenement(String cle, Evenement evenement, ChainesDictionnaire chaines,
+                                         Dictionnaire dictionnaire, TamponBinaire sortie) {
+        sortie.ecrireChaine(cle);
+        sortie.ecrireOctet(evenement instanceof Concert ? TYPE_CONCERT : TYPE_CONFERENCE);
+        sortie.ecrireChaine(evenement.getId());
+        sortie.ecrireChaine(evenement.getNom());
+        sortie.ecrireDate(evenement.getDate());
+        sortie.ecrireVarint(dictionnaire.indice(chaines.lieu));
+        sortie.ecrireEntierSigne(evenement.getCapaciteMax());
+
+        if (evenement instanceof Concert) {
+            Concert concert = (Concert) evenement;
+            sortie.ecrireChaine(concert.getArtiste());
+            sortie.ecrireVarint(dictionnaire.indice(chaines.categorie));
+        } else if (evenement instanceof Conference) {
+            Conference conference = (Conference) evenement;
+            sortie.ecrireVarint(dictionnaire.indice(chaines.categorie));
+            List<Intervenant> intervenants = conference.getIntervenants();
+            int nombre = intervenants != null ? intervenants.size() : 0;
+            sortie.ecrireVarint(nombre);
+            for (int i = 0; i < nombre; i++) {
+                sortie.ecrireChaine(intervenants.get(i).getNom());
+                sortie.ecrireChaine(intervenants.get(i).getSpecialite());
+            }
+        } else {
+            // Sous-type inconnu : enregistré comme conférence sans thème
+            sortie.ecrireVarint(0);
+            sortie.ecrireVarint(0);
+        }
+    }
+
+    /**
+     * Bloc de participants préfixé par sa longueur : rangs dans le registre du snapshot
+     * @param participants participants copiés, null si l'événement garde un bloc encodé
+     * @param registreConserve registre source dont les rangs sont repris à l'identique
+     */
+    private static void encoderParticipants(List<Participant> participants, ListeParticipantsDifferee.BlocEncode bloc,
+                                            Participant[] registreConserve, TableParticipants table,
+                                            TamponBinaire sortie, TamponBinaire blocParticipants) throws IOException {
+        blocParticipants.reinitialiser();
+        if (bloc != null && bloc.registre == registreConserve) {
+            blocParticipants.ecrireOctets(bloc.octets.duplicate());
+        } else if (bloc != null) {
+            // Autre registre source : seuls les rangs sont réécrits
+            int[] rangs = bloc.rangs();
+            blocParticipants.ecrireVarint(rangs.length);
+            for (int rang : rangs) {
+                blocParticipants.ecrireVarint(table.rang(bloc.registre[rang]));
+            }
+        } else {
+            blocParticipants.ecrireVarint(participants.size());
+            for (Participant participant : participants) {
+                blocParticipants.ecrireVarint(table.rang(participant));
+            }
+        }
+        sortie.ecrireVarint(blocParticipants.taille());
+        sortie.ecrireTampon(blocParticipants);
+    }
+
+    /**
+     * Identifiants des participants d'une liste d'événement (à appeler sous son verrou
+     * d'inscriptions, cf. Evenement.lireParticipants) ; une liste chargée à la demande
+     * et pas encore décodée est lue dans son bloc, sans créer de participants
+     */
+    public static void parcourirIdentifiants(List<Participant> participants, Consumer<String> action) {
+        if (participants instanceof ListeParticipantsDifferee) {
+            ((ListeParticipantsDifferee) participants).parcourirIdentifiants(action);
+            return;
+        }
+        for (Participant participant : participants) {
+            action.accept(participant.getId());
+        }
+    }
+
+    /**
+     * Décode le corps d'un événement (après sa clé)
+     * @param participantsDifferes si vrai, la liste de participants n'est décodée qu'au premier accès
+     */
+    static Evenement decoderEvenement(LecteurBinaire lecteur, Entete entete, boolean participantsDifferes)
+            throws IOException {
+        String[] dictionnaire = entete.dictionnaire;
+        int type = lecteur.lireOctet();
+        String id = lecteur.lireChaine();
+        String nom = lecteur.lireChaine();
+        LocalDateTime date = lecteur.lireDate();
+        String lieu = reference(lecteur, dictionnaire);
+        int capaciteMax = lecteur.lireEntierSigne();
+
+        Evenement evenement;
+        if (type == TYPE_CONCERT) {
+            String artiste = lecteur.lireChaine();
+            String genre = reference(lecteur, dictionnaire);
+            evenement = new Concert(id, nom, date, lieu, capaciteMax, artiste, genre);
+        } else if (type == TYPE_CONFERENCE) {
+            String theme = reference(lecteur, dictionnaire);
+            Conference conference = new Conference(id, nom, date, lieu, capaciteMax, theme);
+            int nombreIntervenants = lecteur.lireVarint();
+            for (int i = 0; i < nombreIntervenants; i++) {
+                conference.getIntervenants().add(new Intervenant(lecteur.lireChaine(), lecteur.lireChaine()));
+            }
+            evenement = conference;
+        } else {
+            throw new IOException("Type d'événement binaire inconnu: " + type);
+        }
+
+        int longueurBloc = lecteur.lireLongueur();
+        if (participantsDifferes) {
+            evenement.setParticipants(new ListeParticipantsDifferee(lecteur.tranche(longueurBloc), entete.participants));
+            return evenement;
+        }
+        int finBloc = lecteur.position() + longueurBloc;
+        int nombreParticipants = lecteur.lireVarint();
+        List<Participant> participants = decoderParticipants(lecteur, nombreParticipants, longueurBloc, entete.participants);
+        lecteur.positionner(finBloc);
+        // Hydratation en bloc : la capacité a été vérifiée à l'inscription
+        evenement.setParticipants(participants);
+        return evenement;
+    }
+
+    /**
+     * @param registre participants du snapshot (version 3), null si les participants sont en ligne
+     */
+    static List<Participant> decoderParticipants(LecteurBinaire lecteur, int nombre, int longueurBloc,
+                                                 Participant[] registre) throws IOException {
+        List<Participant> participants = new ParticipantsInscrits(Math.min(nombre, longueurBloc));
+        for (int i = 0; i < nombre; i++) {
+            if (registre != null) {
+                int rang = lecteur.lireVarint();
+                if (rang < 0 || rang >= registre.length) {
+                    throw new IOException("Référence de participant invalide: " + rang);
+                }
+                participants.add(registre[rang]);
+            } else {
+                participants.add(new Participant(lecteur.lireChaine(), lecteur.lireChaine(), lecteur.lireChaine()));
+            }
+        }
+        return participants;
+    }
+
+    /**
+     * Identifiants d'un bloc de participants (nombre puis entrées), sans créer de participant
+     * @param registre participants du snapshot (version 3), null si les participants sont en ligne
+     */
+    static void lireIdentifiants(LecteurBinaire lecteur, Participant[] registre, Consumer<String> action)
+            throws IOException {
+        int nombre = lecteur.lireVarint();
+        for (int i = 0; i < nombre; i++) {
+            if (registre != null) {
+                int rang = lecteur.lireVarint();
+                if (rang < 0 || rang >= registre.length) {
+                    throw new IOException("Référence de participant invalide: " + rang);
+                }
+                action.accept(registre[rang].getId());
+            } else {
+                action.accept(lecteur.lireChaine());
+                lecteur.sauterChaine();
+                lecteur.sauterChaine();
+            }
+        }
+    }
+
+    /**
+     * Date et participants d'un enregistrement d'événement (après sa clé), lus sans créer
+     * l'événement : les chaînes sont sautées et le bloc n'est parcouru que pour ses identifiants
+     * @return la date de l'événement ; chaque inscrit est transmis à l'action
+     */
+    static LocalDateTime lireResume(LecteurBinaire lecteur, Entete entete, Consumer<String> identifiants)
+            throws IOException {
+        int type = lecteur.lireOctet();
+        lecteur.sauterChaine(); // identifiant
+        lecteur.sauterChaine(); // nom
+        LocalDateTime date = lecteur.lireDate();
+        lecteur.lireVarint(); // lieu
+        lecteur.lireEntierSigne(); // capacité
+        if (type == TYPE_CONCERT) {
+            lecteur.sauterChaine();
+            lecteur.lireVarint();
+        } else if (type == TYPE_CONFERENCE) {
+            lecteur.lireVarint();
+            int nombreIntervenants = lecteur.lireVarint();
+            for (int i = 0; i < nombreIntervenants * 2; i++) {
+                lecteur.sauterChaine();
+            }
+        } else {
+            throw new IOException("Type d'événement binaire inconnu: " + type);
+        }
+
+        int longueurBloc = lecteur.lireLongueur();
+        int finBloc = lecteur.position() + longueurBloc;
+        lireIdentifiants(lecteur, entete.participants, identifiants);
+        lecteur.positionner(finBloc);
+        return date;
+    }
+
+    /**
+     * Lit le registre des participants (version 3) ; sans effet pour les versions antérieures
+     */
+    static void lireRegistre(LecteurBinaire lecteur, Entete entete, RegistreParticipants registre) throws IOException {
+        if (entete.version < VERSION) {
+            return;
+        }
+        parcourirSections(lecteur, entete.nombreParticipants,
+            (entree, fin) -> lireEntreeRegistre(entree, fin, entete, registre));
+    }
+
+    static void lireEntreeRegistre(LecteurBinaire lecteur, int fin, Entete entete, RegistreParticipants registre)
+            throws IOException {
+        if (entete.participantsLus >= entete.participants.length) {
+            throw new IOException("Registre de participants plus long qu'annoncé");
+        }
+        Participant participant = registre.partager(lecteur.lireChaine(), lecteur.lireChaine(), lecteur.lireChaine());
+        terminerEnregistrement(lecteur, fin);
+        entete.participants[entete.participantsLus++] = participant;
+    }
+
+    // ================================
+    // MIGRATION
+    // ================================
+
+    /**
+     * Version d'un snapshot binaire, lue sans décoder le contenu
+     * @return -1 si le tampon ne commence pas par le magic des snapshots
+     */
+    public static int versionSnapshot(ByteBuffer buffer) {
+        if (buffer.remaining() < MAGIC.length + 2) {
+            return -1;
+        }
+        int debut = buffer.position();
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(debut + i) != MAGIC[i]) {
+                return -1;
+            }
+        }
+        return buffer.get(debut + MAGIC.length) & 0xFF;
+    }
+
+    /**
+     * Réencode un snapshot d'une version antérieure dans la version courante
+     * Le registre de participants de la version courante précède les événements : le snapshot
+     * source est lu deux fois, un événement à la fois (cf. migrerEvenements).
+     * @return faux si le snapshot est déjà à la version courante (rien n'est écrit)
+     */
+    public static boolean migrer(ByteBuffer buffer, OutputStream sortie) throws IOException {
+        int version = versionSnapshot(buffer);
+        if (version < 0) {
+            throw new IOException("Fichier non reconnu comme snapshot binaire");
+        }
+        if (version == VERSION) {
+            return false;
+        }
+        if (buffer.get(buffer.position() + MAGIC.length + 1) == CONTENU_UTILISATEURS) {
+            ecrireUtilisateurs(lireUtilisateurs(buffer), sortie);
+        } else {
+            migrerEvenements(buffer, sortie);
+        }
+        return true;
+    }
+
+    /**
+     * Deux passes sur le snapshot source, sans jamais garder plus d'un événement : la première
+     * construit le dictionnaire et le registre, la seconde réencode les événements dans l'ordre
+     * du fichier. Les clés du snapshot sont conservées telles quelles.
+     */
+    private static void migrerEvenements(ByteBuffer buffer, OutputStream sortie) throws IOException {
+        Dictionnaire dictionnaire = new Dictionnaire();
+        TableParticipants table = new TableParticipants();
+        // Participants sans identifiant : un rang chacun, retrouvés par ordre de rencontre
+        List<Participant> sansIdentifiant = new ArrayList<>();
+        int nombre = lireEvenements(buffer.duplicate(), (cle, evenement) -> {
+            ajouterAuDictionnaire(dictionnaire, evenement);
+            for (Participant participant : evenement.copierParticipants()) {
+                table.ajouter(participant);
+                if (participant.getId() == null) {
+                    sansIdentifiant.add(participant);
+                }
+            }
+        });
+
+        EcrivainSections sections = new EcrivainSections(sortie);
+        sections.ecrireEntete(CONTENU_EVENEMENTS, dictionnaire, table.participants.size(), nombre);
+        TamponBinaire enregistrement = new TamponBinaire(4096);
+        ecrireRegistre(table, sections, enregistrement);
+
+        TamponBinaire blocParticipants = new TamponBinaire(4096);
+        Iterator<Participant> suivantSansId = sansIdentifiant.iterator();
+        LecteurBinaire lecteur = new LecteurBinaire(buffer.duplicate());
+        Entete entete = lireEntete(lecteur, CONTENU_EVENEMENTS);
+        lireRegistre(lecteur, entete, new RegistreParticipants());
+        parcourirEnregistrements(lecteur, entete, (source, fin) -> {
+            String cle = source.lireChaine();
+            Evenement evenement = decoderEvenement(source, entete, false);
+            terminerEnregistrement(source, fin);
+
+            List<Participant> participants = evenement.copierParticipants();
+            for (int i = 0; i < participants.size(); i++) {
+                if (participants.get(i).getId() == null) {
+                    participants.set(i, suivantSansId.next());
+                }
+            }
+            enregistrement.reinitialiser();
+            // Événement décodé localement : ses chaînes sont celles de la première passe
+            encoderEvenement(cle, evenement, ChainesDictionnaire.de(evenement), dictionnaire, enregistrement);
+            encoderParticipants(participants, null, null, table, enregistrement, blocParticipants);
+            sections.ajouter(enregistrement);
+        });
+        sections.terminer();
+    }
+
+    // ================================
+    // UTILISATEURS
+    // ================================
+
+    /**
+     * Écrit les utilisateurs ; le flux n'est pas fermé
+     */
+    public static void ecrireUtilisateurs(Map<String, User> utilisateurs, OutputStream sortie) throws IOException {
+        Dictionnaire dictionnaire = new Dictionnaire();
+        for (User user : utilisateurs.values()) {
+            dictionnaire.ajouter(user.getRole() != null ? user.getRole().name() : null);
+            dictionnaire.ajouter(user.getOrganisation());
+        }
+
+        EcrivainSections sections = new EcrivainSections(sortie);
+        sections.ecrireEntete(CONTENU_UTILISATEURS, dictionnaire, 0, utilisateurs.size());
+        sections.terminer(); // registre de participants vide
+
+        TamponBinaire enregistrement = new TamponBinaire(512);
+
+        for (Map.Entry<String, User> entry : utilisateurs.entrySet()) {
+            User user = entry.getValue();
+            enregistrement.reinitialiser();
+            enregistrement.ecrireChaine(entry.getKey());
+            enregistrement.ecrireChaine(user.getId());
+            enregistrement.ecrireChaine(user.getNom());
+            enregistrement.ecrireChaine(user.getEmail());
+            enregistrement.ecrireChaine(user.getMotDePasse());
+            enregistrement.ecrireVarint(dictionnaire.indice(user.getRole() != null ? user.getRole().name() : null));
+            enregistrement.ecrireChaine(user.getTelephone());
+            enregistrement.ecrireVarint(dictionnaire.indice(user.getOrganisation()));
+            enregistrement.ecrireDate(user.getDateCreation());
+            enregistrement.ecrireDate(user.getDernierAcces());
+            enregistrement.ecrireOctet(user.isActif() ? 1 : 0);
+            enregistrement.ecrireChaine(user.getPhotoProfile());
+            enregistrement.ecrireChaine(user.getPreferences());
+            sections.ajouter(enregistrement);
+        }
+        sections.terminer();
+    }
+
+    public static Map<String, User> lireUtilisateurs(ByteBuffer buffer) throws IOException {
+        LecteurBinaire source = new LecteurBinaire(buffer);
+        Entete entete = lireEntete(source, CONTENU_UTILISATEURS);
+        lireRegistre(source, entete, new RegistreParticipants());
+        String[] dictionnaire = entete.dictionnaire;
+        Map<String, User> utilisateurs = new HashMap<>();
+
+        parcourirEnregistrements(source, entete, (lecteur, fin) -> {
+            String cle = lecteur.lireChaine();
+            User user = new User();
+            user.setId(lecteur.lireChaine());
+            user.setNom(lecteur.lireChaine());
+            user.setEmail(lecteur.lireChaine());
+            user.setMotDePasse(lecteur.lireChaine());
+            String role = reference(lecteur, dictionnaire);
+            try {
+                user.setRole(role != null ? UserRole.valueOf(role) : null);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Rôle inconnu: " + role, e);
+            }
+            user.setTelephone(lecteur.lireChaine());
+            user.setOrganisation(reference(lecteur, dictionnaire));
+            user.setDateCreation(lecteur.lireDate());
+            user.setDernierAcces(lecteur.lireDate());
+            user.setActif(lecteur.lireOctet() != 0);
+            user.setPhotoProfile(lecteur.lireChaine());
+            user.setPreferences(lecteur.lireChaine());
+
+            terminerEnregistrement(lecteur, fin);
+            utilisateurs.put(cle, user);
+        });
+        return utilisateurs;
+    }
+
+    // ================================
+    // EN-TÊTE ET DICTIONNAIRE
+    // ================================
+
+    private static void ecrireDictionnaire(TamponBinaire sortie, Dictionnaire dictionnaire) {
+        sortie.ecrireVarint(dictionnaire.chaines.size());
+        for (String chaine : dictionnaire.chaines.keySet()) {
+            sortie.ecrireChaine(chaine);
+        }
+    }
+
+    /**
+     * Vérifie magic, version et type de contenu, puis lit le dictionnaire et le nombre d'enregistrements
+     * En version 2, la section d'en-tête est vérifiée par sa somme de contrôle.
+     */
+    static Entete lireEntete(LecteurBinaire lecteur, byte contenuAttendu) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        lecteur.lireOctets(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Fichier non reconnu comme snapshot binaire");
+        }
+        int version = lecteur.lireOctet();
+        if (version < VERSION_SANS_SECTIONS || version > VERSION) {
+            throw new IOException("Version de snapshot binaire non supportée: " + version);
+        }
+        int contenu = lecteur.lireOctet();
+        if (contenu != contenuAttendu) {
+            throw new IOException("Contenu inattendu dans le snapshot binaire: " + (char) contenu);
+        }
+
+        if (version == VERSION_SANS_SECTIONS) {
+            String[] dictionnaire = lireDictionnaire(lecteur);
+            return new Entete(version, dictionnaire, 0, lecteur.lireVarint());
+        }
+        int longueur = lireSection(lecteur);
+        if (longueur == 0) {
+            throw new IOException("Section d'en-tête absente");
+        }
+        int fin = lecteur.position() + longueur;
+        String[] dictionnaire = lireDictionnaire(lecteur);
+        int nombreParticipants = version >= VERSION ? lecteur.lireVarint() : 0;
+        int nombre = lecteur.lireVarint();
+        if (nombreParticipants < 0 || nombre < 0) {
+            throw new IOException("En-tête corrompu");
+        }
+        terminerSection(lecteur, fin);
+        return new Entete(version, dictionnaire, nombreParticipants, nombre);
+    }
+
+    private static String[] lireDictionnaire(LecteurBinaire lecteur) throws IOException {
+        int taille = lecteur.lireVarint();
+        if (taille < 0 || taille > lecteur.octetsRestants()) {
+            throw new IOException("Dictionnaire invalide: " + taille);
+        }
+        String[] dictionnaire = new String[taille];
+        for (int i = 0; i < taille; i++) {
+            dictionnaire[i] = lecteur.lireChaine();
+        }
+        return dictionnaire;
+    }
+
+    // ================================
+    // SECTIONS
+    // ================================
+
+    @FunctionalInterface
+    interface LectureEnregistrement {
+        /**
+         * @param lecteur positionné au début du corps de l'enregistrement
+         * @param fin position de fin du corps
+         */
+        void lire(LecteurBinaire lecteur, int fin) throws IOException;
+    }
+
+    /**
+     * Parcourt les enregistrements qui suivent l'en-tête, section par section
+     * Le snapshot doit se terminer par la section vide et contenir le nombre annoncé.
+     */
+    static void parcourirEnregistrements(LecteurBinaire lecteur, Entete entete, LectureEnregistrement lecture)
+            throws IOException {
+        if (entete.version == VERSION_SANS_SECTIONS) {
+            for (int i = 0; i < entete.nombre; i++) {
+                int longueur = lecteur.lireLongueur();
+                lecture.lire(lecteur, lecteur.position() + longueur);
+            }
+            return;
+        }
+
+        parcourirSections(lecteur, entete.nombre, lecture);
+    }
+
+    /**
+     * Lit des sections jusqu'à la section vide ; le total doit correspondre au nombre annoncé
+     */
+    private static void parcourirSections(LecteurBinaire lecteur, int attendu, LectureEnregistrement lecture)
+            throws IOException {
+        int lus = 0;
+        int longueurSection;
+        while ((longueurSection = lireSection(lecteur)) > 0) {
+            int finSection = lecteur.position() + longueurSection;
+            int nombre = lecteur.lireVarint();
+            for (int i = 0; i < nombre; i++) {
+                int longueur = lecteur.lireLongueur();
+                int fin = lecteur.position() + longueur;
+                if (fin > finSection) {
+                    throw new IOException("Enregistrement à cheval sur deux sections");
+                }
+                lecture.lire(lecteur, fin);
+            }
+            terminerSection(lecteur, finSection);
+            lus += nombre;
+        }
+        if (lus != attendu) {
+            throw new IOException("Snapshot incomplet: " + lus + " enregistrements sur " + attendu);
+        }
+    }
+
+    /**
+     * Lit la longueur d'une section et vérifie sa somme de contrôle ; le curseur est placé sur son contenu
+     * @return la longueur du contenu, 0 pour la section de fin
+     */
+    static int lireSection(LecteurBinaire lecteur) throws IOException {
+        int longueur = lecteur.lireVarint();
+        if (longueur == 0) {
+            return 0;
+        }
+        if (longueur < 0 || (long) longueur + TAILLE_CRC > lecteur.octetsRestants()) {
+            throw new IOException("Section tronquée: " + longueur + " octets annoncés");
+        }
+        verifierSection(lecteur.tampon(), lecteur.position(), longueur);
+        return longueur;
+    }
+
+    /**
+     * Compare le CRC32C du contenu [debut, debut + longueur) à celui qui le suit
+     */
+    static void verifierSection(ByteBuffer buffer, int debut, int longueur) throws IOException {
+        ByteBuffer contenu = buffer.duplicate();
+        contenu.limit(debut + longueur);
+        contenu.position(debut);
+        CRC32C crc = new CRC32C();
+        crc.update(contenu);
+        if ((int) crc.getValue() != buffer.getInt(debut + longueur)) {
+            throw new IOException("Section corrompue (somme de contrôle invalide) à l'octet " + debut);
+        }
+    }
+
+    private static void terminerSection(LecteurBinaire lecteur, int fin) throws IOException {
+        if (lecteur.position() != fin) {
+            throw new IOException("Section corrompue: contenu incohérent avec sa longueur");
+        }
+        lecteur.positionner(fin + TAILLE_CRC);
+    }
+
+    /**
+     * Se place à la fin de l'enregistrement : les champs ajoutés par une version ultérieure sont ignorés
+     */
+    static void terminerEnregistrement(LecteurBinaire lecteur, int fin) throws IOException {
+        if (lecteur.position() > fin) {
+            throw new IOException("Enregistrement corrompu: lecture au-delà de sa longueur");
+        }
+        lecteur.positionner(fin);
+    }
+
+    static String reference(LecteurBinaire lecteur, String[] dictionnaire) throws IOException {
+        int indice = lecteur.lireVarint();
+        if (indice == 0) {
+            return null;
+        }
+        if (indice > dictionnaire.length) {
+            throw new IOException("Référence de dictionnaire invalide: " + indice);
+        }
+        return dictionnaire[indice - 1];
+    }
+
+    /**
+     * En-tête d'un snapshot : version du format, dictionnaire, nombres annoncés et registre lu
+     */
+    static final class Entete {
+        final int version;
+        final String[] dictionnaire;
+        final int nombreParticipants;
+        final int nombre;
+        // Registre du snapshot (version 3), null quand les participants sont en ligne
+        final Participant[] participants;
+        int participantsLus;
+
+        Entete(int version, String[] dictionnaire, int nombreParticipants, int nombre) {
+            this.version = version;
+            this.dictionnaire = dictionnaire;
+            this.nombreParticipants = nombreParticipants;
+            this.nombre = nombre;
+            this.participants = version >= VERSION ? new Participant[nombreParticipants] : null;
+        }
+    }
+
+    /**
+     * Rang de chaque participant dans le registre écrit ; une entrée par identifiant
+     */
+    private static class TableParticipants {
+        final List<Participant> participants = new ArrayList<>();
+        private final Map<String, Integer> rangs = new HashMap<>();
+        private final Map<Participant, Integer> rangsSansId = new IdentityHashMap<>();
+
+        void ajouter(Participant participant) {
+            if (participant.getId() != null) {
+                rangs.computeIfAbsent(participant.getId(), id -> nouveauRang(participant));
+            } else {
+                rangsSansId.computeIfAbsent(participant, p -> nouveauRang(participant));
+            }
+        }
+
+        int rang(Participant participant) {
+            return participant.getId() != null ? rangs.get(participant.getId()) : rangsSansId.get(participant);
+        }
+
+        private int nouveauRang(Participant participant) {
+            participants.add(participant);
+            return participants.size() - 1;
+        }
+    }
+
+    /**
+     * Écriture en une passe séquentielle : les enregistrements sont regroupés en sections
+     * d'environ TAILLE_SECTION octets, chacune suivie de son CRC32C
+     */
+    private static class EcrivainSections {
+        private final OutputStream sortie;
+        private final TamponBinaire section = new TamponBinaire(TAILLE_SECTION + 4096);
+        private final TamponBinaire cadre = new TamponBinaire(16);
+        private final CRC32C crc = new CRC32C();
+        private int nombre;
+
+        EcrivainSections(OutputStream sortie) {
+            this.sortie = sortie;
+        }
+
+        void ecrireEntete(byte contenu, Dictionnaire dictionnaire, int nombreParticipants, int nombreEnregistrements)
+                throws IOException {
+            cadre.reinitialiser();
+            cadre.ecrireOctets(MAGIC, 0, MAGIC.length);
+            cadre.ecrireOctet(VERSION);
+            cadre.ecrireOctet(contenu);
+            cadre.copierVers(sortie);
+
+            TamponBinaire entete = new TamponBinaire(256);
+            ecrireDictionnaire(entete, dictionnaire);
+            entete.ecrireVarint(nombreParticipants);
+            entete.ecrireVarint(nombreEnregistrements);
+            ecrireCadre(null, entete);
+        }
+
+        void ajouter(TamponBinaire enregistrement) throws IOException {
+            if (nombre > 0 && section.taille() + enregistrement.taille() + 5 > TAILLE_SECTION) {
+                vider();
+            }
+            section.ecrireVarint(enregistrement.taille());
+            section.ecrireTampon(enregistrement);
+            nombre++;
+        }
+
+        void terminer() throws IOException {
+            vider();
+            cadre.reinitialiser();
+            cadre.ecrireVarint(0);
+            cadre.copierVers(sortie);
+        }
+
+        private void vider() throws IOException {
+            if (nombre == 0) {
+                return;
+            }
+            TamponBinaire prefixe = new TamponBinaire(5);
+            prefixe.ecrireVarint(nombre);
+            ecrireCadre(prefixe, section);
+            section.reinitialiser();
+            nombre = 0;
+        }
+
+        /**
+         * longueur | prefixe + contenu | CRC32C(prefixe + contenu)
+         */
+        private void ecrireCadre(TamponBinaire prefixe, TamponBinaire contenu) throws IOException {
+            int longueur = contenu.taille() + (prefixe != null ? prefixe.taille() : 0);
+            crc.reset();
+            if (prefixe != null) {
+                prefixe.mettreAJour(crc);
+            }
+            contenu.mettreAJour(crc);
+
+            cadre.reinitialiser();
+            cadre.ecrireVarint(longueur);
+            cadre.copierVers(sortie);
+            if (prefixe != null) {
+                prefixe.copierVers(sortie);
+            }
+            contenu.copierVers(sortie);
+            cadre.reinitialiser();
+            cadre.ecrireEntier32((int) crc.getValue());
+            cadre.copierVers(sortie);
+        }
+    }
+
+    /**
+     * Table des chaînes répétées ; l'indice 0 est réservé à null
+     */
+    /**
+     * Lieu et thème (conférence) ou genre (concert) d'un événement, tels qu'ajoutés au dictionnaire :
+     * un setLieu concurrent ne peut pas faire encoder une chaîne que le dictionnaire ne connaît pas
+     */
+    private static final class ChainesDictionnaire {
+        final String lieu;
+        final String categorie;
+
+        ChainesDictionnaire(String lieu, String categorie) {
+            this.lieu = lieu;
+            this.categorie = categorie;
+        }
+
+        static ChainesDictionnaire de(Evenement evenement) {
+            String categorie = null;
+            if (evenement instanceof Conference) {
+                categorie = ((Conference) evenement).getTheme();
+            } else if (evenement instanceof Concert) {
+                categorie = ((Concert) evenement).getGenreMusical();
+            }
+            return new ChainesDictionnaire(evenement.getLieu(), categorie);
+        }
+    }
+
+    private static class Dictionnaire {
+        final Map<String, Integer> chaines = new LinkedHashMap<>();
+
+        void ajouter(String chaine) {
+            if (chaine != null) {
+                chaines.putIfAbsent(chaine, chaines.size() + 1);
+            }
+        }
+
+        int indice(String chaine) {
+            return chaine != null ? chaines.get(chaine) : 0;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.gestion.evenements.serialization;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.gestion.evenements.model.Evenement;
+import com.gestion.evenements.model.Intervenant;
+import com.gestion.evenements.model.Participant;
+import com.gestion.evenements.model.evenementparticulier.Concert;
+import com.gestion.evenements.model.evenementparticulier.Conference;
+
+/**
+ * Export d'un catalogue dans plusieurs formats à partir d'un seul instantané cohérent
+ *
+ * Le catalogue vivant est parcouru une seule fois pour en capturer une copie détachée ;
+ * chaque format est ensuite encodé en parallèle sur un pool borné à partir de cette copie,
+ * que personne d'autre ne modifie. La durée de l'export est celle de l'encodeur le plus
+ * lent, et une mutation concurrente du catalogue ne peut plus interrompre un encodeur.
+ */
+public class CoordinateurExport {
+    // Une capture interrompue par une mutation concurrente est recommencée
+    private static final int TENTATIVES_CAPTURE = 5;
+
+    /**
+     * Encode un instantané du catalogue dans un flux ; le flux n'est pas fermé
+     */
+    @FunctionalInterface
+    public interface EncodeurCatalogue {
+        void encoder(Map<String, Evenement> evenements, OutputStream sortie) throws IOException;
+    }
+
+    private final Map<String, EncodeurCatalogue> formats = new LinkedHashMap<>();
+    private final ExecutorService executeur;
+
+    /**
+     * @param nombreThreads nombre maximal d'encodeurs exécutés simultanément
+     */
+    public CoordinateurExport(int nombreThreads) {
+        this.executeur = Executors.newFixedThreadPool(nombreThreads, tache -> {
+            Thread thread = new Thread(tache, "export-catalogue");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Ajoute (ou remplace) un format ; l'extension sert à nommer le fichier produit
+     */
+    public synchronized CoordinateurExport ajouterFormat(String extension, EncodeurCatalogue encodeur) {
+        formats.put(extension, encodeur);
+        return this;
+    }
+
+    public synchronized List<String> getFormats() {
+        return new ArrayList<>(formats.keySet());
+    }
+
+    // ================================
+    // INSTANTANÉ
+    // ================================
+
+    /**
+     * Copie détachée et non modifiable du catalogue : événements, intervenants et participants
+     * sont de nouvelles instances, indépendantes des mutations ultérieures du catalogue vivant.
+     * Les participants sont copiés sous le verrou d'inscriptions de chaque événement et les
+     * intervenants par copie de tableau : aucune ConcurrentModificationException ; seule la copie
+     * des entrées du catalogue est recommencée si le catalogue change pendant son parcours.
+     */
+    public static Map<String, Evenement> capturer(Map<String, Evenement> catalogue) throws IOException {
+        List<Map.Entry<String, Evenement>> entrees = copierEntrees(catalogue);
+        Map<String, Participant> participants = new HashMap<>();
+        Map<String, Evenement> copie = new LinkedHashMap<>();
+        for (Map.Entry<String, Evenement> entree : entrees) {
+            copie.put(entree.getKey(), copier(entree.getValue(), participants));
+        }
+        return Collections.unmodifiableMap(copie);
+    }
+
+    private static List<Map.Entry<String, Evenement>> copierEntrees(Map<String, Evenement> catalogue)
+            throws IOException {
+        ConcurrentModificationException derniere = null;
+        for (int tentative = 0; tentative < TENTATIVES_CAPTURE; tentative++) {
+            try {
+                List<Map.Entry<String, Evenement>> entrees = new ArrayList<>(catalogue.size());
+                for (Map.Entry<String, Evenement> entree : catalogue.entrySet()) {
+                    entrees.add(Map.entry(entree.getKey(), entree.getValue()));
+                }
+                return entrees;
+            } catch (ConcurrentModificationException e) {
+                derniere = e;
+            }
+        }
+        throw new IOException("Catalogue modifié pendant " + TENTATIVES_CAPTURE + " captures successives", derniere);
+    }
+
+    private static Evenement copier(Evenement evenement, Map<String, Participant> participants) {
+        Evenement copie;
+        if (evenement instanceof Concert) {
+            Concert concert = (Concert) evenement;
+            copie = new Concert(concert.getId(), concert.getNom(), concert.getDate(), concert.getLieu(),
+                concert.getCapaciteMax(), concert.getArtiste(), concert.getGenreMusical());
+        } else {
+            // Sous-type inconnu : copié comme conférence sans thème (comme le codec binaire)
+            Conference conference = evenement instanceof Conference ? (Conference) evenement : null;
+            Conference copieConference = new Conference(evenement.getId(), evenement.getNom(), evenement.getDate(),
+                evenement.getLieu(), evenement.getCapaciteMax(), conference != null ? conference.getTheme() : null);
+            if (conference != null && conference.getIntervenants() != null) {
+                for (Object element : conference.getIntervenants().toArray()) {
+                    Intervenant intervenant = (Intervenant) element;
+                    if (intervenant != null) {
+                        copieConference.getIntervenants().add(
+                            new Intervenant(intervenant.getNom(), intervenant.getSpecialite()));
+                    }
+                }
+            }
+            copie = copieConference;
+        }
+
+        List<Participant> inscrits = new ArrayList<>();
+        for (Participant participant : evenement.copierParticipants()) {
+            // Un participant inscrit à plusieurs événements reste une seule instance dans la copie
+            inscrits.add(participant.getId() == null
+                ? new Participant(null, participant.getNom(), participant.getEmail())
+                : participants.computeIfAbsent(participant.getId(),
+                    id -> new Participant(id, participant.getNom(), participant.getEmail())));
+        }
+        copie.setParticipants(Collections.unmodifiableList(inscrits));
+        return copie;
+    }
+
+    // ================================
+    // EXPORT
+    // ================================
+
+    /**
+     * Capture le catalogue puis écrit un fichier par format (nomBase.extension), en parallèle
+     *
+     * @return fichier écrit pour chaque extension
+     * @throws IOException si au moins un encodeur a échoué (les autres fichiers sont conservés)
+     */
+    public Map<String, Path> exporter(Map<String, Evenement> catalogue, String nomBase) throws IOException {
+        Map<String, Evenement> instantane = capturer(catalogue);
+        Map<String, EncodeurCatalogue> aEncoder;
+        synchronized (this) {
+            aEncoder = new LinkedHashMap<>(formats);
+        }
+
+        Map<String, Future<Path>> taches = new LinkedHashMap<>();
+        for (Map.Entry<String, EncodeurCatalogue> format : aEncoder.entrySet()) {
+            Path fichier = Path.of(nomBase + "." + format.getKey());
+            EncodeurCatalogue encodeur = format.getValue();
+            taches.put(format.getKey(), executeur.submit(() -> {
+                SerializationManager.ecrireAtomique(fichier.toString(), false,
+                    sortie -> encodeur.encoder(instantane, sortie));
+                return fichier;
+            }));
+        }
+
+        Map<String, Path> fichiers = new LinkedHashMap<>();
+        IOException erreur = null;
+        for (Map.Entry<String, Future<Path>> tache : taches.entrySet()) {
+            try {
+                fichiers.put(tache.getKey(), tache.getValue().get());
+            } catch (ExecutionException e) {
+                IOException echec = new IOException("Échec de l'export " + tache.getKey() + ": "
+                    + e.getCause().getMessage(), e.getCause());
+                if (erreur == null) {
+                    erreur = echec;
+                } else {
+                    erreur.addSuppressed(echec);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Export interrompu", e);
+            }
+        }
+        if (erreur != null) {
+            throw erreur;
+        }
+        System.out.println("✅ Export parallèle terminé: " + instantane.size() + " événements, formats " + fichiers.keySet());
+        return fichiers;
+    }
+
+    public void fermer() {
+        executeur.shutdown();
+    }
+}
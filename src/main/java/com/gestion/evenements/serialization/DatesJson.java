@@ -0,0 +1,155 @@
+package com.gestion.evenements.serialization;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+
+/**
+ * Dates ISO (yyyy-MM-ddTHH:mm:ss[.fffffffff]) écrites et lues directement sur des tableaux de caractères
+ * Même texte que JavaTimeModule, sans DateTimeFormatter ni String intermédiaire : l'écriture remplit
+ * un tampon passé au générateur, la lecture décode les caractères du parser en place.
+ */
+final class DatesJson {
+    // yyyy-MM-ddTHH:mm:ss.fffffffff
+    private static final int LONGUEUR_MAX = 29;
+
+    private DatesJson() {}
+
+    static void ecrire(LocalDateTime date, JsonGenerator generator) throws IOException {
+        if (date == null) {
+            generator.writeNull();
+            return;
+        }
+        int annee = date.getYear();
+        if (annee < 0 || annee > 9999) {
+            // Années hors du format à quatre chiffres : représentation standard
+            generator.writeString(date.toString());
+            return;
+        }
+
+        char[] tampon = new char[LONGUEUR_MAX];
+        chiffres(tampon, 0, annee, 4);
+        tampon[4] = '-';
+        chiffres(tampon, 5, date.getMonthValue(), 2);
+        tampon[7] = '-';
+        chiffres(tampon, 8, date.getDayOfMonth(), 2);
+        tampon[10] = 'T';
+        chiffres(tampon, 11, date.getHour(), 2);
+        tampon[13] = ':';
+        chiffres(tampon, 14, date.getMinute(), 2);
+        tampon[16] = ':';
+        chiffres(tampon, 17, date.getSecond(), 2);
+        int longueur = 19;
+
+        int nano = date.getNano();
+        if (nano != 0) {
+            tampon[19] = '.';
+            chiffres(tampon, 20, nano, 9);
+            longueur = LONGUEUR_MAX;
+            // Comme ISO_LOCAL_DATE_TIME : pas de zéros en fin de fraction
+            while (tampon[longueur - 1] == '0') {
+                longueur--;
+            }
+        }
+        generator.writeString(tampon, 0, longueur);
+    }
+
+    /**
+     * Lit la date sous le curseur ; null pour une valeur null
+     */
+    static LocalDateTime lire(JsonParser parser, DeserializationContext contexte) throws IOException {
+        JsonToken jeton = parser.currentToken();
+        if (jeton == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (jeton == JsonToken.START_ARRAY) {
+            // Dates écrites en tableau (WRITE_DATES_AS_TIMESTAMPS) : décodage standard
+            return contexte.readValue(parser, LocalDateTime.class);
+        }
+        if (jeton != JsonToken.VALUE_STRING) {
+            throw JsonMappingException.from(parser, "Date attendue, trouvé: " + jeton);
+        }
+
+        char[] texte = parser.getTextCharacters();
+        int debut = parser.getTextOffset();
+        int longueur = parser.getTextLength();
+        LocalDateTime date = decoder(texte, debut, longueur);
+        if (date != null) {
+            return date;
+        }
+        // Forme moins courante (fuseau, secondes absentes...) : analyse complète
+        try {
+            return LocalDateTime.parse(new String(texte, debut, longueur));
+        } catch (DateTimeException e) {
+            throw JsonMappingException.from(parser, "Date invalide: " + new String(texte, debut, longueur), e);
+        }
+    }
+
+    /**
+     * @return null si le texte n'est pas exactement yyyy-MM-ddTHH:mm:ss[.f{1,9}]
+     */
+    private static LocalDateTime decoder(char[] texte, int debut, int longueur) {
+        if (longueur < 19 || longueur == 20 || longueur > LONGUEUR_MAX
+                || texte[debut + 4] != '-' || texte[debut + 7] != '-' || texte[debut + 10] != 'T'
+                || texte[debut + 13] != ':' || texte[debut + 16] != ':') {
+            return null;
+        }
+        int annee = nombre(texte, debut, 4);
+        int mois = nombre(texte, debut + 5, 2);
+        int jour = nombre(texte, debut + 8, 2);
+        int heure = nombre(texte, debut + 11, 2);
+        int minute = nombre(texte, debut + 14, 2);
+        int seconde = nombre(texte, debut + 17, 2);
+        if ((annee | mois | jour | heure | minute | seconde) < 0) {
+            return null;
+        }
+
+        int nano = 0;
+        if (longueur > 19) {
+            if (texte[debut + 19] != '.') {
+                return null;
+            }
+            int chiffresFraction = longueur - 20;
+            nano = nombre(texte, debut + 20, chiffresFraction);
+            if (nano < 0) {
+                return null;
+            }
+            for (int i = chiffresFraction; i < 9; i++) {
+                nano *= 10;
+            }
+        }
+        try {
+            return LocalDateTime.of(annee, mois, jour, heure, minute, seconde, nano);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return la valeur des chiffres, ou -1 si un caractère n'est pas un chiffre
+     */
+    private static int nombre(char[] texte, int debut, int longueur) {
+        int valeur = 0;
+        for (int i = debut; i < debut + longueur; i++) {
+            int chiffre = texte[i] - '0';
+            if (chiffre < 0 || chiffre > 9) {
+                return -1;
+            }
+            valeur = valeur * 10 + chiffre;
+        }
+        return valeur;
+    }
+
+    private static void chiffres(char[] tampon, int debut, int valeur, int largeur) {
+        for (int i = debut + largeur - 1; i >= debut; i--) {
+            tampon[i] = (char) ('0' + valeur % 10);
+            valeur /= 10;
+        }
+    }
+}
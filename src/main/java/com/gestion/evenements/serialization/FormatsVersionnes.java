@@ -0,0 +1,126 @@
+package com.gestion.evenements.serialization;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Versions des formats persistés et migrations enregistrement par enregistrement
+ *
+ * Les maps JSON commencent par un champ d'en-tête {"_format": {"format": ..., "version": ...}} ;
+ * un fichier sans en-tête est en version 1. Les racines XML portent un attribut version.
+ * Les snapshots binaires et le fichier de sessions ont leur propre magic et version.
+ * Une migration ne voit qu'un enregistrement à la fois (un événement, un utilisateur) :
+ * les lecteurs en flux l'appliquent au fil de la lecture, sans charger le fichier entier.
+ */
+public final class FormatsVersionnes {
+    public static final String CHAMP_ENTETE = "_format";
+    public static final String ATTRIBUT_VERSION = "version";
+
+    public static final String EVENEMENTS = "evenements";
+    public static final String UTILISATEURS = "utilisateurs";
+
+    // Fichiers écrits avant l'introduction de l'en-tête
+    public static final int VERSION_SANS_ENTETE = 1;
+    public static final int VERSION_JSON = 2;
+    public static final int VERSION_XML = 2;
+
+    private FormatsVersionnes() {}
+
+    // ================================
+    // EN-TÊTES JSON
+    // ================================
+
+    /**
+     * Écrit le champ d'en-tête ; le générateur est dans l'objet racine, avant le premier enregistrement
+     */
+    public static void ecrireEnteteJson(JsonGenerator generator, String format) throws IOException {
+        generator.writeObjectFieldStart(CHAMP_ENTETE);
+        generator.writeStringField("format", format);
+        generator.writeNumberField("version", VERSION_JSON);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Champ d'en-tête encodé pour les écrivains qui produisent eux-mêmes les octets de la map
+     */
+    static byte[] enteteJson(String format) {
+        return ("  \"" + CHAMP_ENTETE + "\" : {\"format\":\"" + format + "\",\"version\":" + VERSION_JSON + "}")
+            .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lit l'en-tête ; le parser est sur la valeur du champ CHAMP_ENTETE et finit sur sa fin d'objet
+     * @return la version du fichier
+     */
+    public static int lireEnteteJson(JsonParser parser, String formatAttendu) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new IOException("En-tête de format invalide");
+        }
+        JsonNode entete = parser.readValueAsTree();
+        return verifierEntete(entete, formatAttendu);
+    }
+
+    /**
+     * Vérifie un en-tête déjà lu
+     * @return la version du fichier
+     */
+    public static int verifierEntete(JsonNode entete, String formatAttendu) throws IOException {
+        String format = entete.path("format").asText(null);
+        if (formatAttendu != null && !formatAttendu.equals(format)) {
+            throw new IOException("Format inattendu: " + format + " (attendu: " + formatAttendu + ")");
+        }
+        return verifierVersion(entete.path("version").asInt(VERSION_SANS_ENTETE), VERSION_JSON);
+    }
+
+    /**
+     * Refuse un fichier écrit par une version plus récente de l'application
+     */
+    public static int verifierVersion(int version, int versionCourante) throws IOException {
+        if (version < VERSION_SANS_ENTETE || version > versionCourante) {
+            throw new IOException("Version de format non supportée: " + version
+                + " (version courante: " + versionCourante + ")");
+        }
+        return version;
+    }
+
+    // ================================
+    // MIGRATIONS
+    // ================================
+
+    /**
+     * Met un enregistrement JSON à la version courante
+     * @param cle clé de l'enregistrement dans la map (id d'événement, email d'utilisateur)
+     */
+    public static void migrerEnregistrement(String format, ObjectNode enregistrement, String cle, int versionSource) {
+        for (int version = versionSource; version < VERSION_JSON; version++) {
+            if (version == 1) {
+                migrerVersion1(format, enregistrement, cle);
+            }
+        }
+    }
+
+    /**
+     * v1 -> v2 : la clé de la map devient la source de vérité de l'identifiant,
+     * et les listes de participants absentes sont explicitement vides
+     */
+    private static void migrerVersion1(String format, ObjectNode enregistrement, String cle) {
+        if (EVENEMENTS.equals(format)) {
+            if (!enregistrement.hasNonNull("id")) {
+                enregistrement.put("id", cle);
+            }
+            if (!enregistrement.hasNonNull("participants")) {
+                enregistrement.putArray("participants");
+            }
+        } else if (UTILISATEURS.equals(format)) {
+            if (!enregistrement.hasNonNull("email")) {
+                enregistrement.put("email", cle);
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.gestion.evenements.serialization;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gestion.evenements.model.Evenement;
+
+/**
+ * Écrivain de snapshots JSON incrémental pour une map d'événements
+ * Seuls les événements modifiés depuis le snapshot précédent sont réencodés ;
+ * les plages d'octets des événements inchangés sont recopiées depuis l'ancien fichier
+ * (FileChannel.transferTo), le coût d'écriture suit donc la taille des changements.
+ * Le fichier produit reste une map JSON lisible par chargerEvenementsJSON,
+ * précédée de l'en-tête de format (voir FormatsVersionnes).
+ */
+public class IncrementalSnapshotWriter {
+    private static final byte[] DEBUT = "{\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FIN = "\n}\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SEPARATEUR = ",\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DEUX_POINTS = " : ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] INDENTATION = "  ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ENTETE = FormatsVersionnes.enteteJson(FormatsVersionnes.EVENEMENTS);
+
+    private final Path fichier;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter evenementWriter;
+
+    // Position de chaque événement dans le dernier snapshot écrit
+    private Map<String, Fragment> fragments = new HashMap<>();
+    private long tailleEcrite = -1;
+    private long dateEcriture = -1;
+
+    private int dernierReencodes;
+    private int dernierReutilises;
+
+    public IncrementalSnapshotWriter(String fichier, ObjectMapper objectMapper) {
+        this.fichier = Path.of(fichier);
+        this.objectMapper = objectMapper;
+        // Encodage compact par événement, avec l'identifiant de type polymorphe
+        this.evenementWriter = objectMapper.writerFor(Evenement.class)
+            .without(com.fasterxml.jackson.databind.SerializationFeature.INDENT_OUTPUT);
+    }
+
+    /**
+     * Écrit le snapshot en réutilisant les fragments inchangés du précédent
+     */
+    public synchronized void ecrire(Map<String, Evenement> evenements) throws IOException {
+        Path temporaire = fichier.resolveSibling(fichier.getFileName() + ".tmp");
+        if (fichier.getParent() != null) {
+            Files.createDirectories(fichier.getParent());
+        }
+
+        boolean ancienValide = ancienSnapshotValide();
+        Map<String, Fragment> nouveauxFragments = new HashMap<>();
+        int reencodes = 0;
+        int reutilises = 0;
+
+        try (FileChannel sortie = FileChannel.open(temporaire, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             FileChannel ancien = ancienValide ? FileChannel.open(fichier, StandardOpenOption.READ) : null) {
+
+            ecrireTout(sortie, DEBUT);
+            ecrireTout(sortie, ENTETE);
+
+            for (Map.Entry<String, Evenement> entry : evenements.entrySet()) {
+                Evenement evenement = entry.getValue();
+                ecrireTout(sortie, SEPARATEUR);
+
+                ecrireTout(sortie, INDENTATION);
+                ecrireTout(sortie, objectMapper.writeValueAsBytes(entry.getKey()));
+                ecrireTout(sortie, DEUX_POINTS);
+
+                // Lire la version avant l'encodage : une modification concurrente sera réencodée au prochain tour
+                long version = evenement.getVersionModification();
+                long debut = sortie.position();
+                Fragment precedent = ancienValide ? fragments.get(entry.getKey()) : null;
+
+                if (precedent != null && precedent.evenement == evenement && precedent.version == version) {
+                    copierPlage(ancien, precedent.debut, precedent.longueur, sortie);
+                    reutilises++;
+                } else {
+                    ecrireTout(sortie, evenementWriter.writeValueAsBytes(evenement));
+                    reencodes++;
+                }
+
+                nouveauxFragments.put(entry.getKey(),
+                    new Fragment(evenement, version, debut, sortie.position() - debut));
+            }
+
+            ecrireTout(sortie, FIN);
+            sortie.force(false);
+        }
+
+        Files.move(temporaire, fichier, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        this.fragments = nouveauxFragments;
+        this.tailleEcrite = Files.size(fichier);
+        this.dateEcriture = Files.getLastModifiedTime(fichier).toMillis();
+        this.dernierReencodes = reencodes;
+        this.dernierReutilises = reutilises;
+    }
+
+    /**
+     * Oublie le snapshot précédent : la prochaine écriture réencode tout
+     */
+    public synchronized void invalider() {
+        fragments = new HashMap<>();
+        tailleEcrite = -1;
+        dateEcriture = -1;
+    }
+
+    public int getDernierReencodes() { return dernierReencodes; }
+    public int getDernierReutilises() { return dernierReutilises; }
+
+    private boolean ancienSnapshotValide() {
+        // Les positions mémorisées ne valent que si le fichier n'a pas été modifié par ailleurs
+        File file = fichier.toFile();
+        return !fragments.isEmpty()
+            && file.exists()
+            && file.length() == tailleEcrite
+            && file.lastModified() == dateEcriture;
+    }
+
+    private static void copierPlage(FileChannel source, long debut, long longueur, FileChannel cible)
+            throws IOException {
+        long copie = 0;
+        while (copie < longueur) {
+            long n = source.transferTo(debut + copie, longueur - copie, cible);
+            if (n <= 0) {
+                throw new IOException("Copie incomplète du fragment précédent");
+            }
+            copie += n;
+        }
+    }
+
+    private static void ecrireTout(FileChannel channel, byte[] donnees) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(donnees);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static class Fragment {
+        final Evenement evenement;
+        final long version;
+        final long debut;
+        final long longueur;
+
+        Fragment(Evenement evenement, long version, long debut, long longueur) {
+            this.evenement = evenement;
+            this.version = version;
+            this.debut = debut;
+            this.longueur = longueur;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.gestion.evenements.serialization;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.gestion.evenements.model.Evenement;
+
+/**
+ * Lecteur JSON en flux pour les fichiers d'événements (map id -> événement)
+ * Un seul Evenement est matérialisé à la fois puis remis au consommateur,
+ * qui peut le filtrer, l'indexer ou l'ignorer : la mémoire reste bornée
+ * quelle que soit la taille du fichier.
+ * Les fichiers d'une version antérieure du format sont migrés événement par événement.
+ */
+public class JsonEvenementStreamReader {
+    // Intervalle minimal entre deux notifications de progression
+    private static final long PAS_PROGRESSION_OCTETS = 1024 * 1024;
+
+    /**
+     * Notification de progression du chargement
+     */
+    @FunctionalInterface
+    public interface Progression {
+        void surProgression(long octetsLus, long tailleTotale, int evenementsLus);
+    }
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader evenementReader;
+
+    public JsonEvenementStreamReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.evenementReader = objectMapper.readerFor(Evenement.class);
+    }
+
+    /**
+     * Lit le fichier et transmet chaque événement au consommateur
+     * @return le nombre d'événements lus
+     */
+    public int lire(File fichier, Consumer<Evenement> consommateur, Progression progression) throws IOException {
+        long tailleTotale = fichier.length();
+        int evenementsLus = 0;
+        long prochaineNotification = PAS_PROGRESSION_OCTETS;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(fichier)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Format JSON inattendu: objet racine attendu dans " + fichier);
+            }
+
+            int version = FormatsVersionnes.VERSION_SANS_ENTETE;
+            boolean premierChamp = true;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String cle = parser.getCurrentName();
+                parser.nextToken();
+
+                if (premierChamp && FormatsVersionnes.CHAMP_ENTETE.equals(cle)) {
+                    version = FormatsVersionnes.lireEnteteJson(parser, FormatsVersionnes.EVENEMENTS);
+                    premierChamp = false;
+                    continue;
+                }
+                premierChamp = false;
+
+                if (parser.currentToken() == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+
+                Evenement evenement;
+                if (version < FormatsVersionnes.VERSION_JSON) {
+                    // Ancien format : seul cet enregistrement passe par un arbre pour être migré
+                    ObjectNode enregistrement = parser.readValueAsTree();
+                    FormatsVersionnes.migrerEnregistrement(FormatsVersionnes.EVENEMENTS, enregistrement, cle, version);
+                    evenement = evenementReader.readValue(enregistrement);
+                } else {
+                    evenement = evenementReader.readValue(parser);
+                }
+                if (evenement.getId() == null) {
+                    evenement.setId(cle);
+                }
+                consommateur.accept(evenement);
+                evenementsLus++;
+
+                if (progression != null) {
+                    long octetsLus = parser.getCurrentLocation().getByteOffset();
+                    if (octetsLus >= prochaineNotification) {
+                        progression.surProgression(octetsLus, tailleTotale, evenementsLus);
+                        prochaineNotification = octetsLus + PAS_PROGRESSION_OCTETS;
+                    }
+                }
+            }
+        }
+
+        if (progression != null) {
+            progression.surProgression(tailleTotale, tailleTotale, evenementsLus);
+        }
+        return evenementsLus;
+    }
+}
@@ -0,0 +1,173 @@
+package com.gestion.evenements.serialization;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Lecture des primitives du format binaire depuis un ByteBuffer (tas ou fichier mappé)
+ * Toute lecture hors limites est convertie en IOException : un fichier tronqué
+ * ne doit pas remonter comme une erreur d'exécution.
+ */
+class LecteurBinaire {
+    private final ByteBuffer buffer;
+
+    LecteurBinaire(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    int position() {
+        return buffer.position();
+    }
+
+    void positionner(int position) throws IOException {
+        if (position < 0 || position > buffer.limit()) {
+            throw new IOException("Position hors du fichier: " + position);
+        }
+        buffer.position(position);
+    }
+
+    void sauter(int octets) throws IOException {
+        positionner(buffer.position() + octets);
+    }
+
+    /**
+     * Tampon sous-jacent (lectures absolues, ex. vérification des sommes de contrôle)
+     */
+    ByteBuffer tampon() {
+        return buffer;
+    }
+
+    int octetsRestants() {
+        return buffer.remaining();
+    }
+
+    /**
+     * Vue sur les prochains octets, sans copie ; le curseur avance au-delà
+     */
+    ByteBuffer tranche(int longueur) throws IOException {
+        if (longueur < 0 || longueur > buffer.remaining()) {
+            throw new IOException("Bloc tronqué: " + longueur);
+        }
+        ByteBuffer tranche = buffer.slice();
+        tranche.limit(longueur);
+        buffer.position(buffer.position() + longueur);
+        return tranche;
+    }
+
+    // ================================
+    // PRIMITIVES
+    // ================================
+
+    int lireOctet() throws IOException {
+        try {
+            return buffer.get() & 0xFF;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Fin de fichier inattendue", e);
+        }
+    }
+
+    void lireOctets(byte[] cible) throws IOException {
+        try {
+            buffer.get(cible);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Fin de fichier inattendue", e);
+        }
+    }
+
+    int lireVarint() throws IOException {
+        int resultat = 0;
+        for (int decalage = 0; decalage < 35; decalage += 7) {
+            int octet = lireOctet();
+            resultat |= (octet & 0x7F) << decalage;
+            if ((octet & 0x80) == 0) {
+                return resultat;
+            }
+        }
+        throw new IOException("Varint mal formé");
+    }
+
+    long lireVarlong() throws IOException {
+        long resultat = 0;
+        for (int decalage = 0; decalage < 70; decalage += 7) {
+            int octet = lireOctet();
+            resultat |= (long) (octet & 0x7F) << decalage;
+            if ((octet & 0x80) == 0) {
+                return resultat;
+            }
+        }
+        throw new IOException("Varlong mal formé");
+    }
+
+    int lireEntierSigne() throws IOException {
+        int brut = lireVarint();
+        return (brut >>> 1) ^ -(brut & 1);
+    }
+
+    long lireLongSigne() throws IOException {
+        long brut = lireVarlong();
+        return (brut >>> 1) ^ -(brut & 1);
+    }
+
+    /**
+     * Longueur de bloc ou de chaîne, validée contre la taille restante
+     */
+    int lireLongueur() throws IOException {
+        int longueur = lireVarint();
+        if (longueur < 0 || longueur > buffer.remaining()) {
+            throw new IOException("Longueur invalide: " + longueur);
+        }
+        return longueur;
+    }
+
+    String lireChaine() throws IOException {
+        int longueur = lireVarint();
+        if (longueur == 0) {
+            return null;
+        }
+        longueur--;
+        if (longueur > buffer.remaining()) {
+            throw new IOException("Chaîne tronquée");
+        }
+        String valeur;
+        if (buffer.hasArray()) {
+            valeur = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), longueur,
+                StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + longueur);
+        } else {
+            byte[] utf8 = new byte[longueur];
+            buffer.get(utf8);
+            valeur = new String(utf8, StandardCharsets.UTF_8);
+        }
+        return valeur;
+    }
+
+    /**
+     * Passe une chaîne sans la décoder
+     */
+    void sauterChaine() throws IOException {
+        int longueur = lireVarint();
+        if (longueur > 0) {
+            if (longueur - 1 > buffer.remaining()) {
+                throw new IOException("Chaîne tronquée");
+            }
+            sauter(longueur - 1);
+        }
+    }
+
+    LocalDateTime lireDate() throws IOException {
+        int nanos = lireVarint();
+        if (nanos == 0) {
+            return null;
+        }
+        long secondes = lireLongSigne();
+        try {
+            return LocalDateTime.ofEpochSecond(secondes, nanos - 1, ZoneOffset.UTC);
+        } catch (java.time.DateTimeException e) {
+            throw new IOException("Date invalide", e);
+        }
+    }
+}
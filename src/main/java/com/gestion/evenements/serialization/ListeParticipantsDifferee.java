@@ -0,0 +1,195 @@
+package com.gestion.evenements.serialization;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import com.gestion.evenements.model.Participant;
+
+/**
+ * Liste de participants décodée au premier accès depuis un bloc du snapshot binaire
+ * Le nombre de participants est lu dès la construction : size() ne déclenche pas le décodage.
+ * Une fois décodée, la liste délègue à un ParticipantsInscrits (index par identifiant) et le bloc
+ * source est libéré.
+ */
+class ListeParticipantsDifferee extends AbstractList<Participant> {
+    private ByteBuffer bloc;
+    private Participant[] registre;
+    private final int nombreConnu;
+    private List<Participant> participants;
+    // Identifiants du bloc, indexés au premier test d'appartenance (la liste reste non décodée)
+    private Set<String> identifiants;
+
+    /**
+     * @param registre participants du snapshot auxquels le bloc fait référence, null s'ils sont en ligne
+     */
+    ListeParticipantsDifferee(ByteBuffer bloc, Participant[] registre) throws IOException {
+        this.bloc = bloc;
+        this.registre = registre;
+        this.nombreConnu = new LecteurBinaire(bloc.duplicate()).lireVarint();
+    }
+
+    /**
+     * Indique si le bloc a déjà été décodé
+     */
+    synchronized boolean estDecodee() {
+        return participants != null;
+    }
+
+    private synchronized List<Participant> charger() {
+        if (participants == null) {
+            try {
+                LecteurBinaire lecteur = new LecteurBinaire(bloc.duplicate());
+                int nombre = lecteur.lireVarint();
+                participants = BinarySnapshotCodec.decoderParticipants(lecteur, nombre, bloc.remaining(), registre);
+                bloc = null;
+                registre = null;
+                identifiants = null;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Bloc de participants corrompu", e);
+            }
+        }
+        return participants;
+    }
+
+    @Override
+    public synchronized int size() {
+        return participants == null ? nombreConnu : participants.size();
+    }
+
+    @Override
+    public Participant get(int index) {
+        return charger().get(index);
+    }
+
+    @Override
+    public Participant set(int index, Participant participant) {
+        return charger().set(index, participant);
+    }
+
+    /**
+     * Même résultat que ParticipantsInscrits : faux pour un identifiant déjà présent
+     */
+    @Override
+    public boolean add(Participant participant) {
+        modCount++;
+        return charger().add(participant);
+    }
+
+    @Override
+    public void add(int index, Participant participant) {
+        modCount++;
+        charger().add(index, participant);
+    }
+
+    @Override
+    public Participant remove(int index) {
+        modCount++;
+        return charger().remove(index);
+    }
+
+    @Override
+    public boolean remove(Object participant) {
+        modCount++;
+        return charger().remove(participant);
+    }
+
+    @Override
+    public boolean contains(Object participant) {
+        synchronized (this) {
+            if (participants == null && participant instanceof Participant) {
+                if (identifiants == null) {
+                    identifiants = indexerBloc();
+                }
+                return identifiants.contains(((Participant) participant).getId());
+            }
+        }
+        return charger().contains(participant);
+    }
+
+    private Set<String> indexerBloc() {
+        Set<String> ids = new HashSet<>(Math.max(16, (int) (nombreConnu / 0.75f) + 1));
+        lireIdentifiants(ids::add);
+        return ids;
+    }
+
+    /**
+     * Identifiants des participants ; tant que la liste n'est pas décodée, ils sont lus dans le bloc
+     */
+    synchronized void parcourirIdentifiants(Consumer<String> action) {
+        if (participants != null) {
+            for (Participant participant : participants) {
+                action.accept(participant.getId());
+            }
+            return;
+        }
+        lireIdentifiants(action);
+    }
+
+    /**
+     * Identifiants lus directement dans le bloc, sans créer la liste ni les participants
+     */
+    private void lireIdentifiants(Consumer<String> action) {
+        try {
+            BinarySnapshotCodec.lireIdentifiants(new LecteurBinaire(bloc.duplicate()), registre, action);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Bloc de participants corrompu", e);
+        }
+    }
+
+    private static int lireRang(LecteurBinaire lecteur, Participant[] registre) throws IOException {
+        int rang = lecteur.lireVarint();
+        if (rang < 0 || rang >= registre.length) {
+            throw new IOException("Référence de participant invalide: " + rang);
+        }
+        return rang;
+    }
+
+    /**
+     * Bloc encore encodé d'une liste différée, pour le recopier sans le décoder
+     * @return null si la liste est décodée, n'est pas différée ou porte ses participants en ligne
+     */
+    static BlocEncode blocEncode(List<Participant> liste) {
+        return liste instanceof ListeParticipantsDifferee ? ((ListeParticipantsDifferee) liste).blocEncode() : null;
+    }
+
+    private synchronized BlocEncode blocEncode() {
+        return participants == null && registre != null ? new BlocEncode(bloc.duplicate(), registre) : null;
+    }
+
+    /**
+     * Bloc de participants tel qu'il a été lu : nombre puis rangs dans le registre de son snapshot
+     */
+    static final class BlocEncode {
+        final ByteBuffer octets;
+        final Participant[] registre;
+
+        private BlocEncode(ByteBuffer octets, Participant[] registre) {
+            this.octets = octets;
+            this.registre = registre;
+        }
+
+        /**
+         * Rangs dans le registre, dans l'ordre d'inscription
+         */
+        int[] rangs() throws IOException {
+            LecteurBinaire lecteur = new LecteurBinaire(octets.duplicate());
+            int[] rangs = new int[lecteur.lireVarint()];
+            for (int i = 0; i < rangs.length; i++) {
+                rangs[i] = lireRang(lecteur, registre);
+            }
+            return rangs;
+        }
+    }
+
+    @Override
+    public Iterator<Participant> iterator() {
+        return charger().iterator();
+    }
+}
@@ -0,0 +1,645 @@
+package com.gestion.evenements.serialization;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import com.gestion.evenements.model.CatalogueInstantane;
+import com.gestion.evenements.model.Evenement;
+import com.gestion.evenements.model.EvenementStore;
+import com.gestion.evenements.model.RegistreParticipants;
+
+/**
+ * Catalogue d'événements adossé à un snapshot binaire mappé en mémoire (FileChannel.map)
+ *
+ * À l'ouverture, seules les clés des enregistrements sont lues pour construire un index
+ * clé -> (segment, position, longueur) ; aucun événement n'est désérialisé. Un événement
+ * est décodé à sa première recherche puis conservé, et sa liste de participants n'est
+ * décodée qu'au premier accès. Le fichier est découpé en segments alignés sur les
+ * sections, ce qui permet de dépasser la limite de 2 Go d'un seul mapping.
+ *
+ * Les ajouts et suppressions restent en mémoire ; le fichier mappé n'est jamais modifié.
+ */
+public class MappedEvenementStore implements EvenementStore {
+    public static final int TAILLE_SEGMENT_DEFAUT = 256 * 1024 * 1024;
+
+    private final Path fichier;
+    private FileChannel canal;
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private final RegistreParticipants registre;
+    private final BinarySnapshotCodec.Entete entete;
+
+    // Index des enregistrements du fichier, dans l'ordre du fichier (lecture seule après ouverture)
+    private final Map<String, Emplacement> index = new LinkedHashMap<>();
+
+    // Événements décodés ou ajoutés depuis l'ouverture, et clés du fichier supprimées
+    private final Map<String, Evenement> charges = new ConcurrentHashMap<>();
+    private final Set<String> supprimes = ConcurrentHashMap.newKeySet();
+
+    private volatile Consumer<Evenement> initialiseur;
+    private final VueMap vueMap = new VueMap();
+
+    private MappedEvenementStore(Path fichier, int tailleSegment, RegistreParticipants registre) throws IOException {
+        this.fichier = fichier;
+        this.registre = registre;
+        this.canal = FileChannel.open(fichier, StandardOpenOption.READ);
+        try {
+            this.entete = indexer(Math.max(64, tailleSegment));
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    public static MappedEvenementStore ouvrir(String fichier) throws IOException {
+        return ouvrir(fichier, TAILLE_SEGMENT_DEFAUT);
+    }
+
+    public static MappedEvenementStore ouvrir(String fichier, int tailleSegment) throws IOException {
+        return ouvrir(fichier, tailleSegment, new RegistreParticipants());
+    }
+
+    /**
+     * @param registre registre qui fournit les instances partagées des participants du snapshot
+     */
+    public static MappedEvenementStore ouvrir(String fichier, int tailleSegment, RegistreParticipants registre)
+            throws IOException {
+        return new MappedEvenementStore(Path.of(fichier), tailleSegment, registre);
+    }
+
+    /**
+     * Action appliquée à chaque événement lors de son décodage (ex. attacher les observateurs)
+     */
+    public void setInitialiseur(Consumer<Evenement> initialiseur) {
+        this.initialiseur = initialiseur;
+    }
+
+    public int getNombreSegments() {
+        return segments.size();
+    }
+
+    /**
+     * Nombre d'événements du fichier effectivement désérialisés
+     */
+    public int getNombreDecodes() {
+        int decodes = 0;
+        for (String cle : charges.keySet()) {
+            if (index.containsKey(cle)) decodes++;
+        }
+        return decodes;
+    }
+
+    // ================================
+    // INDEXATION
+    // ================================
+
+    /**
+     * Parcourt les sections du snapshot et mappe le fichier en segments alignés sur les sections
+     * La somme de contrôle de chaque section est vérifiée au passage. Le registre des
+     * participants, qui précède les événements, est décodé entièrement.
+     * @return l'en-tête du snapshot, registre compris
+     */
+    private BinarySnapshotCodec.Entete indexer(int tailleSegment) throws IOException {
+        long tailleFichier = canal.size();
+        long debutFenetre = 0;
+        ByteBuffer fenetre = mapper(debutFenetre, Math.min(tailleSegment, tailleFichier));
+        LecteurBinaire lecteur = new LecteurBinaire(fenetre);
+
+        // L'en-tête et le dictionnaire doivent tenir dans le premier segment
+        BinarySnapshotCodec.Entete entete = BinarySnapshotCodec.lireEntete(lecteur, BinarySnapshotCodec.CONTENU_EVENEMENTS);
+        if (entete.version == BinarySnapshotCodec.VERSION_SANS_SECTIONS) {
+            throw new IOException("Snapshot binaire version " + entete.version + " sans sections: chargement complet requis");
+        }
+
+        // Version 3 : sections du registre des participants, puis sections des événements
+        boolean registreEnCours = entete.version >= BinarySnapshotCodec.VERSION;
+        int indexes = 0;
+        while (true) {
+            int debut = lecteur.position();
+            int longueur = lireLongueurSection(lecteur);
+
+            if (longueur < 0) {
+                if (debutFenetre + fenetre.limit() >= tailleFichier) {
+                    throw new IOException("Snapshot tronqué: section incomplète à l'octet " + (debutFenetre + debut));
+                }
+                // La section déborde de la fenêtre : le segment courant s'arrête avant elle
+                fenetre.limit(debut);
+                segments.add(fenetre);
+                debutFenetre += debut;
+                long restant = tailleFichier - debutFenetre;
+                fenetre = mapper(debutFenetre, Math.min(tailleSegment, restant));
+                lecteur = new LecteurBinaire(fenetre);
+                longueur = lireLongueurSection(lecteur);
+                if (longueur < 0) {
+                    // Section plus grande qu'un segment : fenêtre dédiée
+                    long besoin = tailleCadre(fenetre);
+                    if (besoin > restant) {
+                        throw new IOException("Snapshot tronqué: section incomplète à l'octet " + debutFenetre);
+                    }
+                    fenetre = mapper(debutFenetre, besoin);
+                    lecteur = new LecteurBinaire(fenetre);
+                    longueur = lireLongueurSection(lecteur);
+                }
+            }
+            if (longueur == 0) {
+                if (registreEnCours) {
+                    if (entete.participantsLus != entete.nombreParticipants) {
+                        throw new IOException("Registre de participants incomplet");
+                    }
+                    registreEnCours = false;
+                    continue;
+                }
+                break;
+            }
+
+            BinarySnapshotCodec.verifierSection(fenetre, lecteur.position(), longueur);
+            int finSection = lecteur.position() + longueur;
+            int nombre = lecteur.lireVarint();
+            for (int i = 0; i < nombre; i++) {
+                int longueurEnregistrement = lecteur.lireLongueur();
+                int debutCorps = lecteur.position();
+                if (debutCorps + longueurEnregistrement > finSection) {
+                    throw new IOException("Enregistrement à cheval sur deux sections");
+                }
+                if (registreEnCours) {
+                    BinarySnapshotCodec.lireEntreeRegistre(lecteur, debutCorps + longueurEnregistrement, entete, registre);
+                    continue;
+                }
+                String cle = lecteur.lireChaine();
+                lecteur.positionner(debutCorps + longueurEnregistrement);
+                index.put(cle, new Emplacement(cle, segments.size(), debutCorps, longueurEnregistrement));
+            }
+            if (lecteur.position() != finSection) {
+                throw new IOException("Section corrompue: contenu incohérent avec sa longueur");
+            }
+            lecteur.positionner(finSection + BinarySnapshotCodec.TAILLE_CRC);
+            if (!registreEnCours) {
+                indexes += nombre;
+            }
+        }
+        if (indexes != entete.nombre) {
+            throw new IOException("Snapshot incomplet: " + indexes + " enregistrements sur " + entete.nombre);
+        }
+        fenetre.limit(lecteur.position());
+        segments.add(fenetre);
+        return entete;
+    }
+
+    /**
+     * Lit la longueur d'une section si la section entière (somme de contrôle comprise) tient dans la fenêtre
+     * @return la longueur, 0 pour la section de fin, -1 si la section déborde (le curseur est alors remis en place)
+     */
+    private static int lireLongueurSection(LecteurBinaire lecteur) throws IOException {
+        int debut = lecteur.position();
+        int disponibles = lecteur.octetsRestants();
+        int longueur;
+        try {
+            longueur = lecteur.lireVarint();
+        } catch (IOException e) {
+            // Varint coupé par la fin de la fenêtre ; au-delà de 5 octets il est simplement invalide
+            if (disponibles >= 5) {
+                throw e;
+            }
+            lecteur.positionner(debut);
+            return -1;
+        }
+        if (longueur < 0) {
+            throw new IOException("Longueur de section invalide: " + longueur);
+        }
+        if (longueur == 0 || (long) longueur + BinarySnapshotCodec.TAILLE_CRC <= lecteur.octetsRestants()) {
+            return longueur;
+        }
+        lecteur.positionner(debut);
+        return -1;
+    }
+
+    /**
+     * Taille totale de la section qui commence au début de la fenêtre
+     */
+    private static long tailleCadre(ByteBuffer fenetre) throws IOException {
+        LecteurBinaire lecteur = new LecteurBinaire(fenetre.duplicate());
+        long longueur = lecteur.lireVarint();
+        return lecteur.position() + longueur + BinarySnapshotCodec.TAILLE_CRC;
+    }
+
+    private ByteBuffer mapper(long debut, long taille) throws IOException {
+        return canal.map(FileChannel.MapMode.READ_ONLY, debut, taille);
+    }
+
+    // ================================
+    // DÉCODAGE À LA DEMANDE
+    // ================================
+
+    private LecteurBinaire lecteur(Emplacement emplacement) {
+        ByteBuffer segment = segments.get(emplacement.segment).duplicate();
+        segment.limit(emplacement.debut + emplacement.longueur);
+        segment.position(emplacement.debut);
+        return new LecteurBinaire(segment.slice());
+    }
+
+    private Evenement decoder(Emplacement emplacement) {
+        try {
+            LecteurBinaire lecteur = lecteur(emplacement);
+            lecteur.sauterChaine(); // clé
+            Evenement evenement = BinarySnapshotCodec.decoderEvenement(lecteur, entete, true);
+            BinarySnapshotCodec.terminerEnregistrement(lecteur, emplacement.longueur);
+
+            Consumer<Evenement> action = initialiseur;
+            if (action != null) {
+                action.accept(evenement);
+            }
+            return evenement;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Enregistrement illisible dans " + fichier + ": " + emplacement.cle, e);
+        }
+    }
+
+    /**
+     * Événement d'une vue figée : celui que le stockage a chargé depuis, sinon décodé ; une clé
+     * supprimée après la création de la vue est décodée pour elle seule, sans revenir au catalogue
+     */
+    private Evenement chargerPourVue(Emplacement emplacement) {
+        Evenement evenement = charges.get(emplacement.cle);
+        if (evenement != null) {
+            return evenement;
+        }
+        if (supprimes.contains(emplacement.cle)) {
+            return decoder(emplacement);
+        }
+        return charges.computeIfAbsent(emplacement.cle, cle -> decoder(emplacement));
+    }
+
+    // ================================
+    // COMPTEURS
+    // ================================
+
+    /**
+     * Compteurs du catalogue pour les statistiques
+     * Les enregistrements pas encore décodés sont résumés en place (date et bloc de
+     * participants) : ni événement ni participant n'est créé.
+     * @param reference instant à partir duquel un événement est compté comme à venir
+     */
+    public Compteurs compter(LocalDateTime reference) {
+        Compteurs compteurs = new Compteurs();
+        Set<String> participants = new HashSet<>();
+        int[] inscrits = new int[1];
+        for (Emplacement emplacement : index.values()) {
+            if (supprimes.contains(emplacement.cle) || charges.containsKey(emplacement.cle)) {
+                continue;
+            }
+            inscrits[0] = 0;
+            LocalDateTime date;
+            try {
+                LecteurBinaire lecteur = lecteur(emplacement);
+                lecteur.sauterChaine(); // clé
+                date = BinarySnapshotCodec.lireResume(lecteur, entete, id -> {
+                    inscrits[0]++;
+                    participants.add(id);
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException("Enregistrement illisible dans " + fichier + ": " + emplacement.cle, e);
+            }
+            compter(compteurs, date, inscrits[0], reference);
+        }
+        for (Evenement evenement : charges.values()) {
+            int nombre = evenement.lireParticipants(liste -> {
+                BinarySnapshotCodec.parcourirIdentifiants(liste, participants::add);
+                return liste.size();
+            });
+            compter(compteurs, evenement.getDate(), nombre, reference);
+        }
+        compteurs.participantsDistincts = participants.size();
+        return compteurs;
+    }
+
+    private static void compter(Compteurs compteurs, LocalDateTime date, int inscrits, LocalDateTime reference) {
+        compteurs.evenements++;
+        compteurs.inscriptions += inscrits;
+        if (date != null && date.isAfter(reference)) {
+            compteurs.evenementsAVenir++;
+        }
+    }
+
+    /**
+     * Nombre d'événements, d'événements à venir, d'inscriptions et de participants distincts
+     */
+    public static class Compteurs {
+        private int evenements;
+        private int evenementsAVenir;
+        private int inscriptions;
+        private int participantsDistincts;
+
+        public int getEvenements() { return evenements; }
+        public int getEvenementsAVenir() { return evenementsAVenir; }
+        public int getInscriptions() { return inscriptions; }
+        public int getParticipantsDistincts() { return participantsDistincts; }
+    }
+
+    // ================================
+    // EvenementStore
+    // ================================
+
+    @Override
+    public Evenement rechercher(String id) {
+        Evenement evenement = charges.get(id);
+        if (evenement != null || supprimes.contains(id)) {
+            return evenement;
+        }
+        Emplacement emplacement = index.get(id);
+        if (emplacement == null) {
+            return null;
+        }
+        return charges.computeIfAbsent(id, cle -> decoder(emplacement));
+    }
+
+    @Override
+    public boolean contient(String id) {
+        return charges.containsKey(id) || (index.containsKey(id) && !supprimes.contains(id));
+    }
+
+    @Override
+    public void ajouter(Evenement evenement) {
+        charges.put(evenement.getId(), evenement);
+        supprimes.remove(evenement.getId());
+    }
+
+    @Override
+    public Evenement supprimer(String id) {
+        Evenement evenement = rechercher(id);
+        if (index.containsKey(id)) {
+            supprimes.add(id);
+        }
+        charges.remove(id);
+        return evenement;
+    }
+
+    @Override
+    public int taille() {
+        int taille = index.size() - supprimes.size();
+        for (String cle : charges.keySet()) {
+            if (!index.containsKey(cle)) taille++;
+        }
+        return taille;
+    }
+
+    @Override
+    public void pourChaqueEvenementCharge(Consumer<Evenement> action) {
+        charges.values().forEach(action);
+    }
+
+    @Override
+    public Map<String, Evenement> vueMap() {
+        return vueMap;
+    }
+
+    /**
+     * Instantané sans parcours du fichier : l'index ne change jamais, seuls les événements en
+     * mémoire et les clés supprimées sont copiés ; les autres sont décodés au premier accès
+     */
+    @Override
+    public CatalogueInstantane instantane() {
+        return CatalogueInstantane.surVue(new VueFigee());
+    }
+
+    @Override
+    public synchronized void fermer() {
+        // Les mappings sont libérés par le GC ; les événements déjà décodés restent utilisables
+        try {
+            if (canal != null) {
+                canal.close();
+                canal = null;
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Erreur lors de la fermeture du catalogue mappé: " + e.getMessage());
+        }
+    }
+
+    // ================================
+    // VUE MAP
+    // ================================
+
+    /**
+     * Vue Map du catalogue : l'itération parcourt le fichier puis les ajouts, en décodant au passage
+     */
+    private class VueMap extends AbstractMap<String, Evenement> {
+
+        @Override
+        public Evenement get(Object cle) {
+            return cle instanceof String ? rechercher((String) cle) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object cle) {
+            return cle instanceof String && contient((String) cle);
+        }
+
+        @Override
+        public Evenement put(String cle, Evenement evenement) {
+            Evenement precedent = rechercher(cle);
+            charges.put(cle, evenement);
+            supprimes.remove(cle);
+            return precedent;
+        }
+
+        @Override
+        public Evenement remove(Object cle) {
+            return cle instanceof String ? supprimer((String) cle) : null;
+        }
+
+        @Override
+        public void clear() {
+            supprimes.addAll(index.keySet());
+            charges.clear();
+        }
+
+        @Override
+        public int size() {
+            return taille();
+        }
+
+        @Override
+        public Set<Entry<String, Evenement>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Evenement>> iterator() {
+                    return new Parcours();
+                }
+
+                @Override
+                public int size() {
+                    return taille();
+                }
+            };
+        }
+    }
+
+    /**
+     * Catalogue tel qu'il était à la création de la vue
+     */
+    private class VueFigee extends AbstractMap<String, Evenement> {
+        private final Map<String, Evenement> chargesFiges = new HashMap<>(charges);
+        private final Set<String> supprimesFiges = new HashSet<>(supprimes);
+        private final List<String> clesAjoutees = new ArrayList<>();
+        private final int taille;
+
+        VueFigee() {
+            for (String cle : chargesFiges.keySet()) {
+                if (!index.containsKey(cle)) clesAjoutees.add(cle);
+            }
+            int supprimesDuFichier = 0;
+            for (String cle : supprimesFiges) {
+                if (index.containsKey(cle) && !chargesFiges.containsKey(cle)) supprimesDuFichier++;
+            }
+            this.taille = index.size() - supprimesDuFichier + clesAjoutees.size();
+        }
+
+        @Override
+        public Evenement get(Object cle) {
+            Evenement evenement = chargesFiges.get(cle);
+            if (evenement != null || !containsKey(cle)) {
+                return evenement;
+            }
+            return chargerPourVue(index.get(cle));
+        }
+
+        @Override
+        public boolean containsKey(Object cle) {
+            return chargesFiges.containsKey(cle) || (index.containsKey(cle) && !supprimesFiges.contains(cle));
+        }
+
+        @Override
+        public int size() {
+            return taille;
+        }
+
+        @Override
+        public Set<Entry<String, Evenement>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Evenement>> iterator() {
+                    Iterator<String> clesFichier = index.keySet().iterator();
+                    Iterator<String> ajoutees = clesAjoutees.iterator();
+                    return new Iterator<>() {
+                        private String suivante = avancer();
+
+                        private String avancer() {
+                            while (clesFichier.hasNext()) {
+                                String cle = clesFichier.next();
+                                if (containsKey(cle)) return cle;
+                            }
+                            return ajoutees.hasNext() ? ajoutees.next() : null;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return suivante != null;
+                        }
+
+                        @Override
+                        public Entry<String, Evenement> next() {
+                            if (suivante == null) {
+                                throw new NoSuchElementException();
+                            }
+                            String cle = suivante;
+                            suivante = avancer();
+                            return new AbstractMap.SimpleImmutableEntry<>(cle, get(cle));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return taille;
+                }
+            };
+        }
+    }
+
+    private class Parcours implements Iterator<Map.Entry<String, Evenement>> {
+        private final Iterator<String> clesFichier = index.keySet().iterator();
+        private Iterator<String> clesAjoutees;
+        private String suivante;
+        private String courante;
+
+        Parcours() {
+            avancer();
+        }
+
+        private void avancer() {
+            suivante = null;
+            while (clesFichier.hasNext()) {
+                String cle = clesFichier.next();
+                if (!supprimes.contains(cle)) {
+                    suivante = cle;
+                    return;
+                }
+            }
+            if (clesAjoutees == null) {
+                List<String> ajoutees = new ArrayList<>();
+                for (String cle : charges.keySet()) {
+                    if (!index.containsKey(cle)) ajoutees.add(cle);
+                }
+                clesAjoutees = ajoutees.iterator();
+            }
+            if (clesAjoutees.hasNext()) {
+                suivante = clesAjoutees.next();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return suivante != null;
+        }
+
+        @Override
+        public Map.Entry<String, Evenement> next() {
+            if (suivante == null) {
+                throw new NoSuchElementException();
+            }
+            courante = suivante;
+            avancer();
+            Evenement evenement = rechercher(courante);
+            return new AbstractMap.SimpleImmutableEntry<>(courante, evenement);
+        }
+
+        @Override
+        public void remove() {
+            if (courante == null) {
+                throw new IllegalStateException();
+            }
+            supprimer(courante);
+            courante = null;
+        }
+    }
+
+    private static class Emplacement {
+        final String cle;
+        final int segment;
+        final int debut;
+        final int longueur;
+
+        Emplacement(String cle, int segment, int debut, int longueur) {
+            this.cle = cle;
+            this.segment = segment;
+            this.debut = debut;
+            this.longueur = longueur;
+        }
+    }
+}
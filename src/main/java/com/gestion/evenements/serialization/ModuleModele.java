@@ -0,0 +1,405 @@
+package com.gestion.evenements.serialization;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.jsontype.TypeDeserializer;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.gestion.evenements.auth.User;
+import com.gestion.evenements.auth.UserRole;
+import com.gestion.evenements.model.Evenement;
+import com.gestion.evenements.model.Intervenant;
+import com.gestion.evenements.model.Participant;
+import com.gestion.evenements.model.evenementparticulier.Concert;
+import com.gestion.evenements.model.evenementparticulier.Conference;
+
+/**
+ * Module Jackson du modèle : sérialiseurs écrits à la main pour les événements, participants et utilisateurs
+ *
+ * Aucun accès par réflexion ni introspection des beans : chaque champ est écrit et relu
+ * explicitement, et l'identifiant de type polymorphe ("type": conference/concert) est traité
+ * directement, où qu'il soit dans l'objet, sans mise en tampon des autres champs.
+ * Le JSON produit est celui qu'écrivait la sérialisation par défaut ; les propriétés calculées
+ * des anciens fichiers (nomAffichage, organisateur...) sont ignorées à la lecture.
+ */
+public class ModuleModele extends SimpleModule {
+    private static final String TYPE = "type";
+    private static final String TYPE_CONFERENCE = "conference";
+    private static final String TYPE_CONCERT = "concert";
+
+    public ModuleModele() {
+        super("ModuleModele");
+
+        SerialiseurEvenement evenements = new SerialiseurEvenement();
+        addSerializer(Evenement.class, evenements);
+        addSerializer(Conference.class, evenements);
+        addSerializer(Concert.class, evenements);
+        addDeserializer(Evenement.class, new DeserialiseurEvenement<>(Evenement.class));
+        addDeserializer(Conference.class, new DeserialiseurEvenement<>(Conference.class));
+        addDeserializer(Concert.class, new DeserialiseurEvenement<>(Concert.class));
+
+        addSerializer(Participant.class, new SerialiseurParticipant());
+        addDeserializer(Participant.class, new DeserialiseurParticipant());
+
+        addSerializer(User.class, new SerialiseurUtilisateur());
+        addDeserializer(User.class, new DeserialiseurUtilisateur());
+    }
+
+    // ================================
+    // ÉVÉNEMENTS
+    // ================================
+
+    static class SerialiseurEvenement extends StdSerializer<Evenement> {
+        SerialiseurEvenement() {
+            super(Evenement.class);
+        }
+
+        @Override
+        public void serialize(Evenement evenement, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartObject(evenement);
+            generator.writeStringField(TYPE, evenement instanceof Concert ? TYPE_CONCERT : TYPE_CONFERENCE);
+            generator.writeStringField("id", evenement.getId());
+            generator.writeStringField("nom", evenement.getNom());
+            generator.writeFieldName("date");
+            DatesJson.ecrire(evenement.getDate(), generator);
+            generator.writeStringField("lieu", evenement.getLieu());
+            generator.writeNumberField("capaciteMax", evenement.getCapaciteMax());
+
+            generator.writeFieldName("participants");
+            List<Participant> participants = evenement.getParticipants();
+            if (participants == null) {
+                generator.writeNull();
+            } else {
+                generator.writeStartArray(participants, participants.size());
+                for (Participant participant : participants) {
+                    ecrireParticipant(participant, generator);
+                }
+                generator.writeEndArray();
+            }
+
+            if (evenement instanceof Conference) {
+                Conference conference = (Conference) evenement;
+                generator.writeStringField("theme", conference.getTheme());
+                generator.writeFieldName("intervenants");
+                List<Intervenant> intervenants = conference.getIntervenants();
+                if (intervenants == null) {
+                    generator.writeNull();
+                } else {
+                    generator.writeStartArray(intervenants, intervenants.size());
+                    for (Intervenant intervenant : intervenants) {
+                        generator.writeStartObject();
+                        generator.writeStringField("nom", intervenant.getNom());
+                        generator.writeStringField("specialite", intervenant.getSpecialite());
+                        generator.writeEndObject();
+                    }
+                    generator.writeEndArray();
+                }
+            } else if (evenement instanceof Concert) {
+                Concert concert = (Concert) evenement;
+                generator.writeStringField("artiste", concert.getArtiste());
+                generator.writeStringField("genreMusical", concert.getGenreMusical());
+            }
+            generator.writeEndObject();
+        }
+
+        /**
+         * L'identifiant de type est toujours écrit par serialize
+         */
+        @Override
+        public void serializeWithType(Evenement evenement, JsonGenerator generator, SerializerProvider provider,
+                                      TypeSerializer typeSerializer) throws IOException {
+            serialize(evenement, generator, provider);
+        }
+    }
+
+    static class DeserialiseurEvenement<T extends Evenement> extends StdDeserializer<T> {
+        private final Class<T> attendu;
+
+        DeserialiseurEvenement(Class<T> attendu) {
+            super(attendu);
+            this.attendu = attendu;
+        }
+
+        @Override
+        public T deserialize(JsonParser parser, DeserializationContext contexte) throws IOException {
+            String type = null;
+            String id = null;
+            String nom = null;
+            LocalDateTime date = null;
+            String lieu = null;
+            int capaciteMax = 0;
+            List<Participant> participants = null;
+            String theme = null;
+            List<Intervenant> intervenants = null;
+            String artiste = null;
+            String genreMusical = null;
+
+            for (JsonToken jeton = debutObjet(parser); jeton == JsonToken.FIELD_NAME; jeton = parser.nextToken()) {
+                String champ = parser.getCurrentName();
+                parser.nextToken();
+                switch (champ) {
+                    case TYPE: type = parser.getValueAsString(); break;
+                    case "id": id = parser.getValueAsString(); break;
+                    case "nom": nom = parser.getValueAsString(); break;
+                    case "date": date = DatesJson.lire(parser, contexte); break;
+                    case "lieu": lieu = parser.getValueAsString(); break;
+                    case "capaciteMax": capaciteMax = parser.getValueAsInt(); break;
+                    case "participants": participants = lireParticipants(parser); break;
+                    case "theme": theme = parser.getValueAsString(); break;
+                    case "intervenants": intervenants = lireIntervenants(parser); break;
+                    case "artiste": artiste = parser.getValueAsString(); break;
+                    case "genreMusical": genreMusical = parser.getValueAsString(); break;
+                    default: parser.skipChildren();
+                }
+            }
+
+            if (type == null && attendu != Evenement.class) {
+                type = attendu == Concert.class ? TYPE_CONCERT : TYPE_CONFERENCE;
+            }
+            Evenement evenement;
+            if (TYPE_CONFERENCE.equals(type)) {
+                Conference conference = new Conference();
+                conference.setTheme(theme);
+                conference.setIntervenants(intervenants != null ? intervenants : new ArrayList<>());
+                evenement = conference;
+            } else if (TYPE_CONCERT.equals(type)) {
+                Concert concert = new Concert();
+                concert.setArtiste(artiste);
+                concert.setGenreMusical(genreMusical);
+                evenement = concert;
+            } else {
+                throw JsonMappingException.from(parser, "Type d'événement absent ou inconnu: " + type);
+            }
+            if (!attendu.isInstance(evenement)) {
+                throw JsonMappingException.from(parser, "Type d'événement " + type + " incompatible avec "
+                    + attendu.getSimpleName());
+            }
+
+            evenement.setId(id);
+            evenement.setNom(nom);
+            evenement.setDate(date);
+            evenement.setLieu(lieu);
+            evenement.setCapaciteMax(capaciteMax);
+            evenement.setParticipants(participants != null ? participants : new ArrayList<>());
+            return attendu.cast(evenement);
+        }
+
+        /**
+         * Le type est lu avec les autres champs : pas de recherche préalable ni de mise en tampon
+         */
+        @Override
+        public Object deserializeWithType(JsonParser parser, DeserializationContext contexte,
+                                          TypeDeserializer typeDeserializer) throws IOException {
+            return deserialize(parser, contexte);
+        }
+
+        private static List<Intervenant> lireIntervenants(JsonParser parser) throws IOException {
+            if (parser.currentToken() != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                return null;
+            }
+            List<Intervenant> intervenants = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (parser.currentToken() != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                Intervenant intervenant = new Intervenant();
+                for (JsonToken jeton = parser.nextToken(); jeton == JsonToken.FIELD_NAME; jeton = parser.nextToken()) {
+                    String champ = parser.getCurrentName();
+                    parser.nextToken();
+                    if ("nom".equals(champ)) {
+                        intervenant.setNom(parser.getValueAsString());
+                    } else if ("specialite".equals(champ)) {
+                        intervenant.setSpecialite(parser.getValueAsString());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                intervenants.add(intervenant);
+            }
+            return intervenants;
+        }
+    }
+
+    // ================================
+    // PARTICIPANTS
+    // ================================
+
+    static class SerialiseurParticipant extends StdSerializer<Participant> {
+        SerialiseurParticipant() {
+            super(Participant.class);
+        }
+
+        @Override
+        public void serialize(Participant participant, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            ecrireParticipant(participant, generator);
+        }
+    }
+
+    static class DeserialiseurParticipant extends StdDeserializer<Participant> {
+        DeserialiseurParticipant() {
+            super(Participant.class);
+        }
+
+        @Override
+        public Participant deserialize(JsonParser parser, DeserializationContext contexte) throws IOException {
+            debutObjet(parser);
+            return lireParticipant(parser);
+        }
+    }
+
+    /**
+     * Seuls l'identité et le contact sont persistés, quelle que soit la sous-classe (Organisateur...)
+     */
+    private static void ecrireParticipant(Participant participant, JsonGenerator generator) throws IOException {
+        generator.writeStartObject(participant);
+        generator.writeStringField("id", participant.getId());
+        generator.writeStringField("nom", participant.getNom());
+        generator.writeStringField("email", participant.getEmail());
+        generator.writeEndObject();
+    }
+
+    private static List<Participant> lireParticipants(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        List<Participant> participants = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            parser.nextToken();
+            participants.add(lireParticipant(parser));
+        }
+        return participants;
+    }
+
+    /**
+     * Le parser est sur le premier nom de champ (ou la fin) de l'objet et finit sur sa fin
+     */
+    private static Participant lireParticipant(JsonParser parser) throws IOException {
+        String id = null;
+        String nom = null;
+        String email = null;
+        for (JsonToken jeton = parser.currentToken(); jeton == JsonToken.FIELD_NAME; jeton = parser.nextToken()) {
+            String champ = parser.getCurrentName();
+            parser.nextToken();
+            switch (champ) {
+                case "id": id = parser.getValueAsString(); break;
+                case "nom": nom = parser.getValueAsString(); break;
+                case "email": email = parser.getValueAsString(); break;
+                default: parser.skipChildren();
+            }
+        }
+        return new Participant(id, nom, email);
+    }
+
+    // ================================
+    // UTILISATEURS
+    // ================================
+
+    static class SerialiseurUtilisateur extends StdSerializer<User> {
+        SerialiseurUtilisateur() {
+            super(User.class);
+        }
+
+        @Override
+        public void serialize(User user, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(user);
+            generator.writeStringField("id", user.getId());
+            generator.writeStringField("nom", user.getNom());
+            generator.writeStringField("email", user.getEmail());
+            generator.writeStringField("motDePasse", user.getMotDePasse());
+            generator.writeStringField("role", user.getRole() != null ? user.getRole().name() : null);
+            generator.writeStringField("telephone", user.getTelephone());
+            generator.writeStringField("organisation", user.getOrganisation());
+            generator.writeFieldName("dateCreation");
+            DatesJson.ecrire(user.getDateCreation(), generator);
+            generator.writeFieldName("dernierAcces");
+            DatesJson.ecrire(user.getDernierAcces(), generator);
+            generator.writeBooleanField("actif", user.isActif());
+            generator.writeStringField("photoProfile", user.getPhotoProfile());
+            generator.writeStringField("preferences", user.getPreferences());
+            generator.writeEndObject();
+        }
+    }
+
+    static class DeserialiseurUtilisateur extends StdDeserializer<User> {
+        DeserialiseurUtilisateur() {
+            super(User.class);
+        }
+
+        @Override
+        public User deserialize(JsonParser parser, DeserializationContext contexte) throws IOException {
+            // Valeurs par défaut du constructeur : date de création courante, compte actif
+            User user = new User();
+            for (JsonToken jeton = debutObjet(parser); jeton == JsonToken.FIELD_NAME; jeton = parser.nextToken()) {
+                String champ = parser.getCurrentName();
+                parser.nextToken();
+                switch (champ) {
+                    case "id": user.setId(parser.getValueAsString()); break;
+                    case "nom": user.setNom(parser.getValueAsString()); break;
+                    case "email": user.setEmail(parser.getValueAsString()); break;
+                    case "motDePasse": user.setMotDePasse(parser.getValueAsString()); break;
+                    case "role": user.setRole(lireRole(parser, contexte)); break;
+                    case "telephone": user.setTelephone(parser.getValueAsString()); break;
+                    case "organisation": user.setOrganisation(parser.getValueAsString()); break;
+                    case "dateCreation": user.setDateCreation(DatesJson.lire(parser, contexte)); break;
+                    case "dernierAcces": user.setDernierAcces(DatesJson.lire(parser, contexte)); break;
+                    case "actif": user.setActif(parser.getValueAsBoolean(true)); break;
+                    case "photoProfile": user.setPhotoProfile(parser.getValueAsString()); break;
+                    case "preferences": user.setPreferences(parser.getValueAsString()); break;
+                    default: parser.skipChildren();
+                }
+            }
+            return user;
+        }
+
+        private static UserRole lireRole(JsonParser parser, DeserializationContext contexte) throws IOException {
+            String role = parser.getValueAsString();
+            if (role == null) {
+                return null;
+            }
+            try {
+                return UserRole.valueOf(role);
+            } catch (IllegalArgumentException e) {
+                throw JsonMappingException.from(parser, "Rôle inconnu: " + role, e);
+            }
+        }
+    }
+
+    // ================================
+    // UTILITAIRES
+    // ================================
+
+    /**
+     * Place le parser sur le premier nom de champ de l'objet courant
+     * (un désérialiseur peut être appelé sur START_OBJECT ou déjà sur le premier champ)
+     */
+    private static JsonToken debutObjet(JsonParser parser) throws IOException {
+        JsonToken jeton = parser.currentToken();
+        if (jeton == JsonToken.START_OBJECT) {
+            return parser.nextToken();
+        }
+        if (jeton != JsonToken.FIELD_NAME && jeton != JsonToken.END_OBJECT) {
+            throw JsonMappingException.from(parser, "Objet attendu, trouvé: " + jeton);
+        }
+        return jeton;
+    }
+}
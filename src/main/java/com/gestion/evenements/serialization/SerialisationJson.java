@@ -0,0 +1,97 @@
+package com.gestion.evenements.serialization;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.gestion.evenements.auth.User;
+import com.gestion.evenements.model.Evenement;
+
+/**
+ * Configuration JSON partagée : un seul ObjectMapper, des lecteurs et écrivains préparés une fois
+ *
+ * Les ObjectReader/ObjectWriter sont immuables et sûrs entre threads ; les obtenir ici évite de
+ * résoudre le type polymorphe Evenement ou le sérialiseur d'un utilisateur à chaque appel.
+ * Le modèle est (dé)sérialisé par ModuleModele, sans réflexion.
+ *
+ * Profil (propriété système gestion.serialisation.profil) :
+ * - lisible (défaut) : fichiers indentés, comme jusqu'ici
+ * - compact : production, aucun espace superflu ; les fichiers restent lisibles par les deux profils
+ */
+public final class SerialisationJson {
+    public static final String PROPRIETE_PROFIL = "gestion.serialisation.profil";
+
+    public enum Profil { LISIBLE, COMPACT }
+
+    private static final Profil PROFIL = profilConfigure();
+    private static final ObjectMapper MAPPER = creerMapper();
+
+    // Un enregistrement par ligne ou par fragment : jamais indenté
+    private static final ObjectReader LECTEUR_EVENEMENT = MAPPER.readerFor(Evenement.class);
+    private static final ObjectWriter ECRIVAIN_EVENEMENT = MAPPER.writerFor(Evenement.class)
+        .without(SerializationFeature.INDENT_OUTPUT);
+    private static final ObjectReader LECTEUR_UTILISATEUR = MAPPER.readerFor(User.class);
+    private static final ObjectWriter ECRIVAIN_UTILISATEUR = MAPPER.writerFor(User.class)
+        .without(SerializationFeature.INDENT_OUTPUT);
+
+    private SerialisationJson() {}
+
+    private static Profil profilConfigure() {
+        String valeur = System.getProperty(PROPRIETE_PROFIL);
+        if (valeur == null || valeur.isBlank()) {
+            return Profil.LISIBLE;
+        }
+        try {
+            return Profil.valueOf(valeur.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("⚠️ Profil de sérialisation inconnu: " + valeur + " - profil lisible utilisé");
+            return Profil.LISIBLE;
+        }
+    }
+
+    private static ObjectMapper creerMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        // JavaTimeModule reste pour les dates hors du modèle (arbres, valeurs isolées)
+        mapper.registerModule(new JavaTimeModule());
+        mapper.registerModule(new ModuleModele());
+        mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        mapper.configure(SerializationFeature.INDENT_OUTPUT, PROFIL == Profil.LISIBLE);
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return mapper;
+    }
+
+    // ================================
+    // ACCÈS
+    // ================================
+
+    public static Profil getProfil() { return PROFIL; }
+
+    /**
+     * Mapper partagé ; ne pas le reconfigurer (les lecteurs et écrivains en sont dérivés)
+     */
+    public static ObjectMapper mapper() { return MAPPER; }
+
+    public static ObjectReader lecteurEvenement() { return LECTEUR_EVENEMENT; }
+    public static ObjectWriter ecrivainEvenement() { return ECRIVAIN_EVENEMENT; }
+    public static ObjectReader lecteurUtilisateur() { return LECTEUR_UTILISATEUR; }
+    public static ObjectWriter ecrivainUtilisateur() { return ECRIVAIN_UTILISATEUR; }
+
+    /**
+     * Générateur de document selon le profil ; le flux n'est pas fermé avec le générateur
+     */
+    public static JsonGenerator generateur(OutputStream sortie) throws IOException {
+        JsonGenerator generator = MAPPER.getFactory().createGenerator(sortie);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        if (PROFIL == Profil.LISIBLE) {
+            generator.useDefaultPrettyPrinter();
+        }
+        return generator;
+    }
+}
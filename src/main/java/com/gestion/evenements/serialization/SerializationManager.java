@@ -1,51 +1,64 @@
 package com.gestion.evenements.serialization;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.gestion.evenements.model.Evenement;
-import com.gestion.evenements.model.Participant;
-import com.gestion.evenements.model.evenementparticulier.Conference;
-import com.gestion.evenements.model.evenementparticulier.Concert;
+import com.gestion.evenements.model.RegistreParticipants;
 import com.gestion.evenements.auth.User;
+import com.gestion.evenements.serialization.backup.BackupStore;
+import com.gestion.evenements.serialization.backup.PointSauvegarde;
+import com.gestion.evenements.serialization.backup.PolitiqueRetention;
+import com.gestion.evenements.serialization.backup.RapportCompaction;
 
 /**
  * Gestionnaire de sérialisation pour les événements et utilisateurs
- * Supporte les formats JSON et XML avec sauvegarde automatique
+ * Supporte le format binaire (sauvegarde courante) ainsi que JSON et XML (exports)
  */
 public class SerializationManager {
-    private static final ObjectMapper objectMapper;
+    private static final ObjectMapper objectMapper = SerialisationJson.mapper();
     private static final String DEFAULT_BACKUP_DIR = "backups";
+    private static final String SUFFIXE_GENERATION_PRECEDENTE = ".prev";
+    
+    // Sauvegardes dédupliquées par contenu des fichiers écrasés
+    private static final BackupStore sauvegardes = new BackupStore(Path.of(DEFAULT_BACKUP_DIR));
+    
+    // Un écrivain incrémental par fichier cible, qui mémorise les fragments du dernier snapshot
+    private static final Map<String, IncrementalSnapshotWriter> writersIncrementaux = new ConcurrentHashMap<>();
+    
+    // Exports multi-formats encodés en parallèle depuis un instantané du catalogue
+    private static final CoordinateurExport coordinateurExport;
+    
+    // Lecteur sans état : partagé par tous les chargements
+    private static final JsonEvenementStreamReader lecteurEvenements = new JsonEvenementStreamReader(objectMapper);
     
     static {
-        objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.configure(
-            com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false
-        );
-        objectMapper.configure(
-            com.fasterxml.jackson.databind.SerializationFeature.INDENT_OUTPUT, true
-        );
+        coordinateurExport = new CoordinateurExport(Math.min(4, Runtime.getRuntime().availableProcessors()))
+            .ajouterFormat("json", SerializationManager::ecrireEvenementsVersionnes)
+            .ajouterFormat("xml", XmlStreamExporter::ecrireEvenements);
     }
     
     // ================================
@@ -54,12 +67,17 @@ public class SerializationManager {
     
     /**
      * Sauvegarde les événements au format JSON
+     * Écriture incrémentale : seuls les événements modifiés depuis la dernière sauvegarde
+     * de ce fichier sont réencodés, les autres sont recopiés depuis le snapshot précédent
      */
     public static void sauvegarderEvenementsJSON(Map<String, Evenement> evenements, String fichier) 
             throws IOException {
         createBackupIfExists(fichier);
-        objectMapper.writeValue(new File(fichier), evenements);
-        System.out.println("✅ Événements sauvegardés en JSON: " + fichier);
+        IncrementalSnapshotWriter writer = writersIncrementaux.computeIfAbsent(
+            new File(fichier).getAbsolutePath(), chemin -> new IncrementalSnapshotWriter(chemin, objectMapper));
+        writer.ecrire(evenements);
+        System.out.println("✅ Événements sauvegardés en JSON: " + fichier + 
+            " (" + writer.getDernierReencodes() + " réencodés, " + writer.getDernierReutilises() + " réutilisés)");
     }
     
     /**
@@ -72,20 +90,49 @@ public class SerializationManager {
             return new HashMap<>();
         }
         
-        Map<String, Evenement> evenements = objectMapper.readValue(file, 
-            objectMapper.getTypeFactory().constructMapType(HashMap.class, String.class, Evenement.class));
+        Map<String, Evenement> evenements = new HashMap<>();
+        chargerEvenementsJSON(fichier, evenement -> evenements.put(evenement.getId(), evenement), 
+            (octetsLus, tailleTotale, nombre) -> {
+                if (tailleTotale > 0 && octetsLus < tailleTotale) {
+                    System.out.println("⏳ Chargement JSON: " + (octetsLus * 100 / tailleTotale) + "% (" + nombre + " événements)");
+                }
+            });
         
         System.out.println("✅ " + evenements.size() + " événements chargés depuis JSON: " + fichier);
         return evenements;
     }
     
+    /**
+     * Charge les événements JSON en flux : chaque événement est transmis au consommateur
+     * dès qu'il est lu, sans construire la map complète en mémoire
+     * @return le nombre d'événements lus
+     */
+    public static int chargerEvenementsJSON(String fichier, Consumer<Evenement> consommateur,
+            JsonEvenementStreamReader.Progression progression) throws IOException {
+        File file = new File(fichier);
+        if (!file.exists()) {
+            return 0;
+        }
+        return lecteurEvenements.lire(file, consommateur, progression);
+    }
+    
     /**
      * Sauvegarde les utilisateurs au format JSON
      */
     public static void sauvegarderUtilisateursJSON(Map<String, User> utilisateurs, String fichier) 
             throws IOException {
         createBackupIfExists(fichier);
-        objectMapper.writeValue(new File(fichier), utilisateurs);
+        ecrireAtomique(fichier, false, sortie -> {
+            try (JsonGenerator generator = SerialisationJson.generateur(sortie)) {
+                generator.writeStartObject();
+                FormatsVersionnes.ecrireEnteteJson(generator, FormatsVersionnes.UTILISATEURS);
+                for (Map.Entry<String, User> entry : utilisateurs.entrySet()) {
+                    generator.writeFieldName(entry.getKey());
+                    SerialisationJson.ecrivainUtilisateur().writeValue(generator, entry.getValue());
+                }
+                generator.writeEndObject();
+            }
+        });
         System.out.println("✅ Utilisateurs sauvegardés en JSON: " + fichier);
     }
     
@@ -98,13 +145,133 @@ public class SerializationManager {
             return new HashMap<>();
         }
         
-        Map<String, User> utilisateurs = objectMapper.readValue(file, 
-            objectMapper.getTypeFactory().constructMapType(HashMap.class, String.class, User.class));
+        // Lecture en flux : en-tête de format éventuel, puis chaque utilisateur migré à la version courante
+        Map<String, User> utilisateurs = new HashMap<>();
+        ObjectReader lecteur = SerialisationJson.lecteurUtilisateur();
+        try (JsonParser parser = objectMapper.getFactory().createParser(file)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Format JSON inattendu: objet racine attendu dans " + fichier);
+            }
+            int version = FormatsVersionnes.VERSION_SANS_ENTETE;
+            boolean premierChamp = true;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String cle = parser.getCurrentName();
+                parser.nextToken();
+                if (premierChamp && FormatsVersionnes.CHAMP_ENTETE.equals(cle)) {
+                    version = FormatsVersionnes.lireEnteteJson(parser, FormatsVersionnes.UTILISATEURS);
+                    premierChamp = false;
+                    continue;
+                }
+                premierChamp = false;
+                if (parser.currentToken() != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                if (version < FormatsVersionnes.VERSION_JSON) {
+                    ObjectNode enregistrement = parser.readValueAsTree();
+                    FormatsVersionnes.migrerEnregistrement(FormatsVersionnes.UTILISATEURS, enregistrement, cle, version);
+                    utilisateurs.put(cle, lecteur.readValue(enregistrement));
+                } else {
+                    utilisateurs.put(cle, lecteur.readValue(parser));
+                }
+            }
+        }
         
         System.out.println("✅ " + utilisateurs.size() + " utilisateurs chargés depuis JSON: " + fichier);
         return utilisateurs;
     }
     
+    // ================================
+    // MÉTHODES BINAIRES (format principal)
+    // ================================
+    
+    /**
+     * Sauvegarde les événements au format binaire compact (voir BinarySnapshotCodec)
+     * Écriture séquentielle dans un fichier temporaire synchronisé sur disque, puis
+     * remplacement atomique ; le snapshot remplacé devient la génération précédente.
+     * Aucune sauvegarde n'est faite ici : voir sauvegarderGenerationPrecedente.
+     */
+    public static void sauvegarderEvenementsBinaire(Map<String, Evenement> evenements, String fichier) 
+            throws IOException {
+        ecrireAtomique(fichier, true, sortie -> BinarySnapshotCodec.ecrireEvenements(evenements, sortie));
+        System.out.println("✅ Événements sauvegardés en binaire: " + fichier);
+    }
+    
+    /**
+     * Charge les événements depuis un snapshot binaire
+     */
+    public static Map<String, Evenement> chargerEvenementsBinaire(String fichier) throws IOException {
+        return chargerEvenementsBinaire(fichier, new RegistreParticipants());
+    }
+    
+    /**
+     * Charge les événements ; chaque participant est obtenu auprès du registre (une instance par id)
+     */
+    public static Map<String, Evenement> chargerEvenementsBinaire(String fichier, RegistreParticipants registre) 
+            throws IOException {
+        return chargerEvenementsBinaire(fichier, registre, false);
+    }
+    
+    /**
+     * @param participantsDifferes si vrai, seuls les en-têtes des événements sont décodés au chargement ;
+     *                             les listes de participants le sont à leur premier accès (le nombre
+     *                             d'inscrits reste disponible sans décodage)
+     */
+    public static Map<String, Evenement> chargerEvenementsBinaire(String fichier, RegistreParticipants registre,
+            boolean participantsDifferes) throws IOException {
+        Map<String, Evenement> evenements = chargerBinaireAvecReprise(fichier,
+            contenu -> BinarySnapshotCodec.lireEvenements(contenu, registre, participantsDifferes));
+        if (evenements == null) {
+            return new HashMap<>();
+        }
+        System.out.println("✅ " + evenements.size() + " événements chargés depuis le binaire: " + fichier);
+        return evenements;
+    }
+    
+    /**
+     * Sauvegarde les utilisateurs au format binaire compact
+     */
+    public static void sauvegarderUtilisateursBinaire(Map<String, User> utilisateurs, String fichier) 
+            throws IOException {
+        ecrireAtomique(fichier, true, sortie -> BinarySnapshotCodec.ecrireUtilisateurs(utilisateurs, sortie));
+    }
+    
+    /**
+     * Charge les utilisateurs depuis un snapshot binaire
+     */
+    public static Map<String, User> chargerUtilisateursBinaire(String fichier) throws IOException {
+        Map<String, User> utilisateurs = chargerBinaireAvecReprise(fichier, BinarySnapshotCodec::lireUtilisateurs);
+        return utilisateurs != null ? utilisateurs : new HashMap<>();
+    }
+    
+    /**
+     * Vrai si le snapshot ou sa génération précédente existe (une écriture a pu être interrompue entre les deux)
+     */
+    public static boolean snapshotBinaireExiste(String fichier) {
+        return new File(fichier).exists() || new File(fichier + SUFFIXE_GENERATION_PRECEDENTE).exists();
+    }
+    
+    /**
+     * Écarte un snapshot illisible sous un nom horodaté pour qu'aucune sauvegarde ne l'écrase
+     * @return le fichier mis de côté, ou null si le snapshot n'existe pas
+     */
+    public static File mettreEnQuarantaine(String fichier) {
+        File file = new File(fichier);
+        if (!file.exists()) {
+            return null;
+        }
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        File quarantaine = new File(fichier + ".corrompu-" + timestamp);
+        try {
+            Files.move(file.toPath(), quarantaine.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            System.err.println("⚠️ Snapshot illisible mis de côté: " + quarantaine.getPath());
+            return quarantaine;
+        } catch (IOException e) {
+            System.err.println("⚠️ Impossible de mettre le snapshot de côté: " + e.getMessage());
+            return null;
+        }
+    }
+    
     // ================================
     // MÉTHODES XML
     // ================================
@@ -116,31 +283,8 @@ public class SerializationManager {
             throws Exception {
         createBackupIfExists(fichier);
         
-        DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-        Document doc = docBuilder.newDocument();
-        
-        // Élément racine
-        Element rootElement = doc.createElement("evenements");
-        rootElement.setAttribute("exportDate", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-        rootElement.setAttribute("count", String.valueOf(evenements.size()));
-        doc.appendChild(rootElement);
-        
-        // Ajouter chaque événement
-        for (Map.Entry<String, Evenement> entry : evenements.entrySet()) {
-            Element evenementElement = createEvenementElement(doc, entry.getValue());
-            rootElement.appendChild(evenementElement);
-        }
-        
-        // Écrire le document XML
-        TransformerFactory transformerFactory = TransformerFactory.newInstance();
-        Transformer transformer = transformerFactory.newTransformer();
-        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-        transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
-        
-        DOMSource source = new DOMSource(doc);
-        StreamResult result = new StreamResult(new File(fichier));
-        transformer.transform(source, result);
+        // Écriture en flux : aucun Document DOM n'est construit en mémoire
+        ecrireAtomique(fichier, false, sortie -> XmlStreamExporter.ecrireEvenements(evenements, sortie));
         
         System.out.println("✅ Événements sauvegardés en XML: " + fichier);
     }
@@ -154,24 +298,9 @@ public class SerializationManager {
             return new HashMap<>();
         }
         
+        // Lecture en flux en une seule passe, sans DOM
         Map<String, Evenement> evenements = new HashMap<>();
-        
-        DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-        Document doc = dBuilder.parse(file);
-        doc.getDocumentElement().normalize();
-        
-        NodeList evenementNodes = doc.getElementsByTagName("evenement");
-        
-        for (int i = 0; i < evenementNodes.getLength(); i++) {
-            Node evenementNode = evenementNodes.item(i);
-            if (evenementNode.getNodeType() == Node.ELEMENT_NODE) {
-                Evenement evenement = parseEvenementFromXML((Element) evenementNode);
-                if (evenement != null) {
-                    evenements.put(evenement.getId(), evenement);
-                }
-            }
-        }
+        new XmlEvenementStreamReader().lire(file, evenement -> evenements.put(evenement.getId(), evenement));
         
         System.out.println("✅ " + evenements.size() + " événements chargés depuis XML: " + fichier);
         return evenements;
@@ -184,31 +313,8 @@ public class SerializationManager {
             throws Exception {
         createBackupIfExists(fichier);
         
-        DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-        Document doc = docBuilder.newDocument();
-        
-        // Élément racine
-        Element rootElement = doc.createElement("utilisateurs");
-        rootElement.setAttribute("exportDate", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-        rootElement.setAttribute("count", String.valueOf(utilisateurs.size()));
-        doc.appendChild(rootElement);
-        
-        // Ajouter chaque utilisateur
-        for (Map.Entry<String, User> entry : utilisateurs.entrySet()) {
-            Element userElement = createUtilisateurElement(doc, entry.getValue());
-            rootElement.appendChild(userElement);
-        }
-        
-        // Écrire le document XML
-        TransformerFactory transformerFactory = TransformerFactory.newInstance();
-        Transformer transformer = transformerFactory.newTransformer();
-        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-        transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
-        
-        DOMSource source = new DOMSource(doc);
-        StreamResult result = new StreamResult(new File(fichier));
-        transformer.transform(source, result);
+        // Écriture en flux : aucun Document DOM n'est construit en mémoire
+        ecrireAtomique(fichier, false, sortie -> XmlStreamExporter.ecrireUtilisateurs(utilisateurs, sortie));
         
         System.out.println("✅ Utilisateurs sauvegardés en XML: " + fichier);
     }
@@ -218,19 +324,14 @@ public class SerializationManager {
     // ================================
     
     /**
-     * Exporte tous les événements dans les deux formats
+     * Exporte tous les événements dans chaque format du coordinateur (JSON et XML par défaut)
      */
     public static void exporterEvenements(Map<String, Evenement> evenements, String nomBase) {
         try {
             String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
             
-            // Export JSON
-            String fichierJSON = nomBase + "_" + timestamp + ".json";
-            sauvegarderEvenementsJSON(evenements, fichierJSON);
-            
-            // Export XML
-            String fichierXML = nomBase + "_" + timestamp + ".xml";
-            sauvegarderEvenementsXML(evenements, fichierXML);
+            // Un seul parcours du catalogue vivant, puis JSON et XML encodés en parallèle
+            coordinateurExport.exporter(evenements, nomBase + "_" + timestamp);
             
             System.out.println("✅ Export complet terminé: " + evenements.size() + " événements");
             
@@ -240,6 +341,13 @@ public class SerializationManager {
         }
     }
     
+    /**
+     * Coordinateur des exports multi-formats ; d'autres formats peuvent y être ajoutés
+     */
+    public static CoordinateurExport getCoordinateurExport() {
+        return coordinateurExport;
+    }
+    
     /**
      * Exporte tous les utilisateurs dans les deux formats
      */
@@ -264,171 +372,224 @@ public class SerializationManager {
     }
     
     // ================================
-    // MÉTHODES UTILITAIRES PRIVÉES
+    // SAUVEGARDES DÉDUPLIQUÉES
     // ================================
     
-    private static Element createEvenementElement(Document doc, Evenement evenement) {
-        Element evenementElement = doc.createElement("evenement");
-        evenementElement.setAttribute("id", evenement.getId());
-        evenementElement.setAttribute("type", getEvenementType(evenement));
-        
-        // Informations de base
-        addElementWithText(doc, evenementElement, "nom", evenement.getNom());
-        addElementWithText(doc, evenementElement, "date", evenement.getDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-        addElementWithText(doc, evenementElement, "lieu", evenement.getLieu());
-        addElementWithText(doc, evenementElement, "capaciteMax", String.valueOf(evenement.getCapaciteMax()));
-        
-        // Participants
-        Element participantsElement = doc.createElement("participants");
-        participantsElement.setAttribute("count", String.valueOf(evenement.getParticipants().size()));
-        
-        for (Participant participant : evenement.getParticipants()) {
-            Element participantElement = doc.createElement("participant");
-            participantElement.setAttribute("id", participant.getId());
-            addElementWithText(doc, participantElement, "nom", participant.getNom());
-            addElementWithText(doc, participantElement, "email", participant.getEmail());
-            participantsElement.appendChild(participantElement);
-        }
-        evenementElement.appendChild(participantsElement);
-        
-        // Détails spécifiques selon le type
-        if (evenement instanceof Conference) {
-            Conference conf = (Conference) evenement;
-            addElementWithText(doc, evenementElement, "theme", conf.getTheme());
-        } else if (evenement instanceof Concert) {
-            Concert concert = (Concert) evenement;
-            addElementWithText(doc, evenementElement, "artiste", concert.getArtiste());
-            addElementWithText(doc, evenementElement, "genreMusical", concert.getGenreMusical());
-        }
-        
-        return evenementElement;
+    /**
+     * Points de sauvegarde d'un fichier (nom sans chemin), du plus ancien au plus récent
+     */
+    public static List<PointSauvegarde> listerSauvegardes(String nomFichier) throws IOException {
+        return sauvegardes.lister(new File(nomFichier).getName());
     }
     
-    private static Element createUtilisateurElement(Document doc, User user) {
-        Element userElement = doc.createElement("utilisateur");
-        userElement.setAttribute("id", user.getId());
-        userElement.setAttribute("role", user.getRole().toString());
-        
-        addElementWithText(doc, userElement, "nom", user.getNom());
-        addElementWithText(doc, userElement, "email", user.getEmail());
-        
-        if (user.getTelephone() != null) {
-            addElementWithText(doc, userElement, "telephone", user.getTelephone());
+    /**
+     * Tous les points de sauvegarde
+     */
+    public static List<PointSauvegarde> listerSauvegardes() throws IOException {
+        return sauvegardes.listerTout();
+    }
+    
+    /**
+     * Restaure un point de sauvegarde dans le fichier indiqué
+     */
+    public static void restaurerSauvegarde(PointSauvegarde point, String fichier) throws IOException {
+        sauvegardes.restaurer(point, Path.of(fichier));
+        System.out.println("♻️ Sauvegarde restaurée: " + point + " -> " + fichier);
+    }
+    
+    /**
+     * Importe dans le stockage dédupliqué les copies complètes laissées par les anciennes versions
+     */
+    public static void migrerSauvegardesHistoriques() {
+        try {
+            int importes = sauvegardes.importerSauvegardesHistoriques(Path.of(DEFAULT_BACKUP_DIR));
+            if (importes > 0) {
+                System.out.println("📦 " + importes + " anciennes sauvegardes importées dans le stockage dédupliqué");
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Migration des anciennes sauvegardes interrompue: " + e.getMessage());
         }
-        
-        if (user.getOrganisation() != null) {
-            addElementWithText(doc, userElement, "organisation", user.getOrganisation());
+    }
+    
+    /**
+     * Applique la politique de rétention au stockage dédupliqué et aux exports complets
+     * @param dossierExports dossier des exports <nom>_backup_<date>.<ext>
+     */
+    public static RapportCompaction compacterSauvegardes(PolitiqueRetention politique, String dossierExports) throws IOException {
+        RapportCompaction rapport = sauvegardes.compacter(politique);
+        rapport.cumuler(sauvegardes.compacterExports(Path.of(dossierExports), politique));
+        return rapport;
+    }
+    
+    // ================================
+    // MÉTHODES UTILITAIRES PRIVÉES
+    // ================================
+    
+    @FunctionalInterface
+    interface EcritureFichier {
+        void ecrire(OutputStream sortie) throws IOException;
+    }
+    
+    @FunctionalInterface
+    private interface DecodageBinaire<T> {
+        T decoder(ByteBuffer contenu) throws IOException;
+    }
+    
+    /**
+     * Écrit dans un fichier temporaire, le synchronise sur disque puis le renomme atomiquement
+     * Un arrêt brutal laisse donc soit l'ancien fichier, soit le nouveau, jamais un mélange.
+     * @param conserverPrecedente si vrai, le fichier remplacé est renommé en génération précédente
+     */
+    static void ecrireAtomique(String fichier, boolean conserverPrecedente, EcritureFichier ecriture)
+            throws IOException {
+        Path cible = Path.of(fichier).toAbsolutePath();
+        Path temporaire = cible.resolveSibling(cible.getFileName() + ".tmp");
+        Files.createDirectories(cible.getParent());
+        
+        try (FileOutputStream fos = new FileOutputStream(temporaire.toFile());
+             OutputStream sortie = new BufferedOutputStream(fos, 64 * 1024)) {
+            ecriture.ecrire(sortie);
+            sortie.flush();
+            fos.getFD().sync();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporaire);
+            throw e;
         }
         
-        if (user.getDateCreation() != null) {
-            addElementWithText(doc, userElement, "dateCreation", 
-                user.getDateCreation().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        if (conserverPrecedente && Files.exists(cible)) {
+            Path precedent = cible.resolveSibling(cible.getFileName() + SUFFIXE_GENERATION_PRECEDENTE);
+            Files.move(cible, precedent, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         }
-        
-        addElementWithText(doc, userElement, "actif", String.valueOf(user.isActif()));
-        
-        return userElement;
+        Files.move(temporaire, cible, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        synchroniserDossier(cible.getParent());
     }
     
-    private static void addElementWithText(Document doc, Element parent, String tagName, String textContent) {
-        if (textContent != null) {
-            Element element = doc.createElement(tagName);
-            element.setTextContent(textContent);
-            parent.appendChild(element);
+    /**
+     * Map d'événements JSON précédée de l'en-tête de format ; le flux n'est pas fermé
+     */
+    static void ecrireEvenementsVersionnes(Map<String, Evenement> evenements, OutputStream sortie) throws IOException {
+        try (JsonGenerator generator = SerialisationJson.generateur(sortie)) {
+            generator.writeStartObject();
+            FormatsVersionnes.ecrireEnteteJson(generator, FormatsVersionnes.EVENEMENTS);
+            for (Map.Entry<String, Evenement> entry : evenements.entrySet()) {
+                generator.writeFieldName(entry.getKey());
+                // Écrit en tant qu'Evenement pour conserver l'identifiant de type polymorphe
+                SerialisationJson.ecrivainEvenement().writeValue(generator, entry.getValue());
+            }
+            generator.writeEndObject();
         }
     }
     
-    private static String getEvenementType(Evenement evenement) {
-        if (evenement instanceof Conference) {
-            return "conference";
-        } else if (evenement instanceof Concert) {
-            return "concert";
+    /**
+     * Rend les renommages durables ; sans effet sur les systèmes qui ne synchronisent pas les dossiers
+     */
+    private static void synchroniserDossier(Path dossier) {
+        try (FileChannel canal = FileChannel.open(dossier, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException e) {
+            // Non supporté (ex. Windows) : le renommage reste atomique
         }
-        return "unknown";
     }
     
-    private static Evenement parseEvenementFromXML(Element evenementElement) {
-        try {
-            String id = evenementElement.getAttribute("id");
-            String type = evenementElement.getAttribute("type");
-            
-            String nom = getElementText(evenementElement, "nom");
-            String dateStr = getElementText(evenementElement, "date");
-            String lieu = getElementText(evenementElement, "lieu");
-            int capaciteMax = Integer.parseInt(getElementText(evenementElement, "capaciteMax"));
-            
-            LocalDateTime date = LocalDateTime.parse(dateStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-            
-            Evenement evenement;
-            
-            if ("conference".equals(type)) {
-                String theme = getElementText(evenementElement, "theme");
-                evenement = new Conference(id, nom, date, lieu, capaciteMax, theme != null ? theme : "");
-            } else if ("concert".equals(type)) {
-                String artiste = getElementText(evenementElement, "artiste");
-                String genre = getElementText(evenementElement, "genreMusical");
-                evenement = new Concert(id, nom, date, lieu, capaciteMax, 
-                    artiste != null ? artiste : "", genre != null ? genre : "");
-            } else {
-                return null; // Type non reconnu
+    /**
+     * Décode le snapshot ; s'il est illisible (section corrompue, écriture tronquée), reprend la
+     * génération précédente puis les points du stockage de sauvegardes, du plus récent au plus ancien
+     * @return null si aucun snapshot n'existe
+     */
+    private static <T> T chargerBinaireAvecReprise(String fichier, DecodageBinaire<T> decodage) throws IOException {
+        File file = new File(fichier);
+        File precedent = new File(fichier + SUFFIXE_GENERATION_PRECEDENTE);
+        IOException erreur = null;
+        
+        if (file.exists()) {
+            try {
+                return decodage.decoder(lireFichier(file));
+            } catch (IOException e) {
+                System.err.println("⚠️ Snapshot illisible: " + fichier + " (" + e.getMessage() + ")");
+                erreur = e;
             }
-            
-            // Charger les participants
-            NodeList participantsNodes = evenementElement.getElementsByTagName("participants");
-            if (participantsNodes.getLength() > 0) {
-                Element participantsElement = (Element) participantsNodes.item(0);
-                NodeList participantNodes = participantsElement.getElementsByTagName("participant");
-                
-                for (int i = 0; i < participantNodes.getLength(); i++) {
-                    Element participantElement = (Element) participantNodes.item(i);
-                    String participantId = participantElement.getAttribute("id");
-                    String participantNom = getElementText(participantElement, "nom");
-                    String participantEmail = getElementText(participantElement, "email");
-                    
-                    Participant participant = new Participant(participantId, participantNom, participantEmail);
-                    try {
-                        evenement.ajouterParticipant(participant);
-                    } catch (Exception e) {
-                        System.err.println("⚠️ Impossible d'ajouter le participant: " + e.getMessage());
-                    }
+        }
+        
+        T repris = null;
+        if (precedent.exists()) {
+            try {
+                repris = decodage.decoder(lireFichier(precedent));
+                System.out.println("♻️ Génération précédente récupérée: " + precedent.getPath());
+            } catch (IOException e) {
+                System.err.println("⚠️ Génération précédente illisible: " + precedent.getPath() + " (" + e.getMessage() + ")");
+                if (erreur == null) {
+                    erreur = e;
                 }
             }
-            
-            return evenement;
-            
-        } catch (Exception e) {
-            System.err.println("❌ Erreur lors du parsing XML d'un événement: " + e.getMessage());
+        }
+        
+        if (repris == null && erreur != null) {
+            List<PointSauvegarde> points = sauvegardes.lister(file.getName());
+            for (int i = points.size() - 1; i >= 0 && repris == null; i--) {
+                Path restauration = Files.createTempFile("restauration-", ".bin");
+                try {
+                    sauvegardes.restaurer(points.get(i), restauration);
+                    repris = decodage.decoder(lireFichier(restauration.toFile()));
+                    System.out.println("♻️ Sauvegarde du " + points.get(i).getDate() + " récupérée pour " + fichier);
+                } catch (IOException e) {
+                    // Point suivant
+                } finally {
+                    Files.deleteIfExists(restauration);
+                }
+            }
+        }
+        
+        if (repris == null) {
+            if (erreur != null) {
+                throw erreur;
+            }
             return null;
         }
+        // Le snapshot courant est écarté : la prochaine sauvegarde ne remplacera pas la génération reprise
+        if (file.exists()) {
+            mettreEnQuarantaine(fichier);
+        }
+        return repris;
+    }
+    
+    private static ByteBuffer lireFichier(File file) throws IOException {
+        return ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
     }
     
-    private static String getElementText(Element parent, String tagName) {
-        NodeList nodes = parent.getElementsByTagName(tagName);
-        if (nodes.getLength() > 0) {
-            return nodes.item(0).getTextContent();
+    /**
+     * Sauvegarde la génération précédente d'un snapshot binaire, sous le nom du snapshot
+     * À appeler hors du checkpoint : la génération précédente n'est plus écrite, seulement
+     * remplacée par renommage, et la lecture en cours garde l'ancien contenu ouvert.
+     */
+    public static void sauvegarderGenerationPrecedente(String fichier) {
+        Path cible = Path.of(fichier).toAbsolutePath();
+        Path precedent = cible.resolveSibling(cible.getFileName() + SUFFIXE_GENERATION_PRECEDENTE);
+        try {
+            PointSauvegarde point = sauvegardes.sauvegarder(precedent, cible.getFileName().toString());
+            if (sauvegardes.getDernierChunksNouveaux() > 0) {
+                System.out.println("📁 Sauvegarde créée: " + point.getManifeste() + " (" 
+                    + sauvegardes.getDernierChunksNouveaux() + " chunks nouveaux, " 
+                    + sauvegardes.getDernierChunksReutilises() + " réutilisés)");
+            }
+        } catch (NoSuchFileException e) {
+            // Premier snapshot : pas encore de génération précédente
+        } catch (Exception e) {
+            System.err.println("⚠️ Impossible de créer la sauvegarde: " + e.getMessage());
         }
-        return null;
     }
     
     private static void createBackupIfExists(String fichier) {
         File file = new File(fichier);
         if (file.exists()) {
             try {
-                // Créer le répertoire de sauvegarde s'il n'existe pas
-                File backupDir = new File(DEFAULT_BACKUP_DIR);
-                if (!backupDir.exists()) {
-                    backupDir.mkdirs();
+                // Seuls les chunks nouveaux sont écrits ; la sauvegarde elle-même n'est qu'un manifeste
+                PointSauvegarde point = sauvegardes.sauvegarder(file.toPath());
+                if (sauvegardes.getDernierChunksNouveaux() > 0) {
+                    System.out.println("📁 Sauvegarde créée: " + point.getManifeste() + " (" 
+                        + sauvegardes.getDernierChunksNouveaux() + " chunks nouveaux, " 
+                        + sauvegardes.getDernierChunksReutilises() + " réutilisés)");
                 }
                 
-                // Créer le nom de sauvegarde avec timestamp
-                String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-                String backupName = file.getName().replaceFirst("\\.", "_backup_" + timestamp + ".");
-                File backupFile = new File(backupDir, backupName);
-                
-                // Copier le fichier
-                java.nio.file.Files.copy(file.toPath(), backupFile.toPath());
-                System.out.println("📁 Sauvegarde créée: " + backupFile.getPath());
-                
             } catch (Exception e) {
                 System.err.println("⚠️ Impossible de créer la sauvegarde: " + e.getMessage());
             }
@@ -0,0 +1,142 @@
+package com.gestion.evenements.serialization;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.zip.Checksum;
+
+/**
+ * Tampon d'écriture extensible pour le format binaire (varints, chaînes préfixées par leur longueur)
+ * Réutilisable : reinitialiser() conserve le tableau alloué.
+ */
+class TamponBinaire {
+    private byte[] octets;
+    private int taille;
+
+    TamponBinaire(int capaciteInitiale) {
+        this.octets = new byte[Math.max(16, capaciteInitiale)];
+    }
+
+    void reinitialiser() {
+        taille = 0;
+    }
+
+    int taille() {
+        return taille;
+    }
+
+    // ================================
+    // PRIMITIVES
+    // ================================
+
+    void ecrireOctet(int valeur) {
+        assurerCapacite(1);
+        octets[taille++] = (byte) valeur;
+    }
+
+    void ecrireOctets(byte[] donnees, int debut, int longueur) {
+        assurerCapacite(longueur);
+        System.arraycopy(donnees, debut, octets, taille, longueur);
+        taille += longueur;
+    }
+
+    /**
+     * Octets restants de la source ; sa position avance jusqu'à sa limite
+     */
+    void ecrireOctets(ByteBuffer source) {
+        int longueur = source.remaining();
+        assurerCapacite(longueur);
+        source.get(octets, taille, longueur);
+        taille += longueur;
+    }
+
+    void ecrireTampon(TamponBinaire autre) {
+        ecrireOctets(autre.octets, 0, autre.taille);
+    }
+
+    /**
+     * Entier non signé sur 1 à 5 octets (7 bits par octet)
+     */
+    void ecrireVarint(int valeur) {
+        assurerCapacite(5);
+        while ((valeur & ~0x7F) != 0) {
+            octets[taille++] = (byte) ((valeur & 0x7F) | 0x80);
+            valeur >>>= 7;
+        }
+        octets[taille++] = (byte) valeur;
+    }
+
+    void ecrireVarlong(long valeur) {
+        assurerCapacite(10);
+        while ((valeur & ~0x7FL) != 0) {
+            octets[taille++] = (byte) ((valeur & 0x7F) | 0x80);
+            valeur >>>= 7;
+        }
+        octets[taille++] = (byte) valeur;
+    }
+
+    /**
+     * Entier signé en zigzag : les petites valeurs négatives restent courtes
+     */
+    void ecrireEntierSigne(int valeur) {
+        ecrireVarint((valeur << 1) ^ (valeur >> 31));
+    }
+
+    void ecrireLongSigne(long valeur) {
+        ecrireVarlong((valeur << 1) ^ (valeur >> 63));
+    }
+
+    /**
+     * Chaîne UTF-8 préfixée par longueur + 1 (0 représente null)
+     */
+    void ecrireChaine(String valeur) {
+        if (valeur == null) {
+            ecrireVarint(0);
+            return;
+        }
+        byte[] utf8 = valeur.getBytes(StandardCharsets.UTF_8);
+        ecrireVarint(utf8.length + 1);
+        ecrireOctets(utf8, 0, utf8.length);
+    }
+
+    /**
+     * Date en secondes depuis l'époque (zigzag) et nanosecondes ; 0 représente null
+     */
+    void ecrireDate(LocalDateTime date) {
+        if (date == null) {
+            ecrireVarint(0);
+            return;
+        }
+        ecrireVarint(date.getNano() + 1);
+        ecrireLongSigne(date.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    /**
+     * Entier sur 4 octets, poids fort en premier (sommes de contrôle)
+     */
+    void ecrireEntier32(int valeur) {
+        assurerCapacite(4);
+        octets[taille++] = (byte) (valeur >>> 24);
+        octets[taille++] = (byte) (valeur >>> 16);
+        octets[taille++] = (byte) (valeur >>> 8);
+        octets[taille++] = (byte) valeur;
+    }
+
+    void mettreAJour(Checksum somme) {
+        somme.update(octets, 0, taille);
+    }
+
+    void copierVers(OutputStream sortie) throws IOException {
+        sortie.write(octets, 0, taille);
+    }
+
+    private void assurerCapacite(int supplement) {
+        if (taille + supplement > octets.length) {
+            octets = Arrays.copyOf(octets, Math.max(octets.length * 2, taille + supplement));
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.gestion.evenements.serialization;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.gestion.evenements.model.Evenement;
+import com.gestion.evenements.model.Participant;
+import com.gestion.evenements.model.evenementparticulier.Concert;
+import com.gestion.evenements.model.evenementparticulier.Conference;
+
+/**
+ * Lecteur XML en flux (StAX) pour les fichiers produits par XmlStreamExporter
+ * Le fichier est parcouru une seule fois : chaque événement et ses participants sont
+ * construits au fil de la lecture, sans DOM ni recherche par nom de balise.
+ * Les participants sont hydratés en bloc (setParticipants) au lieu d'un
+ * ajouterParticipant par participant.
+ */
+public class XmlEvenementStreamReader {
+    private static final int TAILLE_BUFFER = 64 * 1024;
+    private static final int CAPACITE_INITIALE_MAX = 4096;
+
+    private final XMLInputFactory inputFactory;
+
+    public XmlEvenementStreamReader() {
+        this.inputFactory = XMLInputFactory.newInstance();
+        // Aucune DTD ni entité externe dans nos fichiers
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    /**
+     * Lit le fichier et transmet chaque événement au consommateur
+     * @return le nombre d'événements lus
+     */
+    public int lire(File fichier, Consumer<Evenement> consommateur) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(fichier), TAILLE_BUFFER)) {
+            XMLStreamReader reader = inputFactory.createXMLStreamReader(in);
+            try {
+                int evenementsLus = 0;
+                boolean racine = true;
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    if (racine) {
+                        // Racine sans attribut version : fichier de version 1, même schéma d'éléments
+                        racine = false;
+                        verifierVersion(reader.getAttributeValue(null, FormatsVersionnes.ATTRIBUT_VERSION));
+                    }
+                    if ("evenement".equals(reader.getLocalName())) {
+                        Evenement evenement = lireEvenement(reader);
+                        if (evenement != null) {
+                            consommateur.accept(evenement);
+                            evenementsLus++;
+                        }
+                    }
+                }
+                return evenementsLus;
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Fichier XML invalide " + fichier + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void verifierVersion(String attribut) throws IOException {
+        int version = FormatsVersionnes.VERSION_SANS_ENTETE;
+        if (attribut != null) {
+            try {
+                version = Integer.parseInt(attribut.trim());
+            } catch (NumberFormatException e) {
+                throw new IOException("Version de format XML invalide: " + attribut);
+            }
+        }
+        FormatsVersionnes.verifierVersion(version, FormatsVersionnes.VERSION_XML);
+    }
+
+    // ================================
+    // LECTURE DES ÉLÉMENTS
+    // ================================
+
+    /**
+     * Lit un élément evenement ; le curseur est sur sa balise ouvrante et finit sur sa balise fermante
+     */
+    private Evenement lireEvenement(XMLStreamReader reader) throws XMLStreamException {
+        String id = reader.getAttributeValue(null, "id");
+        String type = reader.getAttributeValue(null, "type");
+        Map<String, String> champs = new HashMap<>();
+        List<Participant> participants = new ArrayList<>();
+
+        while (reader.hasNext()) {
+            int evenementXml = reader.next();
+            if (evenementXml == XMLStreamConstants.END_ELEMENT && "evenement".equals(reader.getLocalName())) {
+                break;
+            }
+            if (evenementXml != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+
+            String balise = reader.getLocalName();
+            switch (balise) {
+                case "participants":
+                    // Le compteur permet de dimensionner la liste une seule fois (borné si le fichier ment)
+                    participants = new ArrayList<>(Math.min(CAPACITE_INITIALE_MAX,
+                        parseEntier(reader.getAttributeValue(null, "count"))));
+                    break;
+                case "participant":
+                    participants.add(lireParticipant(reader));
+                    break;
+                case "nom":
+                case "date":
+                case "lieu":
+                case "capaciteMax":
+                case "theme":
+                case "artiste":
+                case "genreMusical":
+                    champs.putIfAbsent(balise, reader.getElementText());
+                    break;
+                default:
+                    ignorerElement(reader);
+            }
+        }
+
+        return construireEvenement(id, type, champs, participants);
+    }
+
+    private Participant lireParticipant(XMLStreamReader reader) throws XMLStreamException {
+        String id = reader.getAttributeValue(null, "id");
+        String nom = null;
+        String email = null;
+
+        while (reader.hasNext()) {
+            int evenementXml = reader.next();
+            if (evenementXml == XMLStreamConstants.END_ELEMENT && "participant".equals(reader.getLocalName())) {
+                break;
+            }
+            if (evenementXml != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+
+            if ("nom".equals(reader.getLocalName())) {
+                nom = reader.getElementText();
+            } else if ("email".equals(reader.getLocalName())) {
+                email = reader.getElementText();
+            } else {
+                ignorerElement(reader);
+            }
+        }
+        return new Participant(id, nom, email);
+    }
+
+    /**
+     * Saute un élément inconnu et tout son contenu
+     */
+    private void ignorerElement(XMLStreamReader reader) throws XMLStreamException {
+        int profondeur = 1;
+        while (profondeur > 0 && reader.hasNext()) {
+            int evenementXml = reader.next();
+            if (evenementXml == XMLStreamConstants.START_ELEMENT) {
+                profondeur++;
+            } else if (evenementXml == XMLStreamConstants.END_ELEMENT) {
+                profondeur--;
+            }
+        }
+    }
+
+    private Evenement construireEvenement(String id, String type, Map<String, String> champs,
+                                          List<Participant> participants) {
+        try {
+            String nom = champs.get("nom");
+            LocalDateTime date = LocalDateTime.parse(champs.get("date"), DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            String lieu = champs.get("lieu");
+            int capaciteMax = Integer.parseInt(champs.get("capaciteMax"));
+
+            Evenement evenement;
+            if ("conference".equals(type)) {
+                String theme = champs.get("theme");
+                evenement = new Conference(id, nom, date, lieu, capaciteMax, theme != null ? theme : "");
+            } else if ("concert".equals(type)) {
+                String artiste = champs.get("artiste");
+                String genre = champs.get("genreMusical");
+                evenement = new Concert(id, nom, date, lieu, capaciteMax,
+                    artiste != null ? artiste : "", genre != null ? genre : "");
+            } else {
+                return null; // Type non reconnu
+            }
+
+            // Même règle que ajouterParticipant, vérifiée une seule fois pour tout le bloc
+            if (participants.size() > capaciteMax) {
+                System.err.println("⚠️ " + (participants.size() - capaciteMax)
+                    + " participant(s) ignoré(s): capacité maximale atteinte pour l'événement " + nom);
+                participants = new ArrayList<>(participants.subList(0, Math.max(0, capaciteMax)));
+            }
+            evenement.setParticipants(participants);
+
+            return evenement;
+
+        } catch (Exception e) {
+            System.err.println("❌ Erreur lors du parsing XML d'un événement: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static int parseEntier(String valeur) {
+        try {
+            return valeur != null ? Math.max(0, Integer.parseInt(valeur.trim())) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.gestion.evenements.serialization;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import com.gestion.evenements.auth.User;
+import com.gestion.evenements.model.Evenement;
+import com.gestion.evenements.model.Participant;
+import com.gestion.evenements.model.evenementparticulier.Concert;
+import com.gestion.evenements.model.evenementparticulier.Conference;
+
+/**
+ * Export XML en flux (StAX) des événements et des utilisateurs
+ * Chaque élément est écrit directement dans un flux bufferisé, sans construire
+ * de Document DOM : la mémoire utilisée ne dépend pas du nombre de participants.
+ * Le schéma produit est celui lu par chargerEvenementsXML.
+ */
+public class XmlStreamExporter {
+    private static final int TAILLE_BUFFER = 64 * 1024;
+    private static final String INDENTATION = "  ";
+
+    private static final XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+
+    private final XMLStreamWriter writer;
+    private int profondeur = 0;
+
+    private XmlStreamExporter(XMLStreamWriter writer) {
+        this.writer = writer;
+    }
+
+    // ================================
+    // POINTS D'ENTRÉE
+    // ================================
+
+    /**
+     * Écrit les événements dans le fichier (evenements/evenement/participants/participant)
+     */
+    public static void ecrireEvenements(Map<String, Evenement> evenements, File fichier) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(fichier), TAILLE_BUFFER)) {
+            ecrireEvenements(evenements, out);
+        }
+    }
+
+    /**
+     * Écrit les événements dans un flux ; le flux n'est pas fermé
+     */
+    public static void ecrireEvenements(Map<String, Evenement> evenements, OutputStream out) throws IOException {
+        try {
+            XmlStreamExporter exporter = new XmlStreamExporter(outputFactory.createXMLStreamWriter(out, "UTF-8"));
+            exporter.debutDocument("evenements", evenements.size());
+            for (Evenement evenement : evenements.values()) {
+                exporter.ecrireEvenement(evenement);
+            }
+            exporter.finDocument();
+        } catch (XMLStreamException e) {
+            throw new IOException("Erreur d'écriture XML des événements", e);
+        }
+    }
+
+    /**
+     * Écrit les utilisateurs dans le fichier (utilisateurs/utilisateur)
+     */
+    public static void ecrireUtilisateurs(Map<String, User> utilisateurs, File fichier) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(fichier), TAILLE_BUFFER)) {
+            ecrireUtilisateurs(utilisateurs, out);
+        }
+    }
+
+    /**
+     * Écrit les utilisateurs dans un flux ; le flux n'est pas fermé
+     */
+    public static void ecrireUtilisateurs(Map<String, User> utilisateurs, OutputStream out) throws IOException {
+        try {
+            XmlStreamExporter exporter = new XmlStreamExporter(outputFactory.createXMLStreamWriter(out, "UTF-8"));
+            exporter.debutDocument("utilisateurs", utilisateurs.size());
+            for (User user : utilisateurs.values()) {
+                exporter.ecrireUtilisateur(user);
+            }
+            exporter.finDocument();
+        } catch (XMLStreamException e) {
+            throw new IOException("Erreur d'écriture XML des utilisateurs", e);
+        }
+    }
+
+    // ================================
+    // ÉLÉMENTS
+    // ================================
+
+    private void debutDocument(String racine, int count) throws XMLStreamException {
+        writer.writeStartDocument("UTF-8", "1.0");
+        ouvrir(racine);
+        writer.writeAttribute(FormatsVersionnes.ATTRIBUT_VERSION, String.valueOf(FormatsVersionnes.VERSION_XML));
+        writer.writeAttribute("exportDate", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        writer.writeAttribute("count", String.valueOf(count));
+    }
+
+    private void finDocument() throws XMLStreamException {
+        fermer();
+        writer.writeCharacters("\n");
+        writer.writeEndDocument();
+        writer.flush();
+        writer.close();
+    }
+
+    private void ecrireEvenement(Evenement evenement) throws XMLStreamException {
+        ouvrir("evenement");
+        attribut("id", evenement.getId());
+        attribut("type", getEvenementType(evenement));
+
+        // Informations de base
+        element("nom", evenement.getNom());
+        element("date", evenement.getDate() != null
+            ? evenement.getDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null);
+        element("lieu", evenement.getLieu());
+        element("capaciteMax", String.valueOf(evenement.getCapaciteMax()));
+
+        // Participants
+        List<Participant> participants = evenement.copierParticipants();
+        ouvrir("participants");
+        attribut("count", String.valueOf(participants.size()));
+        for (Participant participant : participants) {
+            ouvrir("participant");
+            attribut("id", participant.getId());
+            element("nom", participant.getNom());
+            element("email", participant.getEmail());
+            fermer();
+        }
+        fermer();
+
+        // Détails spécifiques selon le type
+        if (evenement instanceof Conference) {
+            element("theme", ((Conference) evenement).getTheme());
+        } else if (evenement instanceof Concert) {
+            Concert concert = (Concert) evenement;
+            element("artiste", concert.getArtiste());
+            element("genreMusical", concert.getGenreMusical());
+        }
+
+        fermer();
+    }
+
+    private void ecrireUtilisateur(User user) throws XMLStreamException {
+        ouvrir("utilisateur");
+        attribut("id", user.getId());
+        attribut("role", String.valueOf(user.getRole()));
+
+        element("nom", user.getNom());
+        element("email", user.getEmail());
+        element("telephone", user.getTelephone());
+        element("organisation", user.getOrganisation());
+        if (user.getDateCreation() != null) {
+            element("dateCreation", user.getDateCreation().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        }
+        element("actif", String.valueOf(user.isActif()));
+
+        fermer();
+    }
+
+    // ================================
+    // UTILITAIRES D'ÉCRITURE
+    // ================================
+
+    private void ouvrir(String nom) throws XMLStreamException {
+        indenter();
+        writer.writeStartElement(nom);
+        profondeur++;
+    }
+
+    private void fermer() throws XMLStreamException {
+        profondeur--;
+        indenter();
+        writer.writeEndElement();
+    }
+
+    private void element(String nom, String texte) throws XMLStreamException {
+        // Comme l'export DOM : un élément sans valeur n'est pas écrit
+        if (texte == null) return;
+        indenter();
+        writer.writeStartElement(nom);
+        writer.writeCharacters(texte);
+        writer.writeEndElement();
+    }
+
+    private void attribut(String nom, String valeur) throws XMLStreamException {
+        writer.writeAttribute(nom, valeur != null ? valeur : "");
+    }
+
+    private void indenter() throws XMLStreamException {
+        writer.writeCharacters("\n");
+        for (int i = 0; i < profondeur; i++) {
+            writer.writeCharacters(INDENTATION);
+        }
+    }
+
+    private static String getEvenementType(Evenement evenement) {
+        if (evenement instanceof Conference) {
+            return "conference";
+        } else if (evenement instanceof Concert) {
+            return "concert";
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,678 @@
+package com.gestion.evenements.serialization.backup;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stockage de sauvegardes adressé par contenu (déduplication)
+ *
+ * Chaque fichier sauvegardé est découpé en chunks de taille variable par un hachage
+ * glissant (Gear) : les frontières dépendent du contenu, une modification locale ne
+ * décale donc pas les chunks suivants. Chaque chunk est stocké une seule fois sous
+ * chunks/xx/<sha256> et une sauvegarde n'est qu'un petit manifeste listant ses chunks.
+ * Le coût d'écriture et l'espace disque suivent ainsi la taille des changements.
+ *
+ * Arborescence :
+ *   chunks/ab/abcdef...            contenu brut d'un chunk
+ *   chunks/ab/abcdef....gz         chunk froid compressé par la compaction
+ *   manifests/<source>/<date>.manifest
+ *
+ * La compaction (compacter) applique une PolitiqueRetention : les manifestes hors
+ * rétention sont supprimés, les chunks qui ne sont plus référencés sont effacés et ceux
+ * qui ne servent qu'à d'anciens points sont compressés.
+ */
+public class BackupStore {
+    private static final int CHUNK_MIN = 2 * 1024;
+    private static final int CHUNK_MAX = 64 * 1024;
+    // Frontière quand les 13 bits de poids faible du hachage sont nuls : ~8 Kio en moyenne
+    private static final long MASQUE_FRONTIERE = (1L << 13) - 1;
+    private static final long[] GEAR = new long[256];
+
+    private static final String EXTENSION_MANIFESTE = ".manifest";
+    private static final String EXTENSION_COMPRESSEE = ".gz";
+    // Fichiers temporaires abandonnés (arrêt brutal) : supprimés par la compaction passé ce délai
+    private static final long AGE_TEMPORAIRE_ABANDONNE_MS = 60 * 60 * 1000L;
+    private static final String ENTETE_MANIFESTE = "# sauvegarde-dedupliquee 1";
+    private static final DateTimeFormatter FORMAT_NOM = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS");
+    private static final DateTimeFormatter FORMAT_HISTORIQUE = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final Pattern NOM_HISTORIQUE = Pattern.compile("(.+)_backup_(\\d{8}_\\d{6})(?:_\\d{8}_\\d{6})?(\\..+)");
+
+    static {
+        // Table fixe : les frontières doivent être identiques d'une exécution à l'autre
+        Random random = new Random(0x5EED_BAC0L);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    private final Path racine;
+    private final Path dossierChunks;
+    private final Path dossierManifestes;
+
+    // Dernier point connu par source, pour éviter de relire les manifestes à chaque sauvegarde
+    private final Map<String, PointSauvegarde> derniersPoints = new HashMap<>();
+
+    // Manifestes déjà lus : ils sont immuables, un nouveau parcours ne relit que les noms
+    private final Map<Path, PointSauvegarde> manifestesLus = new HashMap<>();
+
+    // Statistiques de la dernière sauvegarde
+    private long dernierOctetsEcrits;
+    private int dernierChunksNouveaux;
+    private int dernierChunksReutilises;
+
+    public BackupStore(Path racine) {
+        this.racine = racine;
+        this.dossierChunks = racine.resolve("chunks");
+        this.dossierManifestes = racine.resolve("manifests");
+    }
+
+    public Path getRacine() { return racine; }
+
+    /**
+     * Vrai si le fichier appartient au stockage lui-même (chunk ou manifeste), et non à une copie déposée à côté
+     */
+    public boolean estInterne(Path fichier) {
+        Path absolu = fichier.toAbsolutePath().normalize();
+        return absolu.startsWith(dossierChunks.toAbsolutePath().normalize())
+            || absolu.startsWith(dossierManifestes.toAbsolutePath().normalize());
+    }
+    public long getDernierOctetsEcrits() { return dernierOctetsEcrits; }
+    public int getDernierChunksNouveaux() { return dernierChunksNouveaux; }
+    public int getDernierChunksReutilises() { return dernierChunksReutilises; }
+
+    // ================================
+    // SAUVEGARDE
+    // ================================
+
+    /**
+     * Sauvegarde le fichier ; retourne le point créé, ou le dernier point si le contenu n'a pas changé
+     */
+    public synchronized PointSauvegarde sauvegarder(Path source) throws IOException {
+        return sauvegarder(source, source.getFileName().toString(), LocalDateTime.now());
+    }
+
+    /**
+     * Sauvegarde le fichier sous le nom d'une autre source (ex. la génération précédente d'un snapshot)
+     */
+    public synchronized PointSauvegarde sauvegarder(Path source, String nomSource) throws IOException {
+        return sauvegarder(source, nomSource, LocalDateTime.now());
+    }
+
+    private PointSauvegarde sauvegarder(Path source, String nomSource, LocalDateTime date) throws IOException {
+        Decoupage decoupage = decouper(source);
+        PointSauvegarde dernier = dernierPoint(nomSource);
+        if (dernier != null && dernier.getEmpreinte().equals(decoupage.empreinte)) {
+            return dernier;
+        }
+        return ecrireManifeste(nomSource, date, decoupage, nouveauManifeste(nomSource, date));
+    }
+
+    /**
+     * Remplace le contenu d'un point existant (migration de format) : même source, même date, même manifeste
+     * Les chunks de l'ancien contenu qui ne servent plus sont récupérés par la prochaine compaction.
+     */
+    public synchronized PointSauvegarde remplacerContenu(PointSauvegarde point, Path contenu) throws IOException {
+        Decoupage decoupage = decouper(contenu);
+        if (decoupage.empreinte.equals(point.getEmpreinte())) {
+            return point;
+        }
+        PointSauvegarde dernier = derniersPoints.get(point.getSource());
+        PointSauvegarde remplacant = ecrireManifeste(point.getSource(), point.getDate(), decoupage, point.getManifeste());
+        if (dernier != null && !dernier.getManifeste().equals(point.getManifeste())) {
+            // Le point remplacé n'était pas le plus récent de sa source
+            derniersPoints.put(point.getSource(), dernier);
+        }
+        return remplacant;
+    }
+
+    /**
+     * Découpe le fichier en chunks définis par son contenu et stocke ceux qui sont nouveaux
+     */
+    private Decoupage decouper(Path source) throws IOException {
+        dernierOctetsEcrits = 0;
+        dernierChunksNouveaux = 0;
+        dernierChunksReutilises = 0;
+
+        MessageDigest empreinteFichier = sha256();
+        List<PointSauvegarde.Chunk> chunks = new ArrayList<>();
+        long taille = 0;
+
+        try (InputStream in = Files.newInputStream(source)) {
+            byte[] lecture = new byte[CHUNK_MAX];
+            byte[] chunk = new byte[CHUNK_MAX];
+            int longueur = 0;
+            long hachage = 0;
+            int lus;
+            while ((lus = in.read(lecture)) != -1) {
+                for (int i = 0; i < lus; i++) {
+                    int octet = lecture[i] & 0xFF;
+                    chunk[longueur++] = (byte) octet;
+                    hachage = (hachage << 1) + GEAR[octet];
+                    if ((longueur >= CHUNK_MIN && (hachage & MASQUE_FRONTIERE) == 0) || longueur == CHUNK_MAX) {
+                        chunks.add(stockerChunk(chunk, longueur));
+                        empreinteFichier.update(chunk, 0, longueur);
+                        taille += longueur;
+                        longueur = 0;
+                        hachage = 0;
+                    }
+                }
+            }
+            if (longueur > 0) {
+                chunks.add(stockerChunk(chunk, longueur));
+                empreinteFichier.update(chunk, 0, longueur);
+                taille += longueur;
+            }
+        }
+        return new Decoupage(chunks, taille, hex(empreinteFichier.digest()));
+    }
+
+    private PointSauvegarde.Chunk stockerChunk(byte[] donnees, int longueur) throws IOException {
+        MessageDigest digest = sha256();
+        digest.update(donnees, 0, longueur);
+        String empreinte = hex(digest.digest());
+
+        Path chemin = cheminChunk(empreinte);
+        if (Files.exists(chemin) || Files.exists(cheminChunkCompresse(empreinte))) {
+            dernierChunksReutilises++;
+        } else {
+            Files.createDirectories(chemin.getParent());
+            Path temporaire = chemin.resolveSibling(empreinte + ".tmp");
+            try (OutputStream out = Files.newOutputStream(temporaire)) {
+                out.write(donnees, 0, longueur);
+            }
+            Files.move(temporaire, chemin, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dernierChunksNouveaux++;
+            dernierOctetsEcrits += longueur;
+        }
+        return new PointSauvegarde.Chunk(empreinte, longueur);
+    }
+
+    private Path nouveauManifeste(String nomSource, LocalDateTime date) throws IOException {
+        Path dossier = dossierManifestes.resolve(nomSource);
+        Files.createDirectories(dossier);
+
+        // Deux sauvegardes dans la même milliseconde : suffixe pour ne rien écraser
+        String base = date.format(FORMAT_NOM);
+        Path manifeste = dossier.resolve(base + EXTENSION_MANIFESTE);
+        for (int i = 1; Files.exists(manifeste); i++) {
+            manifeste = dossier.resolve(base + String.format("_%03d", i) + EXTENSION_MANIFESTE);
+        }
+        return manifeste;
+    }
+
+    private PointSauvegarde ecrireManifeste(String nomSource, LocalDateTime date, Decoupage decoupage,
+                                            Path manifeste) throws IOException {
+        long taille = decoupage.taille;
+        String empreinte = decoupage.empreinte;
+        List<PointSauvegarde.Chunk> chunks = decoupage.chunks;
+
+        Path temporaire = manifeste.resolveSibling(manifeste.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporaire, StandardCharsets.UTF_8)) {
+            writer.write(ENTETE_MANIFESTE + "\n");
+            writer.write("source=" + nomSource + "\n");
+            writer.write("date=" + date.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + "\n");
+            writer.write("taille=" + taille + "\n");
+            writer.write("sha256=" + empreinte + "\n");
+            for (PointSauvegarde.Chunk chunk : chunks) {
+                writer.write("chunk " + chunk.getEmpreinte() + " " + chunk.getTaille() + "\n");
+            }
+        }
+        Files.move(temporaire, manifeste, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        dernierOctetsEcrits += Files.size(manifeste);
+
+        PointSauvegarde point = new PointSauvegarde(nomSource, date, taille, empreinte, chunks, manifeste);
+        derniersPoints.put(nomSource, point);
+        manifestesLus.put(manifeste, point);
+        return point;
+    }
+
+    // ================================
+    // LISTE ET RESTAURATION
+    // ================================
+
+    /**
+     * Noms des fichiers sauvegardés
+     */
+    public synchronized List<String> listerSources() throws IOException {
+        List<String> sources = new ArrayList<>();
+        if (!Files.isDirectory(dossierManifestes)) {
+            return sources;
+        }
+        try (DirectoryStream<Path> dossiers = Files.newDirectoryStream(dossierManifestes, Files::isDirectory)) {
+            for (Path dossier : dossiers) {
+                sources.add(dossier.getFileName().toString());
+            }
+        }
+        sources.sort(null);
+        return sources;
+    }
+
+    /**
+     * Points de sauvegarde d'un fichier, du plus ancien au plus récent
+     */
+    public synchronized List<PointSauvegarde> lister(String nomSource) throws IOException {
+        List<PointSauvegarde> points = new ArrayList<>();
+        Path dossier = dossierManifestes.resolve(nomSource);
+        if (!Files.isDirectory(dossier)) {
+            return points;
+        }
+        try (DirectoryStream<Path> manifestes = Files.newDirectoryStream(dossier, "*" + EXTENSION_MANIFESTE)) {
+            for (Path manifeste : manifestes) {
+                points.add(lireManifesteConnu(manifeste));
+            }
+        }
+        points.sort(Comparator.comparing(PointSauvegarde::getDate)
+            .thenComparing(point -> point.getManifeste().getFileName().toString()));
+        return points;
+    }
+
+    /**
+     * Tous les points de sauvegarde, toutes sources confondues
+     */
+    public synchronized List<PointSauvegarde> listerTout() throws IOException {
+        List<PointSauvegarde> points = new ArrayList<>();
+        for (String source : listerSources()) {
+            points.addAll(lister(source));
+        }
+        return points;
+    }
+
+    /**
+     * Point le plus récent d'un fichier ; seul son manifeste est relu (les noms suivent l'ordre chronologique)
+     */
+    public synchronized PointSauvegarde dernierPoint(String nomSource) throws IOException {
+        PointSauvegarde connu = derniersPoints.get(nomSource);
+        if (connu != null && Files.exists(connu.getManifeste())) {
+            return connu;
+        }
+        Path dossier = dossierManifestes.resolve(nomSource);
+        if (!Files.isDirectory(dossier)) {
+            return null;
+        }
+        Path plusRecent = null;
+        try (DirectoryStream<Path> manifestes = Files.newDirectoryStream(dossier, "*" + EXTENSION_MANIFESTE)) {
+            for (Path manifeste : manifestes) {
+                if (plusRecent == null || manifeste.getFileName().toString()
+                        .compareTo(plusRecent.getFileName().toString()) > 0) {
+                    plusRecent = manifeste;
+                }
+            }
+        }
+        if (plusRecent == null) {
+            derniersPoints.remove(nomSource);
+            return null;
+        }
+        PointSauvegarde point = lireManifesteConnu(plusRecent);
+        derniersPoints.put(nomSource, point);
+        return point;
+    }
+
+    /**
+     * Reconstitue le fichier du point de sauvegarde ; l'empreinte complète est vérifiée avant remplacement
+     */
+    public synchronized void restaurer(PointSauvegarde point, Path cible) throws IOException {
+        Path parent = cible.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporaire = cible.resolveSibling(cible.getFileName() + ".restauration.tmp");
+        MessageDigest digest = sha256();
+
+        try (OutputStream out = Files.newOutputStream(temporaire)) {
+            for (PointSauvegarde.Chunk chunk : point.getChunks()) {
+                byte[] donnees = lireChunk(chunk.getEmpreinte());
+                digest.update(donnees);
+                out.write(donnees);
+            }
+        }
+
+        if (!hex(digest.digest()).equals(point.getEmpreinte())) {
+            Files.deleteIfExists(temporaire);
+            throw new IOException("Sauvegarde corrompue, empreinte différente: " + point);
+        }
+        Files.move(temporaire, cible, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private byte[] lireChunk(String empreinte) throws IOException {
+        Path chemin = cheminChunk(empreinte);
+        if (Files.exists(chemin)) {
+            return Files.readAllBytes(chemin);
+        }
+        Path compresse = cheminChunkCompresse(empreinte);
+        if (!Files.exists(compresse)) {
+            throw new IOException("Chunk manquant: " + empreinte);
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(compresse))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private PointSauvegarde lireManifesteConnu(Path manifeste) throws IOException {
+        PointSauvegarde point = manifestesLus.get(manifeste);
+        if (point == null) {
+            point = lireManifeste(manifeste);
+            manifestesLus.put(manifeste, point);
+        }
+        return point;
+    }
+
+    private PointSauvegarde lireManifeste(Path manifeste) throws IOException {
+        String source = null;
+        LocalDateTime date = null;
+        long taille = 0;
+        String empreinte = null;
+        List<PointSauvegarde.Chunk> chunks = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(manifeste, StandardCharsets.UTF_8)) {
+            String ligne = reader.readLine();
+            if (!ENTETE_MANIFESTE.equals(ligne)) {
+                throw new IOException("Manifeste non reconnu: " + manifeste);
+            }
+            while ((ligne = reader.readLine()) != null) {
+                if (ligne.startsWith("chunk ")) {
+                    String[] parties = ligne.split(" ");
+                    chunks.add(new PointSauvegarde.Chunk(parties[1], Integer.parseInt(parties[2])));
+                } else if (ligne.startsWith("source=")) {
+                    source = ligne.substring("source=".length());
+                } else if (ligne.startsWith("date=")) {
+                    date = LocalDateTime.parse(ligne.substring("date=".length()));
+                } else if (ligne.startsWith("taille=")) {
+                    taille = Long.parseLong(ligne.substring("taille=".length()));
+                } else if (ligne.startsWith("sha256=")) {
+                    empreinte = ligne.substring("sha256=".length());
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Manifeste illisible: " + manifeste, e);
+        }
+        return new PointSauvegarde(source, date, taille, empreinte, chunks, manifeste);
+    }
+
+    // ================================
+    // RÉTENTION ET COMPACTION
+    // ================================
+
+    /**
+     * Applique la politique de rétention puis récupère l'espace des chunks inutiles
+     * Marquage et balayage : les chunks référencés par les manifestes restants sont
+     * conservés, les autres supprimés ; les chunks qui ne servent pas au dernier point
+     * de leur fichier sont compressés une fois le délai de la politique écoulé.
+     */
+    public synchronized RapportCompaction compacter(PolitiqueRetention politique) throws IOException {
+        RapportCompaction rapport = new RapportCompaction();
+        LocalDateTime maintenant = LocalDateTime.now();
+
+        Set<String> references = new HashSet<>();
+        Set<String> chauds = new HashSet<>();
+        for (String source : listerSources()) {
+            List<PointSauvegarde> points = lister(source);
+            Set<PointSauvegarde> conserves = politique.selectionner(points, PointSauvegarde::getDate);
+            PointSauvegarde dernier = points.isEmpty() ? null : points.get(points.size() - 1);
+
+            for (PointSauvegarde point : points) {
+                if (!conserves.contains(point)) {
+                    long taille = Files.size(point.getManifeste());
+                    Files.delete(point.getManifeste());
+                    manifestesLus.remove(point.getManifeste());
+                    rapport.pointSupprime();
+                    rapport.octetsRecuperes(taille);
+                    continue;
+                }
+                boolean froid = point != dernier && politique.estACompresser(point.getDate(), maintenant);
+                for (PointSauvegarde.Chunk chunk : point.getChunks()) {
+                    references.add(chunk.getEmpreinte());
+                    if (!froid) {
+                        chauds.add(chunk.getEmpreinte());
+                    }
+                }
+            }
+        }
+        derniersPoints.clear();
+
+        balayerChunks(references, chauds, rapport);
+        return rapport;
+    }
+
+    private void balayerChunks(Set<String> references, Set<String> chauds, RapportCompaction rapport) throws IOException {
+        if (!Files.isDirectory(dossierChunks)) {
+            return;
+        }
+        long limiteTemporaires = System.currentTimeMillis() - AGE_TEMPORAIRE_ABANDONNE_MS;
+        try (DirectoryStream<Path> prefixes = Files.newDirectoryStream(dossierChunks, Files::isDirectory)) {
+            for (Path prefixe : prefixes) {
+                List<Path> fichiers = new ArrayList<>();
+                try (DirectoryStream<Path> contenu = Files.newDirectoryStream(prefixe)) {
+                    contenu.forEach(fichiers::add);
+                }
+                for (Path fichier : fichiers) {
+                    String nom = fichier.getFileName().toString();
+                    if (nom.endsWith(".tmp")) {
+                        if (Files.getLastModifiedTime(fichier).toMillis() < limiteTemporaires) {
+                            rapport.octetsRecuperes(Files.size(fichier));
+                            Files.delete(fichier);
+                        }
+                        continue;
+                    }
+                    boolean compresse = nom.endsWith(EXTENSION_COMPRESSEE);
+                    String empreinte = compresse ? nom.substring(0, nom.length() - EXTENSION_COMPRESSEE.length()) : nom;
+
+                    if (!references.contains(empreinte)) {
+                        long taille = Files.size(fichier);
+                        Files.delete(fichier);
+                        rapport.chunkSupprime(taille);
+                    } else if (!compresse && !chauds.contains(empreinte)) {
+                        long gain = compresser(fichier, cheminChunkCompresse(empreinte));
+                        if (gain > 0) {
+                            rapport.chunkCompresse(gain);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Applique la politique aux exports complets (<nom>_backup_<date>.<ext>) d'un dossier
+     * Les exports conservés autres que le plus récent de chaque fichier sont compressés en .gz.
+     */
+    public RapportCompaction compacterExports(Path dossier, PolitiqueRetention politique) throws IOException {
+        RapportCompaction rapport = new RapportCompaction();
+        if (!Files.isDirectory(dossier)) {
+            return rapport;
+        }
+        Map<String, List<Path>> parFichier = new HashMap<>();
+        Map<Path, LocalDateTime> dates = new HashMap<>();
+        try (DirectoryStream<Path> fichiers = Files.newDirectoryStream(dossier, Files::isRegularFile)) {
+            for (Path fichier : fichiers) {
+                Matcher matcher = NOM_HISTORIQUE.matcher(fichier.getFileName().toString());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                try {
+                    dates.put(fichier, LocalDateTime.parse(matcher.group(2), FORMAT_HISTORIQUE));
+                } catch (DateTimeParseException e) {
+                    continue;
+                }
+                String extension = matcher.group(3);
+                if (extension.endsWith(EXTENSION_COMPRESSEE)) {
+                    extension = extension.substring(0, extension.length() - EXTENSION_COMPRESSEE.length());
+                }
+                parFichier.computeIfAbsent(matcher.group(1) + extension, cle -> new ArrayList<>()).add(fichier);
+            }
+        }
+
+        LocalDateTime maintenant = LocalDateTime.now();
+        for (List<Path> exports : parFichier.values()) {
+            Set<Path> conserves = politique.selectionner(exports, dates::get);
+            Path dernier = exports.stream().max(Comparator.comparing(dates::get)).orElse(null);
+            for (Path export : exports) {
+                if (!conserves.contains(export)) {
+                    long taille = Files.size(export);
+                    Files.delete(export);
+                    rapport.exportSupprime();
+                    rapport.octetsRecuperes(taille);
+                } else if (export != dernier && !export.getFileName().toString().endsWith(EXTENSION_COMPRESSEE)
+                        && politique.estACompresser(dates.get(export), maintenant)) {
+                    long gain = compresser(export, export.resolveSibling(export.getFileName() + EXTENSION_COMPRESSEE));
+                    if (gain > 0) {
+                        rapport.exportCompresse(gain);
+                    }
+                }
+            }
+        }
+        return rapport;
+    }
+
+    /**
+     * Compresse le fichier à côté de lui puis supprime l'original si le gain est réel
+     * @return le nombre d'octets gagnés (0 si le fichier est laissé tel quel)
+     */
+    private static long compresser(Path fichier, Path cible) throws IOException {
+        Path temporaire = cible.resolveSibling(cible.getFileName() + ".tmp");
+        try (InputStream in = Files.newInputStream(fichier);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(temporaire))) {
+            in.transferTo(out);
+        }
+        long avant = Files.size(fichier);
+        long apres = Files.size(temporaire);
+        if (apres >= avant) {
+            Files.delete(temporaire);
+            return 0;
+        }
+        Files.move(temporaire, cible, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.delete(fichier);
+        return avant - apres;
+    }
+
+    // ================================
+    // MIGRATION DES COPIES HISTORIQUES
+    // ================================
+
+    /**
+     * Importe les copies complètes <nom>_backup_<date>.<ext> du dossier puis les supprime
+     * Chaque copie n'est supprimée qu'après vérification de sa restauration. Le moniteur n'est
+     * tenu que le temps d'importer une copie : sauvegardes et compaction passent entre deux fichiers.
+     * @return le nombre de copies importées
+     */
+    public int importerSauvegardesHistoriques(Path dossier) throws IOException {
+        if (!Files.isDirectory(dossier)) {
+            return 0;
+        }
+        List<Path> historiques = new ArrayList<>();
+        try (DirectoryStream<Path> fichiers = Files.newDirectoryStream(dossier, Files::isRegularFile)) {
+            for (Path fichier : fichiers) {
+                if (NOM_HISTORIQUE.matcher(fichier.getFileName().toString()).matches()) {
+                    historiques.add(fichier);
+                }
+            }
+        }
+        // Ordre chronologique : les points importés se listent dans l'ordre d'origine
+        historiques.sort(Comparator.comparing(fichier -> fichier.getFileName().toString()));
+
+        int importes = 0;
+        for (Path fichier : historiques) {
+            Matcher matcher = NOM_HISTORIQUE.matcher(fichier.getFileName().toString());
+            matcher.matches();
+            String nomSource = matcher.group(1) + matcher.group(3);
+            LocalDateTime date;
+            try {
+                date = LocalDateTime.parse(matcher.group(2), FORMAT_HISTORIQUE);
+            } catch (DateTimeParseException e) {
+                date = LocalDateTime.now();
+            }
+
+            PointSauvegarde point = importer(fichier, nomSource, date);
+            // Vérification hors du moniteur : la copie est relue en entier
+            if (point.getEmpreinte().equals(empreinte(fichier))) {
+                Files.delete(fichier);
+                importes++;
+            }
+        }
+        return importes;
+    }
+
+    private synchronized PointSauvegarde importer(Path fichier, String nomSource, LocalDateTime date) throws IOException {
+        PointSauvegarde point = sauvegarder(fichier, nomSource, date);
+        // Le point importé est en général antérieur : le dernier point de la source sera relu
+        // depuis le disque, où les noms des manifestes suivent l'ordre chronologique
+        derniersPoints.remove(nomSource);
+        return point;
+    }
+
+    // ================================
+    // UTILITAIRES
+    // ================================
+
+    Path cheminChunk(String empreinte) {
+        return dossierChunks.resolve(empreinte.substring(0, 2)).resolve(empreinte);
+    }
+
+    private Path cheminChunkCompresse(String empreinte) {
+        return dossierChunks.resolve(empreinte.substring(0, 2)).resolve(empreinte + EXTENSION_COMPRESSEE);
+    }
+
+    private static String empreinte(Path fichier) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = Files.newInputStream(fichier)) {
+            byte[] tampon = new byte[CHUNK_MAX];
+            int lus;
+            while ((lus = in.read(tampon)) != -1) {
+                digest.update(tampon, 0, lus);
+            }
+        }
+        return hex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    private static String hex(byte[] octets) {
+        StringBuilder sb = new StringBuilder(octets.length * 2);
+        for (byte b : octets) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    private static class Decoupage {
+        final List<PointSauvegarde.Chunk> chunks;
+        final long taille;
+        final String empreinte;
+
+        Decoupage(List<PointSauvegarde.Chunk> chunks, long taille, String empreinte) {
+            this.chunks = chunks;
+            this.taille = taille;
+            this.empreinte = empreinte;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.gestion.evenements.serialization.backup;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Point de sauvegarde : manifeste décrivant un fichier comme une suite de chunks
+ */
+public class PointSauvegarde {
+    private final String source;
+    private final LocalDateTime date;
+    private final long taille;
+    private final String empreinte;
+    private final List<Chunk> chunks;
+    private final Path manifeste;
+
+    PointSauvegarde(String source, LocalDateTime date, long taille, String empreinte,
+                    List<Chunk> chunks, Path manifeste) {
+        this.source = source;
+        this.date = date;
+        this.taille = taille;
+        this.empreinte = empreinte;
+        this.chunks = Collections.unmodifiableList(chunks);
+        this.manifeste = manifeste;
+    }
+
+    // Getters
+    public String getSource() { return source; }
+    public LocalDateTime getDate() { return date; }
+    public long getTaille() { return taille; }
+    public String getEmpreinte() { return empreinte; }
+    public List<Chunk> getChunks() { return chunks; }
+    public Path getManifeste() { return manifeste; }
+
+    @Override
+    public String toString() {
+        return source + " @ " + date + " (" + taille + " octets, " + chunks.size() + " chunks)";
+    }
+
+    /**
+     * Référence vers un chunk stocké une seule fois, identifié par son SHA-256
+     */
+    public static class Chunk {
+        private final String empreinte;
+        private final int taille;
+
+        Chunk(String empreinte, int taille) {
+            this.empreinte = empreinte;
+            this.taille = taille;
+        }
+
+        public String getEmpreinte() { return empreinte; }
+        public int getTaille() { return taille; }
+    }
+}
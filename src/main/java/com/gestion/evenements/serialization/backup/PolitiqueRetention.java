@@ -0,0 +1,97 @@
+package com.gestion.evenements.serialization.backup;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Politique de rétention grand-père / père / fils
+ *
+ * Conserve la sauvegarde la plus récente de chacune des N dernières heures, des N derniers
+ * jours et des N dernières semaines (ISO) où une sauvegarde existe. La sauvegarde la plus
+ * récente est toujours conservée. Les sauvegardes conservées qui ne sont pas les plus
+ * récentes de leur fichier sont compressées après le délai de compression.
+ */
+public class PolitiqueRetention {
+    private final int horaires;
+    private final int journalieres;
+    private final int hebdomadaires;
+    private final int delaiCompressionHeures;
+
+    public PolitiqueRetention(int horaires, int journalieres, int hebdomadaires, int delaiCompressionHeures) {
+        if (horaires < 0 || journalieres < 0 || hebdomadaires < 0 || delaiCompressionHeures < 0) {
+            throw new IllegalArgumentException("Les paramètres de rétention doivent être positifs");
+        }
+        this.horaires = horaires;
+        this.journalieres = journalieres;
+        this.hebdomadaires = hebdomadaires;
+        this.delaiCompressionHeures = delaiCompressionHeures;
+    }
+
+    /**
+     * 24 sauvegardes horaires, 7 journalières, 4 hebdomadaires ; compression après 24 heures
+     */
+    public static PolitiqueRetention parDefaut() {
+        return new PolitiqueRetention(24, 7, 4, 24);
+    }
+
+    // Getters
+    public int getHoraires() { return horaires; }
+    public int getJournalieres() { return journalieres; }
+    public int getHebdomadaires() { return hebdomadaires; }
+    public int getDelaiCompressionHeures() { return delaiCompressionHeures; }
+
+    /**
+     * Éléments à conserver parmi ceux d'une même source
+     */
+    public <T> Set<T> selectionner(List<T> elements, Function<T, LocalDateTime> date) {
+        List<T> recents = new ArrayList<>(elements);
+        recents.sort(Comparator.comparing(date).reversed());
+
+        Set<T> conserves = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (recents.isEmpty()) {
+            return conserves;
+        }
+        conserves.add(recents.get(0));
+
+        Set<Object> heures = new HashSet<>();
+        Set<Object> jours = new HashSet<>();
+        Set<Object> semaines = new HashSet<>();
+        for (T element : recents) {
+            LocalDateTime moment = date.apply(element);
+            // Chaque palier retient le premier élément (le plus récent) de chaque période
+            if (heures.size() < horaires && heures.add(moment.truncatedTo(ChronoUnit.HOURS))) {
+                conserves.add(element);
+            }
+            if (jours.size() < journalieres && jours.add(moment.toLocalDate())) {
+                conserves.add(element);
+            }
+            String semaine = moment.get(IsoFields.WEEK_BASED_YEAR) + "-W" + moment.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+            if (semaines.size() < hebdomadaires && semaines.add(semaine)) {
+                conserves.add(element);
+            }
+        }
+        return conserves;
+    }
+
+    /**
+     * Vrai si une sauvegarde de cette date peut être compressée
+     */
+    boolean estACompresser(LocalDateTime date, LocalDateTime maintenant) {
+        return date.plusHours(delaiCompressionHeures).isBefore(maintenant);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PolitiqueRetention{horaires=%d, journalieres=%d, hebdomadaires=%d, compression=%dh}",
+            horaires, journalieres, hebdomadaires, delaiCompressionHeures);
+    }
+}
@@ -0,0 +1,49 @@
+package com.gestion.evenements.serialization.backup;
+
+/**
+ * Bilan d'une passe de compaction des sauvegardes
+ */
+public class RapportCompaction {
+    private int pointsSupprimes;
+    private int chunksSupprimes;
+    private int chunksCompresses;
+    private int exportsSupprimes;
+    private int exportsCompresses;
+    private long octetsRecuperes;
+
+    void pointSupprime() { pointsSupprimes++; }
+    void exportSupprime() { exportsSupprimes++; }
+    void chunkSupprime(long octets) { chunksSupprimes++; octetsRecuperes += octets; }
+    void chunkCompresse(long octetsGagnes) { chunksCompresses++; octetsRecuperes += octetsGagnes; }
+    void exportCompresse(long octetsGagnes) { exportsCompresses++; octetsRecuperes += octetsGagnes; }
+    void octetsRecuperes(long octets) { octetsRecuperes += octets; }
+
+    /**
+     * Ajoute le bilan d'une autre passe (ex. compaction du stockage puis des exports)
+     */
+    public RapportCompaction cumuler(RapportCompaction autre) {
+        pointsSupprimes += autre.pointsSupprimes;
+        chunksSupprimes += autre.chunksSupprimes;
+        chunksCompresses += autre.chunksCompresses;
+        exportsSupprimes += autre.exportsSupprimes;
+        exportsCompresses += autre.exportsCompresses;
+        octetsRecuperes += autre.octetsRecuperes;
+        return this;
+    }
+
+    // Getters
+    public int getPointsSupprimes() { return pointsSupprimes; }
+    public int getChunksSupprimes() { return chunksSupprimes; }
+    public int getChunksCompresses() { return chunksCompresses; }
+    public int getExportsSupprimes() { return exportsSupprimes; }
+    public int getExportsCompresses() { return exportsCompresses; }
+    public long getOctetsRecuperes() { return octetsRecuperes; }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "RapportCompaction{points=%d, chunksSupprimes=%d, chunksCompresses=%d, exportsSupprimes=%d, exportsCompresses=%d, octets=%d}",
+            pointsSupprimes, chunksSupprimes, chunksCompresses, exportsSupprimes, exportsCompresses, octetsRecuperes
+        );
+    }
+}
@@ -0,0 +1,140 @@
+package com.gestion.evenements.serialization.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+
+/**
+ * Écriture ligne à ligne d'un export : une ligne = un tableau de valeurs dans l'ordre des colonnes
+ * Rien n'est accumulé en mémoire au-delà du buffer du flux sous-jacent.
+ */
+abstract class EcrivainLignes implements AutoCloseable {
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    protected final String[] colonnes;
+
+    protected EcrivainLignes(String[] colonnes) {
+        this.colonnes = colonnes;
+    }
+
+    static EcrivainLignes ouvrir(FormatExport format, String[] colonnes, OutputStream out) throws IOException {
+        switch (format) {
+            case CSV:
+                return new Csv(colonnes, out);
+            case NDJSON:
+                return new Ndjson(colonnes, out);
+            default:
+                throw new IllegalArgumentException("Format d'export non supporté: " + format);
+        }
+    }
+
+    abstract void ecrire(Object[] valeurs) throws IOException;
+
+    @Override
+    public abstract void close() throws IOException;
+
+    // ================================
+    // CSV
+    // ================================
+
+    /**
+     * CSV RFC 4180 : séparateur virgule, fin de ligne CRLF, guillemets doublés si nécessaire
+     */
+    private static class Csv extends EcrivainLignes {
+        private final Writer writer;
+
+        Csv(String[] colonnes, OutputStream out) throws IOException {
+            super(colonnes);
+            this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            ecrire(colonnes);
+        }
+
+        @Override
+        void ecrire(Object[] valeurs) throws IOException {
+            for (int i = 0; i < valeurs.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (valeurs[i] != null) {
+                    echapper(valeurs[i].toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void echapper(String valeur) throws IOException {
+            boolean guillemets = false;
+            for (int i = 0; i < valeur.length() && !guillemets; i++) {
+                char c = valeur.charAt(i);
+                guillemets = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!guillemets) {
+                writer.write(valeur);
+                return;
+            }
+            writer.write('"');
+            writer.write(valeur.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    // ================================
+    // NDJSON
+    // ================================
+
+    /**
+     * Un objet JSON par ligne, clés = noms de colonnes ; les nombres et booléens restent typés
+     */
+    private static class Ndjson extends EcrivainLignes {
+        private final JsonGenerator generator;
+        private boolean vide = true;
+
+        Ndjson(String[] colonnes, OutputStream out) throws IOException {
+            super(colonnes);
+            this.generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+            // Séparateur racine = fin de ligne, aucune indentation
+            this.generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        }
+
+        @Override
+        void ecrire(Object[] valeurs) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < colonnes.length; i++) {
+                Object valeur = valeurs[i];
+                generator.writeFieldName(colonnes[i]);
+                if (valeur == null) {
+                    generator.writeNull();
+                } else if (valeur instanceof Integer || valeur instanceof Long) {
+                    generator.writeNumber(((Number) valeur).longValue());
+                } else if (valeur instanceof Boolean) {
+                    generator.writeBoolean((Boolean) valeur);
+                } else {
+                    generator.writeString(valeur.toString());
+                }
+            }
+            generator.writeEndObject();
+            vide = false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Dernière ligne terminée comme les autres
+            if (!vide) {
+                generator.writeRaw('\n');
+            }
+            generator.close();
+        }
+    }
+}
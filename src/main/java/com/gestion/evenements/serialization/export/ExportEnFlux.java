@@ -0,0 +1,253 @@
+package com.gestion.evenements.serialization.export;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.gestion.evenements.auth.User;
+import com.gestion.evenements.model.Evenement;
+import com.gestion.evenements.model.Participant;
+import com.gestion.evenements.model.evenementparticulier.Concert;
+import com.gestion.evenements.model.evenementparticulier.Conference;
+
+/**
+ * Export en flux des événements, participants et utilisateurs (CSV ou NDJSON)
+ *
+ * L'écriture se fait sur un thread d'arrière-plan : chaque ligne est produite à partir
+ * du modèle puis écrite dans un canal de fichier bufferisé, sans construire le contenu
+ * complet en mémoire. Le fichier est écrit sous un nom temporaire puis renommé
+ * atomiquement : un export annulé ou en erreur ne laisse aucun fichier partiel.
+ */
+public class ExportEnFlux {
+    public static final String DOSSIER_EXPORTS = "exports";
+    // Nombre de lignes affichées dans l'aperçu d'un export
+    public static final int LIGNES_APERCU = 20;
+    private static final int TAILLE_BUFFER = 64 * 1024;
+    // Fréquence des notifications de progression (en lignes)
+    private static final int PAS_PROGRESSION = 500;
+
+    static final String[] COLONNES_EVENEMENTS = {
+        "id", "type", "nom", "date", "lieu", "capaciteMax", "nombreParticipants", "theme", "artiste", "genreMusical"
+    };
+    static final String[] COLONNES_PARTICIPANTS = { "evenementId", "id", "nom", "email" };
+    // Le mot de passe n'est jamais exporté
+    static final String[] COLONNES_UTILISATEURS = {
+        "id", "nom", "email", "role", "telephone", "organisation", "dateCreation", "dernierAcces", "actif"
+    };
+
+    private static final ExecutorService executeur = Executors.newCachedThreadPool(tache -> {
+        Thread thread = new Thread(tache, "export-flux");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ExportEnFlux() {
+    }
+
+    /**
+     * Écrit une ligne à la fois ; renvoie le nombre de lignes écrites
+     */
+    @FunctionalInterface
+    private interface Production {
+        long produire(EcrivainLignes ecrivain, Controle controle) throws IOException;
+    }
+
+    // ================================
+    // POINTS D'ENTRÉE
+    // ================================
+
+    /**
+     * Exporte une ligne par événement
+     */
+    public static TacheExport exporterEvenements(Collection<Evenement> evenements, Path fichier,
+                                                 FormatExport format, ProgressionExport progression) {
+        // Copie des références : la collection du modèle peut changer pendant l'export
+        List<Evenement> source = new ArrayList<>(evenements);
+        return lancer(fichier, format, COLONNES_EVENEMENTS, source.size(), progression, (ecrivain, controle) -> {
+            for (Evenement evenement : source) {
+                ecrivain.ecrire(ligneEvenement(evenement));
+                controle.ligneEcrite();
+            }
+            return controle.lignes;
+        });
+    }
+
+    /**
+     * Exporte une ligne par inscription (événement, participant)
+     */
+    public static TacheExport exporterParticipants(Collection<Evenement> evenements, Path fichier,
+                                                   FormatExport format, ProgressionExport progression) {
+        List<Evenement> source = new ArrayList<>(evenements);
+        long total = 0;
+        for (Evenement evenement : source) {
+            total += evenement.getNombreParticipants();
+        }
+        return lancer(fichier, format, COLONNES_PARTICIPANTS, total, progression, (ecrivain, controle) -> {
+            for (Evenement evenement : source) {
+                for (Participant participant : evenement.copierParticipants()) {
+                    ecrivain.ecrire(new Object[] {
+                        evenement.getId(), participant.getId(), participant.getNom(), participant.getEmail()
+                    });
+                    controle.ligneEcrite();
+                }
+            }
+            return controle.lignes;
+        });
+    }
+
+    /**
+     * Exporte une ligne par utilisateur, sans mot de passe
+     */
+    public static TacheExport exporterUtilisateurs(Collection<User> utilisateurs, Path fichier,
+                                                   FormatExport format, ProgressionExport progression) {
+        List<User> source = new ArrayList<>(utilisateurs);
+        return lancer(fichier, format, COLONNES_UTILISATEURS, source.size(), progression, (ecrivain, controle) -> {
+            for (User user : source) {
+                ecrivain.ecrire(new Object[] {
+                    user.getId(), user.getNom(), user.getEmail(),
+                    user.getRole() != null ? user.getRole().name() : null,
+                    user.getTelephone(), user.getOrganisation(),
+                    user.getDateCreation(), user.getDernierAcces(), user.isActif()
+                });
+                controle.ligneEcrite();
+            }
+            return controle.lignes;
+        });
+    }
+
+    /**
+     * Fichier d'export horodaté dans le dossier des exports
+     */
+    public static Path fichierExport(String prefixe, FormatExport format) {
+        return Path.of(DOSSIER_EXPORTS, prefixe + "_" + System.currentTimeMillis() + "." + format.getExtension());
+    }
+
+    /**
+     * Aperçu d'un fichier exporté : son chemin puis ses premières lignes, sans le charger en entier
+     */
+    public static String lireApercu(Path fichier) throws IOException {
+        StringBuilder apercu = new StringBuilder(fichier.toString()).append("\n\n");
+        try (BufferedReader lecteur = Files.newBufferedReader(fichier, StandardCharsets.UTF_8)) {
+            String ligne;
+            int lues = 0;
+            while ((ligne = lecteur.readLine()) != null && lues < LIGNES_APERCU) {
+                apercu.append(ligne).append("\n");
+                lues++;
+            }
+            if (ligne != null) {
+                apercu.append("...");
+            }
+        }
+        return apercu.toString();
+    }
+
+    private static Object[] ligneEvenement(Evenement evenement) {
+        String theme = null;
+        String artiste = null;
+        String genreMusical = null;
+        if (evenement instanceof Conference) {
+            theme = ((Conference) evenement).getTheme();
+        } else if (evenement instanceof Concert) {
+            artiste = ((Concert) evenement).getArtiste();
+            genreMusical = ((Concert) evenement).getGenreMusical();
+        }
+        return new Object[] {
+            evenement.getId(), evenement.getClass().getSimpleName(), evenement.getNom(), evenement.getDate(),
+            evenement.getLieu(), evenement.getCapaciteMax(), evenement.getNombreParticipants(),
+            theme, artiste, genreMusical
+        };
+    }
+
+    // ================================
+    // EXÉCUTION
+    // ================================
+
+    private static TacheExport lancer(Path fichier, FormatExport format, String[] colonnes, long total,
+                                      ProgressionExport progression, Production production) {
+        TacheExport tache = new TacheExport(fichier, format);
+        ProgressionExport suivi = progression != null ? progression : ProgressionExport.AUCUNE;
+        executeur.execute(() -> executer(tache, colonnes, total, suivi, production));
+        return tache;
+    }
+
+    private static void executer(TacheExport tache, String[] colonnes, long total,
+                                 ProgressionExport progression, Production production) {
+        Path fichier = tache.getFichier();
+        Path temporaire = fichier.resolveSibling(fichier.getFileName() + ".tmp");
+        try {
+            if (fichier.getParent() != null) {
+                Files.createDirectories(fichier.getParent());
+            }
+            long lignes;
+            try (FileChannel canal = FileChannel.open(temporaire, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 OutputStream out = new BufferedOutputStream(Channels.newOutputStream(canal), TAILLE_BUFFER);
+                 EcrivainLignes ecrivain = EcrivainLignes.ouvrir(tache.getFormat(), colonnes, out)) {
+                lignes = production.produire(ecrivain, new Controle(tache, total, progression));
+            }
+            if (tache.estAnnulee()) {
+                throw new CancellationException("Export annulé");
+            }
+            Files.move(temporaire, fichier, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            progression.progression(lignes, total);
+            System.out.println("📤 Export " + tache.getFormat() + " terminé: " + fichier + " (" + lignes + " lignes)");
+            tache.getResultat().complete(lignes);
+        } catch (CancellationException e) {
+            supprimer(temporaire);
+            System.out.println("⏹️ Export annulé: " + fichier);
+            tache.getResultat().completeExceptionally(e);
+        } catch (IOException | RuntimeException e) {
+            supprimer(temporaire);
+            System.err.println("❌ Erreur lors de l'export " + fichier + ": " + e.getMessage());
+            tache.getResultat().completeExceptionally(e);
+        }
+    }
+
+    private static void supprimer(Path temporaire) {
+        try {
+            Files.deleteIfExists(temporaire);
+        } catch (IOException e) {
+            System.err.println("⚠️ Impossible de supprimer " + temporaire + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compte les lignes, vérifie l'annulation et notifie la progression
+     */
+    private static class Controle {
+        private final TacheExport tache;
+        private final long total;
+        private final ProgressionExport progression;
+        long lignes;
+
+        Controle(TacheExport tache, long total, ProgressionExport progression) {
+            this.tache = tache;
+            this.total = total;
+            this.progression = progression;
+        }
+
+        void ligneEcrite() {
+            if (tache.estAnnulee()) {
+                throw new CancellationException("Export annulé");
+            }
+            lignes++;
+            if (lignes % PAS_PROGRESSION == 0) {
+                progression.progression(lignes, total);
+            }
+        }
+    }
+}
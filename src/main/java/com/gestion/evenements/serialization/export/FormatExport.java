@@ -0,0 +1,19 @@
+package com.gestion.evenements.serialization.export;
+
+/**
+ * Formats de l'export en flux
+ */
+public enum FormatExport {
+    /** Valeurs séparées par des virgules, première ligne = en-tête (RFC 4180) */
+    CSV("csv"),
+    /** Un objet JSON par ligne (JSON Lines / NDJSON) */
+    NDJSON("ndjson");
+
+    private final String extension;
+
+    FormatExport(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() { return extension; }
+}
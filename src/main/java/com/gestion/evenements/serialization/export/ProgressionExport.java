@@ -0,0 +1,17 @@
+package com.gestion.evenements.serialization.export;
+
+/**
+ * Suivi d'un export, appelé depuis le thread d'écriture
+ * (les appelants JavaFX repassent par Platform.runLater)
+ */
+@FunctionalInterface
+public interface ProgressionExport {
+
+    /**
+     * @param lignesEcrites lignes de données déjà écrites
+     * @param lignesTotales nombre de lignes attendu
+     */
+    void progression(long lignesEcrites, long lignesTotales);
+
+    ProgressionExport AUCUNE = (lignesEcrites, lignesTotales) -> { };
+}
@@ -0,0 +1,39 @@
+package com.gestion.evenements.serialization.export;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Export en cours d'exécution : annulation et résultat
+ */
+public class TacheExport {
+    private final Path fichier;
+    private final FormatExport format;
+    private final CompletableFuture<Long> resultat = new CompletableFuture<>();
+    private volatile boolean annulee;
+
+    TacheExport(Path fichier, FormatExport format) {
+        this.fichier = fichier;
+        this.format = format;
+    }
+
+    /**
+     * Demande l'arrêt de l'export ; le fichier partiel est supprimé
+     * et le résultat se termine par une CancellationException
+     */
+    public void annuler() {
+        annulee = true;
+    }
+
+    public boolean estAnnulee() {
+        return annulee;
+    }
+
+    /**
+     * Nombre de lignes de données écrites, disponible quand le fichier est complet
+     */
+    public CompletableFuture<Long> getResultat() { return resultat; }
+
+    public Path getFichier() { return fichier; }
+    public FormatExport getFormat() { return format; }
+}
@@ -0,0 +1,27 @@
+package com.gestion.evenements.serialization.importation;
+
+/**
+ * Ligne rejetée par un import, avec son motif
+ */
+public class ErreurImport implements Comparable<ErreurImport> {
+    private final long ligne;
+    private final String motif;
+
+    public ErreurImport(long ligne, String motif) {
+        this.ligne = ligne;
+        this.motif = motif;
+    }
+
+    public long getLigne() { return ligne; }
+    public String getMotif() { return motif; }
+
+    @Override
+    public int compareTo(ErreurImport autre) {
+        return Long.compare(ligne, autre.ligne);
+    }
+
+    @Override
+    public String toString() {
+        return "Ligne " + ligne + ": " + motif;
+    }
+}
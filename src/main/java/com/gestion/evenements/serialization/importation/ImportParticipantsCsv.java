@@ -0,0 +1,364 @@
+package com.gestion.evenements.serialization.importation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+import com.gestion.evenements.model.Evenement;
+import com.gestion.evenements.model.Participant;
+
+/**
+ * Import en masse d'inscriptions depuis un CSV (evenementId,id,nom,email)
+ *
+ * Le fichier est lu en flux et découpé en lots validés en parallèle (email, champs
+ * obligatoires, événement cible, doublons dans le fichier). Les lignes valides sont
+ * ensuite regroupées par événement : une seule vérification de capacité par événement,
+ * puis une seule inscription en masse pour tout le fichier. Chaque ligne rejetée
+ * produit une erreur dans le rapport au lieu d'interrompre l'import.
+ */
+public class ImportParticipantsCsv {
+    public static final String[] COLONNES = { "evenementId", "id", "nom", "email" };
+    // Préfixe des identifiants générés pour les lignes sans id (dérivés de l'email)
+    public static final String PREFIXE_ID = "IMP_";
+    static final int TAILLE_LOT = 1_000;
+
+    private static final Pattern EMAIL = Pattern.compile("^[A-Za-z0-9+_.-]+@([A-Za-z0-9.-]+\\.[A-Za-z]{2,})$");
+
+    /**
+     * Inscrit les lots retenus ; appelé une seule fois par import
+     */
+    @FunctionalInterface
+    public interface InscriptionEnMasse {
+        /**
+         * @return participants effectivement inscrits, par identifiant d'événement ; un lot peut
+         *         n'être admis qu'en partie si des places ont été prises depuis la vérification
+         */
+        Map<String, List<Participant>> inscrire(Map<Evenement, List<Participant>> lots);
+    }
+
+    private final int parallelisme;
+
+    public ImportParticipantsCsv() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ImportParticipantsCsv(int parallelisme) {
+        this.parallelisme = Math.max(1, parallelisme);
+    }
+
+    // ================================
+    // POINTS D'ENTRÉE
+    // ================================
+
+    public RapportImport importer(Path fichier, Map<String, Evenement> catalogue, InscriptionEnMasse inscription)
+            throws IOException {
+        try (BufferedReader lecteur = Files.newBufferedReader(fichier, StandardCharsets.UTF_8)) {
+            return importer(lecteur, catalogue, inscription);
+        }
+    }
+
+    /**
+     * @param catalogue événements cibles par identifiant, lus depuis plusieurs threads
+     *                  (un instantané immuable du catalogue convient)
+     */
+    public RapportImport importer(Reader source, Map<String, Evenement> catalogue, InscriptionEnMasse inscription)
+            throws IOException {
+        ExecutorService executeur = Executors.newFixedThreadPool(parallelisme, tache -> {
+            Thread thread = new Thread(tache, "import-csv");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Validation validation = new Validation(catalogue);
+            List<LigneImport> valides = new ArrayList<>();
+            List<ErreurImport> erreurs = new ArrayList<>();
+            long lues = lireEtValider(source, executeur, validation, valides, erreurs);
+
+            Map<Evenement, List<LigneImport>> retenues = retenir(valides, validation, erreurs);
+            Map<Evenement, Integer> inscrits = inscrire(retenues, inscription, erreurs);
+
+            int total = inscrits.values().stream().mapToInt(Integer::intValue).sum();
+            RapportImport rapport = new RapportImport(lues, total, inscrits.size(), erreurs);
+            System.out.println("📥 " + rapport);
+            return rapport;
+        } finally {
+            executeur.shutdownNow();
+        }
+    }
+
+    // ================================
+    // LECTURE ET VALIDATION PARALLÈLE
+    // ================================
+
+    /**
+     * Lit le fichier par lots et valide chaque lot sur le pool ; au plus deux lots
+     * par thread sont en attente, la mémoire ne dépend donc pas de la taille du fichier
+     * au-delà des lignes valides conservées pour l'inscription
+     */
+    private long lireEtValider(Reader source, ExecutorService executeur, Validation validation,
+                               List<LigneImport> valides, List<ErreurImport> erreurs) throws IOException {
+        LecteurCsv lecteur = new LecteurCsv(source instanceof BufferedReader
+            ? (BufferedReader) source : new BufferedReader(source));
+        Deque<Future<List<LigneImport>>> enCours = new ArrayDeque<>();
+        List<LigneBrute> lot = new ArrayList<>(TAILLE_LOT);
+        long lues = 0;
+        boolean premiere = true;
+
+        List<String> champs;
+        while ((champs = lecteur.lire()) != null) {
+            boolean entete = premiere && estEntete(champs);
+            premiere = false;
+            if (entete || (champs.size() == 1 && champs.get(0).isBlank())) {
+                continue;
+            }
+            lues++;
+            lot.add(new LigneBrute(lecteur.getNumeroLigne(), champs));
+            if (lot.size() == TAILLE_LOT) {
+                enCours.add(soumettre(executeur, validation, lot));
+                lot = new ArrayList<>(TAILLE_LOT);
+                while (enCours.size() > 2 * parallelisme) {
+                    recuperer(enCours.poll(), valides, erreurs);
+                }
+            }
+        }
+        if (!lot.isEmpty()) {
+            enCours.add(soumettre(executeur, validation, lot));
+        }
+        while (!enCours.isEmpty()) {
+            recuperer(enCours.poll(), valides, erreurs);
+        }
+        return lues;
+    }
+
+    private static boolean estEntete(List<String> champs) {
+        return !champs.isEmpty() && champs.get(0).trim().equalsIgnoreCase(COLONNES[0]);
+    }
+
+    private static Future<List<LigneImport>> soumettre(ExecutorService executeur, Validation validation,
+                                                       List<LigneBrute> lot) {
+        return executeur.submit(() -> {
+            List<LigneImport> resultat = new ArrayList<>(lot.size());
+            for (LigneBrute ligne : lot) {
+                resultat.add(validation.valider(ligne));
+            }
+            return resultat;
+        });
+    }
+
+    private static void recuperer(Future<List<LigneImport>> lot, List<LigneImport> valides,
+                                  List<ErreurImport> erreurs) throws IOException {
+        try {
+            for (LigneImport ligne : lot.get()) {
+                if (ligne.erreur != null) {
+                    erreurs.add(new ErreurImport(ligne.numero, ligne.erreur));
+                } else {
+                    valides.add(ligne);
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("Erreur de validation de l'import: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrompu", e);
+        }
+    }
+
+    /**
+     * Validation d'une ligne, sans état partagé autre que la première ligne de chaque inscription
+     */
+    private static class Validation {
+        private final Map<String, Evenement> catalogue;
+        // Première ligne du fichier pour chaque couple (événement, email)
+        private final Map<String, Long> premieresLignes = new ConcurrentHashMap<>();
+
+        Validation(Map<String, Evenement> catalogue) {
+            this.catalogue = catalogue;
+        }
+
+        LigneImport valider(LigneBrute ligne) {
+            List<String> champs = ligne.champs;
+            if (champs.size() != COLONNES.length) {
+                return LigneImport.erreur(ligne.numero, "Nombre de colonnes invalide: " + champs.size()
+                    + " au lieu de " + COLONNES.length);
+            }
+            String evenementId = champs.get(0).trim();
+            String id = champs.get(1).trim();
+            String nom = champs.get(2).trim();
+            String email = champs.get(3).trim();
+
+            if (evenementId.isEmpty()) {
+                return LigneImport.erreur(ligne.numero, "Identifiant d'événement manquant");
+            }
+            if (nom.isEmpty()) {
+                return LigneImport.erreur(ligne.numero, "Nom manquant");
+            }
+            if (!EMAIL.matcher(email).matches()) {
+                return LigneImport.erreur(ligne.numero, "Email invalide: " + email);
+            }
+            Evenement evenement = catalogue.get(evenementId);
+            if (evenement == null) {
+                return LigneImport.erreur(ligne.numero, "Événement inconnu: " + evenementId);
+            }
+
+            String emailNormalise = email.toLowerCase(Locale.ROOT);
+            String cle = evenementId + '\n' + emailNormalise;
+            premieresLignes.merge(cle, ligne.numero, Math::min);
+            Participant participant = new Participant(id.isEmpty() ? PREFIXE_ID + emailNormalise : id, nom, email);
+            return new LigneImport(ligne.numero, evenement, participant, cle, null);
+        }
+    }
+
+    // ================================
+    // REGROUPEMENT ET INSCRIPTION
+    // ================================
+
+    /**
+     * Écarte doublons, personnes déjà inscrites et lignes au-delà de la capacité ;
+     * une seule passe sur les inscrits de chaque événement
+     */
+    private static Map<Evenement, List<LigneImport>> retenir(List<LigneImport> valides, Validation validation,
+                                                             List<ErreurImport> erreurs) {
+        Map<Evenement, List<LigneImport>> parEvenement = new LinkedHashMap<>();
+        for (LigneImport ligne : valides) {
+            long premiere = validation.premieresLignes.get(ligne.cle);
+            if (premiere != ligne.numero) {
+                erreurs.add(new ErreurImport(ligne.numero, "Doublon de la ligne " + premiere));
+            } else {
+                parEvenement.computeIfAbsent(ligne.evenement, e -> new ArrayList<>()).add(ligne);
+            }
+        }
+
+        Map<Evenement, List<LigneImport>> retenues = new LinkedHashMap<>();
+        for (Map.Entry<Evenement, List<LigneImport>> entree : parEvenement.entrySet()) {
+            Evenement evenement = entree.getKey();
+            Set<String> emailsInscrits = new HashSet<>();
+            Set<String> idsInscrits = new HashSet<>();
+            for (Participant inscrit : evenement.copierParticipants()) {
+                idsInscrits.add(inscrit.getId());
+                if (inscrit.getEmail() != null) {
+                    emailsInscrits.add(inscrit.getEmail().toLowerCase(Locale.ROOT));
+                }
+            }
+
+            int places = evenement.getCapaciteMax() - evenement.getNombreParticipants();
+            List<LigneImport> lot = new ArrayList<>();
+            for (LigneImport ligne : entree.getValue()) {
+                Participant participant = ligne.participant;
+                if (idsInscrits.contains(participant.getId())
+                        || emailsInscrits.contains(participant.getEmail().toLowerCase(Locale.ROOT))) {
+                    erreurs.add(new ErreurImport(ligne.numero, "Déjà inscrit à l'événement " + evenement.getId()));
+                } else if (places <= 0) {
+                    erreurs.add(new ErreurImport(ligne.numero,
+                        "Capacité maximale atteinte pour l'événement " + evenement.getId()));
+                } else {
+                    idsInscrits.add(participant.getId());
+                    lot.add(ligne);
+                    places--;
+                }
+            }
+            if (!lot.isEmpty()) {
+                retenues.put(evenement, lot);
+            }
+        }
+        return retenues;
+    }
+
+    /**
+     * Les lignes non admises (places prises ou personne inscrite entre-temps) reçoivent
+     * chacune leur erreur
+     *
+     * @return nombre d'inscrits par événement effectivement modifié
+     */
+    private static Map<Evenement, Integer> inscrire(Map<Evenement, List<LigneImport>> retenues,
+                                                    InscriptionEnMasse inscription, List<ErreurImport> erreurs) {
+        Map<Evenement, Integer> inscrits = new LinkedHashMap<>();
+        if (retenues.isEmpty()) {
+            return inscrits;
+        }
+        Map<Evenement, List<Participant>> lots = new LinkedHashMap<>();
+        for (Map.Entry<Evenement, List<LigneImport>> entree : retenues.entrySet()) {
+            List<Participant> participants = new ArrayList<>(entree.getValue().size());
+            for (LigneImport ligne : entree.getValue()) {
+                participants.add(ligne.participant);
+            }
+            lots.put(entree.getKey(), participants);
+        }
+
+        Map<String, List<Participant>> admis = inscription.inscrire(lots);
+        for (Map.Entry<Evenement, List<LigneImport>> entree : retenues.entrySet()) {
+            Evenement evenement = entree.getKey();
+            Set<String> idsAdmis = new HashSet<>();
+            for (Participant participant : admis.getOrDefault(evenement.getId(), List.of())) {
+                idsAdmis.add(participant.getId());
+            }
+            int nombre = 0;
+            for (LigneImport ligne : entree.getValue()) {
+                if (idsAdmis.remove(ligne.participant.getId())) {
+                    nombre++;
+                } else if (evenement.estInscrit(ligne.participant)) {
+                    erreurs.add(new ErreurImport(ligne.numero, "Déjà inscrit à l'événement " + evenement.getId()));
+                } else {
+                    erreurs.add(new ErreurImport(ligne.numero,
+                        "Capacité maximale atteinte pour l'événement " + evenement.getId()));
+                }
+            }
+            if (nombre > 0) {
+                inscrits.put(evenement, nombre);
+            }
+        }
+        return inscrits;
+    }
+
+    // ================================
+    // LIGNES
+    // ================================
+
+    private static class LigneBrute {
+        final long numero;
+        final List<String> champs;
+
+        LigneBrute(long numero, List<String> champs) {
+            this.numero = numero;
+            this.champs = champs;
+        }
+    }
+
+    private static class LigneImport {
+        final long numero;
+        final Evenement evenement;
+        final Participant participant;
+        // Couple (événement, email normalisé) servant à détecter les doublons du fichier
+        final String cle;
+        final String erreur;
+
+        LigneImport(long numero, Evenement evenement, Participant participant, String cle, String erreur) {
+            this.numero = numero;
+            this.evenement = evenement;
+            this.participant = participant;
+            this.cle = cle;
+            this.erreur = erreur;
+        }
+
+        static LigneImport erreur(long numero, String motif) {
+            return new LigneImport(numero, null, null, null, motif);
+        }
+    }
+}
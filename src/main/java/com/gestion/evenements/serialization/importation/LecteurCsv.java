@@ -0,0 +1,80 @@
+package com.gestion.evenements.serialization.importation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lecture d'un CSV (RFC 4180) enregistrement par enregistrement
+ * Les champs entre guillemets peuvent contenir virgules, guillemets doublés et retours à la ligne.
+ */
+class LecteurCsv {
+    private final BufferedReader lecteur;
+    private long numeroLigne;
+    private long debutEnregistrement;
+
+    LecteurCsv(BufferedReader lecteur) {
+        this.lecteur = lecteur;
+    }
+
+    /**
+     * Numéro (à partir de 1) de la première ligne physique du dernier enregistrement lu
+     */
+    long getNumeroLigne() {
+        return debutEnregistrement;
+    }
+
+    /**
+     * @return les champs du prochain enregistrement, ou null en fin de fichier
+     */
+    List<String> lire() throws IOException {
+        String ligne = lecteur.readLine();
+        if (ligne == null) {
+            return null;
+        }
+        debutEnregistrement = ++numeroLigne;
+
+        List<String> champs = new ArrayList<>();
+        StringBuilder champ = new StringBuilder();
+        boolean entreGuillemets = false;
+        int i = 0;
+        while (true) {
+            if (i == ligne.length()) {
+                if (!entreGuillemets) {
+                    break;
+                }
+                // Retour à la ligne à l'intérieur d'un champ entre guillemets
+                String suite = lecteur.readLine();
+                if (suite == null) {
+                    break;
+                }
+                numeroLigne++;
+                champ.append('\n');
+                ligne = suite;
+                i = 0;
+                continue;
+            }
+            char c = ligne.charAt(i++);
+            if (entreGuillemets) {
+                if (c != '"') {
+                    champ.append(c);
+                } else if (i < ligne.length() && ligne.charAt(i) == '"') {
+                    champ.append('"');
+                    i++;
+                } else {
+                    entreGuillemets = false;
+                }
+            } else if (c == '"') {
+                entreGuillemets = true;
+            } else if (c == ',') {
+                champs.add(champ.toString());
+                champ.setLength(0);
+            } else {
+                champ.append(c);
+            }
+        }
+        champs.add(champ.toString());
+        return champs;
+    }
+}
@@ -0,0 +1,55 @@
+package com.gestion.evenements.serialization.importation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bilan d'un import : nombre de lignes lues et inscrites, et une erreur par ligne rejetée
+ */
+public class RapportImport {
+    private final long lignesLues;
+    private final long inscrits;
+    private final int evenementsModifies;
+    private final List<ErreurImport> erreurs;
+
+    RapportImport(long lignesLues, long inscrits, int evenementsModifies, List<ErreurImport> erreurs) {
+        List<ErreurImport> triees = new ArrayList<>(erreurs);
+        Collections.sort(triees);
+        this.lignesLues = lignesLues;
+        this.inscrits = inscrits;
+        this.evenementsModifies = evenementsModifies;
+        this.erreurs = Collections.unmodifiableList(triees);
+    }
+
+    public long getLignesLues() { return lignesLues; }
+    public long getInscrits() { return inscrits; }
+    public int getEvenementsModifies() { return evenementsModifies; }
+    public List<ErreurImport> getErreurs() { return erreurs; }
+
+    /**
+     * Écrit les erreurs en CSV (ligne,motif), triées par numéro de ligne
+     */
+    public void ecrireErreurs(Path fichier) throws IOException {
+        if (fichier.getParent() != null) {
+            Files.createDirectories(fichier.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(fichier, StandardCharsets.UTF_8)) {
+            writer.write("ligne,motif\r\n");
+            for (ErreurImport erreur : erreurs) {
+                writer.write(erreur.getLigne() + ",\"" + erreur.getMotif().replace("\"", "\"\"") + "\"\r\n");
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Import{lignes=%d, inscrits=%d, evenements=%d, erreurs=%d}",
+            lignesLues, inscrits, evenementsModifies, erreurs.size());
+    }
+}
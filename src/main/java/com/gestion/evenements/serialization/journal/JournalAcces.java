@@ -0,0 +1,203 @@
+package com.gestion.evenements.serialization.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Journal append-only des derniers accès utilisateurs
+ *
+ * Une connexion ajoute une ligne "date\temail" au journal au lieu de réécrire le fichier
+ * des utilisateurs. Le journal est replié périodiquement dans ce fichier (compaction) ;
+ * seules les dates les plus récentes par utilisateur sont conservées en mémoire.
+ * Pas de fsync par ligne : un crash peut perdre quelques dates d'accès, jamais un compte.
+ * La première ligne porte la version du format ; un journal sans en-tête est en version 1.
+ */
+public class JournalAcces implements AutoCloseable {
+    private static final String SEPARATEUR = "\t";
+    private static final String PREFIXE_ENTETE = "# journal-acces ";
+    private static final int VERSION = 1;
+
+    /**
+     * Écrit les dates d'accès dans le stockage des utilisateurs
+     */
+    @FunctionalInterface
+    public interface PersistanceAcces {
+        void persister(Map<String, LocalDateTime> acces) throws IOException;
+    }
+
+    private final Path fichier;
+    private FileChannel channel;
+    // Dernier accès par email depuis la dernière compaction
+    private final Map<String, LocalDateTime> enAttente = new HashMap<>();
+    private long lignesDepuisCompaction;
+    private final Object verrouCompaction = new Object();
+
+    public JournalAcces(String fichier) throws IOException {
+        this.fichier = Path.of(fichier);
+        if (this.fichier.getParent() != null) {
+            Files.createDirectories(this.fichier.getParent());
+        }
+        this.channel = ouvrir();
+    }
+
+    private FileChannel ouvrir() throws IOException {
+        FileChannel canal = FileChannel.open(fichier,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (canal.size() == 0) {
+            ByteBuffer entete = StandardCharsets.UTF_8.encode(PREFIXE_ENTETE + VERSION + "\n");
+            while (entete.hasRemaining()) {
+                canal.write(entete);
+            }
+        }
+        canal.position(canal.size());
+        return canal;
+    }
+
+    // ================================
+    // REJEU
+    // ================================
+
+    /**
+     * Relit le journal : dernier accès de chaque email non encore compacté.
+     * Une dernière ligne incomplète (écriture interrompue) est tronquée, les lignes illisibles ignorées.
+     */
+    public synchronized Map<String, LocalDateTime> rejouer() throws IOException {
+        // Le journal est borné par la compaction : il tient en mémoire
+        byte[] contenu = Files.readAllBytes(fichier);
+        int fin = contenu.length;
+        while (fin > 0 && contenu[fin - 1] != '\n') {
+            fin--;
+        }
+        if (fin < contenu.length) {
+            channel.truncate(fin);
+            channel.position(fin);
+        }
+
+        int ignorees = 0;
+        for (String ligne : new String(contenu, 0, fin, StandardCharsets.UTF_8).split("\n")) {
+            if (ligne.startsWith(PREFIXE_ENTETE)) {
+                verifierVersion(ligne.substring(PREFIXE_ENTETE.length()).trim());
+                continue;
+            }
+            int separateur = ligne.indexOf(SEPARATEUR);
+            if (separateur <= 0) {
+                ignorees += ligne.isBlank() ? 0 : 1;
+                continue;
+            }
+            try {
+                retenir(ligne.substring(separateur + 1), LocalDateTime.parse(ligne.substring(0, separateur)));
+                lignesDepuisCompaction++;
+            } catch (DateTimeParseException e) {
+                ignorees++;
+            }
+        }
+        if (ignorees > 0) {
+            System.err.println("⚠️ " + ignorees + " lignes illisibles ignorées dans " + fichier);
+        }
+        return new HashMap<>(enAttente);
+    }
+
+    // ================================
+    // ÉCRITURE
+    // ================================
+
+    /**
+     * Ajoute un accès au journal (une ligne, sans relire ni réécrire le fichier des utilisateurs)
+     */
+    public synchronized void enregistrer(String email, LocalDateTime date) throws IOException {
+        ByteBuffer ligne = StandardCharsets.UTF_8.encode(date + SEPARATEUR + email + "\n");
+        while (ligne.hasRemaining()) {
+            channel.write(ligne);
+        }
+        retenir(email, date);
+        lignesDepuisCompaction++;
+    }
+
+    private void retenir(String email, LocalDateTime date) {
+        enAttente.merge(email, date, (ancienne, nouvelle) -> nouvelle.isAfter(ancienne) ? nouvelle : ancienne);
+    }
+
+    /**
+     * Nombre de lignes ajoutées depuis la dernière compaction
+     */
+    public synchronized long getLignesDepuisCompaction() {
+        return lignesDepuisCompaction;
+    }
+
+    // ================================
+    // COMPACTION
+    // ================================
+
+    /**
+     * Persiste les derniers accès puis réduit le journal aux accès arrivés pendant la persistance.
+     * Les connexions ne sont pas bloquées pendant l'écriture du fichier des utilisateurs.
+     *
+     * @return nombre d'utilisateurs dont la date d'accès a été persistée
+     */
+    public int compacter(PersistanceAcces persistance) throws IOException {
+        synchronized (verrouCompaction) {
+            Map<String, LocalDateTime> lot;
+            synchronized (this) {
+                if (enAttente.isEmpty()) {
+                    return 0;
+                }
+                lot = new HashMap<>(enAttente);
+            }
+
+            persistance.persister(lot);
+
+            synchronized (this) {
+                // Les accès postérieurs au lot restent dans le journal
+                enAttente.entrySet().removeIf(entree -> entree.getValue().equals(lot.get(entree.getKey())));
+                reecrire();
+                lignesDepuisCompaction = enAttente.size();
+            }
+            return lot.size();
+        }
+    }
+
+    /**
+     * Remplace le journal par les seuls accès en attente (fichier temporaire puis renommage atomique)
+     */
+    private void reecrire() throws IOException {
+        Path temporaire = fichier.resolveSibling(fichier.getFileName() + ".tmp");
+        StringBuilder contenu = new StringBuilder(PREFIXE_ENTETE + VERSION + "\n");
+        for (Map.Entry<String, LocalDateTime> entree : enAttente.entrySet()) {
+            contenu.append(entree.getValue()).append(SEPARATEUR).append(entree.getKey()).append('\n');
+        }
+        Files.writeString(temporaire, contenu, StandardCharsets.UTF_8);
+
+        channel.close();
+        Files.move(temporaire, fichier, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = ouvrir();
+    }
+
+    private void verifierVersion(String version) throws IOException {
+        try {
+            if (Integer.parseInt(version) > VERSION) {
+                throw new IOException("Journal des accès d'une version plus récente: " + version + " (" + fichier + ")");
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("En-tête du journal des accès invalide: " + version);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("⚠️ Erreur lors de la fermeture du journal des accès: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.gestion.evenements.serialization.journal;
+
+import com.gestion.evenements.model.Evenement;
+import com.gestion.evenements.model.Participant;
+
+/**
+ * Enregistrement unitaire du journal des mutations
+ * Décrit une seule modification du catalogue (événement ou inscription)
+ */
+public class JournalEntry {
+
+    /**
+     * Types de mutations journalisées
+     */
+    public enum TypeMutation {
+        EVENEMENT_CREE,
+        EVENEMENT_MODIFIE,
+        EVENEMENT_SUPPRIME,
+        PARTICIPANT_AJOUTE,
+        PARTICIPANT_RETIRE
+    }
+
+    private final long sequence;
+    private final TypeMutation type;
+    private final String evenementId;
+    private final Evenement evenement;
+    private final Participant participant;
+
+    JournalEntry(long sequence, TypeMutation type, String evenementId,
+                 Evenement evenement, Participant participant) {
+        this.sequence = sequence;
+        this.type = type;
+        this.evenementId = evenementId;
+        this.evenement = evenement;
+        this.participant = participant;
+    }
+
+    public static JournalEntry evenementCree(Evenement evenement) {
+        return new JournalEntry(0, TypeMutation.EVENEMENT_CREE, evenement.getId(), evenement, null);
+    }
+
+    public static JournalEntry evenementModifie(Evenement evenement) {
+        return new JournalEntry(0, TypeMutation.EVENEMENT_MODIFIE, evenement.getId(), evenement, null);
+    }
+
+    public static JournalEntry evenementSupprime(String evenementId) {
+        return new JournalEntry(0, TypeMutation.EVENEMENT_SUPPRIME, evenementId, null, null);
+    }
+
+    public static JournalEntry participantAjoute(String evenementId, Participant participant) {
+        return new JournalEntry(0, TypeMutation.PARTICIPANT_AJOUTE, evenementId, null, participant);
+    }
+
+    public static JournalEntry participantRetire(String evenementId, Participant participant) {
+        return new JournalEntry(0, TypeMutation.PARTICIPANT_RETIRE, evenementId, null, participant);
+    }
+
+    // Getters
+    public long getSequence() { return sequence; }
+    public TypeMutation getType() { return type; }
+    public String getEvenementId() { return evenementId; }
+    public Evenement getEvenement() { return evenement; }
+    public Participant getParticipant() { return participant; }
+
+    @Override
+    public String toString() {
+        return "JournalEntry{seq=" + sequence + ", type=" + type + ", evenementId='" + evenementId + "'}";
+    }
+}
@@ -0,0 +1,385 @@
+package com.gestion.evenements.serialization.journal;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestion.evenements.model.Evenement;
+import com.gestion.evenements.model.Participant;
+import com.gestion.evenements.serialization.SerialisationJson;
+
+/**
+ * Journal append-only des mutations du catalogue (write-ahead log)
+ * Chaque mutation est ajoutée en une ligne JSON compacte ; les ajouts concurrents
+ * sont regroupés par un thread d'écriture unique qui fait un seul fsync par lot (group commit).
+ * Un checkpoint (snapshot complet) permet ensuite de vider le journal.
+ */
+public class MutationJournal implements AutoCloseable {
+    private static final byte SEPARATEUR = '\n';
+    // Chaque entrée porte sa version de format ("v") ; une entrée sans version est en version 1
+    private static final int VERSION = 1;
+    private static final EntreeEnAttente ARRET = new EntreeEnAttente(-1, new byte[0], new byte[0], null);
+
+    private final Path fichier;
+    private final ObjectMapper objectMapper;
+    private final FileChannel channel;
+    private final BlockingQueue<EntreeEnAttente> fileAttente;
+    private final Object verrouEcriture = new Object();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong entreesDepuisCheckpoint = new AtomicLong();
+    private final Thread committer;
+
+    private volatile CompletableFuture<Long> dernierAjout = CompletableFuture.completedFuture(0L);
+    private volatile boolean ferme;
+    private boolean demarre;
+
+    public MutationJournal(String fichier) throws IOException {
+        this.fichier = Path.of(fichier);
+        if (this.fichier.getParent() != null) {
+            Files.createDirectories(this.fichier.getParent());
+        }
+
+        this.objectMapper = SerialisationJson.mapper();
+
+        this.channel = FileChannel.open(this.fichier,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.fileAttente = new LinkedBlockingQueue<>();
+
+        this.committer = new Thread(this::boucleCommit, "journal-committer");
+        this.committer.setDaemon(true);
+    }
+
+    // ================================
+    // REJEU
+    // ================================
+
+    /**
+     * Rejoue toutes les entrées valides du journal, dans l'ordre d'écriture.
+     * Une dernière ligne incomplète (écriture interrompue par un crash) est tronquée.
+     * Doit être appelé avant le premier ajout ; démarre ensuite le thread de commit.
+     */
+    public int replay(Consumer<JournalEntry> consommateur) throws IOException {
+        int rejouees = 0;
+        long positionValide = 0;
+
+        synchronized (verrouEcriture) {
+            channel.position(0);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                Channels.newInputStream(channel), StandardCharsets.UTF_8));
+
+            String ligne;
+            while ((ligne = reader.readLine()) != null) {
+                if (ligne.isBlank()) {
+                    positionValide += ligne.getBytes(StandardCharsets.UTF_8).length + 1;
+                    continue;
+                }
+
+                JournalEntry entree;
+                try {
+                    entree = decoder(ligne);
+                } catch (VersionNonSupportee e) {
+                    // Pas de troncature : les entrées appartiennent à une version plus récente de l'application
+                    throw e;
+                } catch (Exception e) {
+                    System.err.println("⚠️ Entrée de journal corrompue ignorée (fin du rejeu): " + e.getMessage());
+                    break;
+                }
+
+                consommateur.accept(entree);
+                sequence.set(Math.max(sequence.get(), entree.getSequence()));
+                positionValide += ligne.getBytes(StandardCharsets.UTF_8).length + 1;
+                rejouees++;
+            }
+
+            // Supprimer une éventuelle queue déchirée puis se placer en fin de fichier
+            long taille = channel.size();
+            if (positionValide < taille) {
+                channel.truncate(positionValide);
+            } else if (positionValide > taille) {
+                // Dernière entrée valide sans fin de ligne : la terminer, sinon le prochain
+                // ajout s'y collerait et les deux seraient tronqués au rejeu suivant
+                channel.write(ByteBuffer.wrap(new byte[] {'\n'}), taille);
+                channel.force(false);
+            }
+            channel.position(channel.size());
+        }
+
+        entreesDepuisCheckpoint.set(rejouees);
+        demarrer();
+
+        if (rejouees > 0) {
+            System.out.println("🔁 " + rejouees + " mutations rejouées depuis le journal: " + fichier);
+        }
+        return rejouees;
+    }
+
+    // ================================
+    // ÉCRITURE
+    // ================================
+
+    /**
+     * Ajoute une mutation au journal.
+     * L'entrée est encodée immédiatement (état de l'objet au moment de l'appel), hors du verrou
+     * de la file : seuls la numérotation et la mise en file sont sérialisées entre les appelants.
+     * Le futur est complété quand le lot qui la contient a été fsyncé ; il échoue si le journal
+     * est fermé.
+     */
+    public CompletableFuture<Long> append(JournalEntry entree) {
+        if (ferme) {
+            return journalFerme();
+        }
+        demarrer();
+
+        byte[] corps;
+        try {
+            corps = encoderCorps(entree);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<Long> futur = new CompletableFuture<>();
+        // Numérotation et mise en file atomiques pour conserver l'ordre des séquences ; fermeture
+        // vérifiée sous le même verrou : aucune entrée n'arrive après ARRET
+        synchronized (fileAttente) {
+            if (ferme) {
+                return journalFerme();
+            }
+            long numero = sequence.incrementAndGet();
+            fileAttente.add(new EntreeEnAttente(numero, prefixe(numero), corps, futur));
+            dernierAjout = futur;
+        }
+        entreesDepuisCheckpoint.incrementAndGet();
+        return futur;
+    }
+
+    private CompletableFuture<Long> journalFerme() {
+        return CompletableFuture.failedFuture(new IOException("Journal fermé: " + fichier));
+    }
+
+    /**
+     * Ajoute une mutation et attend qu'elle soit durable sur disque
+     */
+    public void appendAndWait(JournalEntry entree) throws IOException {
+        try {
+            append(entree).join();
+        } catch (java.util.concurrent.CompletionException e) {
+            throw new IOException("Échec d'écriture dans le journal: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Attend que toutes les entrées déjà ajoutées soient durables
+     */
+    public void sync() {
+        try {
+            dernierAjout.join();
+        } catch (Exception e) {
+            System.err.println("⚠️ Échec lors de la synchronisation du journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Vide le journal après un checkpoint : les entrées sont couvertes par le snapshot.
+     * L'appelant doit garantir qu'aucune mutation n'est ajoutée pendant le checkpoint.
+     */
+    public void reset() throws IOException {
+        sync();
+        synchronized (verrouEcriture) {
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(true);
+        }
+        entreesDepuisCheckpoint.set(0);
+    }
+
+    public long getEntreesDepuisCheckpoint() {
+        return entreesDepuisCheckpoint.get();
+    }
+
+    @Override
+    public void close() {
+        synchronized (fileAttente) {
+            if (ferme) return;
+            // Les entrées déjà en file précèdent ARRET et sont écrites avant l'arrêt du thread de commit
+            ferme = true;
+            fileAttente.add(ARRET);
+        }
+        try {
+            if (demarre) {
+                committer.join(2000);
+            }
+            synchronized (verrouEcriture) {
+                channel.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("⚠️ Erreur lors de la fermeture du journal: " + e.getMessage());
+        }
+    }
+
+    // ================================
+    // GROUP COMMIT
+    // ================================
+
+    private synchronized void demarrer() {
+        if (!demarre && !ferme) {
+            demarre = true;
+            committer.start();
+        }
+    }
+
+    private void boucleCommit() {
+        List<EntreeEnAttente> lot = new ArrayList<>();
+        boolean arret = false;
+        while (!arret) {
+            try {
+                lot.add(fileAttente.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            // Regrouper tout ce qui est arrivé pendant le fsync précédent
+            fileAttente.drainTo(lot);
+            arret = lot.remove(ARRET);
+            ecrireLot(lot);
+            lot.clear();
+        }
+    }
+
+    private void ecrireLot(List<EntreeEnAttente> lot) {
+        if (lot.isEmpty()) return;
+
+        int taille = 0;
+        for (EntreeEnAttente entree : lot) {
+            taille += entree.prefixe.length + entree.corps.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(taille);
+        for (EntreeEnAttente entree : lot) {
+            buffer.put(entree.prefixe).put(entree.corps);
+        }
+        buffer.flip();
+
+        try {
+            synchronized (verrouEcriture) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            for (EntreeEnAttente entree : lot) {
+                entree.futur.complete(entree.sequence);
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Erreur d'écriture du journal: " + e.getMessage());
+            for (EntreeEnAttente entree : lot) {
+                entree.futur.completeExceptionally(e);
+            }
+        }
+    }
+
+    // ================================
+    // ENCODAGE
+    // ================================
+
+    /**
+     * Début de ligne portant la version et le numéro de séquence, complété par le corps
+     */
+    private static byte[] prefixe(long numero) {
+        return ("{\"v\":" + VERSION + ",\"seq\":" + numero + ",").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reste de la ligne, sans l'accolade ouvrante : encodé avant la numérotation, l'état complet
+     * d'un événement n'est jamais sérialisé sous le verrou de la file
+     */
+    private byte[] encoderCorps(JournalEntry entree) throws IOException {
+        // Une ligne compacte écrite directement, sans arbre intermédiaire
+        ByteArrayOutputStream ligne = new ByteArrayOutputStream(256);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(ligne)) {
+            generator.writeStartObject();
+            generator.writeStringField("op", entree.getType().name());
+            generator.writeStringField("evenementId", entree.getEvenementId());
+            if (entree.getEvenement() != null) {
+                // Écrivain typé Evenement : l'identifiant de type polymorphe (conference/concert) est conservé
+                generator.writeFieldName("evenement");
+                SerialisationJson.ecrivainEvenement().writeValue(generator, entree.getEvenement());
+            }
+            if (entree.getParticipant() != null) {
+                Participant participant = entree.getParticipant();
+                generator.writeObjectFieldStart("participant");
+                generator.writeStringField("id", participant.getId());
+                generator.writeStringField("nom", participant.getNom());
+                generator.writeStringField("email", participant.getEmail());
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+        }
+        ligne.write(SEPARATEUR);
+        byte[] octets = ligne.toByteArray();
+        // L'accolade ouvrante est portée par le préfixe
+        return Arrays.copyOfRange(octets, 1, octets.length);
+    }
+
+    private JournalEntry decoder(String ligne) throws IOException {
+        JsonNode noeud = objectMapper.readTree(ligne);
+        int version = noeud.path("v").asInt(1);
+        if (version > VERSION) {
+            throw new VersionNonSupportee("Entrée de journal en version " + version + " (version courante: " + VERSION + ")");
+        }
+        long seq = noeud.get("seq").asLong();
+        JournalEntry.TypeMutation type = JournalEntry.TypeMutation.valueOf(noeud.get("op").asText());
+        String evenementId = noeud.get("evenementId").asText();
+
+        Evenement evenement = null;
+        if (noeud.hasNonNull("evenement")) {
+            evenement = SerialisationJson.lecteurEvenement().readValue(noeud.get("evenement"));
+        }
+        Participant participant = null;
+        if (noeud.hasNonNull("participant")) {
+            JsonNode p = noeud.get("participant");
+            participant = new Participant(p.path("id").asText(null), p.path("nom").asText(null),
+                p.path("email").asText(null));
+        }
+        return new JournalEntry(seq, type, evenementId, evenement, participant);
+    }
+
+    private static class VersionNonSupportee extends IOException {
+        VersionNonSupportee(String message) {
+            super(message);
+        }
+    }
+
+    private static class EntreeEnAttente {
+        final long sequence;
+        final byte[] prefixe;
+        final byte[] corps;
+        final CompletableFuture<Long> futur;
+
+        EntreeEnAttente(long sequence, byte[] prefixe, byte[] corps, CompletableFuture<Long> futur) {
+            this.sequence = sequence;
+            this.prefixe = prefixe;
+            this.corps = corps;
+            this.futur = futur;
+        }
+    }
+}
@@ -0,0 +1,443 @@
+package com.gestion.evenements.serialization.migration;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.gestion.evenements.serialization.BinarySnapshotCodec;
+import com.gestion.evenements.serialization.FormatsVersionnes;
+import com.gestion.evenements.serialization.SerialisationJson;
+import com.gestion.evenements.serialization.backup.BackupStore;
+import com.gestion.evenements.serialization.backup.PointSauvegarde;
+
+/**
+ * Migration des fichiers persistés vers la version courante de leur format
+ *
+ * JSON et XML sont réécrits en flux, un enregistrement à la fois : seul l'enregistrement
+ * courant est en mémoire, quelle que soit la taille du fichier ; un snapshot binaire est
+ * mappé et relu en deux passes, un événement à la fois. Chaque fichier est écrit
+ * dans un temporaire puis renommé atomiquement ; un fichier déjà à jour n'est pas touché.
+ * Les points du stockage de sauvegardes dédupliquées sont restaurés, migrés puis
+ * réenregistrés sous le même manifeste.
+ *
+ * Usage : java ... MigrateurFormats [dossier (défaut: backups)] [threads]
+ * À lancer application arrêtée : le stockage de sauvegardes ne doit pas être écrit pendant la migration.
+ */
+public class MigrateurFormats {
+    private static final String DOSSIER_PAR_DEFAUT = "backups";
+    private static final String SUFFIXE_TEMPORAIRE = ".migration.tmp";
+    private static final int TAILLE_BUFFER = 64 * 1024;
+
+    private final int nombreThreads;
+    private final ObjectMapper objectMapper = SerialisationJson.mapper();
+    private final XMLInputFactory inputFactory;
+    private final XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+    private final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
+
+    public MigrateurFormats(int nombreThreads) {
+        this.nombreThreads = Math.max(1, nombreThreads);
+        this.inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    // ================================
+    // POINT D'ENTRÉE
+    // ================================
+
+    public static void main(String[] args) {
+        Path dossier = Path.of(args.length > 0 ? args[0] : DOSSIER_PAR_DEFAUT);
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        if (!Files.isDirectory(dossier)) {
+            System.err.println("❌ Dossier introuvable: " + dossier.toAbsolutePath());
+            System.exit(2);
+        }
+
+        System.out.println("🔄 Migration des formats dans " + dossier.toAbsolutePath() + " (" + threads + " threads)");
+        RapportMigration rapport = new MigrateurFormats(threads).migrerDossier(dossier);
+        rapport.getErreurs().forEach((fichier, motif) -> System.err.println("❌ " + fichier + ": " + motif));
+        System.out.println("✅ " + rapport);
+        if (!rapport.getErreurs().isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    // ================================
+    // DOSSIERS
+    // ================================
+
+    /**
+     * Migre en parallèle tous les fichiers de l'arborescence, puis les points du stockage de sauvegardes
+     * Une erreur sur un fichier est consignée dans le rapport et n'interrompt pas les autres.
+     */
+    public RapportMigration migrerDossier(Path racine) {
+        RapportMigration rapport = new RapportMigration();
+        BackupStore store = new BackupStore(racine);
+
+        List<Path> fichiers;
+        try (Stream<Path> parcours = Files.walk(racine)) {
+            fichiers = parcours
+                .filter(Files::isRegularFile)
+                .filter(fichier -> !store.estInterne(fichier))
+                .filter(fichier -> !fichier.getFileName().toString().endsWith(".tmp"))
+                .collect(Collectors.toList());
+        } catch (IOException e) {
+            rapport.enregistrerErreur(racine, "Parcours impossible: " + e.getMessage());
+            return rapport;
+        }
+
+        List<PointSauvegarde> points;
+        try {
+            points = store.listerTout();
+        } catch (IOException e) {
+            rapport.enregistrerErreur(store.getRacine(), "Manifestes illisibles: " + e.getMessage());
+            points = List.of();
+        }
+
+        ExecutorService executeur = Executors.newFixedThreadPool(nombreThreads, tache -> {
+            Thread thread = new Thread(tache, "migration-formats");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> taches = new ArrayList<>();
+            for (Path fichier : fichiers) {
+                taches.add(executeur.submit(() -> {
+                    try {
+                        rapport.enregistrer(migrerFichier(fichier));
+                    } catch (IOException | RuntimeException e) {
+                        rapport.enregistrerErreur(fichier, e.getMessage());
+                    }
+                }));
+            }
+            for (PointSauvegarde point : points) {
+                taches.add(executeur.submit(() -> {
+                    try {
+                        if (migrerPoint(store, point)) {
+                            rapport.enregistrerPointMigre();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        rapport.enregistrerErreur(point.getManifeste(), e.getMessage());
+                    }
+                }));
+            }
+            attendre(taches);
+        } finally {
+            executeur.shutdownNow();
+        }
+        return rapport;
+    }
+
+    /**
+     * Restaure le point dans un dossier temporaire, le migre et remplace son contenu dans le stockage
+     * @return vrai si le point a été réécrit
+     */
+    private boolean migrerPoint(BackupStore store, PointSauvegarde point) throws IOException {
+        Path dossier = Files.createTempDirectory("migration-");
+        // Le nom d'origine sert à reconnaître le format d'une map vide sans en-tête
+        Path copie = dossier.resolve(point.getSource());
+        try {
+            store.restaurer(point, copie);
+            if (migrerFichier(copie) != ResultatMigration.MIGRE) {
+                return false;
+            }
+            store.remplacerContenu(point, copie);
+            return true;
+        } finally {
+            Files.deleteIfExists(copie);
+            Files.deleteIfExists(dossier);
+        }
+    }
+
+    private static void attendre(List<Future<?>> taches) {
+        for (Future<?> tache : taches) {
+            try {
+                tache.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // Les erreurs sont consignées par la tâche elle-même
+            }
+        }
+    }
+
+    // ================================
+    // FICHIERS
+    // ================================
+
+    /**
+     * Migre un fichier sur place si son format est reconnu et antérieur à la version courante
+     */
+    public ResultatMigration migrerFichier(Path fichier) throws IOException {
+        byte[] debut = new byte[8];
+        int lus;
+        try (InputStream in = Files.newInputStream(fichier)) {
+            lus = in.readNBytes(debut, 0, debut.length);
+        }
+        if (BinarySnapshotCodec.versionSnapshot(ByteBuffer.wrap(debut, 0, lus)) >= 0) {
+            return migrerBinaire(fichier);
+        }
+        for (int i = 0; i < lus; i++) {
+            if (Character.isWhitespace(debut[i])) {
+                continue;
+            }
+            if (debut[i] == '{') {
+                return migrerJson(fichier);
+            }
+            if (debut[i] == '<') {
+                return migrerXml(fichier);
+            }
+            break;
+        }
+        return ResultatMigration.IGNORE;
+    }
+
+    /**
+     * Le snapshot est mappé en mémoire plutôt que lu dans un tableau : la migration le
+     * parcourt deux fois sans le charger, un événement à la fois
+     */
+    private ResultatMigration migrerBinaire(Path fichier) throws IOException {
+        ByteBuffer contenu;
+        try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ)) {
+            contenu = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        Path temporaire = temporaire(fichier);
+        boolean migre;
+        try (OutputStream sortie = new BufferedOutputStream(Files.newOutputStream(temporaire), TAILLE_BUFFER)) {
+            migre = BinarySnapshotCodec.migrer(contenu, sortie);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporaire);
+            throw e;
+        }
+        return remplacer(temporaire, fichier, migre);
+    }
+
+    // ================================
+    // JSON
+    // ================================
+
+    /**
+     * Réécrit une map JSON enregistrement par enregistrement, précédée de l'en-tête courant
+     */
+    private ResultatMigration migrerJson(Path fichier) throws IOException {
+        Path temporaire = temporaire(fichier);
+        boolean migre = false;
+        try (JsonParser parser = objectMapper.getFactory().createParser(fichier.toFile())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return ResultatMigration.IGNORE;
+            }
+
+            String format = null;
+            int version = FormatsVersionnes.VERSION_SANS_ENTETE;
+            JsonToken jeton = parser.nextToken();
+            if (jeton == JsonToken.FIELD_NAME && FormatsVersionnes.CHAMP_ENTETE.equals(parser.getCurrentName())) {
+                parser.nextToken();
+                JsonNode entete = parser.readValueAsTree();
+                format = entete.path("format").asText(null);
+                version = FormatsVersionnes.verifierEntete(entete, null);
+                if (version == FormatsVersionnes.VERSION_JSON) {
+                    return ResultatMigration.A_JOUR;
+                }
+                jeton = parser.nextToken();
+            }
+
+            // Le premier enregistrement permet aussi de reconnaître un fichier sans en-tête
+            String premiereCle = null;
+            JsonNode premier = null;
+            if (jeton == JsonToken.FIELD_NAME) {
+                premiereCle = parser.getCurrentName();
+                parser.nextToken();
+                premier = parser.readValueAsTree();
+                if (premier == null || !premier.isObject()) {
+                    return ResultatMigration.IGNORE;
+                }
+            } else if (jeton != JsonToken.END_OBJECT) {
+                return ResultatMigration.IGNORE;
+            }
+            if (format == null) {
+                format = reconnaitreFormat(premier, fichier);
+                if (format == null) {
+                    return ResultatMigration.IGNORE;
+                }
+            }
+
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporaire), TAILLE_BUFFER);
+                 JsonGenerator generator = SerialisationJson.generateur(out)) {
+                generator.writeStartObject();
+                FormatsVersionnes.ecrireEnteteJson(generator, format);
+                if (premier != null) {
+                    ecrireEnregistrement(generator, format, premiereCle, premier, version);
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String cle = parser.getCurrentName();
+                        parser.nextToken();
+                        ecrireEnregistrement(generator, format, cle, parser.readValueAsTree(), version);
+                    }
+                }
+                generator.writeEndObject();
+            }
+            migre = true;
+        } finally {
+            if (!migre) {
+                Files.deleteIfExists(temporaire);
+            }
+        }
+        return remplacer(temporaire, fichier, true);
+    }
+
+    private void ecrireEnregistrement(JsonGenerator generator, String format, String cle, JsonNode enregistrement,
+                                      int version) throws IOException {
+        if (enregistrement instanceof ObjectNode) {
+            FormatsVersionnes.migrerEnregistrement(format, (ObjectNode) enregistrement, cle, version);
+        }
+        generator.writeFieldName(cle);
+        generator.writeTree(enregistrement);
+    }
+
+    /**
+     * Format d'une map sans en-tête, d'après son premier enregistrement ou, si elle est vide, son nom
+     */
+    private static String reconnaitreFormat(JsonNode premier, Path fichier) {
+        if (premier != null) {
+            if (premier.has("motDePasse") || premier.has("role")) {
+                return FormatsVersionnes.UTILISATEURS;
+            }
+            if (premier.has("type") || premier.has("capaciteMax")) {
+                return FormatsVersionnes.EVENEMENTS;
+            }
+            return null;
+        }
+        String nom = fichier.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (nom.contains("utilisateur") || nom.contains("user")) {
+            return FormatsVersionnes.UTILISATEURS;
+        }
+        if (nom.contains("evenement") || nom.contains("event")) {
+            return FormatsVersionnes.EVENEMENTS;
+        }
+        return null;
+    }
+
+    // ================================
+    // XML
+    // ================================
+
+    /**
+     * Recopie le document événement par événement (StAX) en ajoutant la version sur la racine
+     */
+    private ResultatMigration migrerXml(Path fichier) throws IOException {
+        Path temporaire = temporaire(fichier);
+        boolean migre = false;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(fichier), TAILLE_BUFFER)) {
+            XMLEventReader reader = inputFactory.createXMLEventReader(in);
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporaire), TAILLE_BUFFER)) {
+                XMLEventWriter writer = outputFactory.createXMLEventWriter(out, "UTF-8");
+                boolean racine = true;
+                while (reader.hasNext()) {
+                    XMLEvent evenement = reader.nextEvent();
+                    if (racine && evenement.isStartElement()) {
+                        racine = false;
+                        StartElement element = evenement.asStartElement();
+                        String nom = element.getName().getLocalPart();
+                        if (!FormatsVersionnes.EVENEMENTS.equals(nom) && !FormatsVersionnes.UTILISATEURS.equals(nom)) {
+                            return ResultatMigration.IGNORE;
+                        }
+                        if (versionXml(element) == FormatsVersionnes.VERSION_XML) {
+                            return ResultatMigration.A_JOUR;
+                        }
+                        evenement = avecVersion(element);
+                    }
+                    writer.add(evenement);
+                }
+                writer.flush();
+                writer.close();
+            } finally {
+                reader.close();
+            }
+            migre = true;
+        } catch (XMLStreamException e) {
+            throw new IOException("Fichier XML invalide " + fichier + ": " + e.getMessage(), e);
+        } finally {
+            if (!migre) {
+                Files.deleteIfExists(temporaire);
+            }
+        }
+        return remplacer(temporaire, fichier, true);
+    }
+
+    private static int versionXml(StartElement racine) throws IOException {
+        Attribute attribut = racine.getAttributeByName(new javax.xml.namespace.QName(FormatsVersionnes.ATTRIBUT_VERSION));
+        if (attribut == null) {
+            return FormatsVersionnes.VERSION_SANS_ENTETE;
+        }
+        try {
+            return FormatsVersionnes.verifierVersion(Integer.parseInt(attribut.getValue().trim()),
+                FormatsVersionnes.VERSION_XML);
+        } catch (NumberFormatException e) {
+            throw new IOException("Version de format XML invalide: " + attribut.getValue());
+        }
+    }
+
+    private StartElement avecVersion(StartElement racine) {
+        List<Attribute> attributs = new ArrayList<>();
+        attributs.add(eventFactory.createAttribute(FormatsVersionnes.ATTRIBUT_VERSION,
+            String.valueOf(FormatsVersionnes.VERSION_XML)));
+        for (Iterator<Attribute> it = racine.getAttributes(); it.hasNext(); ) {
+            Attribute attribut = it.next();
+            if (!FormatsVersionnes.ATTRIBUT_VERSION.equals(attribut.getName().getLocalPart())) {
+                attributs.add(attribut);
+            }
+        }
+        return eventFactory.createStartElement(racine.getName(), attributs.iterator(), racine.getNamespaces());
+    }
+
+    // ================================
+    // UTILITAIRES
+    // ================================
+
+    private static Path temporaire(Path fichier) {
+        return fichier.resolveSibling(fichier.getFileName() + SUFFIXE_TEMPORAIRE);
+    }
+
+    private static ResultatMigration remplacer(Path temporaire, Path fichier, boolean migre) throws IOException {
+        if (!migre) {
+            Files.deleteIfExists(temporaire);
+            return ResultatMigration.A_JOUR;
+        }
+        Files.move(temporaire, fichier, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return ResultatMigration.MIGRE;
+    }
+}
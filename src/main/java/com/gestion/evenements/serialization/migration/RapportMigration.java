@@ -0,0 +1,58 @@
+package com.gestion.evenements.serialization.migration;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bilan d'une migration de dossier ; alimenté en parallèle par les tâches de migration
+ */
+public class RapportMigration {
+    private final AtomicInteger migres = new AtomicInteger();
+    private final AtomicInteger aJour = new AtomicInteger();
+    private final AtomicInteger ignores = new AtomicInteger();
+    private final AtomicInteger pointsMigres = new AtomicInteger();
+    private final Map<Path, String> erreurs = new ConcurrentHashMap<>();
+
+    void enregistrer(ResultatMigration resultat) {
+        switch (resultat) {
+            case MIGRE:
+                migres.incrementAndGet();
+                break;
+            case A_JOUR:
+                aJour.incrementAndGet();
+                break;
+            default:
+                ignores.incrementAndGet();
+        }
+    }
+
+    void enregistrerPointMigre() {
+        pointsMigres.incrementAndGet();
+    }
+
+    void enregistrerErreur(Path fichier, String motif) {
+        erreurs.put(fichier, motif);
+    }
+
+    // Getters
+    public int getMigres() { return migres.get(); }
+    public int getAJour() { return aJour.get(); }
+    public int getIgnores() { return ignores.get(); }
+    public int getPointsMigres() { return pointsMigres.get(); }
+
+    /**
+     * Fichiers ou points de sauvegarde en échec, triés par chemin
+     */
+    public Map<Path, String> getErreurs() {
+        return new TreeMap<>(erreurs);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Migration{migres=%d, aJour=%d, ignores=%d, pointsSauvegarde=%d, erreurs=%d}",
+            getMigres(), getAJour(), getIgnores(), getPointsMigres(), erreurs.size());
+    }
+}
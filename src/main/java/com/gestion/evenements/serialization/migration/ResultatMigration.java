@@ -0,0 +1,13 @@
+package com.gestion.evenements.serialization.migration;
+
+/**
+ * Issue de la migration d'un fichier
+ */
+public enum ResultatMigration {
+    // Réécrit dans la version courante du format
+    MIGRE,
+    // Déjà dans la version courante : fichier inchangé
+    A_JOUR,
+    // Pas un format persisté reconnu (manifeste, journal, export CSV...) : fichier inchangé
+    IGNORE
+}
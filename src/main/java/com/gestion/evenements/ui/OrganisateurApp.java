@@ -19,12 +19,22 @@ import com.gestion.evenements.auth.User;
 import com.gestion.evenements.auth.UserRole;
 import com.gestion.evenements.exception.*;
 import com.gestion.evenements.ui.utils.ModernNotificationUtils;
+import com.gestion.evenements.serialization.export.ExportEnFlux;
+import com.gestion.evenements.serialization.export.FormatExport;
+import com.gestion.evenements.serialization.export.TacheExport;
 
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 /**
@@ -138,7 +148,7 @@ public class OrganisateurApp extends Application {
         currentOrganizer = new Organisateur("ORG_CURRENT", organizerName, organizerEmail);
         
         // Assigner automatiquement quelques événements existants
-        List<Evenement> existingEvents = gestionEvenements.getEvenements().values().stream()
+        List<Evenement> existingEvents = gestionEvenements.getCatalogue().values().stream()
             .limit(3) // Prendre les 3 premiers événements
             .collect(Collectors.toList());
         
@@ -150,7 +160,7 @@ public class OrganisateurApp extends Application {
        private void associateExistingEvents() {
         // Associer les événements existants qui pourraient appartenir à cet organisateur
         // (basé sur l'email ou d'autres critères)
-        List<Evenement> allEvents = gestionEvenements.getEvenements().values().stream()
+        List<Evenement> allEvents = gestionEvenements.getCatalogue().values().stream()
             .collect(Collectors.toList());
         
         for (Evenement event : allEvents) {
@@ -508,7 +518,7 @@ public class OrganisateurApp extends Application {
             .count();
         
         int totalParticipants = currentOrganizer.getEvenementsOrganises().stream()
-            .mapToInt(e -> e.getParticipants().size())
+            .mapToInt(e -> e.getNombreParticipants())
             .sum();
         
         int estimatedRevenue = totalParticipants * 50; // Calcul simplifié
@@ -609,8 +619,10 @@ public class OrganisateurApp extends Application {
         
         // Générer des activités basées sur les événements réels
         for (Evenement event : currentOrganizer.getEvenementsOrganises()) {
-            if (event.getParticipants().size() > 0) {
-                activities.add("📝|Nouvelle inscription|" + event.getParticipants().get(event.getParticipants().size() - 1).getNom() + 
+            // Dernier inscrit lu sous le verrou : une désinscription ne peut pas décaler l'indice
+            Participant dernier = event.lireParticipants(l -> l.isEmpty() ? null : l.get(l.size() - 1));
+            if (dernier != null) {
+                activities.add("📝|Nouvelle inscription|" + dernier.getNom() + 
                              " s'est inscrit à " + event.getNom() + "|Il y a " + (Math.random() * 24) + "h");
             }
             
@@ -935,7 +947,7 @@ public class OrganisateurApp extends Application {
         
         // Calculer les stats pour tous les événements de l'organisateur
         int totalConfirmed = currentOrganizer.getEvenementsOrganises().stream()
-            .mapToInt(e -> e.getParticipants().size())
+            .mapToInt(e -> e.getNombreParticipants())
             .sum();
         
         double avgAge = 32.5; // Simulation
@@ -1029,7 +1041,7 @@ public class OrganisateurApp extends Application {
         
         // Compter les événements de l'organisateur où ce participant est inscrit
         long eventCount = currentOrganizer.getEvenementsOrganises().stream()
-            .filter(e -> e.getParticipants().contains(participant))
+            .filter(e -> e.estInscrit(participant))
             .count();
         
         Label eventsLabel = new Label(String.valueOf(eventCount));
@@ -1086,7 +1098,7 @@ public class OrganisateurApp extends Application {
         // Calculer les statistiques globales
         int totalEvents = currentOrganizer.getEvenementsOrganises().size();
         int totalParticipants = currentOrganizer.getEvenementsOrganises().stream()
-            .mapToInt(e -> e.getParticipants().size())
+            .mapToInt(e -> e.getNombreParticipants())
             .sum();
         double avgParticipants = totalEvents > 0 ? (double) totalParticipants / totalEvents : 0;
         int totalRevenue = totalParticipants * 50;
@@ -1161,7 +1173,7 @@ public class OrganisateurApp extends Application {
         report.append("Événements passés: ").append(currentOrganizer.getEvenementsOrganises().size() - futureEvents).append("\n\n");
         
         int totalParticipants = currentOrganizer.getEvenementsOrganises().stream()
-            .mapToInt(e -> e.getParticipants().size())
+            .mapToInt(e -> e.getNombreParticipants())
             .sum();
         report.append("PARTICIPANTS:\n");
         report.append("Total participants: ").append(totalParticipants).append("\n");
@@ -1174,7 +1186,7 @@ public class OrganisateurApp extends Application {
         report.append("\nDÉTAIL PAR ÉVÉNEMENT:\n");
         for (Evenement event : currentOrganizer.getEvenementsOrganises()) {
             report.append("• ").append(event.getNom()).append(": ");
-            report.append(event.getParticipants().size()).append("/").append(event.getCapaciteMax());
+            report.append(event.getNombreParticipants()).append("/").append(event.getCapaciteMax());
             report.append(" participants (").append(event.getDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"))).append(")\n");
         }
         
@@ -1234,7 +1246,7 @@ public class OrganisateurApp extends Application {
         Label dateLabel = new Label(evenement.getDate().format(formatter) + " • " + evenement.getLieu());
         dateLabel.getStyleClass().add("event-date");
         
-        Label participantsLabel = new Label(evenement.getParticipants().size() + "/" + 
+        Label participantsLabel = new Label(evenement.getNombreParticipants() + "/" + 
                                           evenement.getCapaciteMax() + " participants");
         participantsLabel.getStyleClass().add("event-participants");
         
@@ -1329,7 +1341,7 @@ public class OrganisateurApp extends Application {
         Label dateLabel = new Label(evenement.getDate().format(formatter) + " • " + evenement.getLieu());
         dateLabel.getStyleClass().add("event-date");
         
-        Label participantsLabel = new Label(evenement.getParticipants().size() + "/" + 
+        Label participantsLabel = new Label(evenement.getNombreParticipants() + "/" + 
                                           evenement.getCapaciteMax() + " participants inscrits");
         participantsLabel.getStyleClass().add("event-participants");
         
@@ -1351,7 +1363,7 @@ public class OrganisateurApp extends Application {
         revenueBox.setSpacing(4);
         revenueBox.setPrefWidth(100);
         
-        int revenue = evenement.getParticipants().size() * 50;
+        int revenue = evenement.getNombreParticipants() * 50;
         Label revenueLabel = new Label(revenue + "€");
         revenueLabel.getStyleClass().add("stat-value");
         revenueLabel.setStyle("-fx-font-size: 16px;");
@@ -1589,9 +1601,9 @@ public class OrganisateurApp extends Application {
             LocalDateTime date = LocalDateTime.parse(dateHeure, DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
             
             // Vérifier la capacité par rapport aux participants actuels
-            if (cap < evenement.getParticipants().size()) {
+            if (cap < evenement.getNombreParticipants()) {
                 throw new CapaciteMaxAtteinteException("La nouvelle capacité (" + cap + 
-                    ") est inférieure au nombre de participants actuels (" + evenement.getParticipants().size() + ")");
+                    ") est inférieure au nombre de participants actuels (" + evenement.getNombreParticipants() + ")");
             }
             
             // Mettre à jour les propriétés de base
@@ -1719,8 +1731,8 @@ private void viewEventDetails(Evenement evenement) {
     addInfoRow(infoGrid, "Date:", evenement.getDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")), row++);
     addInfoRow(infoGrid, "Lieu:", evenement.getLieu(), row++);
     addInfoRow(infoGrid, "Capacité:", evenement.getCapaciteMax() + " places", row++);
-    addInfoRow(infoGrid, "Inscrits:", evenement.getParticipants().size() + " participants", row++);
-    addInfoRow(infoGrid, "Places restantes:", (evenement.getCapaciteMax() - evenement.getParticipants().size()) + "", row++);
+    addInfoRow(infoGrid, "Inscrits:", evenement.getNombreParticipants() + " participants", row++);
+    addInfoRow(infoGrid, "Places restantes:", (evenement.getCapaciteMax() - evenement.getNombreParticipants()) + "", row++);
     
     mainInfo.getChildren().addAll(mainTitle, infoGrid);
     
@@ -1775,10 +1787,10 @@ private void viewEventDetails(Evenement evenement) {
     participantsSection.getStyleClass().add("form-section");
     participantsSection.setSpacing(12);
     
-    Label participantsTitle = new Label("Participants inscrits (" + evenement.getParticipants().size() + ")");
+    Label participantsTitle = new Label("Participants inscrits (" + evenement.getNombreParticipants() + ")");
     participantsTitle.getStyleClass().add("form-section-title");
     
-    if (evenement.getParticipants().isEmpty()) {
+    if (evenement.getNombreParticipants() == 0) {
         Label noParticipants = new Label("Aucun participant inscrit");
         noParticipants.getStyleClass().add("empty-state-description");
         participantsSection.getChildren().addAll(participantsTitle, noParticipants);
@@ -1847,7 +1859,7 @@ private void addInfoRow(GridPane grid, String label, String value, int row) {
 }
 
 private void viewEventParticipants(Evenement evenement) {
-    if (evenement.getParticipants().isEmpty()) {
+    if (evenement.getNombreParticipants() == 0) {
         ModernNotificationUtils.showInfo(
             "Aucun participant",
             "Aucun participant n'est inscrit à cet événement pour le moment."
@@ -1867,12 +1879,12 @@ private void viewEventParticipants(Evenement evenement) {
     statsBar.setAlignment(Pos.CENTER);
     
     VBox totalCard = createQuickStatCard(
-        String.valueOf(evenement.getParticipants().size()),
+        String.valueOf(evenement.getNombreParticipants()),
         "Participants",
         "#2196f3"
     );
     
-    double fillRate = (double) evenement.getParticipants().size() / evenement.getCapaciteMax() * 100;
+    double fillRate = (double) evenement.getNombreParticipants() / evenement.getCapaciteMax() * 100;
     VBox fillRateCard = createQuickStatCard(
         String.format("%.1f%%", fillRate),
         "Taux de remplissage",
@@ -1880,7 +1892,7 @@ private void viewEventParticipants(Evenement evenement) {
     );
     
     VBox remainingCard = createQuickStatCard(
-        String.valueOf(evenement.getCapaciteMax() - evenement.getParticipants().size()),
+        String.valueOf(evenement.getCapaciteMax() - evenement.getNombreParticipants()),
         "Places restantes",
         "#9c27b0"
     );
@@ -1962,7 +1974,7 @@ private void viewEventParticipants(Evenement evenement) {
     
     // Créer et afficher le dialog
     Stage participantsDialog = ModernNotificationUtils.createCustomDialog(
-        evenement.getNom() + " - " + evenement.getParticipants().size() + " participant(s)",
+        evenement.getNom() + " - " + evenement.getNombreParticipants() + " participant(s)",
         content,
         true
     );
@@ -2182,7 +2194,7 @@ private void showQuickMessageDialog(Participant participant) {
 private void viewParticipantDetails(Participant participant) {
     // Compter les événements de cet organisateur où le participant est inscrit
     List<Evenement> participantEvents = currentOrganizer.getEvenementsOrganises().stream()
-        .filter(e -> e.getParticipants().contains(participant))
+        .filter(e -> e.estInscrit(participant))
         .collect(Collectors.toList());
     
     // Créer un contenu détaillé
@@ -2442,45 +2454,43 @@ private void exportParticipantsList(Evenement evenement) {
         return;
     }
     
-    // Simulation d'export avec progression
     Stage progressDialog = ModernNotificationUtils.createProgressDialog(
         "Export en cours",
         "Génération de la liste des participants..."
     );
     progressDialog.show();
     
-    new Thread(() -> {
-        try {
-            Thread.sleep(1500); // Simulation
-            
-            Platform.runLater(() -> {
-                progressDialog.close();
-                
-                StringBuilder export = new StringBuilder();
-                export.append("Liste des participants - ").append(evenement.getNom()).append("\n");
-                export.append("Date: ").append(evenement.getDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"))).append("\n");
-                export.append("Lieu: ").append(evenement.getLieu()).append("\n\n");
-                export.append("Participants (").append(evenement.getParticipants().size()).append("):\n\n");
-                
-                for (Participant p : evenement.getParticipants()) {
-                    export.append(p.getNom()).append(",").append(p.getEmail()).append("\n");
-                }
-                
-                // Notification avec action pour voir le contenu
-                ModernNotificationUtils.showSnackbar(
-                    "Liste exportée avec succès (" + evenement.getParticipants().size() + " participants)",
-                    "VOIR",
-                    () -> showExportPreview("Liste des participants", export.toString())
-                );
-            });
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            Platform.runLater(() -> {
-                progressDialog.close();
-                ModernNotificationUtils.showErrorToast("Export interrompu");
-            });
+    // Écriture en flux sur un thread d'arrière-plan, progression reportée sur la barre du dialog
+    Path fichier = ExportEnFlux.fichierExport("participants_" + evenement.getId(), FormatExport.CSV);
+    TacheExport tache = ExportEnFlux.exporterParticipants(List.of(evenement), fichier, FormatExport.CSV,
+        (ecrites, totales) -> Platform.runLater(() -> ModernNotificationUtils.updateProgress(progressDialog, ecrites, totales)));
+    progressDialog.setOnHidden(e -> tache.annuler());
+    
+    tache.getResultat().whenComplete((lignes, erreur) -> Platform.runLater(() -> {
+        progressDialog.setOnHidden(null);
+        progressDialog.close();
+        if (erreur != null) {
+            ModernNotificationUtils.showErrorToast(erreur instanceof CancellationException
+                ? "Export interrompu" : "Erreur lors de l'export: " + erreur.getMessage());
+            return;
         }
-    }).start();
+        ModernNotificationUtils.showSnackbar(
+            "Liste exportée avec succès (" + lignes + " participants)",
+            "VOIR",
+            () -> showExportPreview("Liste des participants", fichier)
+        );
+    }));
+}
+
+/**
+ * Aperçu des premières lignes d'un fichier exporté (ExportEnFlux.lireApercu)
+ */
+private void showExportPreview(String title, Path fichier) {
+    try {
+        showExportPreview(title, ExportEnFlux.lireApercu(fichier));
+    } catch (IOException e) {
+        ModernNotificationUtils.showErrorToast("Impossible de lire " + fichier + ": " + e.getMessage());
+    }
 }
 
 private void showExportPreview(String title, String content) {
@@ -2519,21 +2529,25 @@ private void showExportPreview(String title, String content) {
 private void exportData() {
     ModernNotificationUtils.showInfoToast("Export des données en cours...");
     
-    // Simulation d'une tâche d'export
-    new Thread(() -> {
-        try {
-            Thread.sleep(2000);
-            Platform.runLater(() -> {
-                ModernNotificationUtils.showSnackbar(
-                    "Export terminé avec succès",
-                    "OUVRIR",
-                    () -> ModernNotificationUtils.showInfoToast("Ouverture du fichier...")
-                );
-            });
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-    }).start();
+    List<Evenement> evenements = List.copyOf(currentOrganizer.getEvenementsOrganises());
+    Path fichierEvenements = ExportEnFlux.fichierExport("evenements", FormatExport.NDJSON);
+    Path fichierParticipants = ExportEnFlux.fichierExport("participants", FormatExport.NDJSON);
+    TacheExport tacheEvenements = ExportEnFlux.exporterEvenements(evenements, fichierEvenements, FormatExport.NDJSON, null);
+    TacheExport tacheParticipants = ExportEnFlux.exporterParticipants(evenements, fichierParticipants, FormatExport.NDJSON, null);
+    
+    CompletableFuture.allOf(tacheEvenements.getResultat(), tacheParticipants.getResultat())
+        .whenComplete((resultat, erreur) -> Platform.runLater(() -> {
+            if (erreur != null) {
+                ModernNotificationUtils.showErrorToast("Erreur lors de l'export: " + erreur.getMessage());
+                return;
+            }
+            ModernNotificationUtils.showSnackbar(
+                "Export terminé avec succès (" + tacheEvenements.getResultat().join() + " événements, "
+                    + tacheParticipants.getResultat().join() + " inscriptions)",
+                "VOIR",
+                () -> showExportPreview("Événements exportés", fichierEvenements)
+            );
+        }));
 }
 
 private void exportReport(String reportContent) {
@@ -2543,25 +2557,26 @@ private void exportReport(String reportContent) {
     );
     progressDialog.show();
     
-    new Thread(() -> {
+    Path fichier = Path.of(ExportEnFlux.DOSSIER_EXPORTS, "rapport_" + System.currentTimeMillis() + ".txt");
+    CompletableFuture.runAsync(() -> {
         try {
-            Thread.sleep(2000);
-            Platform.runLater(() -> {
-                progressDialog.close();
-                ModernNotificationUtils.showSnackbar(
-                    "Rapport généré (" + reportContent.length() + " caractères)",
-                    "APERÇU",
-                    () -> showExportPreview("Rapport exporté", reportContent)
-                );
-            });
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            Platform.runLater(() -> {
-                progressDialog.close();
-                ModernNotificationUtils.showErrorToast("Génération interrompue");
-            });
+            Files.createDirectories(fichier.getParent());
+            Files.writeString(fichier, reportContent, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new CompletionException(e);
         }
-    }).start();
+    }).whenComplete((resultat, erreur) -> Platform.runLater(() -> {
+        progressDialog.close();
+        if (erreur != null) {
+            ModernNotificationUtils.showErrorToast("Génération interrompue: " + erreur.getMessage());
+            return;
+        }
+        ModernNotificationUtils.showSnackbar(
+            "Rapport généré (" + reportContent.length() + " caractères)",
+            "APERÇU",
+            () -> showExportPreview("Rapport exporté", reportContent)
+        );
+    }));
 }
 
 private void showSettings() {
@@ -2800,7 +2815,7 @@ private void showWelcomeMessage() {
     
     int eventsCount = currentOrganizer.getEvenementsOrganises().size();
     int participantsCount = currentOrganizer.getEvenementsOrganises().stream()
-        .mapToInt(e -> e.getParticipants().size())
+        .mapToInt(e -> e.getNombreParticipants())
         .sum();
     
     VBox eventsCard = createQuickStatCard(String.valueOf(eventsCount), "Événements", "#2196f3");
@@ -144,7 +144,7 @@ public class ParticipantApp extends Application {
     
    /* private void initializeCurrentParticipant() {
         // Chercher le participant dans les événements existants
-        currentParticipant = gestionEvenements.getEvenements().values().stream()
+        currentParticipant = gestionEvenements.getCatalogue().values().stream()
             .flatMap(e -> e.getParticipants().stream())
             .filter(p -> p.getEmail().equals(participantEmail))
             .findFirst()
@@ -156,12 +156,12 @@ public class ParticipantApp extends Application {
             
             // L'inscrire automatiquement à un événement de démo
             try {
-                List<Evenement> events = gestionEvenements.getEvenements().values().stream()
+                List<Evenement> events = gestionEvenements.getCatalogue().values().stream()
                     .limit(2)
                     .collect(Collectors.toList());
                 
                 for (Evenement event : events) {
-                    if (event.getParticipants().size() < event.getCapaciteMax()) {
+                    if (event.getNombreParticipants() < event.getCapaciteMax()) {
                         event.ajouterParticipant(currentParticipant);
                         break;
                     }
@@ -175,23 +175,19 @@ public class ParticipantApp extends Application {
     private void synchronizeWithExistingEvents() {
         // Chercher si le participant est déjà inscrit à des événements existants
         if (!isGuest && currentUser != null) {
-            List<Evenement> allEvents = gestionEvenements.getEvenements().values().stream()
+            List<Evenement> allEvents = gestionEvenements.getCatalogue().values().stream()
                 .collect(Collectors.toList());
             
             for (Evenement event : allEvents) {
                 // Vérifier si un participant avec le même email existe
-                Optional<Participant> existingParticipant = event.getParticipants().stream()
+                Optional<Participant> existingParticipant = event.lireParticipants(participants -> participants.stream()
                     .filter(p -> p.getEmail().equals(currentParticipant.getEmail()))
-                    .findFirst();
+                    .findFirst());
                 
-                if (existingParticipant.isPresent()) {
-                    // Remplacer par notre instance pour maintenir la cohérence
-                    event.retirerParticipant(existingParticipant.get());
-                    try {
-                        event.ajouterParticipant(currentParticipant);
+                if (existingParticipant.isPresent() && existingParticipant.get() != currentParticipant) {
+                    // Remplacer par notre instance pour maintenir la cohérence, sans rendre la place
+                    if (dataSynchronizer.remplacerParticipantAvecSync(event, existingParticipant.get(), currentParticipant)) {
                         System.out.println("✅ Participant synchronisé avec l'événement: " + event.getNom());
-                    } catch (CapaciteMaxAtteinteException e) {
-                        System.err.println("⚠️ Impossible de synchroniser avec l'événement " + event.getNom() + ": " + e.getMessage());
                     }
                 }
             }
@@ -584,8 +580,8 @@ public class ParticipantApp extends Application {
         recoContainer.setSpacing(12);
         
         // Récupérer les événements recommandés (ceux où l'utilisateur n'est pas inscrit)
-        List<Evenement> recommendedEvents = gestionEvenements.getEvenements().values().stream()
-            .filter(e -> !e.getParticipants().contains(currentParticipant))
+        List<Evenement> recommendedEvents = gestionEvenements.getCatalogue().values().stream()
+            .filter(e -> !e.estInscrit(currentParticipant))
             .filter(e -> e.getDate().isAfter(LocalDateTime.now()))
             .limit(3)
             .collect(Collectors.toList());
@@ -619,7 +615,7 @@ public class ParticipantApp extends Application {
         eventsList.setSpacing(12);
         
         // Récupérer tous les événements disponibles
-        List<Evenement> availableEvents = gestionEvenements.getEvenements().values().stream()
+        List<Evenement> availableEvents = gestionEvenements.getCatalogue().values().stream()
             .filter(e -> e.getDate().isAfter(LocalDateTime.now()))
             .sorted((e1, e2) -> e1.getDate().compareTo(e2.getDate()))
             .collect(Collectors.toList());
@@ -781,8 +777,8 @@ public class ParticipantApp extends Application {
     
     // Méthodes utilitaires pour récupérer les données en temps réel
     private List<Evenement> getMyRegisteredEvents() {
-        return gestionEvenements.getEvenements().values().stream()
-            .filter(e -> e.getParticipants().contains(currentParticipant))
+        return gestionEvenements.getCatalogue().values().stream()
+            .filter(e -> e.estInscrit(currentParticipant))
             .collect(Collectors.toList());
     }
     
@@ -858,7 +854,7 @@ public class ParticipantApp extends Application {
         Label dateLabel = new Label(evenement.getDate().format(formatter) + " • " + evenement.getLieu());
         dateLabel.getStyleClass().add("event-date");
         
-        int placesRestantes = evenement.getCapaciteMax() - evenement.getParticipants().size();
+        int placesRestantes = evenement.getCapaciteMax() - evenement.getNombreParticipants();
         Label placesLabel = new Label(placesRestantes + " places restantes");
         placesLabel.getStyleClass().add("text-secondary");
         
@@ -872,10 +868,10 @@ public class ParticipantApp extends Application {
         priceLabel.getStyleClass().add("event-participants");
         priceLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: 600;");
         
-        Button registerBtn = new Button(evenement.getParticipants().contains(currentParticipant) ? "Inscrit ✓" : "S'inscrire");
-        registerBtn.getStyleClass().add(evenement.getParticipants().contains(currentParticipant) ? 
+        Button registerBtn = new Button(evenement.estInscrit(currentParticipant) ? "Inscrit ✓" : "S'inscrire");
+        registerBtn.getStyleClass().add(evenement.estInscrit(currentParticipant) ? 
                                         "secondary-button" : "primary-button-small");
-        registerBtn.setDisable(evenement.getParticipants().contains(currentParticipant));
+        registerBtn.setDisable(evenement.estInscrit(currentParticipant));
         registerBtn.setOnAction(e -> registerToEvent(evenement));
         
         priceAction.getChildren().addAll(priceLabel, registerBtn);
@@ -1006,7 +1002,10 @@ public class ParticipantApp extends Application {
     // Actions des événements avec notifications modernes
     private void registerToEvent(Evenement evenement) {
         try {
-            evenement.ajouterParticipant(currentParticipant);
+            if (!dataSynchronizer.inscrireParticipantAvecSync(evenement, currentParticipant)) {
+                showError("Vous êtes déjà inscrit à " + evenement.getNom());
+                return;
+            }
             showSuccessMessage("Inscription réussie à " + evenement.getNom());
             refreshCurrentView();
         } catch (CapaciteMaxAtteinteException e) {
@@ -1035,7 +1034,7 @@ public class ParticipantApp extends Application {
                     
                     Platform.runLater(() -> {
                         progressDialog.close();
-                        evenement.retirerParticipant(currentParticipant);
+                        dataSynchronizer.desinscrireParticipantAvecSync(evenement, currentParticipant);
                         
                         // Notification avec possibilité d'annulation
                         ModernNotificationUtils.showSnackbar(
@@ -1043,7 +1042,7 @@ public class ParticipantApp extends Application {
                             "ANNULER",
                             () -> {
                                 try {
-                                    evenement.ajouterParticipant(currentParticipant);
+                                    dataSynchronizer.inscrireParticipantAvecSync(evenement, currentParticipant);
                                     ModernNotificationUtils.showSuccessToast("Inscription restaurée");
                                     refreshCurrentView();
                                 } catch (CapaciteMaxAtteinteException ex) {
@@ -1112,8 +1111,8 @@ public class ParticipantApp extends Application {
         addInfoRow(infoGrid, "Date:", evenement.getDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")), row++);
         addInfoRow(infoGrid, "Lieu:", evenement.getLieu(), row++);
         addInfoRow(infoGrid, "Capacité:", evenement.getCapaciteMax() + " places", row++);
-        addInfoRow(infoGrid, "Inscrits:", evenement.getParticipants().size() + " participants", row++);
-        addInfoRow(infoGrid, "Places restantes:", (evenement.getCapaciteMax() - evenement.getParticipants().size()) + "", row++);
+        addInfoRow(infoGrid, "Inscrits:", evenement.getNombreParticipants() + " participants", row++);
+        addInfoRow(infoGrid, "Places restantes:", (evenement.getCapaciteMax() - evenement.getNombreParticipants()) + "", row++);
         
         mainInfo.getChildren().addAll(mainTitle, infoGrid);
         return mainInfo;
@@ -1175,7 +1174,7 @@ public class ParticipantApp extends Application {
         Label statusTitle = new Label("🎫 Votre statut");
         statusTitle.getStyleClass().add("form-section-title");
         
-        boolean isRegistered = evenement.getParticipants().contains(currentParticipant);
+        boolean isRegistered = evenement.estInscrit(currentParticipant);
         Label statusLabel = new Label(isRegistered ? "✅ Inscrit" : "❌ Non inscrit");
         statusLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: 600; " +
                            (isRegistered ? "-fx-text-fill: #4caf50;" : "-fx-text-fill: #f44336;"));
@@ -1206,7 +1205,7 @@ public class ParticipantApp extends Application {
         actions.setSpacing(12);
         actions.setAlignment(Pos.CENTER_RIGHT);
         
-        boolean isRegistered = evenement.getParticipants().contains(currentParticipant);
+        boolean isRegistered = evenement.estInscrit(currentParticipant);
         boolean isFuture = evenement.getDate().isAfter(LocalDateTime.now());
         
         if (!isRegistered && isFuture) {
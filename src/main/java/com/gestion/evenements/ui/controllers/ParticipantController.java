@@ -27,7 +27,7 @@ public class ParticipantController {
     
     public int getTotalParticipants() {
         return currentOrganizer.getEvenementsOrganises().stream()
-            .mapToInt(e -> e.getParticipants().size())
+            .mapToInt(e -> e.getNombreParticipants())
             .sum();
     }
     
@@ -47,7 +47,7 @@ public class ParticipantController {
     
     public List<Evenement> getParticipantEvents(Participant participant) {
         return currentOrganizer.getEvenementsOrganises().stream()
-            .filter(e -> e.getParticipants().contains(participant))
+            .filter(e -> e.estInscrit(participant))
             .collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -30,7 +30,7 @@ public class ReportController {
         
         int totalEvents = currentOrganizer.getEvenementsOrganises().size();
         int totalParticipants = currentOrganizer.getEvenementsOrganises().stream()
-            .mapToInt(e -> e.getParticipants().size())
+            .mapToInt(e -> e.getNombreParticipants())
             .sum();
         double avgParticipants = totalEvents > 0 ? (double) totalParticipants / totalEvents : 0;
         int totalRevenue = totalParticipants * 50;
@@ -118,7 +118,7 @@ public class ReportController {
         report.append("Événements passés: ").append(currentOrganizer.getEvenementsOrganises().size() - futureEvents).append("\n\n");
         
         int totalParticipants = currentOrganizer.getEvenementsOrganises().stream()
-            .mapToInt(e -> e.getParticipants().size())
+            .mapToInt(e -> e.getNombreParticipants())
             .sum();
         report.append("PARTICIPANTS:\n");
         report.append("Total participants: ").append(totalParticipants).append("\n");
@@ -131,7 +131,7 @@ public class ReportController {
         report.append("\nDÉTAIL PAR ÉVÉNEMENT:\n");
         for (Evenement event : currentOrganizer.getEvenementsOrganises()) {
             report.append("• ").append(event.getNom()).append(": ");
-            report.append(event.getParticipants().size()).append("/").append(event.getCapaciteMax());
+            report.append(event.getNombreParticipants()).append("/").append(event.getCapaciteMax());
             report.append(" participants (").append(event.getDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"))).append(")\n");
         }
         
@@ -48,7 +48,7 @@ public class ComponentFactory {
                                    + " • " + evenement.getLieu());
         dateLabel.getStyleClass().add("event-date");
         
-        Label participantsLabel = new Label(evenement.getParticipants().size() + "/" + 
+        Label participantsLabel = new Label(evenement.getNombreParticipants() + "/" + 
                                           evenement.getCapaciteMax() + " participants");
         participantsLabel.getStyleClass().add("event-participants");
         
@@ -1,16 +1,34 @@
 package com.gestion.evenements.ui.managers;
 
 import javafx.application.Platform;
+import javafx.stage.Stage;
+import com.gestion.evenements.auth.AuthenticationService;
 import com.gestion.evenements.model.*;
-import java.time.format.DateTimeFormatter;
+import com.gestion.evenements.serialization.export.ExportEnFlux;
+import com.gestion.evenements.serialization.export.FormatExport;
+import com.gestion.evenements.serialization.export.TacheExport;
+import com.gestion.evenements.ui.utils.ModernNotificationUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongConsumer;
 
 /**
  * Gestionnaire centralisé pour tous les exports de données
+ * Les fichiers sont écrits en flux sur un thread d'arrière-plan (ExportEnFlux) ;
+ * seules les notifications repassent sur le thread JavaFX.
  */
 public class ExportManager {
-    
     private final NotificationManager notificationManager;
     private final AnimationManager animationManager;
+    private final List<TacheExport> exportsEnCours = new CopyOnWriteArrayList<>();
     
     public ExportManager(NotificationManager notificationManager, AnimationManager animationManager) {
         this.notificationManager = notificationManager;
@@ -23,78 +41,127 @@ public class ExportManager {
             return;
         }
         
-        // Simulation d'export avec progression
-        notificationManager.showInfoToast("Export de la liste des participants en cours...");
+        Stage progressDialog = ModernNotificationUtils.createProgressDialog(
+            "Export en cours",
+            "Génération de la liste des participants..."
+        );
+        progressDialog.show();
         
-        new Thread(() -> {
-            try {
-                Thread.sleep(1500); // Simulation
-                
-                Platform.runLater(() -> {
-                    StringBuilder export = new StringBuilder();
-                    export.append("Liste des participants - ").append(evenement.getNom()).append("\n");
-                    export.append("Date: ").append(evenement.getDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"))).append("\n");
-                    export.append("Lieu: ").append(evenement.getLieu()).append("\n\n");
-                    export.append("Participants (").append(evenement.getParticipants().size()).append("):\n\n");
-                    
-                    for (Participant p : evenement.getParticipants()) {
-                        export.append(p.getNom()).append(",").append(p.getEmail()).append("\n");
-                    }
-                    
-                    notificationManager.showSnackbar(
-                        "Liste exportée avec succès (" + evenement.getParticipants().size() + " participants)",
-                        "VOIR",
-                        () -> showExportPreview("Liste des participants", export.toString())
-                    );
-                });
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                Platform.runLater(() -> notificationManager.showErrorToast("Export interrompu"));
-            }
-        }).start();
+        // Progression reportée sur la barre du dialog ; le fermer annule l'export
+        Path fichier = ExportEnFlux.fichierExport("participants_" + evenement.getId(), FormatExport.CSV);
+        TacheExport tache = ExportEnFlux.exporterParticipants(List.of(evenement), fichier, FormatExport.CSV,
+            (ecrites, totales) -> Platform.runLater(() -> ModernNotificationUtils.updateProgress(progressDialog, ecrites, totales)));
+        progressDialog.setOnHidden(e -> tache.annuler());
+        tache.getResultat().whenComplete((lignes, erreur) -> Platform.runLater(() -> {
+            progressDialog.setOnHidden(null);
+            progressDialog.close();
+        }));
+        suivre(tache, "Export interrompu", lignes -> notificationManager.showSnackbar(
+            "Liste exportée avec succès (" + lignes + " participants)",
+            "VOIR",
+            () -> showExportPreview("Liste des participants", fichier)
+        ));
     }
     
     public void exportAllData() {
         notificationManager.showInfoToast("Export des données en cours...");
         
-        new Thread(() -> {
-            try {
-                Thread.sleep(2000);
-                Platform.runLater(() -> {
-                    notificationManager.showSnackbar(
-                        "Export terminé avec succès",
-                        "OUVRIR",
-                        () -> notificationManager.showInfoToast("Ouverture du fichier...")
-                    );
-                });
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }).start();
+        List<Evenement> evenements = List.copyOf(GestionEvenements.getInstance().getCatalogue().values());
+        Path fichierEvenements = ExportEnFlux.fichierExport("evenements", FormatExport.NDJSON);
+        Path fichierParticipants = ExportEnFlux.fichierExport("participants", FormatExport.NDJSON);
+        Path fichierUtilisateurs = ExportEnFlux.fichierExport("utilisateurs", FormatExport.NDJSON);
+        
+        TacheExport tacheEvenements = ExportEnFlux.exporterEvenements(evenements, fichierEvenements, FormatExport.NDJSON, null);
+        TacheExport tacheParticipants = ExportEnFlux.exporterParticipants(evenements, fichierParticipants, FormatExport.NDJSON, null);
+        TacheExport tacheUtilisateurs = ExportEnFlux.exporterUtilisateurs(
+            AuthenticationService.getInstance().getAllUsers(), fichierUtilisateurs, FormatExport.NDJSON, null);
+        
+        CompletableFuture<Void> tout = CompletableFuture.allOf(
+            tacheEvenements.getResultat(), tacheParticipants.getResultat(), tacheUtilisateurs.getResultat());
+        List<TacheExport> taches = List.of(tacheEvenements, tacheParticipants, tacheUtilisateurs);
+        exportsEnCours.addAll(taches);
+        tout.whenComplete((resultat, erreur) -> {
+            exportsEnCours.removeAll(taches);
+            Platform.runLater(() -> {
+                if (erreur != null) {
+                    signalerErreur(erreur, "Export interrompu");
+                    return;
+                }
+                notificationManager.showSnackbar(
+                    "Export terminé avec succès (" + tacheEvenements.getResultat().join() + " événements, "
+                        + tacheParticipants.getResultat().join() + " inscriptions, "
+                        + tacheUtilisateurs.getResultat().join() + " utilisateurs)",
+                    "VOIR",
+                    () -> showExportPreview("Événements exportés", fichierEvenements)
+                );
+            });
+        });
     }
     
     public void exportReport(String reportContent) {
         notificationManager.showInfoToast("Génération du rapport en cours...");
         
-        new Thread(() -> {
+        Path fichier = Path.of(ExportEnFlux.DOSSIER_EXPORTS, "rapport_" + System.currentTimeMillis() + ".txt");
+        CompletableFuture.runAsync(() -> {
             try {
-                Thread.sleep(2000);
-                Platform.runLater(() -> {
-                    notificationManager.showSnackbar(
-                        "Rapport généré (" + reportContent.length() + " caractères)",
-                        "APERÇU",
-                        () -> showExportPreview("Rapport exporté", reportContent)
-                    );
-                });
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                Platform.runLater(() -> notificationManager.showErrorToast("Génération interrompue"));
+                Files.createDirectories(fichier.getParent());
+                Files.writeString(fichier, reportContent, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }).whenComplete((resultat, erreur) -> Platform.runLater(() -> {
+            if (erreur != null) {
+                signalerErreur(erreur, "Génération interrompue");
+                return;
             }
-        }).start();
+            notificationManager.showSnackbar(
+                "Rapport généré (" + reportContent.length() + " caractères)",
+                "APERÇU",
+                () -> showExportPreview("Rapport exporté", fichier)
+            );
+        }));
     }
     
-    private void showExportPreview(String title, String content) {
-        notificationManager.showInfoToast("Affichage de l'aperçu: " + title);
-        // Délégation au DialogManager pour l'aperçu
+    /**
+     * Annule les exports encore en cours (les fichiers partiels sont supprimés)
+     */
+    public void annulerExports() {
+        for (TacheExport tache : exportsEnCours) {
+            tache.annuler();
+        }
+    }
+    
+    private void suivre(TacheExport tache, String messageAnnulation, LongConsumer succes) {
+        exportsEnCours.add(tache);
+        tache.getResultat().whenComplete((lignes, erreur) -> {
+            exportsEnCours.remove(tache);
+            Platform.runLater(() -> {
+                if (erreur != null) {
+                    signalerErreur(erreur, messageAnnulation);
+                } else {
+                    succes.accept(lignes);
+                }
+            });
+        });
+    }
+    
+    private void signalerErreur(Throwable erreur, String messageAnnulation) {
+        Throwable cause = erreur instanceof CompletionException && erreur.getCause() != null ? erreur.getCause() : erreur;
+        if (cause instanceof CancellationException) {
+            notificationManager.showWarningToast(messageAnnulation);
+        } else {
+            notificationManager.showErrorToast("Erreur lors de l'export: " + cause.getMessage());
+        }
+    }
+    
+    /**
+     * Aperçu des premières lignes du fichier exporté (ExportEnFlux.lireApercu)
+     */
+    private void showExportPreview(String title, Path fichier) {
+        try {
+            notificationManager.showInfo(title, ExportEnFlux.lireApercu(fichier));
+        } catch (IOException e) {
+            notificationManager.showErrorToast("Impossible de lire " + fichier + ": " + e.getMessage());
+        }
     }
 }
@@ -135,7 +135,7 @@ public class ViewManager {
         List<Evenement> events = eventController.getOrganizerEvents();
         int totalEvents = events.size();
         long activeEvents = eventController.getActiveEvents().size();
-        int totalParticipants = events.stream().mapToInt(e -> e.getParticipants().size()).sum();
+        int totalParticipants = events.stream().mapToInt(e -> e.getNombreParticipants()).sum();
         int estimatedRevenue = totalParticipants * 50;
         
         VBox totalEventsCard = componentFactory.createStatCard(String.valueOf(totalEvents), "Événements créés", "total-stat");
@@ -582,9 +582,11 @@ public class ViewManager {
         
         List<Evenement> events = eventController.getOrganizerEvents();
         for (Evenement event : events) {
-            if (event.getParticipants().size() > 0) {
+            // Dernier inscrit lu sous le verrou : une désinscription ne peut pas décaler l'indice
+            Participant dernier = event.lireParticipants(l -> l.isEmpty() ? null : l.get(l.size() - 1));
+            if (dernier != null) {
                 activities.add("📝|Nouvelle inscription|" + 
-                             event.getParticipants().get(event.getParticipants().size() - 1).getNom() + 
+                             dernier.getNom() + 
                              " s'est inscrit à " + event.getNom() + "|Il y a " + (Math.random() * 24) + "h");
             }
         }
@@ -433,6 +433,15 @@ public class ModernNotificationUtils {
         return progressStage;
     }
     
+    /**
+     * Avance la barre d'un dialog créé par createProgressDialog (à appeler sur le thread JavaFX)
+     */
+    public static void updateProgress(Stage progressDialog, long faits, long total) {
+        if (total > 0 && progressDialog.getScene().lookup(".progress-bar") instanceof ProgressBar) {
+            ((ProgressBar) progressDialog.getScene().lookup(".progress-bar")).setProgress((double) faits / total);
+        }
+    }
+    
     // ======================== MÉTHODES UTILITAIRES ========================
     
     /**
@@ -1,25 +1,46 @@
 package com.gestion.evenements.util;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import com.gestion.evenements.auth.AuthenticationService;
 import com.gestion.evenements.auth.User;
+import com.gestion.evenements.exception.CapaciteMaxAtteinteException;
 import com.gestion.evenements.exception.EvenementDejaExistantException;
 import com.gestion.evenements.model.Evenement;
+import com.gestion.evenements.model.EvenementStore;
 import com.gestion.evenements.model.GestionEvenements;
 import com.gestion.evenements.model.Participant;
+import com.gestion.evenements.model.VerrousEvenements;
 import com.gestion.evenements.model.evenementparticulier.Concert;
 import com.gestion.evenements.model.evenementparticulier.Conference;
 import com.gestion.evenements.observer.ParticipantObserver;
+import com.gestion.evenements.repository.EventRepository;
+import com.gestion.evenements.repository.JdbcEventRepository;
+import com.gestion.evenements.repository.ModificationInscriptions;
+import com.gestion.evenements.serialization.BinarySnapshotCodec;
+import com.gestion.evenements.serialization.MappedEvenementStore;
 import com.gestion.evenements.serialization.SerializationManager;
+import com.gestion.evenements.serialization.backup.PolitiqueRetention;
+import com.gestion.evenements.serialization.backup.RapportCompaction;
+import com.gestion.evenements.serialization.journal.JournalEntry;
+import com.gestion.evenements.serialization.journal.MutationJournal;
 
 /**
  * Gestionnaire central de synchronisation des données avec sérialisation automatique
@@ -27,7 +48,6 @@ import com.gestion.evenements.serialization.SerializationManager;
  * Intègre la sauvegarde automatique en JSON et XML
  */
 public class DataSynchronizer {
-    private static DataSynchronizer instance;
     
     // Services
     private GestionEvenements gestionEvenements;
@@ -37,18 +57,62 @@ public class DataSynchronizer {
     private List<ParticipantObserver> globalObservers;
     
     // Configuration de sauvegarde
+    private static final String EVENTS_BINARY_FILE = "evenements.bin";
     private static final String EVENTS_JSON_FILE = "evenements.json";
+    // Au-delà de cette taille, le snapshot binaire est mappé au lieu d'être chargé entièrement
+    private static final long SEUIL_CATALOGUE_MAPPE = 64L * 1024 * 1024;
     private static final String EVENTS_XML_FILE = "evenements.xml";
+    private static final String EVENTS_JOURNAL_FILE = "evenements.journal";
     private static final String USERS_JSON_FILE = "users.json";
     private static final String BACKUP_DIR = "backups";
+    private static final String EXPORTS_DIR = BACKUP_DIR + "/exports";
+    
+    // Base JDBC optionnelle : les checkpoints n'y écrivent que les événements modifiés
+    // (null : snapshot binaire complet, comportement historique)
+    private EventRepository depotEvenements;
+    private final Map<String, Evenement> instancesPersistees = new HashMap<>();
+    private final Map<String, Long> versionsPersistees = new HashMap<>();
+    // En-tête inchangé depuis l'écriture : seules les lignes d'inscription modifiées sont écrites
+    private final Map<String, Long> versionsEntetePersistees = new HashMap<>();
+    private final Map<String, List<String>> inscriptionsPersistees = new HashMap<>();
+    
+    // Journal des mutations, replié dans un snapshot complet par l'écriture différée
+    private MutationJournal journal;
+    // Mutations : verrou partagé (+ segment de l'événement pour créations, mises à jour et
+    // inscriptions en masse ; les inscriptions unitaires n'ont que le verrou de l'événement) ;
+    // checkpoint : verrou exclusif
+    private final ReentrantReadWriteLock verrouPersistance = new ReentrantReadWriteLock();
+    private final VerrousEvenements verrousEvenements = new VerrousEvenements();
+    
+    // Écriture différée : regroupe les rafales de mutations en un seul checkpoint
+    private static final long WRITE_BEHIND_LATENCE_MAX_MS = 5000;
+    private static final int WRITE_BEHIND_LOT_MAX = 500;
+    private WriteBehindScheduler ecritureDifferee;
+    
+    // Avec le journal fsyncé, le snapshot ne sert qu'à borner le rejeu : checkpoint quand le
+    // journal devient long ou ancien, pas à chaque rafale de mutations
+    private static final long CHECKPOINT_ENTREES_MAX = 50_000;
+    private static final long CHECKPOINT_AGE_MAX_MINUTES = 15;
+    private static final long CHECKPOINT_VERIFICATION_SECONDES = 30;
+    private final AtomicBoolean checkpointDemande = new AtomicBoolean();
+    private volatile long dernierCheckpointNanos = System.nanoTime();
     
     // Sauvegarde automatique
     private ScheduledExecutorService scheduledExecutor;
     private boolean autoSaveEnabled = true;
     private int autoSaveIntervalMinutes = 5;
     
-    // Statistiques système
-    private SystemStats currentStats;
+    // Vrai si aucun snapshot lisible n'a été trouvé au chargement
+    private volatile boolean chargementEchoue;
+    
+    // Rétention des sauvegardes
+    private static final long COMPACTION_DELAI_INITIAL_MINUTES = 10;
+    private static final long COMPACTION_INTERVALLE_MINUTES = 60;
+    private volatile PolitiqueRetention politiqueRetention = PolitiqueRetention.parDefaut();
+    private volatile RapportCompaction dernierRapportCompaction;
+    // Sauvegarde de la génération précédente en attente sur le planificateur
+    private final AtomicBoolean sauvegardePlanifiee = new AtomicBoolean();
+    
     private LocalDateTime lastSaveTime;
     private LocalDateTime lastLoadTime;
     
@@ -56,11 +120,16 @@ public class DataSynchronizer {
         this.globalObservers = new ArrayList<>();
         this.gestionEvenements = GestionEvenements.getInstance();
         this.authService = AuthenticationService.getInstance();
-        this.currentStats = new SystemStats();
 
         this.scheduledExecutor = Executors.newScheduledThreadPool(2);
         
+        // Ouvrir le journal des mutations (rejoué par loadAllData)
+        openJournal();
+        this.ecritureDifferee = new WriteBehindScheduler(
+            "write-behind-evenements", this::checkpointDiffere, WRITE_BEHIND_LATENCE_MAX_MS, WRITE_BEHIND_LOT_MAX);
+        
         // Charger les données existantes
+        this.depotEvenements = creerDepotEvenements();
         loadAllData();
         
         // Initialiser des données de démonstration si nécessaire
@@ -69,21 +138,34 @@ public class DataSynchronizer {
         // Démarrer la sauvegarde automatique
         startAutoSave();
         
-        // Mettre à jour les statistiques
-        updateSystemStats();
+        // Importer les anciennes copies complètes dans le stockage dédupliqué, hors du démarrage
+        scheduledExecutor.execute(SerializationManager::migrerSauvegardesHistoriques);
+        
+        // Checkpoint d'un journal devenu trop ancien
+        scheduledExecutor.scheduleWithFixedDelay(this::verifierAgeJournal,
+            CHECKPOINT_VERIFICATION_SECONDES, CHECKPOINT_VERIFICATION_SECONDES, TimeUnit.SECONDS);
+        
+        // Rétention et compaction des sauvegardes en arrière-plan
+        scheduledExecutor.scheduleWithFixedDelay(
+            this::compacterSauvegardes, COMPACTION_DELAI_INITIAL_MINUTES, COMPACTION_INTERVALLE_MINUTES, TimeUnit.MINUTES);
+        
+        // Derniers accès utilisateurs repliés dans le fichier des utilisateurs
+        scheduledExecutor.scheduleWithFixedDelay(
+            authService::compacterJournalAcces, autoSaveIntervalMinutes, autoSaveIntervalMinutes, TimeUnit.MINUTES);
         
         System.out.println("✅ DataSynchronizer initialisé avec sérialisation automatique");
     }
     
+    /**
+     * Initialisation à la demande sans verrou : la JVM garantit que la classe Detenteur
+     * n'est initialisée qu'une fois, au premier appel, et publie l'instance complète à tous les threads
+     */
+    private static final class Detenteur {
+        private static final DataSynchronizer INSTANCE = new DataSynchronizer();
+    }
+    
     public static DataSynchronizer getInstance() {
-        if (instance == null) {
-            synchronized (DataSynchronizer.class) {
-                if (instance == null) {
-                    instance = new DataSynchronizer();
-                }
-            }
-        }
-        return instance;
+        return Detenteur.INSTANCE;
     }
     
     // ================================
@@ -107,21 +189,22 @@ public class DataSynchronizer {
                 evenement.ajouterObservateur(observer);
             }
             
-            // Ajouter à la gestion centrale
-            gestionEvenements.ajouterEvenement(evenement);
+            // Ajouter à la gestion centrale et journaliser la création
+            CompletableFuture<Long> ecriture;
+            ReentrantLock segment = verrouillerEvenement(evenement.getId());
+            try {
+                gestionEvenements.ajouterEvenement(evenement);
+                // Sous le verrou d'inscriptions : les inscriptions déjà journalisées sont dans l'état écrit
+                ecriture = evenement.sousVerrouInscriptions(() -> journaliser(JournalEntry.evenementCree(evenement)));
+            } finally {
+                deverrouillerEvenement(segment);
+            }
             
             // Notifier les observers
             notifierObserveursGlobaux("Nouvel événement ajouté: " + evenement.getNom());
             
-            // Sauvegarder automatiquement
-            /*if (autoSaveEnabled) {
-                saveEventsAsync();
-            }*/
-
-            saveAllDataNow();
-            
-            // Mettre à jour les statistiques
-            updateSystemStats();
+            // Durabilité assurée en arrière-plan par le group commit du journal
+            surveillerDurabilite(ecriture);
             
             System.out.println("✅ Événement ajouté et synchronisé: " + evenement.getNom());
             
@@ -145,21 +228,20 @@ public class DataSynchronizer {
                     evenement.retirerObservateur(observer);
                 }
                 
-                // Supprimer de la gestion centrale
-                gestionEvenements.supprimerEvenement(evenementId);
+                // Supprimer de la gestion centrale et journaliser la suppression
+                CompletableFuture<Long> ecriture;
+                ReentrantLock segment = verrouillerEvenement(evenementId);
+                try {
+                    gestionEvenements.supprimerEvenement(evenementId);
+                    ecriture = journaliser(JournalEntry.evenementSupprime(evenementId));
+                } finally {
+                    deverrouillerEvenement(segment);
+                }
                 
                 // Notifier les observers
                 notifierObserveursGlobaux("Événement supprimé: " + nomEvenement);
                 
-                // Sauvegarder automatiquement
-                /*if (autoSaveEnabled) {
-                    saveEventsAsync();
-                }*/
-
-                saveAllDataNow();
-                
-                // Mettre à jour les statistiques
-                updateSystemStats();
+                surveillerDurabilite(ecriture);
                 
                 System.out.println("✅ Événement supprimé et synchronisé: " + nomEvenement);
             }
@@ -180,8 +262,15 @@ public class DataSynchronizer {
             // Vérifier que l'événement existe
             Evenement existant = gestionEvenements.rechercherEvenement(evenement.getId());
             if (existant != null) {
-                // Mettre à jour dans la gestion centrale
-                gestionEvenements.getEvenements().put(evenement.getId(), evenement);
+                // Mettre à jour dans la gestion centrale et journaliser le nouvel état
+                CompletableFuture<Long> ecriture;
+                ReentrantLock segment = verrouillerEvenement(evenement.getId());
+                try {
+                    gestionEvenements.getEvenements().put(evenement.getId(), evenement);
+                    ecriture = evenement.sousVerrouInscriptions(() -> journaliser(JournalEntry.evenementModifie(evenement)));
+                } finally {
+                    deverrouillerEvenement(segment);
+                }
                 
                 // Ajouter les observers si nécessaire
                 for (ParticipantObserver observer : globalObservers) {
@@ -193,15 +282,7 @@ public class DataSynchronizer {
                 // Notifier les observers
                 notifierObserveursGlobaux("Événement modifié: " + evenement.getNom());
                 
-                // Sauvegarder automatiquement
-                /*if (autoSaveEnabled) {
-                    saveEventsAsync();
-                }*/
-
-                saveAllDataNow();
-                
-                // Mettre à jour les statistiques
-                updateSystemStats();
+                surveillerDurabilite(ecriture);
                 
                 System.out.println("✅ Événement mis à jour et synchronisé: " + evenement.getNom());
             }
@@ -212,50 +293,487 @@ public class DataSynchronizer {
         }
     }
 
+    /**
+     * Inscrit un participant à un événement avec journalisation de l'inscription
+     *
+     * @return faux si le participant était déjà inscrit : rien n'est journalisé
+     */
+    public boolean inscrireParticipantAvecSync(Evenement evenement, Participant participant) 
+            throws CapaciteMaxAtteinteException {
+        if (evenement == null || participant == null) return false;
+        
+        // Une personne déjà inscrite ailleurs garde la même instance
+        participant = gestionEvenements.getRegistreParticipants().partager(participant);
+        
+        // Pas de segment : seules les inscriptions au même événement se croisent, sur son verrou
+        // d'inscriptions, et l'entrée est journalisée sous ce verrou dans l'ordre de la liste
+        CompletableFuture<Long> ecriture;
+        verrouPersistance.readLock().lock();
+        try {
+            ecriture = evenement.ajouterParticipant(participant,
+                inscrit -> journaliser(JournalEntry.participantAjoute(evenement.getId(), inscrit)));
+        } finally {
+            verrouPersistance.readLock().unlock();
+        }
+        if (ecriture == null) {
+            return false;
+        }
+        
+        surveillerDurabilite(ecriture);
+        return true;
+    }
+    
+    /**
+     * Désinscrit un participant d'un événement avec journalisation
+     */
+    public void desinscrireParticipantAvecSync(Evenement evenement, Participant participant) {
+        if (evenement == null || participant == null) return;
+        
+        CompletableFuture<Long> ecriture;
+        verrouPersistance.readLock().lock();
+        try {
+            ecriture = evenement.retirerParticipant(participant,
+                retire -> journaliser(JournalEntry.participantRetire(evenement.getId(), retire)));
+        } finally {
+            verrouPersistance.readLock().unlock();
+        }
+        if (ecriture == null) {
+            return;
+        }
+        
+        surveillerDurabilite(ecriture);
+    }
+
+    /**
+     * Remplace un inscrit par l'instance partagée d'un autre participant (même personne retrouvée
+     * à la connexion), sans libérer sa place ; l'état complet de l'événement est journalisé
+     *
+     * @return faux si l'ancien n'était pas inscrit ou si le nouveau l'était déjà
+     */
+    public boolean remplacerParticipantAvecSync(Evenement evenement, Participant ancien, Participant nouveau) {
+        if (evenement == null || ancien == null || nouveau == null) return false;
+        
+        Participant partage = gestionEvenements.getRegistreParticipants().partager(nouveau);
+        if (partage == ancien) {
+            return false;
+        }
+        CompletableFuture<Long> ecriture;
+        verrouPersistance.readLock().lock();
+        try {
+            ecriture = evenement.remplacerParticipant(ancien, partage,
+                remplace -> journaliser(JournalEntry.evenementModifie(evenement)));
+        } finally {
+            verrouPersistance.readLock().unlock();
+        }
+        if (ecriture == null) {
+            return false;
+        }
+        
+        surveillerDurabilite(ecriture);
+        return true;
+    }
+
+    /**
+     * Inscrit des lots de participants (import en masse) : une réservation de places et une
+     * entrée de journal par événement, puis une seule demande d'écriture du snapshot.
+     * Un lot est admis dans la limite des places restantes.
+     *
+     * @return participants effectivement inscrits, par identifiant d'événement
+     */
+    public Map<String, List<Participant>> inscrireParticipantsEnMasseAvecSync(Map<Evenement, List<Participant>> lots) {
+        Map<String, List<Participant>> admis = new HashMap<>();
+        List<CompletableFuture<Long>> ecritures = new ArrayList<>();
+        int inscrits = 0;
+        
+        for (Map.Entry<Evenement, List<Participant>> lot : lots.entrySet()) {
+            Evenement evenement = lot.getKey();
+            List<Participant> participants = new ArrayList<>(lot.getValue().size());
+            for (Participant participant : lot.getValue()) {
+                participants.add(gestionEvenements.getRegistreParticipants().partager(participant));
+            }
+            // Un segment à la fois : les inscriptions unitaires aux autres événements continuent
+            ReentrantLock segment = verrouillerEvenement(evenement.getId());
+            try {
+                // Les personnes déjà inscrites sont ignorées
+                List<Participant> ajoutes = evenement.ajouterParticipantsDansLaLimite(participants);
+                admis.put(evenement.getId(), ajoutes);
+                if (ajoutes.isEmpty()) {
+                    continue;
+                }
+                inscrits += ajoutes.size();
+                // L'état complet de l'événement plutôt qu'une entrée par inscription
+                ecritures.add(evenement.sousVerrouInscriptions(() -> journaliser(JournalEntry.evenementModifie(evenement))));
+            } finally {
+                deverrouillerEvenement(segment);
+            }
+        }
+        
+        ecritureDifferee.demanderFlush();
+        ecritures.forEach(this::surveillerDurabilite);
+        notifierObserveursGlobaux(inscrits + " participants importés");
+        return admis;
+    }
+
       /**
      * Sauvegarde immédiate et synchrone des données
+     * Sert de checkpoint : le snapshot complet couvre le journal, qui est ensuite vidé
      */
     public void saveAllDataNow() {
         try {
-            System.out.println("💾 Sauvegarde immédiate des données...");
-            
-            // Sauvegarder les événements en JSON et XML
-            Map<String, Evenement> evenements = gestionEvenements.getEvenements();
-            
-            // Créer les répertoires si nécessaire
-            java.io.File jsonFile = new java.io.File(EVENTS_JSON_FILE);
-            java.io.File xmlFile = new java.io.File(EVENTS_XML_FILE);
-            
-            if (jsonFile.getParentFile() != null) {
-                jsonFile.getParentFile().mkdirs();
-            }
-            if (xmlFile.getParentFile() != null) {
-                xmlFile.getParentFile().mkdirs();
-            }
-            
-            // Sauvegarder en JSON
-            SerializationManager.sauvegarderEvenementsJSON(evenements, EVENTS_JSON_FILE);
-            System.out.println("✅ Fichier JSON créé: " + EVENTS_JSON_FILE);
-            
-            // Sauvegarder en XML
-            SerializationManager.sauvegarderEvenementsXML(evenements, EVENTS_XML_FILE);
-            System.out.println("✅ Fichier XML créé: " + EVENTS_XML_FILE);
-            
-            lastSaveTime = LocalDateTime.now();
-            
-            System.out.println("✅ " + evenements.size() + " événements sauvegardés immédiatement");
-            
+            checkpoint();
         } catch (Exception e) {
-            System.err.println("❌ Erreur lors de la sauvegarde immédiate: " + e.getMessage());
-            e.printStackTrace();
-            notifierObserveursGlobaux("Erreur lors de la sauvegarde: " + e.getMessage());
+            signalerEchecSauvegarde(e);
+        }
+    }
+    
+    /**
+     * Checkpoint lancé par l'écriture différée : l'échec remonte au planificateur, qui le compte
+     * et le signale aux barrières
+     */
+    private void checkpointDiffere() {
+        try {
+            checkpoint();
+        } catch (java.io.IOException e) {
+            signalerEchecSauvegarde(e);
+            throw new java.io.UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            signalerEchecSauvegarde(e);
+            throw e;
+        } finally {
+            // Après un échec, la prochaine mutation au-delà du seuil redemande un checkpoint
+            checkpointDemande.set(false);
         }
     }
+    
+    private void checkpoint() throws java.io.IOException {
+        verrouPersistance.writeLock().lock();
+        try {
+            saveSnapshotAndResetJournal();
+        } finally {
+            verrouPersistance.writeLock().unlock();
+        }
+        if (depotEvenements == null) {
+            planifierSauvegardeGenerationPrecedente();
+        }
+    }
+    
+    /**
+     * La sauvegarde relit et hache tout le snapshot : elle est faite hors du verrou, depuis la
+     * génération précédente, et une seule est en attente quelle que soit la fréquence des checkpoints
+     */
+    private void planifierSauvegardeGenerationPrecedente() {
+        if (scheduledExecutor == null || !sauvegardePlanifiee.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduledExecutor.execute(() -> {
+                sauvegardePlanifiee.set(false);
+                SerializationManager.sauvegarderGenerationPrecedente(EVENTS_BINARY_FILE);
+            });
+        } catch (RejectedExecutionException e) {
+            // Planificateur arrêté : la génération précédente reste sur disque
+            sauvegardePlanifiee.set(false);
+        }
+    }
+    
+    private void signalerEchecSauvegarde(Exception e) {
+        System.err.println("❌ Erreur lors de la sauvegarde immédiate: " + e.getMessage());
+        e.printStackTrace();
+        notifierObserveursGlobaux("Erreur lors de la sauvegarde: " + e.getMessage());
+    }
+    
+    private void saveSnapshotAndResetJournal() throws java.io.IOException {
+        System.out.println("💾 Sauvegarde immédiate des données...");
+        
+        Map<String, Evenement> evenements = gestionEvenements.getCatalogue();
+        if (depotEvenements != null) {
+            // Base : seules les lignes des événements modifiés depuis le dernier checkpoint
+            int ecrits = persisterModifications(evenements);
+            System.out.println("🗄️ " + ecrits + " événements modifiés enregistrés en base");
+        } else {
+            // Sauvegarder les événements au format binaire ; JSON et XML sont des exports à la demande
+            SerializationManager.sauvegarderEvenementsBinaire(evenements, EVENTS_BINARY_FILE);
+        }
+        
+        // Le snapshot couvre toutes les mutations journalisées
+        if (journal != null) {
+            journal.reset();
+        }
+        dernierCheckpointNanos = System.nanoTime();
+        checkpointDemande.set(false);
+        
+        lastSaveTime = LocalDateTime.now();
+        
+        System.out.println("✅ " + evenements.size() + " événements sauvegardés immédiatement");
+    }
 
        public GestionEvenements getGestionEvenements() {
         return gestionEvenements;
     }
     
+    // ================================
+    // DÉPÔT JDBC
+    // ================================
+    
+    /**
+     * Base JDBC si la propriété système gestion.evenements.jdbc.url est définie, null sinon
+     */
+    private EventRepository creerDepotEvenements() {
+        String url = System.getProperty(EventRepository.PROPRIETE_URL_JDBC);
+        if (url == null || url.isBlank()) {
+            return null;
+        }
+        try {
+            EventRepository depot = new JdbcEventRepository(url, gestionEvenements.getRegistreParticipants());
+            System.out.println("🗄️ Événements persistés en base: " + url);
+            return depot;
+        } catch (java.io.IOException e) {
+            System.err.println("⚠️ Base indisponible, retour au snapshot binaire: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Charge le catalogue depuis la base ; une base vide reprend le snapshot binaire existant
+     */
+    private void chargerDepuisDepot() throws java.io.IOException {
+        Map<String, Evenement> evenements = depotEvenements.chargerTout();
+        if (evenements.isEmpty() && SerializationManager.snapshotBinaireExiste(EVENTS_BINARY_FILE)) {
+            evenements = SerializationManager.chargerEvenementsBinaire(
+                EVENTS_BINARY_FILE, gestionEvenements.getRegistreParticipants());
+            depotEvenements.remplacerTout(evenements);
+            System.out.println("🗄️ " + evenements.size() + " événements importés en base depuis " + EVENTS_BINARY_FILE);
+        }
+        gestionEvenements.getEvenements().putAll(evenements);
+        for (Evenement evenement : evenements.values()) {
+            memoriserPersistance(evenement, evenement.getVersionModification(), evenement.getVersionEntete(),
+                identifiantsInscrits(evenement));
+        }
+    }
+    
+    private void memoriserPersistance(Evenement evenement, long version, long versionEntete, List<String> inscrits) {
+        instancesPersistees.put(evenement.getId(), evenement);
+        versionsPersistees.put(evenement.getId(), version);
+        versionsEntetePersistees.put(evenement.getId(), versionEntete);
+        inscriptionsPersistees.put(evenement.getId(), inscrits);
+    }
+    
+    private static List<String> identifiantsInscrits(Evenement evenement) {
+        return evenement.lireParticipants(participants -> {
+            List<String> identifiants = new ArrayList<>(participants.size());
+            BinarySnapshotCodec.parcourirIdentifiants(participants, identifiants::add);
+            return identifiants;
+        });
+    }
+    
+    /**
+     * Écrit en base les événements créés, remplacés ou modifiés depuis le dernier checkpoint
+     * et supprime ceux qui ont disparu du catalogue ; à appeler sous le verrou exclusif de persistance
+     *
+     * @return nombre d'événements écrits ou supprimés
+     */
+    private int persisterModifications(Map<String, Evenement> evenements) throws java.io.IOException {
+        List<Evenement> modifies = new ArrayList<>();
+        List<ModificationInscriptions> inscriptions = new ArrayList<>();
+        Map<String, Long> versions = new HashMap<>();
+        Map<String, Long> versionsEntete = new HashMap<>();
+        Map<String, List<String>> inscrits = new HashMap<>();
+        for (Evenement evenement : evenements.values()) {
+            // Versions lues avant l'écriture : une modification concurrente sera reprise au checkpoint suivant
+            long version = evenement.getVersionModification();
+            long versionEntete = evenement.getVersionEntete();
+            Long persistee = versionsPersistees.get(evenement.getId());
+            boolean memeInstance = instancesPersistees.get(evenement.getId()) == evenement;
+            if (memeInstance && persistee != null && persistee == version) {
+                continue;
+            }
+            versions.put(evenement.getId(), version);
+            versionsEntete.put(evenement.getId(), versionEntete);
+            
+            // En-tête inchangé : inscriptions et désinscriptions écrites ligne à ligne
+            List<String> enregistres = inscriptionsPersistees.get(evenement.getId());
+            Long entetePersiste = versionsEntetePersistees.get(evenement.getId());
+            ModificationInscriptions modification = memeInstance && enregistres != null
+                    && entetePersiste != null && entetePersiste == versionEntete
+                ? ModificationInscriptions.calculer(evenement, enregistres)
+                : null;
+            if (modification != null) {
+                inscrits.put(evenement.getId(), modification.getIdentifiants());
+                if (!modification.estVide()) {
+                    inscriptions.add(modification);
+                }
+            } else {
+                inscrits.put(evenement.getId(), identifiantsInscrits(evenement));
+                modifies.add(evenement);
+            }
+        }
+        List<String> supprimes = new ArrayList<>();
+        for (String id : instancesPersistees.keySet()) {
+            if (!evenements.containsKey(id)) {
+                supprimes.add(id);
+            }
+        }
+        
+        depotEvenements.enregistrerTous(modifies);
+        depotEvenements.enregistrerInscriptions(inscriptions);
+        for (String id : supprimes) {
+            depotEvenements.supprimer(id);
+            instancesPersistees.remove(id);
+            versionsPersistees.remove(id);
+            versionsEntetePersistees.remove(id);
+            inscriptionsPersistees.remove(id);
+        }
+        for (String id : versions.keySet()) {
+            memoriserPersistance(evenements.get(id), versions.get(id), versionsEntete.get(id), inscrits.get(id));
+        }
+        return modifies.size() + inscriptions.size() + supprimes.size();
+    }
+    
+    /**
+     * Dépôt JDBC actif, ou null si la persistance se fait par snapshot binaire
+     */
+    public EventRepository getDepotEvenements() {
+        return depotEvenements;
+    }
+    
+    // ================================
+    // JOURNAL DES MUTATIONS
+    // ================================
+    
+    private void openJournal() {
+        try {
+            journal = new MutationJournal(EVENTS_JOURNAL_FILE);
+        } catch (Exception e) {
+            System.err.println("⚠️ Journal indisponible, retour aux sauvegardes complètes: " + e.getMessage());
+            journal = null;
+        }
+    }
+    
+    /**
+     * Verrou partagé de persistance puis segment de l'événement : les mutations d'un même
+     * événement sont journalisées dans l'ordre, aucun checkpoint ne s'intercale
+     */
+    private ReentrantLock verrouillerEvenement(String evenementId) {
+        verrouPersistance.readLock().lock();
+        ReentrantLock segment = verrousEvenements.pour(evenementId);
+        segment.lock();
+        return segment;
+    }
+    
+    private void deverrouillerEvenement(ReentrantLock segment) {
+        segment.unlock();
+        verrouPersistance.readLock().unlock();
+    }
+    
+    /**
+     * Ajoute une mutation au journal ; à appeler sous le verrou d'inscriptions de l'événement
+     * (ou le verrou exclusif) pour que l'ordre du journal suive celui des modifications du modèle
+     */
+    private CompletableFuture<Long> journaliser(JournalEntry entree) {
+        if (journal == null) {
+            // Sans journal, seul le snapshot rend la mutation durable : écriture différée rapprochée
+            ecritureDifferee.signaler();
+            return CompletableFuture.completedFuture(0L);
+        }
+        CompletableFuture<Long> ecriture = journal.append(entree);
+        if (journal.getEntreesDepuisCheckpoint() >= CHECKPOINT_ENTREES_MAX) {
+            demanderCheckpointUneFois();
+        }
+        return ecriture;
+    }
+    
+    /**
+     * Checkpoint en arrière-plan, au plus une demande en attente
+     */
+    private void demanderCheckpointUneFois() {
+        if (checkpointDemande.compareAndSet(false, true)) {
+            demanderCheckpoint();
+        }
+    }
+    
+    private void demanderCheckpoint() {
+        ecritureDifferee.signaler();
+        ecritureDifferee.demanderFlush();
+    }
+    
+    private void verifierAgeJournal() {
+        if (journal == null || journal.getEntreesDepuisCheckpoint() == 0) {
+            return;
+        }
+        if (System.nanoTime() - dernierCheckpointNanos >= TimeUnit.MINUTES.toNanos(CHECKPOINT_AGE_MAX_MINUTES)) {
+            demanderCheckpointUneFois();
+        }
+    }
+    
+    /**
+     * Ne bloque pas l'appelant (souvent le thread JavaFX) : en cas d'échec du journal,
+     * un snapshot complet est demandé immédiatement
+     */
+    private void surveillerDurabilite(CompletableFuture<Long> ecriture) {
+        ecriture.whenComplete((sequence, erreur) -> {
+            if (erreur != null) {
+                System.err.println("❌ Mutation non journalisée, sauvegarde complète de secours: " + erreur.getMessage());
+                demanderCheckpoint();
+            }
+        });
+    }
+    
+    /**
+     * Barrière d'écriture : attend que toutes les mutations déjà effectuées soient dans le snapshot
+     *
+     * @return faux si le dernier checkpoint a échoué (les mutations restent dans le journal)
+     */
+    public boolean flush() {
+        if (journal != null) {
+            journal.sync();
+            if (journal.getEntreesDepuisCheckpoint() > 0) {
+                ecritureDifferee.signaler();
+            }
+        }
+        return ecritureDifferee.flush();
+    }
+    
+    /**
+     * Configure les bornes de l'écriture différée
+     */
+    public void configurerEcritureDifferee(long latenceMaxMs, int lotMax) {
+        ecritureDifferee.configurer(latenceMaxMs, lotMax);
+        System.out.println("✅ Écriture différée: latence max " + latenceMaxMs + " ms, lot max " + lotMax);
+    }
+    
+    public WriteBehindScheduler.Statistiques getStatistiquesEcriture() {
+        return ecritureDifferee.getStatistiques();
+    }
+    
+    private void appliquerEntreeJournal(JournalEntry entree) {
+        // Le rejeu ne passe pas par les setters : forcer la réécriture en base au prochain checkpoint
+        versionsPersistees.replace(entree.getEvenementId(), -1L);
+        inscriptionsPersistees.remove(entree.getEvenementId());
+        Map<String, Evenement> evenements = gestionEvenements.getEvenements();
+        Evenement evenement = evenements.get(entree.getEvenementId());
+        
+        switch (entree.getType()) {
+            case EVENEMENT_CREE:
+            case EVENEMENT_MODIFIE:
+                evenements.put(entree.getEvenementId(), entree.getEvenement());
+                break;
+            case EVENEMENT_SUPPRIME:
+                evenements.remove(entree.getEvenementId());
+                break;
+            case PARTICIPANT_AJOUTE:
+                // Rejeu idempotent : le snapshot peut déjà contenir l'inscription
+                if (evenement != null) {
+                    evenement.restaurerInscription(gestionEvenements.getRegistreParticipants().partager(entree.getParticipant()));
+                }
+                break;
+            case PARTICIPANT_RETIRE:
+                if (evenement != null) {
+                    evenement.restaurerDesinscription(entree.getParticipant());
+                }
+                break;
+        }
+    }
+    
     // ================================
     // GESTION DES OBSERVERS
     // ================================
@@ -264,10 +782,8 @@ public class DataSynchronizer {
         if (observer != null && !globalObservers.contains(observer)) {
             globalObservers.add(observer);
             
-            // Ajouter l'observer à tous les événements existants
-            for (Evenement evenement : gestionEvenements.getEvenements().values()) {
-                evenement.ajouterObservateur(observer);
-            }
+            // Ajouter l'observer à tous les événements existants (déjà décodés pour un catalogue mappé)
+            gestionEvenements.getStore().pourChaqueEvenementCharge(evenement -> evenement.ajouterObservateur(observer));
             
             System.out.println("✅ Observer global ajouté");
         }
@@ -278,9 +794,7 @@ public class DataSynchronizer {
             globalObservers.remove(observer);
             
             // Retirer l'observer de tous les événements
-            for (Evenement evenement : gestionEvenements.getEvenements().values()) {
-                evenement.retirerObservateur(observer);
-            }
+            gestionEvenements.getStore().pourChaqueEvenementCharge(evenement -> evenement.retirerObservateur(observer));
             
             System.out.println("✅ Observer global retiré");
         }
@@ -307,35 +821,110 @@ public class DataSynchronizer {
         try {
             System.out.println("🔄 Chargement des données...");
             
-            // Charger les événements depuis JSON
-            Map<String, Evenement> evenements = SerializationManager.chargerEvenementsJSON(EVENTS_JSON_FILE);
+            java.io.File binaire = new java.io.File(EVENTS_BINARY_FILE);
+            boolean catalogueMappe = depotEvenements == null && binaire.length() >= SEUIL_CATALOGUE_MAPPE;
             
-            // Si le fichier JSON n'existe pas, essayer XML
-            if (evenements.isEmpty()) {
+            if (catalogueMappe) {
+                // Gros catalogue : index des enregistrements seulement, décodage à la demande
                 try {
-                    evenements = SerializationManager.chargerEvenementsXML(EVENTS_XML_FILE);
-                } catch (Exception e) {
-                    System.out.println("⚠️ Aucun fichier XML trouvé: " + e.getMessage());
+                    MappedEvenementStore store = MappedEvenementStore.ouvrir(EVENTS_BINARY_FILE,
+                        MappedEvenementStore.TAILLE_SEGMENT_DEFAUT, gestionEvenements.getRegistreParticipants());
+                    store.setInitialiseur(this::attacherObservateursGlobaux);
+                    gestionEvenements.setStore(store);
+                    System.out.println("🗺️ Catalogue mappé: " + store.taille() + " événements indexés ("
+                        + store.getNombreSegments() + " segments)");
+                } catch (java.io.IOException e) {
+                    // Snapshot corrompu ou d'un ancien format : chargement complet avec reprise
+                    System.err.println("⚠️ Catalogue mappé indisponible: " + e.getMessage());
+                    catalogueMappe = false;
                 }
             }
             
-            // Charger dans la gestion centrale
-            for (Map.Entry<String, Evenement> entry : evenements.entrySet()) {
-                gestionEvenements.getEvenements().put(entry.getKey(), entry.getValue());
+            if (depotEvenements != null) {
+                chargerDepuisDepot();
+            } else if (!catalogueMappe) {
+                Map<String, Evenement> evenements = new HashMap<>();
+                if (SerializationManager.snapshotBinaireExiste(EVENTS_BINARY_FILE)) {
+                    // Snapshot binaire, ou génération précédente s'il est illisible
+                    try {
+                        // En-têtes seulement : les listes de participants sont décodées à leur premier accès
+                        evenements = SerializationManager.chargerEvenementsBinaire(
+                            EVENTS_BINARY_FILE, gestionEvenements.getRegistreParticipants(), true);
+                    } catch (java.io.IOException e) {
+                        signalerEchecChargement(e);
+                    }
+                } else if (new java.io.File(EVENTS_JSON_FILE).exists()) {
+                    // Installation antérieure au format binaire : reprendre le JSON
+                    evenements = SerializationManager.chargerEvenementsJSON(EVENTS_JSON_FILE);
+                } else {
+                    // Ni binaire ni JSON : essayer XML
+                    try {
+                        evenements = SerializationManager.chargerEvenementsXML(EVENTS_XML_FILE);
+                    } catch (Exception e) {
+                        System.out.println("⚠️ Aucun fichier XML trouvé: " + e.getMessage());
+                    }
+                }
                 
-                // Ajouter les observers globaux
-                for (ParticipantObserver observer : globalObservers) {
-                    entry.getValue().ajouterObservateur(observer);
+                if (!SerializationManager.snapshotBinaireExiste(EVENTS_BINARY_FILE)) {
+                    // JSON et XML portent les participants en ligne : partager une instance par id
+                    for (Evenement evenement : evenements.values()) {
+                        evenement.partagerParticipants(gestionEvenements.getRegistreParticipants());
+                    }
+                }
+                
+                // Charger dans la gestion centrale
+                gestionEvenements.getEvenements().putAll(evenements);
+            }
+            
+            // Rejouer les mutations postérieures au dernier snapshot
+            if (journal != null) {
+                try {
+                    journal.replay(this::appliquerEntreeJournal);
+                } catch (Exception e) {
+                    System.err.println("⚠️ Erreur lors du rejeu du journal: " + e.getMessage());
+                }
+            }
+            
+            // Ajouter les observers globaux (catalogue mappé : à la première lecture de chaque événement)
+            if (!catalogueMappe) {
+                for (Evenement evenement : gestionEvenements.getCatalogue().values()) {
+                    attacherObservateursGlobaux(evenement);
                 }
             }
             
             lastLoadTime = LocalDateTime.now();
-            updateSystemStats();
             
-            System.out.println("✅ " + evenements.size() + " événements chargés");
+            System.out.println("✅ " + gestionEvenements.getEvenements().size() + " événements chargés");
             
         } catch (Exception e) {
-            System.err.println("❌ Erreur lors du chargement des données: " + e.getMessage());
+            signalerEchecChargement(e);
+        }
+    }
+    
+    /**
+     * Aucun snapshot lisible : le fichier est mis de côté et aucune donnée de démonstration
+     * ne viendra remplacer le catalogue, pour qu'une restauration reste possible
+     */
+    private void signalerEchecChargement(Exception e) {
+        chargementEchoue = true;
+        System.err.println("❌ Erreur lors du chargement des données: " + e.getMessage());
+        java.io.File quarantaine = depotEvenements == null
+            ? SerializationManager.mettreEnQuarantaine(EVENTS_BINARY_FILE) : null;
+        notifierObserveursGlobaux("Catalogue illisible" 
+            + (quarantaine != null ? ", conservé dans " + quarantaine.getName() : "") 
+            + " : restauration nécessaire (" + e.getMessage() + ")");
+    }
+    
+    /**
+     * Vrai si le dernier chargement n'a trouvé aucun snapshot lisible
+     */
+    public boolean isChargementEchoue() {
+        return chargementEchoue;
+    }
+    
+    private void attacherObservateursGlobaux(Evenement evenement) {
+        for (ParticipantObserver observer : globalObservers) {
+            evenement.ajouterObservateur(observer);
         }
     }
     
@@ -350,9 +939,7 @@ public class DataSynchronizer {
      * Sauvegarde asynchrone pour éviter de bloquer l'interface
      */
     private void saveEventsAsync() {
-        if (scheduledExecutor != null && !scheduledExecutor.isShutdown()) {
-            scheduledExecutor.execute(this::saveAllData);
-        }
+        demanderCheckpoint();
     }
     
     /**
@@ -361,11 +948,12 @@ public class DataSynchronizer {
     public void exportCompleteBackup() {
         try {
             String timestamp = LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+            Files.createDirectories(Path.of(EXPORTS_DIR));
             
-            // Export des événements
+            // Export des événements (horodaté par l'export, soumis à la rétention)
             SerializationManager.exporterEvenements(
-                gestionEvenements.getEvenements(), 
-                "evenements_backup_" + timestamp
+                gestionEvenements.getCatalogue(), 
+                EXPORTS_DIR + "/evenements_backup"
             );
             
             // Export des utilisateurs
@@ -373,7 +961,7 @@ public class DataSynchronizer {
             for (User user : authService.getAllUsers()) {
                 users.put(user.getEmail(), user);
             }
-            SerializationManager.exporterUtilisateurs(users, "utilisateurs_backup_" + timestamp);
+            SerializationManager.exporterUtilisateurs(users, EXPORTS_DIR + "/utilisateurs_backup");
             
             notifierObserveursGlobaux("Sauvegarde complète créée: " + timestamp);
             System.out.println("✅ Sauvegarde complète créée avec timestamp: " + timestamp);
@@ -384,6 +972,44 @@ public class DataSynchronizer {
         }
     }
     
+    // ================================
+    // RÉTENTION DES SAUVEGARDES
+    // ================================
+    
+    /**
+     * Applique la politique de rétention aux sauvegardes et exports, et journalise l'espace récupéré
+     */
+    public RapportCompaction compacterSauvegardes() {
+        try {
+            RapportCompaction rapport = SerializationManager.compacterSauvegardes(politiqueRetention, EXPORTS_DIR);
+            dernierRapportCompaction = rapport;
+            if (rapport.getOctetsRecuperes() > 0) {
+                System.out.println("🧹 Compaction des sauvegardes: " + (rapport.getOctetsRecuperes() / 1024) + " Ko récupérés ("
+                    + rapport.getPointsSupprimes() + " points, " + rapport.getExportsSupprimes() + " exports supprimés, "
+                    + (rapport.getChunksCompresses() + rapport.getExportsCompresses()) + " fichiers compressés)");
+            }
+            return rapport;
+        } catch (Exception e) {
+            System.err.println("⚠️ Erreur lors de la compaction des sauvegardes: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    public PolitiqueRetention getPolitiqueRetention() {
+        return politiqueRetention;
+    }
+    
+    public void setPolitiqueRetention(PolitiqueRetention politiqueRetention) {
+        this.politiqueRetention = politiqueRetention;
+    }
+    
+    /**
+     * Bilan de la dernière compaction (null si aucune n'a encore tourné)
+     */
+    public RapportCompaction getDernierRapportCompaction() {
+        return dernierRapportCompaction;
+    }
+    
     // ================================
     // SAUVEGARDE AUTOMATIQUE
     // ================================
@@ -443,15 +1069,20 @@ public class DataSynchronizer {
         try {
             System.out.println("🔄 Rechargement des données de démonstration...");
             
-            // Effacer les données existantes
-            gestionEvenements.getEvenements().clear();
+            // Effacer les données existantes (suppressions journalisées, sans sauvegarde complète)
+            verrouPersistance.writeLock().lock();
+            try {
+                for (String evenementId : new ArrayList<>(gestionEvenements.getEvenements().keySet())) {
+                    journaliser(JournalEntry.evenementSupprime(evenementId));
+                }
+                gestionEvenements.getEvenements().clear();
+            } finally {
+                verrouPersistance.writeLock().unlock();
+            }
             
             // Créer de nouveaux événements de démonstration
             initializeDemoDataIfNeeded();
             
-            // Sauvegarder immédiatement
-            saveAllData();
-            
             notifierObserveursGlobaux("Données de démonstration rechargées");
             System.out.println("✅ Données de démonstration rechargées");
             
@@ -462,7 +1093,7 @@ public class DataSynchronizer {
     }
     
     private void initializeDemoDataIfNeeded() {
-        if (gestionEvenements.getEvenements().isEmpty()) {
+        if (!chargementEchoue && gestionEvenements.getCatalogue().isEmpty()) {
             System.out.println("🎯 Initialisation des données de démonstration...");
             
             try {
@@ -559,37 +1190,52 @@ public class DataSynchronizer {
     // STATISTIQUES SYSTÈME
     // ================================
     
-    private void updateSystemStats() {
+    /**
+     * Statistiques calculées à la demande : parcourir le catalogue et les verrous de tous les
+     * événements à chaque inscription ferait croître son coût avec le nombre total d'inscrits
+     * et la mettrait en concurrence avec les inscriptions aux autres événements
+     */
+    public SystemStats getSystemStats() {
+        SystemStats stats = new SystemStats();
         try {
-            Map<String, Evenement> evenements = gestionEvenements.getEvenements();
-            
-            currentStats.totalEvents = evenements.size();
-            currentStats.totalParticipants = (int) evenements.values().stream()
-                .flatMap(e -> e.getParticipants().stream())
-                .distinct()
-                .count();
-            currentStats.totalInscriptions = evenements.values().stream()
-                .mapToInt(e -> e.getParticipants().size())
-                .sum();
-            currentStats.activeEvents = (int) evenements.values().stream()
-                .filter(e -> e.getDate().isAfter(LocalDateTime.now()))
-                .count();
+            EvenementStore store = gestionEvenements.getStore();
+            stats.totalEvents = store.taille();
+            if (store instanceof MappedEvenementStore) {
+                // Catalogue mappé : compteurs lus dans les enregistrements, sans décoder les événements
+                MappedEvenementStore.Compteurs compteurs = ((MappedEvenementStore) store).compter(LocalDateTime.now());
+                stats.totalParticipants = compteurs.getParticipantsDistincts();
+                stats.totalInscriptions = compteurs.getInscriptions();
+                stats.activeEvents = compteurs.getEvenementsAVenir();
+            } else {
+                Map<String, Evenement> evenements = gestionEvenements.getCatalogue();
+                // Identifiants seulement : les listes chargées à la demande restent encodées
+                Set<String> participantsDistincts = new HashSet<>();
+                for (Evenement evenement : evenements.values()) {
+                    evenement.lireParticipants(participants -> {
+                        BinarySnapshotCodec.parcourirIdentifiants(participants, participantsDistincts::add);
+                        return null;
+                    });
+                }
+                stats.totalParticipants = participantsDistincts.size();
+                stats.totalInscriptions = evenements.values().stream()
+                    .mapToInt(e -> e.getNombreParticipants())
+                    .sum();
+                stats.activeEvents = (int) evenements.values().stream()
+                    .filter(e -> e.getDate().isAfter(LocalDateTime.now()))
+                    .count();
+            }
                 
             Map<String, Object> userStats = authService.getUserStatistics();
-            currentStats.totalUsers = ((Long) userStats.get("totalUsers")).intValue();
-            currentStats.activeUsers = ((Long) userStats.get("activeUsers")).intValue();
-            currentStats.activeSessions = ((Long) userStats.get("activeSessions")).intValue();
+            stats.totalUsers = ((Long) userStats.get("totalUsers")).intValue();
+            stats.activeUsers = ((Long) userStats.get("activeUsers")).intValue();
+            stats.activeSessions = ((Long) userStats.get("activeSessions")).intValue();
             
-            currentStats.lastUpdate = LocalDateTime.now();
+            stats.lastUpdate = LocalDateTime.now();
             
         } catch (Exception e) {
             System.err.println("⚠️ Erreur lors de la mise à jour des statistiques: " + e.getMessage());
         }
-    }
-    
-    public SystemStats getSystemStats() {
-        updateSystemStats();
-        return currentStats;
+        return stats;
     }
     
     // ================================
@@ -629,10 +1275,25 @@ public class DataSynchronizer {
         
         // Sauvegarder une dernière fois
         saveAllData();
+        authService.arreter();
         
         // Arrêter la sauvegarde automatique
         stopAutoSave();
         
+        // Vider l'écriture différée puis fermer le journal
+        ecritureDifferee.close();
+        if (journal != null) {
+            journal.close();
+        }
+        gestionEvenements.getStore().fermer();
+        if (depotEvenements != null) {
+            try {
+                depotEvenements.fermer();
+            } catch (java.io.IOException e) {
+                System.err.println("⚠️ Erreur à la fermeture de la base: " + e.getMessage());
+            }
+        }
+        
         // Nettoyer les observers
         globalObservers.clear();
         
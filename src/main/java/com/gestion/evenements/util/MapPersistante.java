@@ -0,0 +1,370 @@
+package com.gestion.evenements.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Map immuable à partage structurel (trie de hachage, 32 branches par niveau)
+ *
+ * Ajouter ou retirer une clé ne recopie que le chemin de la racine jusqu'à la feuille
+ * concernée (au plus 7 nœuds) ; tout le reste de l'arbre est partagé avec la version
+ * précédente. Une version n'est jamais modifiée : on peut la lire depuis n'importe quel
+ * thread sans verrou, et la conserver coûte O(1).
+ */
+public final class MapPersistante<K, V> implements Iterable<Map.Entry<K, V>> {
+    private static final int BITS = 5;
+    private static final int MASQUE = (1 << BITS) - 1;
+
+    @SuppressWarnings("rawtypes")
+    private static final MapPersistante VIDE = new MapPersistante<>(new NoeudBitmap(0, new Object[0]), 0);
+
+    private final Noeud racine;
+    private final int taille;
+
+    private MapPersistante(Noeud racine, int taille) {
+        this.racine = racine;
+        this.taille = taille;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> MapPersistante<K, V> vide() {
+        return VIDE;
+    }
+
+    public int taille() {
+        return taille;
+    }
+
+    // ================================
+    // LECTURE
+    // ================================
+
+    @SuppressWarnings("unchecked")
+    public V get(Object cle) {
+        Entree<K, V> entree = rechercher(cle);
+        return entree != null ? entree.valeur : null;
+    }
+
+    public boolean contient(Object cle) {
+        return rechercher(cle) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Entree<K, V> rechercher(Object cle) {
+        int hash = hacher(cle);
+        Noeud noeud = racine;
+        int decalage = 0;
+        while (true) {
+            Object element;
+            if (noeud instanceof NoeudCollision) {
+                for (Object candidat : noeud.elements) {
+                    if (Objects.equals(((Entree<K, V>) candidat).cle, cle)) {
+                        return (Entree<K, V>) candidat;
+                    }
+                }
+                return null;
+            }
+            NoeudBitmap bitmap = (NoeudBitmap) noeud;
+            int bit = bit(hash, decalage);
+            if ((bitmap.bitmap & bit) == 0) {
+                return null;
+            }
+            element = bitmap.elements[bitmap.indice(bit)];
+            if (element instanceof Entree) {
+                Entree<K, V> entree = (Entree<K, V>) element;
+                return entree.hash == hash && Objects.equals(entree.cle, cle) ? entree : null;
+            }
+            noeud = (Noeud) element;
+            decalage += BITS;
+        }
+    }
+
+    // ================================
+    // NOUVELLES VERSIONS
+    // ================================
+
+    /**
+     * Version contenant en plus (ou à la place de l'ancienne) l'association cle -> valeur
+     */
+    public MapPersistante<K, V> avec(K cle, V valeur) {
+        boolean[] ajout = new boolean[1];
+        Noeud nouvelleRacine = avec(racine, new Entree<>(hacher(cle), cle, valeur), 0, ajout);
+        return new MapPersistante<>(nouvelleRacine, ajout[0] ? taille + 1 : taille);
+    }
+
+    /**
+     * Version sans la clé ; la même instance si la clé est absente
+     */
+    public MapPersistante<K, V> sans(Object cle) {
+        Noeud nouvelleRacine = sans(racine, cle, hacher(cle), 0);
+        if (nouvelleRacine == racine) {
+            return this;
+        }
+        return nouvelleRacine == null ? vide() : new MapPersistante<>(nouvelleRacine, taille - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Noeud avec(Noeud noeud, Entree<?, ?> entree, int decalage, boolean[] ajout) {
+        if (noeud instanceof NoeudCollision) {
+            Object[] elements = noeud.elements;
+            for (int i = 0; i < elements.length; i++) {
+                if (Objects.equals(((Entree<?, ?>) elements[i]).cle, entree.cle)) {
+                    return new NoeudCollision(remplacer(elements, i, entree));
+                }
+            }
+            ajout[0] = true;
+            return new NoeudCollision(inserer(elements, elements.length, entree));
+        }
+
+        NoeudBitmap bitmap = (NoeudBitmap) noeud;
+        int bit = bit(entree.hash, decalage);
+        int indice = bitmap.indice(bit);
+        if ((bitmap.bitmap & bit) == 0) {
+            ajout[0] = true;
+            return new NoeudBitmap(bitmap.bitmap | bit, inserer(bitmap.elements, indice, entree));
+        }
+
+        Object present = bitmap.elements[indice];
+        Object remplacant;
+        if (present instanceof Entree) {
+            Entree<?, ?> existante = (Entree<?, ?>) present;
+            if (existante.hash == entree.hash && Objects.equals(existante.cle, entree.cle)) {
+                remplacant = entree;
+            } else {
+                ajout[0] = true;
+                remplacant = fusionner(existante, entree, decalage + BITS);
+            }
+        } else {
+            remplacant = avec((Noeud) present, entree, decalage + BITS, ajout);
+        }
+        return new NoeudBitmap(bitmap.bitmap, remplacer(bitmap.elements, indice, remplacant));
+    }
+
+    /**
+     * Sous-arbre contenant deux entrées dont les hachages coïncident jusqu'au décalage donné
+     */
+    private static Noeud fusionner(Entree<?, ?> a, Entree<?, ?> b, int decalage) {
+        if (decalage >= Integer.SIZE) {
+            // Hachages identiques : plus aucun bit pour les départager
+            return new NoeudCollision(new Object[] { a, b });
+        }
+        int bitA = bit(a.hash, decalage);
+        int bitB = bit(b.hash, decalage);
+        if (bitA == bitB) {
+            return new NoeudBitmap(bitA, new Object[] { fusionner(a, b, decalage + BITS) });
+        }
+        Object[] elements = Integer.compareUnsigned(bitA, bitB) < 0 ? new Object[] { a, b } : new Object[] { b, a };
+        return new NoeudBitmap(bitA | bitB, elements);
+    }
+
+    /**
+     * @return le nœud sans la clé, le même nœud si elle est absente, ou null s'il devient vide
+     */
+    private static Noeud sans(Noeud noeud, Object cle, int hash, int decalage) {
+        if (noeud instanceof NoeudCollision) {
+            Object[] elements = noeud.elements;
+            for (int i = 0; i < elements.length; i++) {
+                if (Objects.equals(((Entree<?, ?>) elements[i]).cle, cle)) {
+                    return elements.length == 1 ? null : new NoeudCollision(retirer(elements, i));
+                }
+            }
+            return noeud;
+        }
+
+        NoeudBitmap bitmap = (NoeudBitmap) noeud;
+        int bit = bit(hash, decalage);
+        if ((bitmap.bitmap & bit) == 0) {
+            return noeud;
+        }
+        int indice = bitmap.indice(bit);
+        Object present = bitmap.elements[indice];
+        if (present instanceof Entree) {
+            Entree<?, ?> entree = (Entree<?, ?>) present;
+            if (entree.hash != hash || !Objects.equals(entree.cle, cle)) {
+                return noeud;
+            }
+        } else {
+            Noeud sousNoeud = sans((Noeud) present, cle, hash, decalage + BITS);
+            if (sousNoeud == present) {
+                return noeud;
+            }
+            if (sousNoeud != null) {
+                return new NoeudBitmap(bitmap.bitmap, remplacer(bitmap.elements, indice, sousNoeud));
+            }
+        }
+        int reste = bitmap.bitmap & ~bit;
+        return reste == 0 ? null : new NoeudBitmap(reste, retirer(bitmap.elements, indice));
+    }
+
+    // ================================
+    // PARCOURS
+    // ================================
+
+    /**
+     * Parcourt cette version ; les versions ultérieures n'y sont pas visibles
+     */
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+        return new Parcours<>(racine);
+    }
+
+    private static final class Parcours<K, V> implements Iterator<Map.Entry<K, V>> {
+        private final Deque<Object[]> tableaux = new ArrayDeque<>();
+        private final Deque<Integer> positions = new ArrayDeque<>();
+        private Entree<K, V> suivante;
+
+        Parcours(Noeud racine) {
+            tableaux.push(racine.elements);
+            positions.push(0);
+            avancer();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void avancer() {
+            suivante = null;
+            while (!tableaux.isEmpty()) {
+                Object[] elements = tableaux.peek();
+                int position = positions.pop();
+                if (position >= elements.length) {
+                    tableaux.pop();
+                    continue;
+                }
+                positions.push(position + 1);
+                Object element = elements[position];
+                if (element instanceof Entree) {
+                    suivante = (Entree<K, V>) element;
+                    return;
+                }
+                tableaux.push(((Noeud) element).elements);
+                positions.push(0);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return suivante != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (suivante == null) {
+                throw new NoSuchElementException();
+            }
+            Entree<K, V> courante = suivante;
+            avancer();
+            return courante;
+        }
+    }
+
+    // ================================
+    // NŒUDS
+    // ================================
+
+    private abstract static class Noeud {
+        // Entree ou sous-nœud
+        final Object[] elements;
+
+        Noeud(Object[] elements) {
+            this.elements = elements;
+        }
+    }
+
+    private static final class NoeudBitmap extends Noeud {
+        // Un bit par branche occupée ; elements est compacté dans l'ordre des bits
+        final int bitmap;
+
+        NoeudBitmap(int bitmap, Object[] elements) {
+            super(elements);
+            this.bitmap = bitmap;
+        }
+
+        int indice(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+    }
+
+    private static final class NoeudCollision extends Noeud {
+        NoeudCollision(Object[] elements) {
+            super(elements);
+        }
+    }
+
+    private static final class Entree<K, V> implements Map.Entry<K, V> {
+        final int hash;
+        final K cle;
+        final V valeur;
+
+        Entree(int hash, K cle, V valeur) {
+            this.hash = hash;
+            this.cle = cle;
+            this.valeur = valeur;
+        }
+
+        @Override
+        public K getKey() { return cle; }
+
+        @Override
+        public V getValue() { return valeur; }
+
+        @Override
+        public V setValue(V valeur) {
+            throw new UnsupportedOperationException("Version immuable");
+        }
+
+        @Override
+        public boolean equals(Object autre) {
+            if (!(autre instanceof Map.Entry)) return false;
+            Map.Entry<?, ?> entree = (Map.Entry<?, ?>) autre;
+            return Objects.equals(cle, entree.getKey()) && Objects.equals(valeur, entree.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(cle) ^ Objects.hashCode(valeur);
+        }
+
+        @Override
+        public String toString() {
+            return cle + "=" + valeur;
+        }
+    }
+
+    // ================================
+    // UTILITAIRES
+    // ================================
+
+    private static int hacher(Object cle) {
+        int h = Objects.hashCode(cle);
+        // Mélange des bits hauts vers les niveaux bas, comme HashMap
+        return h ^ (h >>> 16);
+    }
+
+    private static int bit(int hash, int decalage) {
+        return 1 << ((hash >>> decalage) & MASQUE);
+    }
+
+    private static Object[] inserer(Object[] elements, int indice, Object element) {
+        Object[] copie = new Object[elements.length + 1];
+        System.arraycopy(elements, 0, copie, 0, indice);
+        copie[indice] = element;
+        System.arraycopy(elements, indice, copie, indice + 1, elements.length - indice);
+        return copie;
+    }
+
+    private static Object[] remplacer(Object[] elements, int indice, Object element) {
+        Object[] copie = elements.clone();
+        copie[indice] = element;
+        return copie;
+    }
+
+    private static Object[] retirer(Object[] elements, int indice) {
+        Object[] copie = new Object[elements.length - 1];
+        System.arraycopy(elements, 0, copie, 0, indice);
+        System.arraycopy(elements, indice + 1, copie, indice, elements.length - indice - 1);
+        return copie;
+    }
+}
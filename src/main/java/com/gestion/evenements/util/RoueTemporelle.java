@@ -0,0 +1,110 @@
+package com.gestion.evenements.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Roue temporelle hachée : planification et annulation d'échéances en O(1)
+ *
+ * Le temps est découpé en ticks de dureeTickMs ; une échéance est rangée dans la case
+ * (tick d'échéance modulo le nombre de cases). Avancer d'un tick ne parcourt qu'une case :
+ * les éléments dont le tick est atteint expirent, les autres attendent un tour de roue de plus.
+ * La précision d'expiration est donc d'un tick.
+ */
+public class RoueTemporelle<K> {
+    private final Set<K>[] cases;
+    private final long dureeTickMs;
+    private final long origineMs;
+    // Tick d'échéance de chaque élément planifié
+    private final Map<K, Long> echeances = new HashMap<>();
+    // Dernier tick traité
+    private long tickCourant;
+
+    @SuppressWarnings("unchecked")
+    public RoueTemporelle(int nombreCases, long dureeTickMs, long origineMs) {
+        if (nombreCases <= 0 || dureeTickMs <= 0) {
+            throw new IllegalArgumentException("La roue doit avoir des cases et un tick positifs");
+        }
+        this.cases = new Set[nombreCases];
+        for (int i = 0; i < nombreCases; i++) {
+            cases[i] = new LinkedHashSet<>();
+        }
+        this.dureeTickMs = dureeTickMs;
+        this.origineMs = origineMs;
+    }
+
+    /**
+     * Planifie (ou replanifie) l'expiration d'un élément
+     */
+    public synchronized void planifier(K cle, long echeanceMs) {
+        annuler(cle);
+        // Arrondi au tick supérieur, jamais dans un tick déjà traité
+        long tick = Math.max(tickCourant + 1, Math.floorDiv(echeanceMs - origineMs + dureeTickMs - 1, dureeTickMs));
+        echeances.put(cle, tick);
+        cases[indice(tick)].add(cle);
+    }
+
+    /**
+     * @return vrai si l'élément était planifié
+     */
+    public synchronized boolean annuler(K cle) {
+        Long tick = echeances.remove(cle);
+        if (tick == null) {
+            return false;
+        }
+        cases[indice(tick)].remove(cle);
+        return true;
+    }
+
+    /**
+     * Avance la roue jusqu'à l'instant donné
+     *
+     * @return éléments arrivés à échéance, retirés de la roue
+     */
+    public synchronized List<K> avancer(long maintenantMs) {
+        long tickCible = Math.floorDiv(maintenantMs - origineMs, dureeTickMs);
+        List<K> expires = new ArrayList<>();
+        if (tickCible <= tickCourant) {
+            return expires;
+        }
+        if (tickCible - tickCourant >= cases.length) {
+            // Retard d'un tour complet ou plus : chaque case n'a besoin d'être vue qu'une fois
+            for (Set<K> contenu : cases) {
+                expirer(contenu, tickCible, expires);
+            }
+        } else {
+            for (long tick = tickCourant + 1; tick <= tickCible; tick++) {
+                expirer(cases[indice(tick)], tick, expires);
+            }
+        }
+        tickCourant = tickCible;
+        return expires;
+    }
+
+    private void expirer(Set<K> contenu, long tick, List<K> expires) {
+        Iterator<K> iterateur = contenu.iterator();
+        while (iterateur.hasNext()) {
+            K cle = iterateur.next();
+            if (echeances.get(cle) <= tick) {
+                iterateur.remove();
+                echeances.remove(cle);
+                expires.add(cle);
+            }
+        }
+    }
+
+    private int indice(long tick) {
+        return (int) Math.floorMod(tick, (long) cases.length);
+    }
+
+    public synchronized int taille() {
+        return echeances.size();
+    }
+
+    public long getDureeTickMs() { return dureeTickMs; }
+}
@@ -0,0 +1,312 @@
+package com.gestion.evenements.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Planificateur d'écriture différée (write-behind)
+ * Les mutations sont seulement signalées ; un thread dédié regroupe les rafales
+ * en une seule écriture dès que le lot atteint sa taille maximale ou que la plus
+ * ancienne mutation en attente dépasse la latence maximale.
+ * flush() sert de barrière : il rend la main quand tout ce qui a été signalé avant l'appel est écrit.
+ */
+public class WriteBehindScheduler implements AutoCloseable {
+    private final Runnable actionEcriture;
+    private final Thread thread;
+    private final ReentrantLock verrou = new ReentrantLock();
+    private final Condition changement = verrou.newCondition();
+
+    // Configuration
+    private volatile long latenceMaxNanos;
+    private volatile int lotMax;
+
+    // État protégé par le verrou
+    private long mutationsSignalees = 0;
+    private long mutationsEcrites = 0;
+    // Mutations couvertes par l'écriture en cours (égal à mutationsEcrites hors écriture)
+    private long cibleEnCours = 0;
+    private long debutAttente = 0;
+    private boolean flushDemande = false;
+    private boolean arret = false;
+    // Chaque écriture couvre tout ce qui a été signalé avant elle : seul le dernier lot compte
+    private boolean dernierLotReussi = true;
+
+    // Statistiques protégées par le verrou
+    private long lotsEcrits = 0;
+    private long echecs = 0;
+    private long plusGrosLot = 0;
+    private long dureeEcritureCumuleeNanos = 0;
+    private long dureeEcritureMaxNanos = 0;
+    private long derniereDureeEcritureNanos = 0;
+    private long delaiMaxNanos = 0;
+
+    public WriteBehindScheduler(String nom, Runnable actionEcriture, long latenceMaxMs, int lotMax) {
+        this.actionEcriture = actionEcriture;
+        configurer(latenceMaxMs, lotMax);
+
+        this.thread = new Thread(this::boucle, nom);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Modifie les bornes de regroupement (latence maximale en ms, taille maximale de lot)
+     */
+    public void configurer(long latenceMaxMs, int lotMax) {
+        this.latenceMaxNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, latenceMaxMs));
+        this.lotMax = Math.max(1, lotMax);
+        reveiller();
+    }
+
+    // ================================
+    // SIGNALEMENT ET BARRIÈRE
+    // ================================
+
+    /**
+     * Signale une mutation à écrire plus tard
+     */
+    public void signaler() {
+        signaler(1);
+    }
+
+    /**
+     * Signale plusieurs mutations d'un coup (imports, chargements en masse)
+     */
+    public void signaler(int nombre) {
+        if (nombre <= 0) return;
+        verrou.lock();
+        try {
+            if (mutationsSignalees == mutationsEcrites) {
+                debutAttente = System.nanoTime();
+            }
+            mutationsSignalees += nombre;
+            changement.signalAll();
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Demande une écriture immédiate sans attendre qu'elle soit terminée
+     */
+    public void demanderFlush() {
+        verrou.lock();
+        try {
+            flushDemande = true;
+            changement.signalAll();
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Barrière : force l'écriture et attend que toutes les mutations signalées jusqu'ici soient écrites
+     *
+     * @return faux si la dernière écriture a échoué
+     */
+    public boolean flush() {
+        verrou.lock();
+        try {
+            long cible = mutationsSignalees;
+            if (mutationsEcrites >= cible) {
+                return dernierLotReussi;
+            }
+            // Une écriture en cours qui couvre déjà la cible suffit : une demande laissée
+            // derrière elle ferait écrire sans attendre la prochaine mutation signalée
+            if (cibleEnCours < cible) {
+                flushDemande = true;
+                changement.signalAll();
+            }
+            while (mutationsEcrites < cible && !arret) {
+                changement.awaitUninterruptibly();
+            }
+            return mutationsEcrites >= cible && dernierLotReussi;
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Écrit les mutations en attente puis arrête le thread d'écriture
+     */
+    @Override
+    public void close() {
+        flush();
+        verrou.lock();
+        try {
+            arret = true;
+            changement.signalAll();
+        } finally {
+            verrou.unlock();
+        }
+        try {
+            thread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ================================
+    // BOUCLE D'ÉCRITURE
+    // ================================
+
+    private void boucle() {
+        while (true) {
+            long cible;
+            long lot;
+            long attente;
+
+            verrou.lock();
+            try {
+                while (!pretAEcrire()) {
+                    if (arret) return;
+                    if (mutationsSignalees == mutationsEcrites) {
+                        changement.awaitUninterruptibly();
+                    } else {
+                        long restant = debutAttente + latenceMaxNanos - System.nanoTime();
+                        try {
+                            changement.awaitNanos(Math.max(1, restant));
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                }
+                cible = mutationsSignalees;
+                lot = cible - mutationsEcrites;
+                attente = debutAttente;
+                cibleEnCours = cible;
+                flushDemande = false;
+            } finally {
+                verrou.unlock();
+            }
+
+            long debut = System.nanoTime();
+            boolean succes = true;
+            try {
+                actionEcriture.run();
+            } catch (Exception e) {
+                succes = false;
+                System.err.println("❌ Erreur lors de l'écriture différée: " + e.getMessage());
+            }
+            long fin = System.nanoTime();
+
+            verrou.lock();
+            try {
+                // Même en cas d'échec le lot est acquitté pour ne pas bloquer les barrières,
+                // qui rapportent l'échec
+                mutationsEcrites = cible;
+                dernierLotReussi = succes;
+                if (mutationsSignalees > mutationsEcrites) {
+                    debutAttente = fin;
+                }
+                enregistrerLot(lot, fin - debut, fin - attente, succes);
+                changement.signalAll();
+            } finally {
+                verrou.unlock();
+            }
+        }
+    }
+
+    private boolean pretAEcrire() {
+        long enAttente = mutationsSignalees - mutationsEcrites;
+        if (enAttente == 0) {
+            flushDemande = false;
+            return false;
+        }
+        return flushDemande
+            || arret
+            || enAttente >= lotMax
+            || System.nanoTime() - debutAttente >= latenceMaxNanos;
+    }
+
+    private void reveiller() {
+        verrou.lock();
+        try {
+            changement.signalAll();
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    private void enregistrerLot(long lot, long dureeNanos, long delaiNanos, boolean succes) {
+        lotsEcrits++;
+        if (!succes) echecs++;
+        plusGrosLot = Math.max(plusGrosLot, lot);
+        dureeEcritureCumuleeNanos += dureeNanos;
+        dureeEcritureMaxNanos = Math.max(dureeEcritureMaxNanos, dureeNanos);
+        derniereDureeEcritureNanos = dureeNanos;
+        delaiMaxNanos = Math.max(delaiMaxNanos, delaiNanos);
+    }
+
+    // ================================
+    // STATISTIQUES
+    // ================================
+
+    public Statistiques getStatistiques() {
+        verrou.lock();
+        try {
+            return new Statistiques(lotsEcrits, mutationsEcrites, mutationsSignalees - mutationsEcrites,
+                plusGrosLot, echecs, dureeEcritureCumuleeNanos, dureeEcritureMaxNanos,
+                derniereDureeEcritureNanos, delaiMaxNanos);
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Instantané des statistiques d'écriture différée
+     */
+    public static class Statistiques {
+        private final long lotsEcrits;
+        private final long mutationsEcrites;
+        private final long mutationsEnAttente;
+        private final long plusGrosLot;
+        private final long echecs;
+        private final long dureeEcritureCumuleeNanos;
+        private final long dureeEcritureMaxNanos;
+        private final long derniereDureeEcritureNanos;
+        private final long delaiMaxNanos;
+
+        Statistiques(long lotsEcrits, long mutationsEcrites, long mutationsEnAttente, long plusGrosLot,
+                     long echecs, long dureeEcritureCumuleeNanos, long dureeEcritureMaxNanos,
+                     long derniereDureeEcritureNanos, long delaiMaxNanos) {
+            this.lotsEcrits = lotsEcrits;
+            this.mutationsEcrites = mutationsEcrites;
+            this.mutationsEnAttente = mutationsEnAttente;
+            this.plusGrosLot = plusGrosLot;
+            this.echecs = echecs;
+            this.dureeEcritureCumuleeNanos = dureeEcritureCumuleeNanos;
+            this.dureeEcritureMaxNanos = dureeEcritureMaxNanos;
+            this.derniereDureeEcritureNanos = derniereDureeEcritureNanos;
+            this.delaiMaxNanos = delaiMaxNanos;
+        }
+
+        // Getters
+        public long getLotsEcrits() { return lotsEcrits; }
+        public long getMutationsEcrites() { return mutationsEcrites; }
+        public long getMutationsEnAttente() { return mutationsEnAttente; }
+        public long getPlusGrosLot() { return plusGrosLot; }
+        public long getEchecs() { return echecs; }
+        public double getMutationsParLot() {
+            return lotsEcrits == 0 ? 0 : (double) mutationsEcrites / lotsEcrits;
+        }
+        public double getDureeEcritureMoyenneMs() {
+            return lotsEcrits == 0 ? 0 : dureeEcritureCumuleeNanos / 1_000_000.0 / lotsEcrits;
+        }
+        public double getDureeEcritureMaxMs() { return dureeEcritureMaxNanos / 1_000_000.0; }
+        public double getDerniereDureeEcritureMs() { return derniereDureeEcritureNanos / 1_000_000.0; }
+        public double getDelaiMaxMs() { return delaiMaxNanos / 1_000_000.0; }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "WriteBehindStats{lots=%d, mutations=%d, enAttente=%d, mutationsParLot=%.1f, " +
+                "ecritureMoy=%.1fms, ecritureMax=%.1fms, delaiMax=%.1fms, echecs=%d}",
+                lotsEcrits, mutationsEcrites, mutationsEnAttente, getMutationsParLot(),
+                getDureeEcritureMoyenneMs(), getDureeEcritureMaxMs(), getDelaiMaxMs(), echecs
+            );
+        }
+    }
+}
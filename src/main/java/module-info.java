@@ -14,6 +14,7 @@ module com.gestion.evenements {
     // Modules Java standard
     requires java.xml;
     requires java.desktop;
+    requires java.sql;
     
     // Exporter les packages principaux
     exports com.gestion.evenements;
@@ -23,6 +24,11 @@ module com.gestion.evenements {
     exports com.gestion.evenements.observer;
     exports com.gestion.evenements.util;
     exports com.gestion.evenements.serialization;
+    exports com.gestion.evenements.serialization.backup;
+    exports com.gestion.evenements.serialization.export;
+    exports com.gestion.evenements.serialization.importation;
+    exports com.gestion.evenements.serialization.migration;
+    exports com.gestion.evenements.repository;
     
     // IMPORTANT: Exporter les packages pour Jackson
     exports com.gestion.evenements.auth to com.fasterxml.jackson.databind;
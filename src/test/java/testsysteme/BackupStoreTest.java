@@ -0,0 +1,177 @@
+package testsysteme;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.gestion.evenements.serialization.backup.BackupStore;
+import com.gestion.evenements.serialization.backup.PointSauvegarde;
+import com.gestion.evenements.serialization.backup.PolitiqueRetention;
+import com.gestion.evenements.serialization.backup.RapportCompaction;
+
+public class BackupStoreTest {
+
+    private String contenu(int nombre, String marque) {
+        StringBuilder json = new StringBuilder("{\n");
+        for (int i = 0; i < nombre; i++) {
+            json.append("  \"EVT").append(i).append("\": {\"nom\": \"Evenement ").append(i)
+                .append(i == nombre / 2 ? marque : "").append("\", \"capacite\": ").append(i * 7 % 500).append("},\n");
+        }
+        return json.append("}\n").toString();
+    }
+
+    @Test
+    @DisplayName("Test déduplication entre deux sauvegardes proches")
+    void testDeduplication(@TempDir Path tempDir) throws Exception {
+        BackupStore store = new BackupStore(tempDir.resolve("backups"));
+        Path fichier = tempDir.resolve("evenements.json");
+
+        Files.writeString(fichier, contenu(5000, ""));
+        store.sauvegarder(fichier);
+        long premiereEcriture = store.getDernierOctetsEcrits();
+        assertTrue(premiereEcriture >= Files.size(fichier));
+
+        // Une modification locale ne réécrit que les chunks qui l'entourent
+        Files.writeString(fichier, contenu(5000, " (modifié)"));
+        store.sauvegarder(fichier);
+        assertTrue(store.getDernierChunksReutilises() > 0);
+        assertTrue(store.getDernierOctetsEcrits() < premiereEcriture / 4);
+
+        // Un fichier inchangé ne crée pas de nouveau point
+        store.sauvegarder(fichier);
+        assertEquals(0, store.getDernierOctetsEcrits());
+        assertEquals(2, store.lister("evenements.json").size());
+    }
+
+    @Test
+    @DisplayName("Test restauration d'un point de sauvegarde")
+    void testRestauration(@TempDir Path tempDir) throws Exception {
+        BackupStore store = new BackupStore(tempDir.resolve("backups"));
+        Path fichier = tempDir.resolve("users.json");
+
+        byte[] version1 = contenu(2000, "").getBytes(StandardCharsets.UTF_8);
+        Files.write(fichier, version1);
+        store.sauvegarder(fichier);
+        Files.writeString(fichier, contenu(2000, " v2"));
+        store.sauvegarder(fichier);
+
+        List<PointSauvegarde> points = store.lister("users.json");
+        assertEquals(2, points.size());
+        assertEquals(points.get(1).getEmpreinte(), store.dernierPoint("users.json").getEmpreinte());
+
+        Path restaure = tempDir.resolve("restaure.json");
+        store.restaurer(points.get(0), restaure);
+        assertArrayEquals(version1, Files.readAllBytes(restaure));
+    }
+
+    @Test
+    @DisplayName("Test sauvegarde de la génération précédente sous le nom du snapshot")
+    void testSauvegardeGenerationPrecedente(@TempDir Path tempDir) throws Exception {
+        BackupStore store = new BackupStore(tempDir.resolve("backups"));
+        Path precedent = tempDir.resolve("evenements.bin.prev");
+
+        byte[] generation = contenu(2000, "").getBytes(StandardCharsets.UTF_8);
+        Files.write(precedent, generation);
+        store.sauvegarder(precedent, "evenements.bin");
+
+        assertTrue(store.lister("evenements.bin.prev").isEmpty());
+        List<PointSauvegarde> points = store.lister("evenements.bin");
+        assertEquals(1, points.size());
+
+        Path restaure = tempDir.resolve("restaure.bin");
+        store.restaurer(points.get(0), restaure);
+        assertArrayEquals(generation, Files.readAllBytes(restaure));
+    }
+
+    @Test
+    @DisplayName("Test import des copies complètes historiques")
+    void testImportHistorique(@TempDir Path tempDir) throws Exception {
+        Path dossier = tempDir.resolve("backups");
+        Files.createDirectories(dossier);
+        Files.writeString(dossier.resolve("evenements_backup_20250524_151139.json"), contenu(1000, ""));
+        Files.writeString(dossier.resolve("evenements_backup_20250525_090000.json"), contenu(1000, " bis"));
+        Files.writeString(dossier.resolve("notes.txt"), "à conserver");
+
+        BackupStore store = new BackupStore(dossier);
+        assertEquals(2, store.importerSauvegardesHistoriques(dossier));
+
+        assertFalse(Files.exists(dossier.resolve("evenements_backup_20250524_151139.json")));
+        assertTrue(Files.exists(dossier.resolve("notes.txt")));
+
+        List<PointSauvegarde> points = store.lister("evenements.json");
+        assertEquals(2, points.size());
+        assertEquals(LocalDateTime.of(2025, 5, 24, 15, 11, 39), points.get(0).getDate());
+        assertEquals(LocalDateTime.of(2025, 5, 25, 9, 0), store.dernierPoint("evenements.json").getDate());
+
+        Path restaure = tempDir.resolve("restaure.json");
+        store.restaurer(points.get(1), restaure);
+        assertEquals(contenu(1000, " bis"), Files.readString(restaure));
+    }
+
+    @Test
+    @DisplayName("Test rétention grand-père/père/fils et compaction")
+    void testRetentionEtCompaction(@TempDir Path tempDir) throws Exception {
+        Path dossier = tempDir.resolve("backups");
+        Files.createDirectories(dossier);
+        String[] dates = {"20250524_100000", "20250524_110000", "20250524_120000", "20250525_100000", "20250525_110000"};
+        for (int i = 0; i < dates.length; i++) {
+            Files.writeString(dossier.resolve("evenements_backup_" + dates[i] + ".json"), contenu(1000, " version " + i));
+        }
+        BackupStore store = new BackupStore(dossier);
+        store.importerSauvegardesHistoriques(dossier);
+
+        // 2 heures, 2 jours, 1 semaine : 25/05 11h et 10h, 24/05 12h
+        RapportCompaction rapport = store.compacter(new PolitiqueRetention(2, 2, 1, 0));
+        assertEquals(2, rapport.getPointsSupprimes());
+        assertTrue(rapport.getChunksSupprimes() > 0);
+        assertTrue(rapport.getChunksCompresses() > 0);
+        assertTrue(rapport.getOctetsRecuperes() > 0);
+
+        List<PointSauvegarde> points = store.lister("evenements.json");
+        assertEquals(3, points.size());
+        assertEquals(LocalDateTime.of(2025, 5, 24, 12, 0), points.get(0).getDate());
+
+        // Les chunks compressés se restaurent à l'identique
+        Path restaure = tempDir.resolve("restaure.json");
+        store.restaurer(points.get(0), restaure);
+        assertEquals(contenu(1000, " version 2"), Files.readString(restaure));
+
+        // Une seconde passe n'a plus rien à faire
+        assertEquals(0, store.compacter(new PolitiqueRetention(2, 2, 1, 0)).getOctetsRecuperes());
+    }
+
+    @Test
+    @DisplayName("Test rétention et compression des exports complets")
+    void testCompactionExports(@TempDir Path tempDir) throws Exception {
+        Path exports = tempDir.resolve("exports");
+        Files.createDirectories(exports);
+        for (int jour = 1; jour <= 5; jour++) {
+            Files.writeString(exports.resolve("evenements_backup_2025060" + jour + "_020000.json"), contenu(500, ""));
+        }
+
+        BackupStore store = new BackupStore(tempDir.resolve("backups"));
+        RapportCompaction rapport = store.compacterExports(exports, new PolitiqueRetention(0, 3, 0, 0));
+        assertEquals(2, rapport.getExportsSupprimes());
+        assertEquals(2, rapport.getExportsCompresses());
+
+        assertTrue(Files.exists(exports.resolve("evenements_backup_20250605_020000.json")));
+        assertTrue(Files.exists(exports.resolve("evenements_backup_20250604_020000.json.gz")));
+        assertFalse(Files.exists(exports.resolve("evenements_backup_20250602_020000.json")));
+
+        // Les exports déjà compressés restent dans la même série pour la rétention
+        rapport = store.compacterExports(exports, new PolitiqueRetention(0, 2, 0, 0));
+        assertEquals(1, rapport.getExportsSupprimes());
+        assertFalse(Files.exists(exports.resolve("evenements_backup_20250603_020000.json.gz")));
+    }
+}
@@ -0,0 +1,117 @@
+package testsysteme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.gestion.evenements.model.CatalogueInstantane;
+import com.gestion.evenements.model.CopyOnWriteEvenementStore;
+import com.gestion.evenements.model.Evenement;
+import com.gestion.evenements.model.evenementparticulier.Conference;
+import com.gestion.evenements.util.MapPersistante;
+
+public class CatalogueInstantaneTest {
+
+    private Evenement evenement(String id) {
+        return new Conference(id, "Conference " + id, LocalDateTime.of(2030, 1, 1, 9, 0), "Centre", 50, "Theme");
+    }
+
+    @Test
+    @DisplayName("Test map persistante : équivalente à HashMap, anciennes versions intactes")
+    void testMapPersistante() {
+        Random aleatoire = new Random(42);
+        Map<String, Integer> reference = new HashMap<>();
+        MapPersistante<String, Integer> map = MapPersistante.vide();
+        // "Aa" et "BB" ont le même hashCode : nœud de collision
+        List<String> cles = new ArrayList<>(List.of("Aa", "BB", "AaAa", "BBBB", "AaBB"));
+        for (int i = 0; i < 2_000; i++) {
+            cles.add("EVT" + i);
+        }
+
+        MapPersistante<String, Integer> versionIntermediaire = null;
+        for (int i = 0; i < 20_000; i++) {
+            String cle = cles.get(aleatoire.nextInt(cles.size()));
+            if (aleatoire.nextInt(3) == 0) {
+                reference.remove(cle);
+                map = map.sans(cle);
+            } else {
+                reference.put(cle, i);
+                map = map.avec(cle, i);
+            }
+            if (i == 10_000) {
+                versionIntermediaire = map;
+            }
+        }
+
+        assertEquals(reference.size(), map.taille());
+        Map<String, Integer> parcourue = new HashMap<>();
+        map.forEach(entree -> parcourue.put(entree.getKey(), entree.getValue()));
+        assertEquals(reference, parcourue);
+        for (String cle : cles) {
+            assertEquals(reference.get(cle), map.get(cle));
+        }
+        assertSame(map, map.sans("ABSENTE"));
+
+        // La version intermédiaire n'a pas été touchée par les 10 000 opérations suivantes
+        int taille = 0;
+        for (Map.Entry<String, Integer> entree : versionIntermediaire) {
+            assertTrue(entree.getValue() <= 10_000);
+            taille++;
+        }
+        assertEquals(versionIntermediaire.taille(), taille);
+    }
+
+    @Test
+    @DisplayName("Test instantanés du catalogue : O(1), stables et versionnés")
+    void testInstantanes() throws Exception {
+        CopyOnWriteEvenementStore store = new CopyOnWriteEvenementStore();
+        for (int i = 0; i < 100; i++) {
+            store.ajouter(evenement("E" + i));
+        }
+        CatalogueInstantane avant = store.instantane();
+        assertSame(avant, store.instantane());
+        assertFalse(store.ajouterSiAbsent(evenement("E0")));
+
+        store.supprimer("E0");
+        store.vueMap().put("NOUVEAU", evenement("NOUVEAU"));
+        CatalogueInstantane apres = store.instantane();
+
+        assertEquals(100, avant.size());
+        assertTrue(avant.containsKey("E0"));
+        assertNull(avant.get("NOUVEAU"));
+        assertEquals(100, apres.size());
+        assertTrue(apres.getVersion() > avant.getVersion());
+        assertThrows(UnsupportedOperationException.class, () -> apres.put("X", evenement("X")));
+
+        // Parcours de la vue pendant des écritures concurrentes : aucune ConcurrentModificationException
+        Thread ecrivain = new Thread(() -> {
+            for (int i = 0; i < 5_000; i++) {
+                store.ajouter(evenement("C" + i));
+                store.supprimer("C" + (i - 1));
+            }
+        });
+        ecrivain.start();
+        while (ecrivain.isAlive()) {
+            int compte = 0;
+            for (Evenement evenement : store.vueMap().values()) {
+                compte += evenement != null ? 1 : 0;
+            }
+            assertTrue(compte >= 100);
+        }
+        ecrivain.join();
+        assertEquals(101, store.taille());
+    }
+}
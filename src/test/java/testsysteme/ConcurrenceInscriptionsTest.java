@@ -0,0 +1,260 @@
+package testsysteme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.gestion.evenements.exception.CapaciteMaxAtteinteException;
+import com.gestion.evenements.model.Evenement;
+import com.gestion.evenements.model.GestionEvenements;
+import com.gestion.evenements.model.Participant;
+import com.gestion.evenements.model.VerrousEvenements;
+import com.gestion.evenements.model.evenementparticulier.Concert;
+import com.gestion.evenements.serialization.CoordinateurExport;
+import com.gestion.evenements.util.DataSynchronizer;
+
+public class ConcurrenceInscriptionsTest {
+
+    private static final int THREADS = 16;
+
+    @Test
+    @DisplayName("Test aucune survente sous des milliers d'inscriptions concurrentes")
+    void testAucuneSurvente() throws Exception {
+        int capacite = 500;
+        int demandes = 5_000;
+        Evenement concert = new Concert("ZENITH", "Concert", LocalDateTime.of(2030, 6, 21, 20, 0),
+            "Zénith", capacite, "Artiste", "Rock");
+        AtomicInteger notifications = new AtomicInteger();
+        concert.ajouterObservateur(message -> notifications.incrementAndGet());
+
+        AtomicInteger acceptees = new AtomicInteger();
+        AtomicInteger refusees = new AtomicInteger();
+        CountDownLatch depart = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> taches = new ArrayList<>();
+            for (int i = 0; i < demandes; i++) {
+                Participant participant = new Participant("P" + i, "Participant " + i, "p" + i + "@test.com");
+                taches.add(pool.submit(() -> {
+                    depart.await();
+                    try {
+                        concert.ajouterParticipant(participant);
+                        acceptees.incrementAndGet();
+                    } catch (CapaciteMaxAtteinteException e) {
+                        refusees.incrementAndGet();
+                    }
+                    // Lectures concurrentes des écritures
+                    concert.getNombreParticipants();
+                    return null;
+                }));
+            }
+            depart.countDown();
+            for (Future<?> tache : taches) {
+                tache.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(capacite, acceptees.get());
+        assertEquals(demandes - capacite, refusees.get());
+        assertEquals(capacite, concert.getNombreParticipants());
+        Set<String> ids = new HashSet<>();
+        for (Participant participant : concert.getParticipants()) {
+            assertTrue(ids.add(participant.getId()), "Inscription en double: " + participant.getId());
+        }
+        assertEquals(capacite, notifications.get());
+    }
+
+    @Test
+    @DisplayName("Test inscriptions concurrentes par le synchroniseur : journalisées sans survente")
+    void testInscriptionsParLeSynchroniseur() throws Exception {
+        DataSynchronizer synchroniseur = DataSynchronizer.getInstance();
+        int capacite = 500;
+        int demandes = 5_000;
+        String id = "STRESS_" + System.nanoTime();
+        Evenement concert = new Concert(id, "Concert", LocalDateTime.of(2030, 6, 21, 20, 0),
+            "Zénith", capacite, "Artiste", "Rock");
+        synchroniseur.ajouterEvenementAvecSync(concert);
+
+        AtomicInteger acceptees = new AtomicInteger();
+        AtomicInteger refusees = new AtomicInteger();
+        CountDownLatch depart = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> taches = new ArrayList<>();
+            for (int i = 0; i < demandes; i++) {
+                Participant participant = new Participant(id + "-P" + i, "Participant " + i, "p" + i + "@test.com");
+                taches.add(pool.submit(() -> {
+                    depart.await();
+                    try {
+                        if (synchroniseur.inscrireParticipantAvecSync(concert, participant)) {
+                            acceptees.incrementAndGet();
+                        }
+                    } catch (CapaciteMaxAtteinteException e) {
+                        refusees.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            depart.countDown();
+            for (Future<?> tache : taches) {
+                tache.get(60, TimeUnit.SECONDS);
+            }
+
+            assertEquals(capacite, acceptees.get());
+            assertEquals(demandes - capacite, refusees.get());
+            assertEquals(capacite, concert.getNombreParticipants());
+            assertEquals(capacite, concert.getPlacesReservees());
+            Set<String> ids = new HashSet<>();
+            for (Participant participant : concert.getParticipants()) {
+                assertTrue(ids.add(participant.getId()), "Inscription en double: " + participant.getId());
+            }
+            // Désinscriptions concurrentes : chaque place est rendue une seule fois
+            List<Future<?>> retraits = new ArrayList<>();
+            for (Participant participant : concert.getParticipants().subList(0, 100)) {
+                retraits.add(pool.submit(() -> synchroniseur.desinscrireParticipantAvecSync(concert, participant)));
+                retraits.add(pool.submit(() -> synchroniseur.desinscrireParticipantAvecSync(concert, participant)));
+            }
+            for (Future<?> retrait : retraits) {
+                retrait.get(60, TimeUnit.SECONDS);
+            }
+            assertEquals(capacite - 100, concert.getNombreParticipants());
+            assertEquals(100, concert.getPlacesDisponibles());
+        } finally {
+            pool.shutdownNow();
+            synchroniseur.supprimerEvenementAvecSync(id);
+        }
+    }
+
+    @Test
+    @DisplayName("Test compteur de places : réservations et libérations concurrentes")
+    void testCompteurPlaces() throws Exception {
+        int capacite = 100;
+        Evenement concert = new Concert("ZENITH", "Concert", LocalDateTime.of(2030, 6, 21, 20, 0),
+            "Zénith", capacite, "Artiste", "Rock");
+        AtomicInteger depassements = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> taches = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int numero = t;
+                taches.add(pool.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        Participant participant = new Participant("P" + numero + "-" + i, "Participant", "p@test.com");
+                        try {
+                            concert.ajouterParticipant(participant);
+                            if (concert.getPlacesReservees() > capacite) {
+                                depassements.incrementAndGet();
+                            }
+                            // Une inscription sur deux est annulée aussitôt : la place est rendue
+                            if (i % 2 == 0) {
+                                concert.retirerParticipant(participant);
+                            }
+                        } catch (CapaciteMaxAtteinteException e) {
+                            // complet
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tache : taches) {
+                tache.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(0, depassements.get());
+        assertEquals(capacite, concert.getNombreParticipants());
+        assertEquals(capacite, concert.getPlacesReservees());
+        assertEquals(0, concert.getPlacesDisponibles());
+
+        // Rejeu du journal : idempotent, sans contrôle de capacité
+        Participant inscrit = concert.getParticipants().get(0);
+        assertFalse(concert.restaurerInscription(inscrit));
+        assertTrue(concert.restaurerDesinscription(inscrit));
+        assertEquals(1, concert.getPlacesDisponibles());
+        concert.setParticipants(new ArrayList<>());
+        assertEquals(capacite, concert.getPlacesDisponibles());
+    }
+
+    @Test
+    @DisplayName("Test capture pour export pendant des inscriptions concurrentes")
+    void testCapturePendantInscriptions() throws Exception {
+        Evenement concert = new Concert("ZENITH", "Concert", LocalDateTime.of(2030, 6, 21, 20, 0),
+            "Zénith", 20_000, "Artiste", "Rock");
+        Map<String, Evenement> catalogue = Map.of(concert.getId(), concert);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> taches = new ArrayList<>();
+            for (int t = 0; t < THREADS - 1; t++) {
+                int numero = t;
+                taches.add(pool.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        concert.ajouterParticipant(new Participant("P" + numero + "-" + i, "Participant", "p@test.com"));
+                    }
+                    return null;
+                }));
+            }
+            // Les captures ne lèvent jamais de ConcurrentModificationException
+            for (int i = 0; i < 200; i++) {
+                int avant = concert.getNombreParticipants();
+                Evenement copie = CoordinateurExport.capturer(catalogue).get("ZENITH");
+                assertTrue(copie.getNombreParticipants() >= avant);
+            }
+            for (Future<?> tache : taches) {
+                tache.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(15_000, CoordinateurExport.capturer(catalogue).get("ZENITH").getNombreParticipants());
+    }
+
+    @Test
+    @DisplayName("Test singleton unique sous accès concurrent et verrous répartis")
+    void testSingletonEtVerrous() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<GestionEvenements>> instances = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                instances.add(pool.submit(GestionEvenements::getInstance));
+            }
+            for (Future<GestionEvenements> instance : instances) {
+                assertSame(GestionEvenements.getInstance(), instance.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        VerrousEvenements verrous = new VerrousEvenements(50);
+        assertEquals(64, verrous.getNombreSegments());
+        assertSame(verrous.pour("CONF1"), verrous.pour(new String("CONF1")));
+        Set<Object> distincts = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            distincts.add(verrous.pour("EVT" + i));
+        }
+        // Les identifiants se répartissent sur tous les segments
+        assertEquals(64, distincts.size());
+        assertNotSame(verrous.pour("EVT1"), new VerrousEvenements(50).pour("EVT1"));
+    }
+}
@@ -0,0 +1,172 @@
+package testsysteme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestion.evenements.auth.User;
+import com.gestion.evenements.auth.UserRole;
+import com.gestion.evenements.model.Evenement;
+import com.gestion.evenements.model.Participant;
+import com.gestion.evenements.model.evenementparticulier.Concert;
+import com.gestion.evenements.model.evenementparticulier.Conference;
+import com.gestion.evenements.serialization.CoordinateurExport;
+import com.gestion.evenements.serialization.SerializationManager;
+import com.gestion.evenements.serialization.XmlStreamExporter;
+import com.gestion.evenements.serialization.export.ExportEnFlux;
+import com.gestion.evenements.serialization.export.FormatExport;
+import com.gestion.evenements.serialization.export.TacheExport;
+
+public class ExportEnFluxTest {
+
+    private Evenement conference(String id, int participants) {
+        Conference conference = new Conference(id, "Conf, \"spéciale\"", LocalDateTime.of(2030, 5, 1, 9, 0),
+            "Paris", participants + 10, "IA");
+        List<Participant> liste = new ArrayList<>();
+        for (int i = 0; i < participants; i++) {
+            liste.add(new Participant(id + "-P" + i, "Participant " + i, "p" + i + "@test.com"));
+        }
+        conference.setParticipants(liste);
+        return conference;
+    }
+
+    @Test
+    @DisplayName("Test export CSV : en-tête, échappement et progression")
+    void testExportCsv(@TempDir Path dossier) throws Exception {
+        Evenement conference = conference("C1", 1_200);
+        Evenement concert = new Concert("K1", "Concert", LocalDateTime.of(2030, 6, 1, 20, 0), "Lyon", 50, "Artiste", "Jazz");
+        List<Long> progression = new CopyOnWriteArrayList<>();
+
+        Path fichier = dossier.resolve("evenements.csv");
+        TacheExport tache = ExportEnFlux.exporterEvenements(List.of(conference, concert), fichier, FormatExport.CSV, null);
+        assertEquals(2L, tache.getResultat().get(10, TimeUnit.SECONDS));
+        List<String> lignes = Files.readAllLines(fichier, StandardCharsets.UTF_8);
+        assertEquals(3, lignes.size());
+        assertTrue(lignes.get(0).startsWith("id,type,nom,date,lieu"));
+        assertTrue(lignes.get(1).startsWith("C1,Conference,\"Conf, \"\"spéciale\"\"\",2030-05-01T09:00,Paris,1210,1200,IA,,"));
+        assertTrue(lignes.get(2).endsWith(",Artiste,Jazz"));
+
+        Path participants = dossier.resolve("participants.csv");
+        tache = ExportEnFlux.exporterParticipants(List.of(conference, concert), participants, FormatExport.CSV,
+            (ecrites, totales) -> progression.add(ecrites));
+        assertEquals(1_200L, tache.getResultat().get(10, TimeUnit.SECONDS));
+        assertEquals(1_201, Files.readAllLines(participants, StandardCharsets.UTF_8).size());
+        assertEquals(List.of(500L, 1_000L, 1_200L), progression);
+        assertFalse(Files.exists(dossier.resolve("participants.csv.tmp")));
+
+        // Aperçu : chemin, une ligne blanche puis les premières lignes seulement
+        String[] apercu = ExportEnFlux.lireApercu(participants).split("\n");
+        assertEquals(participants.toString(), apercu[0]);
+        assertEquals(2 + ExportEnFlux.LIGNES_APERCU + 1, apercu.length);
+        assertEquals("...", apercu[apercu.length - 1]);
+    }
+
+    @Test
+    @DisplayName("Test export NDJSON des utilisateurs sans mot de passe")
+    void testExportNdjson(@TempDir Path dossier) throws Exception {
+        User user = new User("U1", "Alice", "alice@test.com", "secret", UserRole.ORGANISATEUR);
+        Path fichier = dossier.resolve("utilisateurs.ndjson");
+
+        TacheExport tache = ExportEnFlux.exporterUtilisateurs(List.of(user), fichier, FormatExport.NDJSON, null);
+        assertEquals(1L, tache.getResultat().get(10, TimeUnit.SECONDS));
+        List<String> lignes = Files.readAllLines(fichier, StandardCharsets.UTF_8);
+        assertEquals(1, lignes.size());
+        JsonNode ligne = new ObjectMapper().readTree(lignes.get(0));
+        assertEquals("alice@test.com", ligne.get("email").asText());
+        assertEquals("ORGANISATEUR", ligne.get("role").asText());
+        assertTrue(ligne.get("actif").isBoolean());
+        assertFalse(lignes.get(0).contains("secret"));
+    }
+
+    @Test
+    @DisplayName("Test annulation d'un export : aucun fichier laissé")
+    void testAnnulation(@TempDir Path dossier) throws Exception {
+        Evenement conference = conference("C2", 100_000);
+        Path fichier = dossier.resolve("participants.ndjson");
+        AtomicReference<TacheExport> reference = new AtomicReference<>();
+        Object verrou = new Object();
+
+        TacheExport tache;
+        synchronized (verrou) {
+            tache = ExportEnFlux.exporterParticipants(List.of(conference), fichier, FormatExport.NDJSON,
+                (ecrites, totales) -> {
+                    synchronized (verrou) {
+                        reference.get().annuler();
+                    }
+                });
+            reference.set(tache);
+        }
+
+        assertThrows(CancellationException.class, () -> tache.getResultat().get(10, TimeUnit.SECONDS));
+        assertTrue(tache.estAnnulee());
+        assertFalse(Files.exists(fichier));
+        assertFalse(Files.exists(dossier.resolve("participants.ndjson.tmp")));
+    }
+
+    @Test
+    @DisplayName("Test export parallèle JSON/XML depuis un instantané, sous mutations concurrentes")
+    void testExportParallele(@TempDir Path dossier) throws Exception {
+        Map<String, Evenement> catalogue = new LinkedHashMap<>();
+        for (int i = 0; i < 50; i++) {
+            Evenement conference = conference("E" + i, 200);
+            catalogue.put(conference.getId(), conference);
+        }
+
+        Map<String, Evenement> instantane = CoordinateurExport.capturer(catalogue);
+        catalogue.get("E0").setParticipants(new ArrayList<>());
+        assertEquals(200, instantane.get("E0").getNombreParticipants());
+        assertThrows(UnsupportedOperationException.class, () -> instantane.remove("E1"));
+
+        // Un thread inscrit et désinscrit en boucle pendant les exports
+        AtomicBoolean arret = new AtomicBoolean();
+        Thread mutateur = new Thread(() -> {
+            Evenement cible = catalogue.get("E1");
+            Participant participant = new Participant("MUT", "Mutant", "mut@test.com");
+            while (!arret.get()) {
+                cible.restaurerInscription(participant);
+                cible.restaurerDesinscription(participant);
+            }
+        });
+        mutateur.start();
+        try {
+            CoordinateurExport coordinateur = new CoordinateurExport(2)
+                .ajouterFormat("xml", XmlStreamExporter::ecrireEvenements)
+                .ajouterFormat("csv", (evenements, sortie) -> sortie.write(
+                    String.join("\n", evenements.keySet()).getBytes(StandardCharsets.UTF_8)));
+            for (int i = 0; i < 20; i++) {
+                Map<String, Path> fichiers = coordinateur.exporter(catalogue, dossier.resolve("catalogue_" + i).toString());
+                assertEquals(List.of("xml", "csv"), List.copyOf(fichiers.keySet()));
+            }
+            coordinateur.fermer();
+        } finally {
+            arret.set(true);
+            mutateur.join();
+        }
+
+        Map<String, Evenement> relus = SerializationManager.chargerEvenementsXML(dossier.resolve("catalogue_19.xml").toString());
+        assertEquals(50, relus.size());
+        assertEquals(0, relus.get("E0").getNombreParticipants());
+        assertEquals(50, Files.readAllLines(dossier.resolve("catalogue_19.csv")).size());
+    }
+}
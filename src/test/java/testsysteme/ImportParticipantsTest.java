@@ -0,0 +1,132 @@
+package testsysteme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.gestion.evenements.exception.CapaciteMaxAtteinteException;
+import com.gestion.evenements.model.Evenement;
+import com.gestion.evenements.model.Participant;
+import com.gestion.evenements.model.evenementparticulier.Conference;
+import com.gestion.evenements.serialization.importation.ErreurImport;
+import com.gestion.evenements.serialization.importation.ImportParticipantsCsv;
+import com.gestion.evenements.serialization.importation.RapportImport;
+
+public class ImportParticipantsTest {
+
+    private Map<String, List<Participant>> inscrire(Map<Evenement, List<Participant>> lots) {
+        Map<String, List<Participant>> admis = new HashMap<>();
+        for (Map.Entry<Evenement, List<Participant>> lot : lots.entrySet()) {
+            admis.put(lot.getKey().getId(), lot.getKey().ajouterParticipantsDansLaLimite(lot.getValue()));
+        }
+        return admis;
+    }
+
+    @Test
+    @DisplayName("Test import CSV : rapport d'erreurs par ligne et capacité vérifiée une fois")
+    void testImportAvecErreurs(@TempDir Path dossier) throws Exception {
+        Conference grande = new Conference("G1", "Grande", LocalDateTime.of(2030, 1, 1, 9, 0), "Paris", 100, "IA");
+        Conference petite = new Conference("P1", "Petite", LocalDateTime.of(2030, 1, 2, 9, 0), "Lyon", 2, "IA");
+        grande.ajouterParticipant(new Participant("DEJA", "Déjà Là", "deja@test.com"));
+        Map<String, Evenement> catalogue = Map.of("G1", grande, "P1", petite);
+
+        String csv = "evenementId,id,nom,email\r\n"
+            + "G1,,\"Dupont, Jean\",jean@test.com\r\n"      // 2 : valide, id généré
+            + "G1,X2,Marie,pas-un-email\r\n"                // 3 : email invalide
+            + "INCONNU,X3,Paul,paul@test.com\r\n"           // 4 : événement inconnu
+            + "G1,X4,Jean bis,JEAN@test.com\r\n"            // 5 : doublon de la ligne 2
+            + "G1,X5,Autre,deja@test.com\r\n"               // 6 : déjà inscrit
+            + "P1,A,Un,un@test.com\r\n"                     // 7
+            + "P1,B,Deux,deux@test.com\r\n"                 // 8
+            + "P1,C,Trois,trois@test.com\r\n"               // 9 : capacité atteinte
+            + "G1,X6,\"Nom sur\ndeux lignes\",multi@test.com\r\n"  // 10-11 : valide
+            + "G1,X7,Incomplet\r\n";                        // 12 : colonnes manquantes
+
+        AtomicInteger appels = new AtomicInteger();
+        RapportImport rapport = new ImportParticipantsCsv(2).importer(new StringReader(csv), catalogue, lots -> {
+            appels.incrementAndGet();
+            return inscrire(lots);
+        });
+
+        assertEquals(1, appels.get());
+        assertEquals(10, rapport.getLignesLues());
+        assertEquals(4, rapport.getInscrits());
+        assertEquals(2, rapport.getEvenementsModifies());
+        assertEquals(List.of(3L, 4L, 5L, 6L, 9L, 12L),
+            rapport.getErreurs().stream().map(ErreurImport::getLigne).toList());
+        assertEquals("Doublon de la ligne 2", rapport.getErreurs().get(2).getMotif());
+
+        assertEquals(3, grande.getNombreParticipants());
+        assertTrue(grande.estInscrit(new Participant(ImportParticipantsCsv.PREFIXE_ID + "jean@test.com", "", "")));
+        assertEquals("Dupont, Jean", grande.getParticipants().get(1).getNom());
+        assertEquals(2, petite.getNombreParticipants());
+
+        Path fichier = dossier.resolve("erreurs.csv");
+        rapport.ecrireErreurs(fichier);
+        assertEquals(7, Files.readAllLines(fichier).size());
+    }
+
+    @Test
+    @DisplayName("Test import de 30 000 lignes validées en parallèle")
+    void testImportVolumineux() throws Exception {
+        Conference conference = new Conference("BIG", "Salon", LocalDateTime.of(2030, 3, 1, 9, 0), "Lille", 25_000, "Salon");
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 30_000; i++) {
+            csv.append("BIG,P").append(i).append(",Participant ").append(i)
+               .append(",p").append(i).append("@test.com\n");
+        }
+
+        RapportImport rapport = new ImportParticipantsCsv(4).importer(new StringReader(csv.toString()),
+            Map.of("BIG", conference), this::inscrire);
+
+        assertEquals(30_000, rapport.getLignesLues());
+        assertEquals(25_000, rapport.getInscrits());
+        assertEquals(5_000, rapport.getErreurs().size());
+        assertEquals(25_001, rapport.getErreurs().get(0).getLigne());
+        assertEquals(25_000, conference.getNombreParticipants());
+        assertEquals("P0", conference.getParticipants().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Test import : lot admis en partie quand des places sont prises pendant l'import")
+    void testAdmissionPartielle() throws Exception {
+        Conference conference = new Conference("C1", "Atelier", LocalDateTime.of(2030, 4, 1, 9, 0), "Nantes", 4, "IA");
+        String csv = "C1,A,Un,un@test.com\n"
+            + "C1,B,Deux,deux@test.com\n"
+            + "C1,C,Trois,trois@test.com\n"
+            + "C1,D,Quatre,quatre@test.com\n";
+
+        // Entre la vérification et l'inscription : une place prise, et B inscrit par ailleurs
+        RapportImport rapport = new ImportParticipantsCsv(1).importer(new StringReader(csv),
+            Map.of("C1", conference), lots -> {
+                try {
+                    conference.ajouterParticipant(new Participant("AUTRE", "Autre", "autre@test.com"));
+                    conference.ajouterParticipant(new Participant("B", "Deux", "deux@test.com"));
+                } catch (CapaciteMaxAtteinteException e) {
+                    throw new AssertionError(e);
+                }
+                return inscrire(lots);
+            });
+
+        assertEquals(2, rapport.getInscrits());
+        assertEquals(1, rapport.getEvenementsModifies());
+        assertEquals(List.of(2L, 4L), rapport.getErreurs().stream().map(ErreurImport::getLigne).toList());
+        assertEquals("Déjà inscrit à l'événement C1", rapport.getErreurs().get(0).getMotif());
+        assertEquals("Capacité maximale atteinte pour l'événement C1", rapport.getErreurs().get(1).getMotif());
+        assertEquals(4, conference.getNombreParticipants());
+        assertEquals(0, conference.getPlacesDisponibles());
+        assertTrue(conference.estInscrit(new Participant("C", "", "")));
+    }
+}
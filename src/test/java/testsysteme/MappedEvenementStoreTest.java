@@ -0,0 +1,152 @@
+package testsysteme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.gestion.evenements.model.CatalogueInstantane;
+import com.gestion.evenements.model.Evenement;
+import com.gestion.evenements.model.GestionEvenements;
+import com.gestion.evenements.model.HashMapEvenementStore;
+import com.gestion.evenements.model.Participant;
+import com.gestion.evenements.model.evenementparticulier.Concert;
+import com.gestion.evenements.model.evenementparticulier.Conference;
+import com.gestion.evenements.serialization.MappedEvenementStore;
+import com.gestion.evenements.serialization.SerializationManager;
+
+public class MappedEvenementStoreTest {
+
+    private File creerSnapshot(File dossier, int nombre) throws Exception {
+        Map<String, Evenement> evenements = new LinkedHashMap<>();
+        for (int i = 0; i < nombre; i++) {
+            Evenement evenement = i % 2 == 0
+                ? new Conference("CONF" + i, "Conference " + i, LocalDateTime.of(2030, 1, 1, 9, 0).plusDays(i),
+                    "Centre " + (i % 3), 20, "Theme")
+                : new Concert("CONC" + i, "Concert " + i, LocalDateTime.of(2030, 1, 1, 20, 0).plusDays(i),
+                    "Salle", 20, "Artiste " + i, "Jazz");
+            for (int j = 0; j < 10; j++) {
+                evenement.ajouterParticipant(new Participant("P" + i + "_" + j, "Participant " + j, "p" + j + "@test.com"));
+            }
+            evenements.put(evenement.getId(), evenement);
+        }
+        File fichier = new File(dossier, "catalogue.bin");
+        SerializationManager.sauvegarderEvenementsBinaire(evenements, fichier.getPath());
+        return fichier;
+    }
+
+    @Test
+    @DisplayName("Test recherche par index sans désérialiser le catalogue")
+    void testRechercheParIndex(@TempDir File tempDir) throws Exception {
+        File fichier = creerSnapshot(tempDir, 100);
+        // Segments volontairement petits pour couvrir les changements de segment
+        MappedEvenementStore store = MappedEvenementStore.ouvrir(fichier.getPath(), 2048);
+
+        assertTrue(store.getNombreSegments() > 1);
+        assertEquals(100, store.taille());
+        assertEquals(0, store.getNombreDecodes());
+
+        Evenement concert = store.rechercher("CONC77");
+        assertEquals("Artiste 77", ((Concert) concert).getArtiste());
+        assertEquals(LocalDateTime.of(2030, 1, 1, 20, 0).plusDays(77), concert.getDate());
+        assertEquals(1, store.getNombreDecodes());
+        // Même instance à chaque recherche : les modifications sont conservées
+        assertTrue(concert == store.rechercher("CONC77"));
+
+        // Participants décodés au premier accès, nombre connu avant
+        assertEquals(10, concert.getParticipants().size());
+        assertEquals("P77_3", concert.getParticipants().get(3).getId());
+
+        assertNull(store.rechercher("INCONNU"));
+        store.fermer();
+    }
+
+    @Test
+    @DisplayName("Test instantané et compteurs du catalogue mappé sans décodage")
+    void testInstantaneEtCompteurs(@TempDir File tempDir) throws Exception {
+        File fichier = creerSnapshot(tempDir, 30);
+        MappedEvenementStore store = MappedEvenementStore.ouvrir(fichier.getPath(), 2048);
+
+        CatalogueInstantane avant = store.instantane();
+        assertEquals(30, avant.size());
+        assertTrue(avant.containsKey("CONF4"));
+        assertEquals(0, store.getNombreDecodes());
+
+        store.supprimer("CONF4");
+        store.ajouter(new Conference("NEW1", "Nouvelle", LocalDateTime.of(2031, 1, 1, 9, 0), "Centre 0", 5, "Theme"));
+        store.rechercher("CONC5").ajouterParticipant(new Participant("PX", "Nouveau", "px@test.com"));
+        int decodes = store.getNombreDecodes();
+
+        // L'instantané garde la structure du moment où il a été pris
+        assertEquals(30, avant.size());
+        assertFalse(avant.containsKey("NEW1"));
+        assertEquals("Conference 4", avant.get("CONF4").getNom());
+        assertFalse(store.contient("CONF4"));
+        CatalogueInstantane apres = store.instantane();
+        assertEquals(30, apres.size());
+        assertTrue(apres.containsKey("NEW1"));
+        assertFalse(apres.containsKey("CONF4"));
+
+        // Compteurs lus dans les enregistrements : aucun événement supplémentaire décodé
+        MappedEvenementStore.Compteurs compteurs = store.compter(LocalDateTime.of(2030, 1, 15, 0, 0));
+        assertEquals(decodes, store.getNombreDecodes());
+        assertEquals(30, compteurs.getEvenements());
+        assertEquals(17, compteurs.getEvenementsAVenir());
+        assertEquals(291, compteurs.getInscriptions());
+        assertEquals(291, compteurs.getParticipantsDistincts());
+
+        int parcourus = 0;
+        for (String cle : apres.keySet()) {
+            assertFalse(cle.equals("CONF4"));
+            parcourus++;
+        }
+        assertEquals(30, parcourus);
+        store.fermer();
+    }
+
+    @Test
+    @DisplayName("Test bascule de GestionEvenements sur le catalogue mappé")
+    void testBasculeGestionEvenements(@TempDir File tempDir) throws Exception {
+        File fichier = creerSnapshot(tempDir, 20);
+        GestionEvenements gestion = GestionEvenements.getInstance();
+        MappedEvenementStore store = MappedEvenementStore.ouvrir(fichier.getPath(), 1024);
+        gestion.setStore(store);
+        try {
+            assertEquals("Conference 4", gestion.rechercherEvenement("CONF4").getNom());
+
+            gestion.supprimerEvenement("CONF4");
+            assertNull(gestion.rechercherEvenement("CONF4"));
+            gestion.ajouterEvenement(new Conference("NEW1", "Nouvelle", LocalDateTime.of(2031, 1, 1, 9, 0),
+                "Centre 0", 5, "Theme"));
+            assertEquals(20, gestion.getEvenements().size());
+            assertFalse(gestion.getEvenements().containsKey("CONF4"));
+
+            // La vue Map itère le fichier puis les ajouts
+            int parcourus = 0;
+            for (Evenement evenement : gestion.getEvenements().values()) {
+                assertFalse(evenement.getId().equals("CONF4"));
+                parcourus++;
+            }
+            assertEquals(20, parcourus);
+            assertEquals(5, gestion.rechercherParLieu("Centre 0").size());
+
+            // Un snapshot du catalogue mappé se relit à l'identique
+            File copie = new File(tempDir, "copie.bin");
+            SerializationManager.sauvegarderEvenementsBinaire(gestion.getEvenements(), copie.getPath());
+            Map<String, Evenement> relu = SerializationManager.chargerEvenementsBinaire(copie.getPath());
+            assertEquals(20, relu.size());
+            assertEquals(10, relu.get("CONC5").getParticipants().size());
+        } finally {
+            gestion.setStore(new HashMapEvenementStore());
+        }
+    }
+}
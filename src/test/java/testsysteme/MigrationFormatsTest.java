@@ -0,0 +1,203 @@
+package testsysteme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.gestion.evenements.auth.User;
+import com.gestion.evenements.model.Evenement;
+import com.gestion.evenements.model.RegistreParticipants;
+import com.gestion.evenements.model.evenementparticulier.Conference;
+import com.gestion.evenements.serialization.BinarySnapshotCodec;
+import com.gestion.evenements.serialization.SerializationManager;
+import com.gestion.evenements.serialization.backup.BackupStore;
+import com.gestion.evenements.serialization.backup.PointSauvegarde;
+import com.gestion.evenements.serialization.migration.MigrateurFormats;
+import com.gestion.evenements.serialization.migration.RapportMigration;
+import com.gestion.evenements.serialization.migration.ResultatMigration;
+
+public class MigrationFormatsTest {
+
+    // Format version 1 : pas d'en-tête, identifiant et participants absents des enregistrements
+    private static final String EVENEMENTS_V1 = "{\n"
+        + "  \"CONF1\": {\"type\": \"conference\", \"nom\": \"Conf\", \"lieu\": \"Paris\", \"capaciteMax\": 10, \"theme\": \"IA\"},\n"
+        + "  \"CONC1\": {\"type\": \"concert\", \"nom\": \"Concert\", \"lieu\": \"Lyon\", \"capaciteMax\": 50, \"participants\": null}\n"
+        + "}\n";
+
+    private static final String UTILISATEURS_V1 = "{\n"
+        + "  \"alice@test.com\": {\"id\": \"U1\", \"nom\": \"Alice\", \"motDePasse\": \"secret\", \"role\": \"PARTICIPANT\"}\n"
+        + "}\n";
+
+    private static final String XML_V1 = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+        + "<evenements count=\"1\">\n"
+        + "  <evenement id=\"CONF1\" type=\"conference\">\n"
+        + "    <nom>Conf</nom>\n"
+        + "    <date>2030-01-01T10:00:00</date>\n"
+        + "    <capaciteMax>10</capaciteMax>\n"
+        + "    <participants count=\"0\"></participants>\n"
+        + "    <theme>IA</theme>\n"
+        + "  </evenement>\n"
+        + "</evenements>\n";
+
+    @Test
+    @DisplayName("Test migration d'un dossier de sauvegardes en version 1")
+    void testMigrationDossier(@TempDir Path tempDir) throws Exception {
+        Path backups = tempDir.resolve("backups");
+        Files.createDirectories(backups.resolve("exports"));
+        Path evenements = backups.resolve("evenements_backup_20240101_120000.json");
+        Path utilisateurs = backups.resolve("utilisateurs_backup_20240101_120000.json");
+        Path xml = backups.resolve("exports").resolve("evenements_20240101.xml");
+        Path notes = backups.resolve("notes.txt");
+        Files.writeString(evenements, EVENEMENTS_V1, StandardCharsets.UTF_8);
+        Files.writeString(utilisateurs, UTILISATEURS_V1, StandardCharsets.UTF_8);
+        Files.writeString(xml, XML_V1, StandardCharsets.UTF_8);
+        Files.writeString(notes, "texte libre", StandardCharsets.UTF_8);
+
+        // Un point du stockage dédupliqué au format version 1
+        Path source = tempDir.resolve("evenements.json");
+        Files.writeString(source, EVENEMENTS_V1, StandardCharsets.UTF_8);
+        PointSauvegarde point = new BackupStore(backups).sauvegarder(source);
+
+        RapportMigration rapport = new MigrateurFormats(4).migrerDossier(backups);
+        assertTrue(rapport.getErreurs().isEmpty(), rapport.getErreurs().toString());
+        assertEquals(3, rapport.getMigres());
+        assertEquals(1, rapport.getIgnores());
+        assertEquals(1, rapport.getPointsMigres());
+
+        // Les fichiers migrés portent l'en-tête et les enregistrements complétés
+        assertTrue(Files.readString(evenements).contains("\"_format\""));
+        Map<String, Evenement> charges = SerializationManager.chargerEvenementsJSON(evenements.toString());
+        assertEquals(2, charges.size());
+        assertEquals("CONF1", charges.get("CONF1").getId());
+        assertEquals(0, charges.get("CONC1").getParticipants().size());
+
+        Map<String, User> comptes = SerializationManager.chargerUtilisateursJSON(utilisateurs.toString());
+        assertEquals("alice@test.com", comptes.get("alice@test.com").getEmail());
+
+        assertTrue(Files.readString(xml).contains("version=\"2\""));
+        assertEquals(1, SerializationManager.chargerEvenementsXML(xml.toString()).size());
+        assertEquals("texte libre", Files.readString(notes));
+
+        // Le point garde sa date et son manifeste, avec le contenu migré
+        List<PointSauvegarde> points = new BackupStore(backups).lister("evenements.json");
+        assertEquals(1, points.size());
+        assertEquals(point.getManifeste(), points.get(0).getManifeste());
+        assertEquals(point.getDate(), points.get(0).getDate());
+        Path restaure = tempDir.resolve("restaure.json");
+        new BackupStore(backups).restaurer(points.get(0), restaure);
+        assertTrue(Files.readString(restaure).contains("\"_format\""));
+
+        // Une seconde passe ne réécrit rien
+        RapportMigration secondePasse = new MigrateurFormats(2).migrerDossier(backups);
+        assertEquals(0, secondePasse.getMigres());
+        assertEquals(3, secondePasse.getAJour());
+        assertEquals(0, secondePasse.getPointsMigres());
+    }
+
+    @Test
+    @DisplayName("Test migration d'un snapshot binaire en version 1 vers le registre de participants")
+    void testMigrationBinaire(@TempDir Path tempDir) throws Exception {
+        // Version 1 : ni sections ni registre, participants en ligne dans chaque événement
+        ByteArrayOutputStream corps = new ByteArrayOutputStream();
+        corps.write(new byte[] { 'G', 'E', 'V', 'B', 1, 'E' });
+        varint(corps, 2);
+        chaine(corps, "Paris");
+        chaine(corps, "IA");
+        varint(corps, 3);
+        for (int i = 0; i < 3; i++) {
+            ByteArrayOutputStream evenement = new ByteArrayOutputStream();
+            chaine(evenement, "CLE" + i);
+            evenement.write(1); // conférence
+            chaine(evenement, "CONF" + i);
+            chaine(evenement, "Conference " + i);
+            varint(evenement, 1); // date : 0 ns
+            varint(evenement, 2 * LocalDateTime.of(2030, 1, 1 + i, 9, 0).toEpochSecond(ZoneOffset.UTC));
+            varint(evenement, 1); // Paris
+            varint(evenement, 2 * 10);
+            varint(evenement, 2); // IA
+            varint(evenement, 0); // intervenants
+            ByteArrayOutputStream bloc = new ByteArrayOutputStream();
+            varint(bloc, 2 + i);
+            for (int j = 0; j < 2 + i; j++) {
+                chaine(bloc, "P" + j);
+                chaine(bloc, "Participant " + j);
+                chaine(bloc, "p" + j + "@test.com");
+            }
+            varint(evenement, bloc.size());
+            bloc.writeTo(evenement);
+            varint(corps, evenement.size());
+            evenement.writeTo(corps);
+        }
+        Path fichier = tempDir.resolve("evenements.bin");
+        Files.write(fichier, corps.toByteArray());
+
+        assertEquals(ResultatMigration.MIGRE, new MigrateurFormats(1).migrerFichier(fichier));
+        assertEquals(3, BinarySnapshotCodec.versionSnapshot(ByteBuffer.wrap(Files.readAllBytes(fichier))));
+        assertEquals(ResultatMigration.A_JOUR, new MigrateurFormats(1).migrerFichier(fichier));
+
+        RegistreParticipants registre = new RegistreParticipants();
+        Map<String, Evenement> charges = SerializationManager.chargerEvenementsBinaire(fichier.toString(), registre);
+        List<String> ordre = new ArrayList<>();
+        BinarySnapshotCodec.lireEvenements(ByteBuffer.wrap(Files.readAllBytes(fichier)), (cle, evenement) -> ordre.add(cle));
+        assertEquals(List.of("CLE0", "CLE1", "CLE2"), ordre);
+        assertEquals(4, registre.taille());
+        Evenement dernier = charges.get("CLE2");
+        assertEquals("CONF2", dernier.getId());
+        assertEquals(LocalDateTime.of(2030, 1, 3, 9, 0), dernier.getDate());
+        assertEquals("IA", ((Conference) dernier).getTheme());
+        assertEquals(4, dernier.getNombreParticipants());
+        assertEquals("p3@test.com", dernier.getParticipants().get(3).getEmail());
+        assertSame(charges.get("CLE0").getParticipants().get(1), dernier.getParticipants().get(1));
+    }
+
+    private static void varint(ByteArrayOutputStream sortie, long valeur) {
+        while ((valeur & ~0x7FL) != 0) {
+            sortie.write((int) (valeur & 0x7F) | 0x80);
+            valeur >>>= 7;
+        }
+        sortie.write((int) valeur);
+    }
+
+    private static void chaine(ByteArrayOutputStream sortie, String valeur) {
+        byte[] utf8 = valeur.getBytes(StandardCharsets.UTF_8);
+        varint(sortie, utf8.length + 1);
+        sortie.write(utf8, 0, utf8.length);
+    }
+
+    @Test
+    @DisplayName("Test refus d'un fichier écrit par une version plus récente")
+    void testVersionFuture(@TempDir Path tempDir) throws Exception {
+        Path fichier = tempDir.resolve("evenements.json");
+        Files.writeString(fichier, "{\n  \"_format\" : {\"format\":\"evenements\",\"version\":99}\n}\n");
+        assertThrows(IOException.class, () -> SerializationManager.chargerEvenementsJSON(fichier.toString()));
+
+        Path xml = tempDir.resolve("evenements.xml");
+        Files.writeString(xml, "<?xml version=\"1.0\"?><evenements version=\"99\"></evenements>");
+        assertThrows(Exception.class, () -> SerializationManager.chargerEvenementsXML(xml.toString()));
+
+        // Écriture puis relecture dans la version courante
+        Path courant = tempDir.resolve("courant.json");
+        Map<String, Evenement> evenements = SerializationManager.chargerEvenementsJSON(
+            Files.writeString(tempDir.resolve("v1.json"), EVENEMENTS_V1).toString());
+        SerializationManager.sauvegarderEvenementsJSON(evenements, courant.toString());
+        assertTrue(Files.readString(courant).startsWith("{\n  \"_format\""));
+        assertEquals(2, SerializationManager.chargerEvenementsJSON(courant.toString()).size());
+    }
+}
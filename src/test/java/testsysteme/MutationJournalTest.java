@@ -0,0 +1,178 @@
+package testsysteme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.gestion.evenements.model.Participant;
+import com.gestion.evenements.model.evenementparticulier.Concert;
+import com.gestion.evenements.model.evenementparticulier.Conference;
+import com.gestion.evenements.serialization.journal.JournalAcces;
+import com.gestion.evenements.serialization.journal.JournalEntry;
+import com.gestion.evenements.serialization.journal.MutationJournal;
+
+public class MutationJournalTest {
+
+    @Test
+    @DisplayName("Test rejeu du journal dans l'ordre d'écriture")
+    void testRejeuJournal(@TempDir File tempDir) throws Exception {
+        String fichier = new File(tempDir, "evenements.journal").getPath();
+        Conference conference = new Conference("CONF001", "AI Summit",
+            LocalDateTime.of(2030, 1, 15, 9, 0), "Paris", 100, "IA");
+        Participant alice = new Participant("P001", "Alice", "alice@test.com");
+
+        try (MutationJournal journal = new MutationJournal(fichier)) {
+            journal.replay(entree -> { });
+            journal.appendAndWait(JournalEntry.evenementCree(conference));
+            journal.appendAndWait(JournalEntry.participantAjoute("CONF001", alice));
+            journal.appendAndWait(JournalEntry.evenementSupprime("CONC001"));
+        }
+
+        List<JournalEntry> entrees = new ArrayList<>();
+        try (MutationJournal journal = new MutationJournal(fichier)) {
+            assertEquals(3, journal.replay(entrees::add));
+        }
+
+        assertEquals(JournalEntry.TypeMutation.EVENEMENT_CREE, entrees.get(0).getType());
+        assertTrue(entrees.get(0).getEvenement() instanceof Conference);
+        assertEquals("IA", ((Conference) entrees.get(0).getEvenement()).getTheme());
+        assertEquals("alice@test.com", entrees.get(1).getParticipant().getEmail());
+        assertEquals(JournalEntry.TypeMutation.EVENEMENT_SUPPRIME, entrees.get(2).getType());
+        assertTrue(entrees.get(0).getSequence() < entrees.get(2).getSequence());
+    }
+
+    @Test
+    @DisplayName("Test ajouts concurrents pendant la fermeture : aucun futur en suspens")
+    void testAjoutsPendantFermeture(@TempDir File tempDir) throws Exception {
+        String fichier = new File(tempDir, "evenements.journal").getPath();
+        List<CompletableFuture<Long>> futurs = new CopyOnWriteArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            MutationJournal journal = new MutationJournal(fichier);
+            journal.replay(entree -> { });
+            CountDownLatch lances = new CountDownLatch(4);
+            for (int t = 0; t < 4; t++) {
+                int numero = t;
+                pool.submit(() -> {
+                    lances.countDown();
+                    for (int i = 0; i < 2_000; i++) {
+                        futurs.add(journal.append(JournalEntry.participantAjoute("CONF001",
+                            new Participant("P" + numero + "-" + i, "Participant", "p@test.com"))));
+                    }
+                });
+            }
+            lances.await();
+            journal.close();
+        } finally {
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        }
+
+        int durables = 0;
+        for (CompletableFuture<Long> futur : futurs) {
+            try {
+                futur.get(10, TimeUnit.SECONDS);
+                durables++;
+            } catch (ExecutionException e) {
+                // Ajout refusé après la fermeture
+            }
+        }
+        try (MutationJournal journal = new MutationJournal(fichier)) {
+            assertEquals(durables, journal.replay(entree -> { }));
+        }
+    }
+
+    @Test
+    @DisplayName("Test troncature d'une écriture interrompue en fin de journal")
+    void testQueueDechiree(@TempDir File tempDir) throws Exception {
+        File fichier = new File(tempDir, "evenements.journal");
+        Concert concert = new Concert("CONC001", "Rock Festival",
+            LocalDateTime.of(2030, 6, 1, 20, 0), "Lyon", 200, "AC/DC Tribute", "Rock");
+
+        try (MutationJournal journal = new MutationJournal(fichier.getPath())) {
+            journal.replay(entree -> { });
+            journal.appendAndWait(JournalEntry.evenementCree(concert));
+        }
+
+        // Simuler un crash au milieu d'une écriture
+        Files.write(fichier.toPath(), "{\"seq\":2,\"op\":\"EVEN".getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND);
+
+        try (MutationJournal journal = new MutationJournal(fichier.getPath())) {
+            assertEquals(1, journal.replay(entree -> { }));
+            journal.appendAndWait(JournalEntry.evenementSupprime("CONC001"));
+        }
+
+        try (MutationJournal journal = new MutationJournal(fichier.getPath())) {
+            assertEquals(2, journal.replay(entree -> { }));
+        }
+
+        // Dernière entrée complète mais sans fin de ligne : le prochain ajout ne doit pas s'y coller
+        byte[] contenu = Files.readAllBytes(fichier.toPath());
+        Files.write(fichier.toPath(), Arrays.copyOf(contenu, contenu.length - 1));
+        try (MutationJournal journal = new MutationJournal(fichier.getPath())) {
+            assertEquals(2, journal.replay(entree -> { }));
+            journal.appendAndWait(JournalEntry.evenementCree(concert));
+        }
+        try (MutationJournal journal = new MutationJournal(fichier.getPath())) {
+            assertEquals(3, journal.replay(entree -> { }));
+        }
+    }
+
+    @Test
+    @DisplayName("Test journal des accès : rejeu et compaction sans perte")
+    void testJournalAcces(@TempDir File tempDir) throws Exception {
+        String fichier = new File(tempDir, "users.acces.log").getPath();
+        LocalDateTime debut = LocalDateTime.of(2030, 1, 1, 8, 0);
+
+        try (JournalAcces journal = new JournalAcces(fichier)) {
+            for (int i = 0; i < 50; i++) {
+                journal.enregistrer("user" + (i % 5) + "@test.com", debut.plusMinutes(i));
+            }
+        }
+        Files.writeString(new File(fichier).toPath(), "2030-01-01T0", StandardOpenOption.APPEND);
+
+        Map<String, LocalDateTime> persistes = new HashMap<>();
+        try (JournalAcces journal = new JournalAcces(fichier)) {
+            Map<String, LocalDateTime> acces = journal.rejouer();
+            assertEquals(5, acces.size());
+            assertEquals(debut.plusMinutes(49), acces.get("user4@test.com"));
+            // La ligne déchirée a été tronquée : les ajouts suivants restent lisibles
+            journal.enregistrer("user1@test.com", debut.plusHours(1));
+
+            // Une connexion pendant la compaction reste dans le journal
+            assertEquals(5, journal.compacter(lot -> {
+                persistes.putAll(lot);
+                journal.enregistrer("user0@test.com", debut.plusHours(2));
+            }));
+            assertEquals(debut.plusMinutes(45), persistes.get("user0@test.com"));
+            assertEquals(debut.plusHours(1), persistes.get("user1@test.com"));
+            assertEquals(1, journal.getLignesDepuisCompaction());
+        }
+
+        try (JournalAcces journal = new JournalAcces(fichier)) {
+            assertEquals(Map.of("user0@test.com", debut.plusHours(2)), journal.rejouer());
+        }
+    }
+}
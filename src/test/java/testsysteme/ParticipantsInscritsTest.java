@@ -0,0 +1,105 @@
+package testsysteme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.gestion.evenements.model.Evenement;
+import com.gestion.evenements.model.Participant;
+import com.gestion.evenements.model.ParticipantsInscrits;
+import com.gestion.evenements.model.evenementparticulier.Conference;
+
+public class ParticipantsInscritsTest {
+
+    private Participant participant(int i) {
+        return new Participant("P" + i, "Participant " + i, "p" + i + "@test.com");
+    }
+
+    @Test
+    @DisplayName("Test index des participants : ordre d'inscription, doublons refusés")
+    void testIndexOrdonne() {
+        ParticipantsInscrits inscrits = new ParticipantsInscrits();
+        for (int i = 0; i < 10; i++) {
+            assertTrue(inscrits.add(participant(i)));
+        }
+        assertFalse(inscrits.add(new Participant("P3", "Autre nom", "autre@test.com")));
+        assertEquals(10, inscrits.size());
+        assertEquals("Participant 3", inscrits.rechercher("P3").getNom());
+
+        assertTrue(inscrits.remove(participant(4)));
+        assertFalse(inscrits.contains(participant(4)));
+        assertTrue(inscrits.contains(participant(5)));
+        assertEquals("P5", inscrits.get(4).getId());
+        assertEquals(4, inscrits.indexOf(participant(5)));
+
+        // Substitution de l'instance partagée : même position
+        Participant partage = participant(7);
+        inscrits.set(inscrits.indexOf(partage), partage);
+        assertSame(partage, inscrits.get(6));
+
+        Iterator<Participant> iterateur = inscrits.iterator();
+        iterateur.next();
+        iterateur.remove();
+        List<String> ordre = new ArrayList<>();
+        inscrits.forEach(p -> ordre.add(p.getId()));
+        assertEquals(List.of("P1", "P2", "P3", "P5", "P6", "P7", "P8", "P9"), ordre);
+        assertEquals("P1", inscrits.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Test inscription en double sur un événement")
+    void testDoublonsEvenement() throws Exception {
+        Evenement conference = new Conference("CONF1", "Conf", LocalDateTime.of(2030, 1, 1, 9, 0), "Paris", 3, "IA");
+        assertTrue(conference.ajouterParticipant(participant(1)));
+        // Doublon : ni place consommée ni exception de capacité
+        assertFalse(conference.ajouterParticipant(participant(1)));
+        assertEquals(2, conference.getPlacesDisponibles());
+
+        assertEquals(1, conference.ajouterParticipants(List.of(participant(1), participant(2))));
+        assertEquals(1, conference.getPlacesDisponibles());
+        assertTrue(conference.estInscrit(participant(2)));
+
+        // Lot sur un événement presque complet : les déjà inscrits ne réservent pas de place
+        assertEquals(1, conference.ajouterParticipants(List.of(participant(1), participant(2), participant(4))));
+        assertEquals(0, conference.getPlacesDisponibles());
+        assertEquals(0, conference.ajouterParticipants(List.of(participant(4), participant(1))));
+        conference.retirerParticipant(participant(4));
+        assertEquals(1, conference.getPlacesDisponibles());
+
+        // Dans la limite des places : les premiers nouveaux du lot sont admis
+        List<Participant> admis = conference.ajouterParticipantsDansLaLimite(
+            List.of(participant(1), participant(5), participant(6)));
+        assertEquals(List.of(participant(5)), admis);
+        assertEquals(0, conference.getPlacesDisponibles());
+        assertTrue(conference.ajouterParticipantsDansLaLimite(List.of(participant(6))).isEmpty());
+        assertEquals(3, conference.getPlacesReservees());
+        conference.retirerParticipant(participant(5));
+
+        // Remplacement d'instance : même position, aucune place rendue
+        Participant autreId = new Participant("PART_1", "Participant 1", "p1@test.com");
+        Boolean remplace = conference.remplacerParticipant(participant(1), autreId, p -> Boolean.TRUE);
+        assertTrue(remplace);
+        assertEquals("PART_1", conference.lireParticipants(liste -> liste.get(0).getId()));
+        assertEquals(1, conference.getPlacesDisponibles());
+        assertNull(conference.remplacerParticipant(participant(1), autreId, p -> Boolean.TRUE));
+        assertNull(conference.remplacerParticipant(participant(2), autreId, p -> Boolean.TRUE));
+        assertEquals(2, conference.getNombreParticipants());
+
+        // Une liste ordinaire est indexée et dédoublonnée
+        conference.setParticipants(new ArrayList<>(List.of(participant(1), participant(1), participant(3))));
+        boolean indexee = conference.lireParticipants(liste -> liste instanceof ParticipantsInscrits);
+        assertTrue(indexee);
+        assertEquals(2, conference.getNombreParticipants());
+        assertEquals(1, conference.getPlacesDisponibles());
+    }
+}
@@ -3,16 +3,23 @@ package testsysteme;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.File;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
 
+import com.gestion.evenements.model.Evenement;
 import com.gestion.evenements.model.GestionEvenements;
 import com.gestion.evenements.model.Participant;
+import com.gestion.evenements.model.evenementparticulier.Concert;
 import com.gestion.evenements.model.evenementparticulier.Conference;
+import com.gestion.evenements.serialization.SerializationManager;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class PerformanceTest {
@@ -67,6 +74,71 @@ public class PerformanceTest {
         
         System.out.println("Temps de 100 recherches: " + duration + "ms");
     }
-}
 
+    @Test
+    @DisplayName("Benchmark snapshot binaire vs JSON et XML")
+    void testPerformanceFormatsSnapshot(@TempDir File tempDir) throws Exception {
+        // 200 événements de 50 participants, lieux et genres très répétés
+        Map<String, Evenement> evenements = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            Evenement evenement = i % 2 == 0
+                ? new Conference("CONF" + i, "Conference " + i, LocalDateTime.now().plusDays(i),
+                    "Centre " + (i % 5), 100, "Theme " + (i % 8))
+                : new Concert("CONC" + i, "Concert " + i, LocalDateTime.now().plusDays(i),
+                    "Salle " + (i % 5), 100, "Artiste " + i, "Genre " + (i % 4));
+            for (int j = 0; j < 50; j++) {
+                evenement.ajouterParticipant(new Participant("P" + i + "_" + j, "Participant " + j,
+                    "p" + i + "_" + j + "@test.com"));
+            }
+            evenements.put(evenement.getId(), evenement);
+        }
+
+        File binaire = new File(tempDir, "evenements.bin");
+        File json = new File(tempDir, "evenements.json");
+        File xml = new File(tempDir, "evenements.xml");
+
+        long sauvegardeBinaire = 0, sauvegardeJson = 0, sauvegardeXml = 0;
+        long chargementBinaire = 0, chargementJson = 0, chargementXml = 0;
+        Map<String, Evenement> depuisBinaire = null;
+
+        // Premier tour d'échauffement (chargement des classes, JIT) ; seul le second est mesuré
+        for (int tour = 0; tour < 2; tour++) {
+            long debut = System.nanoTime();
+            SerializationManager.sauvegarderEvenementsBinaire(evenements, binaire.getPath());
+            sauvegardeBinaire = System.nanoTime() - debut;
+            debut = System.nanoTime();
+            SerializationManager.sauvegarderEvenementsJSON(evenements, json.getPath());
+            sauvegardeJson = System.nanoTime() - debut;
+            debut = System.nanoTime();
+            SerializationManager.sauvegarderEvenementsXML(evenements, xml.getPath());
+            sauvegardeXml = System.nanoTime() - debut;
 
+            debut = System.nanoTime();
+            depuisBinaire = SerializationManager.chargerEvenementsBinaire(binaire.getPath());
+            chargementBinaire = System.nanoTime() - debut;
+            debut = System.nanoTime();
+            SerializationManager.chargerEvenementsJSON(json.getPath());
+            chargementJson = System.nanoTime() - debut;
+            debut = System.nanoTime();
+            SerializationManager.chargerEvenementsXML(xml.getPath());
+            chargementXml = System.nanoTime() - debut;
+
+            // Le JSON incrémental réutiliserait tout au second tour : forcer un réencodage complet
+            for (Evenement evenement : evenements.values()) {
+                evenement.setNom(evenement.getNom());
+            }
+        }
+
+        assertEquals(200, depuisBinaire.size());
+        assertEquals(50, depuisBinaire.get("CONC7").getParticipants().size());
+        assertTrue(binaire.length() < json.length(), "Le snapshot binaire devrait être plus petit que le JSON");
+        assertTrue(binaire.length() < xml.length(), "Le snapshot binaire devrait être plus petit que le XML");
+
+        System.out.println(String.format("Binaire: %d octets, sauvegarde %d ms, chargement %d ms",
+            binaire.length(), sauvegardeBinaire / 1_000_000, chargementBinaire / 1_000_000));
+        System.out.println(String.format("JSON:    %d octets, sauvegarde %d ms, chargement %d ms",
+            json.length(), sauvegardeJson / 1_000_000, chargementJson / 1_000_000));
+        System.out.println(String.format("XML:     %d octets, sauvegarde %d ms, chargement %d ms",
+            xml.length(), sauvegardeXml / 1_000_000, chargementXml / 1_000_000));
+    }
+}
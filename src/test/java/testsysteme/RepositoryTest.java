@@ -0,0 +1,173 @@
+package testsysteme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.gestion.evenements.auth.User;
+import com.gestion.evenements.auth.UserRole;
+import com.gestion.evenements.model.Evenement;
+import com.gestion.evenements.model.Intervenant;
+import com.gestion.evenements.model.Participant;
+import com.gestion.evenements.model.RegistreParticipants;
+import com.gestion.evenements.model.evenementparticulier.Concert;
+import com.gestion.evenements.model.evenementparticulier.Conference;
+import com.gestion.evenements.repository.EventRepository;
+import com.gestion.evenements.repository.FichierEventRepository;
+import com.gestion.evenements.repository.JdbcEventRepository;
+import com.gestion.evenements.repository.JdbcUserRepository;
+import com.gestion.evenements.repository.MemoireEventRepository;
+import com.gestion.evenements.repository.ModificationInscriptions;
+import com.gestion.evenements.repository.UserRepository;
+
+public class RepositoryTest {
+
+    private static final LocalDateTime DEBUT = LocalDateTime.of(2030, 3, 1, 9, 0);
+
+    private Map<String, Evenement> catalogue() throws Exception {
+        Map<String, Evenement> evenements = new LinkedHashMap<>();
+        for (int i = 0; i < 30; i++) {
+            Evenement evenement = i % 3 == 0
+                ? new Concert("EVT" + i, "Concert " + i, DEBUT.plusDays(i), i % 2 == 0 ? "Paris" : "Lyon", 40, "Artiste", "Jazz")
+                : new Conference("EVT" + i, "Conference " + i, DEBUT.plusDays(i), i % 2 == 0 ? "Paris" : "Lyon", 40, "Theme");
+            if (evenement instanceof Conference) {
+                ((Conference) evenement).getIntervenants().add(new Intervenant("Orateur " + i, "Java"));
+            }
+            for (int j = 0; j < 10; j++) {
+                evenement.ajouterParticipant(new Participant("P" + (i + j), "Participant " + (i + j), "p" + (i + j) + "@test.com"));
+            }
+            evenements.put(evenement.getId(), evenement);
+        }
+        return evenements;
+    }
+
+    /**
+     * Contrat commun aux trois dépôts
+     */
+    private void verifierDepot(EventRepository depot) throws Exception {
+        depot.remplacerTout(catalogue());
+        Map<String, Evenement> charges = depot.chargerTout();
+        assertEquals(30, charges.size());
+        assertEquals(10, charges.get("EVT4").getNombreParticipants());
+        assertEquals("P13", charges.get("EVT4").getParticipants().get(9).getId());
+
+        Evenement modifie = charges.get("EVT7");
+        modifie.setLieu("Marseille");
+        modifie.ajouterParticipant(new Participant("NOUVEAU", "Nouveau", "nouveau@test.com"));
+        depot.enregistrer(modifie);
+        depot.supprimer("EVT8");
+
+        charges = depot.chargerTout();
+        assertEquals(29, charges.size());
+        assertNull(charges.get("EVT8"));
+        assertEquals(11, charges.get("EVT7").getNombreParticipants());
+        assertEquals(1, depot.rechercherParLieu("Marseille").size());
+        assertEquals(10, depot.rechercherParType(Concert.class).size());
+        assertEquals(7, depot.rechercherEntre(DEBUT.plusDays(10), DEBUT.plusDays(17)).size());
+    }
+
+    @Test
+    @DisplayName("Test contrat du dépôt en mémoire")
+    void testDepotMemoire() throws Exception {
+        verifierDepot(new MemoireEventRepository());
+    }
+
+    @Test
+    @DisplayName("Test contrat du dépôt sur snapshot binaire")
+    void testDepotFichier(@TempDir File tempDir) throws Exception {
+        FichierEventRepository depot = new FichierEventRepository(
+            new File(tempDir, "evenements.bin").getPath(), new RegistreParticipants());
+        assertFalse(depot.ecrituresUnitaires());
+        verifierDepot(depot);
+    }
+
+    @Test
+    @DisplayName("Test dépôt JDBC : lignes, index et participants partagés")
+    void testDepotJdbc(@TempDir File tempDir) throws Exception {
+        String url = "jdbc:h2:" + new File(tempDir, "catalogue").getAbsolutePath();
+        RegistreParticipants registre = new RegistreParticipants();
+        JdbcEventRepository depot = new JdbcEventRepository(url, registre);
+        try {
+            assertTrue(depot.ecrituresUnitaires());
+            verifierDepot(depot);
+
+            // Une personne inscrite à plusieurs événements est la même instance après chargement
+            Map<String, Evenement> charges = depot.chargerTout();
+            assertSame(charges.get("EVT1").getParticipants().get(9), charges.get("EVT10").getParticipants().get(0));
+            Conference conference = (Conference) charges.get("EVT1");
+            assertEquals("Orateur 1", conference.getIntervenants().get(0).getNom());
+            assertEquals("Jazz", ((Concert) charges.get("EVT3")).getGenreMusical());
+
+            // Seules les inscriptions ont changé : une ligne supprimée, deux ajoutées en fin de liste
+            Evenement evenement = charges.get("EVT5");
+            List<String> enregistres = evenement.getParticipants().stream()
+                .map(Participant::getId).collect(Collectors.toList());
+            evenement.retirerParticipant(evenement.getParticipants().get(2));
+            evenement.ajouterParticipant(new Participant("AJOUT1", "Ajout 1", "a1@test.com"));
+            evenement.ajouterParticipant(new Participant("AJOUT2", "Ajout 2", "a2@test.com"));
+            ModificationInscriptions modification = ModificationInscriptions.calculer(evenement, enregistres);
+            assertEquals(List.of("P7"), modification.getRetraits());
+            assertEquals(2, modification.getAjouts().size());
+            depot.enregistrerInscriptions(List.of(modification));
+
+            List<String> relus = depot.chargerTout().get("EVT5").getParticipants().stream()
+                .map(Participant::getId).collect(Collectors.toList());
+            assertEquals(modification.getIdentifiants(), relus);
+            assertEquals("AJOUT2", relus.get(10));
+
+            // Un ordre modifié ne s'exprime pas en retraits et ajouts : l'événement est réécrit
+            Collections.reverse(enregistres);
+            assertNull(ModificationInscriptions.calculer(evenement, enregistres));
+        } finally {
+            depot.fermer();
+        }
+
+        // Les données survivent à la réouverture de la base
+        JdbcEventRepository reouvert = new JdbcEventRepository(url, null);
+        try {
+            assertEquals(29, reouvert.chargerTout().size());
+        } finally {
+            reouvert.fermer();
+        }
+    }
+
+    @Test
+    @DisplayName("Test dépôt JDBC des utilisateurs")
+    void testDepotUtilisateursJdbc(@TempDir File tempDir) throws Exception {
+        JdbcUserRepository depot = new JdbcUserRepository("jdbc:h2:" + new File(tempDir, "users").getAbsolutePath());
+        try {
+            User marie = new User("U1", "Marie", "Marie@Test.com", "secret", UserRole.ORGANISATEUR, null, "EventCorp");
+            marie.marquerAcces();
+            depot.enregistrer(marie);
+            depot.enregistrer(new User("U2", "Paul", "paul@test.com", "mdp", UserRole.PARTICIPANT));
+
+            marie.setTelephone("+33 1 02 03 04 05");
+            depot.enregistrer(marie);
+            depot.supprimer("paul@test.com");
+
+            Map<String, User> charges = depot.chargerTout();
+            assertEquals(1, charges.size());
+            User charge = charges.get(UserRepository.cle(marie));
+            assertEquals("+33 1 02 03 04 05", charge.getTelephone());
+            assertEquals(marie.getDernierAcces(), charge.getDernierAcces());
+            assertTrue(charge.verifierMotDePasse("secret"));
+            assertEquals(UserRole.ORGANISATEUR, charge.getRole());
+        } finally {
+            depot.fermer();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package testsysteme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.gestion.evenements.auth.User;
+import com.gestion.evenements.auth.UserRole;
+import com.gestion.evenements.model.Evenement;
+import com.gestion.evenements.model.Intervenant;
+import com.gestion.evenements.model.Participant;
+import com.gestion.evenements.model.evenementparticulier.Concert;
+import com.gestion.evenements.model.evenementparticulier.Conference;
+import com.gestion.evenements.serialization.SerialisationJson;
+
+public class SerialisationJsonTest {
+
+    @Test
+    @DisplayName("Test aller-retour des événements avec les sérialiseurs du modèle")
+    void testAllerRetourEvenements() throws Exception {
+        LocalDateTime date = LocalDateTime.of(2030, 3, 14, 9, 26, 53, 589_000_000);
+        Conference conference = new Conference("CONF1", "Conf", date, "Paris", 100, "IA");
+        conference.ajouterParticipant(new Participant("P1", "Alice", "alice@test.com"));
+        conference.getIntervenants().add(new Intervenant("Bob", "Réseaux"));
+        Concert concert = new Concert("CONC1", "Concert", LocalDateTime.of(2030, 6, 21, 20, 0), "Lyon", 500, "Artiste", "Jazz");
+
+        String json = SerialisationJson.ecrivainEvenement().writeValueAsString(conference);
+        assertTrue(json.startsWith("{\"type\":\"conference\""), json);
+        Evenement relu = SerialisationJson.lecteurEvenement().readValue(json);
+        assertTrue(relu instanceof Conference);
+        assertEquals("CONF1", relu.getId());
+        assertEquals(date, relu.getDate());
+        assertEquals("alice@test.com", relu.getParticipants().get(0).getEmail());
+        assertEquals("Réseaux", ((Conference) relu).getIntervenants().get(0).getSpecialite());
+
+        Concert concertRelu = (Concert) SerialisationJson.lecteurEvenement()
+            .readValue(SerialisationJson.ecrivainEvenement().writeValueAsString(concert));
+        assertEquals("Jazz", concertRelu.getGenreMusical());
+        assertEquals(concert.getDate(), concertRelu.getDate());
+        assertEquals(0, concertRelu.getParticipants().size());
+    }
+
+    @Test
+    @DisplayName("Test compatibilité avec le JSON de la sérialisation par défaut")
+    void testCompatibiliteAncienJson() throws Exception {
+        // Type en dernier, propriétés calculées et dates sans secondes : forme des anciens fichiers
+        String ancien = "{\"id\":\"CONC1\",\"nom\":\"Concert\",\"date\":\"2030-06-21T20:00\",\"lieu\":\"Lyon\","
+            + "\"capaciteMax\":500,\"participants\":[{\"id\":\"P1\",\"nom\":\"Alice\",\"email\":\"a@test.com\","
+            + "\"evenementsOrganises\":[]}],\"artiste\":\"Artiste\",\"genreMusical\":\"Jazz\",\"type\":\"concert\"}";
+        Evenement evenement = SerialisationJson.lecteurEvenement().readValue(ancien);
+        assertTrue(evenement instanceof Concert);
+        assertEquals(LocalDateTime.of(2030, 6, 21, 20, 0), evenement.getDate());
+        assertEquals(1, evenement.getParticipants().size());
+
+        String utilisateur = "{\"id\":\"U1\",\"nom\":\"Alice\",\"email\":\"a@test.com\",\"motDePasse\":\"x\","
+            + "\"role\":\"ORGANISATEUR\",\"dateCreation\":\"2024-01-02T03:04:05.123456\",\"dernierAcces\":null,"
+            + "\"actif\":false,\"nomAffichage\":\"Alice\",\"organisateur\":true}";
+        User user = SerialisationJson.lecteurUtilisateur().readValue(utilisateur);
+        assertEquals(UserRole.ORGANISATEUR, user.getRole());
+        assertEquals(LocalDateTime.of(2024, 1, 2, 3, 4, 5, 123_456_000), user.getDateCreation());
+        assertNull(user.getDernierAcces());
+        assertEquals(false, user.isActif());
+
+        // Même texte de date que JavaTimeModule
+        ObjectMapper reference = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        for (LocalDateTime date : List.of(LocalDateTime.of(2024, 1, 2, 3, 4),
+                LocalDateTime.of(2024, 1, 2, 3, 4, 5, 120_000_000), LocalDateTime.of(999, 12, 31, 23, 59, 59, 1))) {
+            user.setDateCreation(date);
+            String ecrit = SerialisationJson.ecrivainUtilisateur().writeValueAsString(user);
+            assertTrue(ecrit.contains("\"dateCreation\":" + reference.writeValueAsString(date)), ecrit);
+            assertEquals(date, SerialisationJson.lecteurUtilisateur().<User>readValue(ecrit).getDateCreation());
+        }
+    }
+}
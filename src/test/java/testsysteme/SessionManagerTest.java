@@ -0,0 +1,113 @@
+package testsysteme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.gestion.evenements.auth.AuthenticationService.UserSession;
+import com.gestion.evenements.auth.SessionManager;
+import com.gestion.evenements.auth.User;
+import com.gestion.evenements.auth.UserRole;
+import com.gestion.evenements.util.RoueTemporelle;
+
+public class SessionManagerTest {
+
+    private UserSession session(String id, String email) {
+        User user = new User(id, "Utilisateur " + id, email, "secret", UserRole.PARTICIPANT);
+        return new UserSession(id, user.toSafeUser(), LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("Test roue temporelle : expiration au tick et annulation")
+    void testRoueTemporelle() {
+        RoueTemporelle<String> roue = new RoueTemporelle<>(8, 100, 0);
+        roue.planifier("a", 250);
+        roue.planifier("b", 1_250);   // un tour de roue plus loin, même case
+        roue.planifier("c", 400);
+        roue.annuler("c");
+
+        assertTrue(roue.avancer(200).isEmpty());
+        assertEquals(List.of("a"), roue.avancer(300));
+        assertTrue(roue.avancer(1_200).isEmpty());
+        // Retard de plusieurs tours : chaque case n'est parcourue qu'une fois
+        assertEquals(List.of("b"), roue.avancer(10_000));
+        assertEquals(0, roue.taille());
+    }
+
+    @Test
+    @DisplayName("Test balayage des sessions abandonnées et métriques")
+    void testBalayage() {
+        AtomicLong horloge = new AtomicLong(1_000_000);
+        SessionManager manager = new SessionManager(Duration.ofSeconds(10), 1_000, null, horloge::get);
+        for (int i = 0; i < 100; i++) {
+            manager.ouvrir(session("S" + i, "u" + i + "@test.com"));
+        }
+        horloge.addAndGet(5_000);
+        manager.ouvrir(session("TARDIVE", "tard@test.com"));
+        assertNotNull(manager.fermer("S0"));
+
+        horloge.addAndGet(6_000);
+        assertEquals(99, manager.balayer());
+        assertEquals(1, manager.taille());
+        assertNotNull(manager.obtenir("TARDIVE"));
+
+        // Expiration constatée à la lecture, avant le balayage suivant
+        horloge.addAndGet(4_000);
+        assertNull(manager.obtenir("TARDIVE"));
+
+        SessionManager.Statistiques stats = manager.getStatistiques();
+        assertEquals(0, stats.getSessionsActives());
+        assertEquals(101, stats.getSessionsOuvertes());
+        assertEquals(1, stats.getSessionsFermees());
+        assertEquals(100, stats.getSessionsExpirees());
+    }
+
+    @Test
+    @DisplayName("Test persistance des sessions entre deux lancements")
+    void testPersistanceSessions(@TempDir Path tempDir) throws Exception {
+        Path fichier = tempDir.resolve("sessions.bin");
+        AtomicLong horloge = new AtomicLong(System.currentTimeMillis());
+
+        SessionManager premier = new SessionManager(Duration.ofHours(1), 60_000, fichier, horloge::get);
+        premier.ouvrir(session("S1", "alice@test.com"));
+        premier.ouvrir(session("S2", "bob@test.com"));
+        premier.ouvrir(session("S3", "supprime@test.com"));
+        premier.arreter();
+
+        // Ni identifiant en clair ni lecture par les autres utilisateurs
+        String contenu = new String(Files.readAllBytes(fichier), StandardCharsets.ISO_8859_1);
+        assertFalse(contenu.contains("S1"));
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(fichier));
+        }
+
+        horloge.addAndGet(Duration.ofMinutes(30).toMillis());
+        SessionManager second = new SessionManager(Duration.ofHours(1), 60_000, fichier, horloge::get);
+        // Un compte supprimé entre-temps ne récupère pas sa session
+        assertEquals(2, second.charger(email -> email.startsWith("supprime")
+            ? null : new User("X", "X", email, null, UserRole.PARTICIPANT)));
+        assertEquals("alice@test.com", second.obtenir("S1").getUser().getEmail());
+        assertEquals("S1", second.obtenir("S1").getSessionId());
+        assertNull(second.obtenir("S4"));
+
+        // L'échéance d'origine est conservée
+        horloge.addAndGet(Duration.ofMinutes(31).toMillis());
+        assertEquals(2, second.balayer());
+    }
+}
@@ -0,0 +1,131 @@
+package testsysteme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.gestion.evenements.model.Evenement;
+import com.gestion.evenements.model.Participant;
+import com.gestion.evenements.model.evenementparticulier.Conference;
+import com.gestion.evenements.serialization.BinarySnapshotCodec;
+import com.gestion.evenements.serialization.MappedEvenementStore;
+import com.gestion.evenements.serialization.SerializationManager;
+
+public class SnapshotRepriseTest {
+
+    private Map<String, Evenement> catalogue(int nombre) throws Exception {
+        Map<String, Evenement> evenements = new LinkedHashMap<>();
+        for (int i = 0; i < nombre; i++) {
+            Conference conference = new Conference("CONF" + i, "Conference " + i,
+                LocalDateTime.of(2030, 1, 1, 9, 0).plusDays(i), "Centre", 50, "Theme");
+            for (int j = 0; j < 20; j++) {
+                conference.ajouterParticipant(new Participant("P" + i + "_" + j, "Participant " + j, "p" + j + "@test.com"));
+            }
+            evenements.put(conference.getId(), conference);
+        }
+        return evenements;
+    }
+
+    private void corrompre(File fichier, long position) throws IOException {
+        try (RandomAccessFile acces = new RandomAccessFile(fichier, "rw")) {
+            acces.seek(position);
+            int octet = acces.read();
+            acces.seek(position);
+            acces.write(octet ^ 0x5A);
+        }
+    }
+
+    @Test
+    @DisplayName("Test reprise de la génération précédente sur section corrompue")
+    void testRepriseGenerationPrecedente(@TempDir File tempDir) throws Exception {
+        File fichier = new File(tempDir, "reprise-" + System.nanoTime() + ".bin");
+        SerializationManager.sauvegarderEvenementsBinaire(catalogue(300), fichier.getPath());
+        SerializationManager.sauvegarderEvenementsBinaire(catalogue(400), fichier.getPath());
+        assertTrue(new File(fichier.getPath() + ".prev").exists());
+        assertFalse(new File(fichier.getPath() + ".tmp").exists());
+
+        // Un octet modifié au milieu du fichier invalide la somme de contrôle de sa section
+        corrompre(fichier, fichier.length() / 2);
+        Map<String, Evenement> repris = SerializationManager.chargerEvenementsBinaire(fichier.getPath());
+        assertEquals(300, repris.size());
+        assertEquals(20, repris.get("CONF7").getParticipants().size());
+
+        // Le snapshot illisible est mis de côté : la prochaine sauvegarde conserve la génération reprise
+        assertFalse(fichier.exists());
+        SerializationManager.sauvegarderEvenementsBinaire(repris, fichier.getPath());
+        assertEquals(300, SerializationManager.chargerEvenementsBinaire(fichier.getPath() + ".prev").size());
+    }
+
+    @Test
+    @DisplayName("Test snapshot pendant des changements de lieu concurrents")
+    void testLieuModifiePendantEcriture() throws Exception {
+        Map<String, Evenement> evenements = catalogue(200);
+        AtomicBoolean actif = new AtomicBoolean(true);
+        Thread modifications = new Thread(() -> {
+            int i = 0;
+            while (actif.get()) {
+                // Chaque lieu est nouveau : absent du dictionnaire s'il était relu à l'encodage
+                for (Evenement evenement : evenements.values()) {
+                    evenement.setLieu("Salle " + i++);
+                }
+            }
+        });
+        modifications.start();
+        try {
+            for (int essai = 0; essai < 50; essai++) {
+                ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+                BinarySnapshotCodec.ecrireEvenements(evenements, sortie);
+                Map<String, Evenement> relus = BinarySnapshotCodec.lireEvenements(ByteBuffer.wrap(sortie.toByteArray()));
+                assertEquals(200, relus.size());
+                relus.values().forEach(evenement -> assertTrue(evenement.getLieu().startsWith("Salle ")
+                    || evenement.getLieu().equals("Centre")));
+            }
+        } finally {
+            actif.set(false);
+            modifications.join();
+        }
+    }
+
+    @Test
+    @DisplayName("Test écriture tronquée détectée au lieu d'un catalogue partiel")
+    void testEcritureTronquee(@TempDir File tempDir) throws Exception {
+        File fichier = new File(tempDir, "tronque-" + System.nanoTime() + ".bin");
+        SerializationManager.sauvegarderEvenementsBinaire(catalogue(300), fichier.getPath());
+
+        byte[] complet = Files.readAllBytes(fichier.toPath());
+        Files.write(fichier.toPath(), Arrays.copyOf(complet, complet.length - 10));
+
+        assertThrows(IOException.class, () -> SerializationManager.chargerEvenementsBinaire(fichier.getPath()));
+    }
+
+    @Test
+    @DisplayName("Test vérification des sections par le catalogue mappé")
+    void testSectionCorrompueMappee(@TempDir File tempDir) throws Exception {
+        File fichier = new File(tempDir, "mappe-" + System.nanoTime() + ".bin");
+        SerializationManager.sauvegarderEvenementsBinaire(catalogue(300), fichier.getPath());
+
+        MappedEvenementStore store = MappedEvenementStore.ouvrir(fichier.getPath(), 4096);
+        assertEquals(300, store.taille());
+        store.fermer();
+
+        corrompre(fichier, fichier.length() - 100);
+        assertThrows(IOException.class, () -> MappedEvenementStore.ouvrir(fichier.getPath(), 4096));
+    }
+}
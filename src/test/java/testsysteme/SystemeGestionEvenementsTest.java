@@ -3,6 +3,8 @@ package testsysteme;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.io.TempDir;
 
+import com.gestion.evenements.auth.User;
+import com.gestion.evenements.auth.UserRole;
 import com.gestion.evenements.exception.CapaciteMaxAtteinteException;
 import com.gestion.evenements.exception.EvenementDejaExistantException;
 import com.gestion.evenements.model.Evenement;
@@ -10,15 +12,21 @@ import com.gestion.evenements.model.GestionEvenements;
 import com.gestion.evenements.model.Intervenant;
 import com.gestion.evenements.model.Organisateur;
 import com.gestion.evenements.model.Participant;
+import com.gestion.evenements.model.RegistreParticipants;
 import com.gestion.evenements.model.evenementparticulier.Concert;
 import com.gestion.evenements.model.evenementparticulier.Conference;
 import com.gestion.evenements.model.notification.EmailNotificationService;
 import com.gestion.evenements.observer.ParticipantObserver;
+import com.gestion.evenements.serialization.BinarySnapshotCodec;
+import com.gestion.evenements.serialization.IncrementalSnapshotWriter;
 import com.gestion.evenements.serialization.SerializationManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import static org.junit.jupiter.api.Assertions.*;
 import java.time.LocalDateTime;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;          
@@ -227,6 +235,257 @@ public class SystemeGestionEvenementsTest {
         assertEquals("Test Location", confChargee.getLieu());
     }
 
+    @Test
+    @Order(17)
+    @DisplayName("Test snapshot JSON incrémental")
+    void testSnapshotIncremental(@TempDir File tempDir) throws Exception {
+        gestion.ajouterEvenement(conference);
+        gestion.ajouterEvenement(concert);
+
+        File fichierTest = new File(tempDir, "incremental.json");
+        IncrementalSnapshotWriter writer = new IncrementalSnapshotWriter(fichierTest.getPath(), new ObjectMapper()
+            .registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule()));
+
+        writer.ecrire(gestion.getEvenements());
+        assertEquals(2, writer.getDernierReencodes());
+
+        // Seul l'événement modifié est réencodé
+        conference.ajouterParticipant(participant1);
+        writer.ecrire(gestion.getEvenements());
+        assertEquals(1, writer.getDernierReencodes());
+        assertEquals(1, writer.getDernierReutilises());
+
+        Map<String, Evenement> evenementsCharges = SerializationManager.chargerEvenementsJSON(fichierTest.getPath());
+        assertEquals(2, evenementsCharges.size());
+        assertEquals(1, evenementsCharges.get("CONF001").getParticipants().size());
+        assertEquals("Test Artist", ((Concert) evenementsCharges.get("CONC001")).getArtiste());
+    }
+
+    @Test
+    @Order(18)
+    @DisplayName("Test chargement JSON en flux avec filtre et progression")
+    void testChargementJSONEnFlux(@TempDir File tempDir) throws Exception {
+        gestion.ajouterEvenement(conference);
+        gestion.ajouterEvenement(concert);
+        File fichierTest = new File(tempDir, "flux.json");
+        SerializationManager.sauvegarderEvenementsJSON(gestion.getEvenements(), fichierTest.getPath());
+
+        List<Evenement> concerts = new ArrayList<>();
+        long[] derniereProgression = new long[1];
+        int lus = SerializationManager.chargerEvenementsJSON(fichierTest.getPath(),
+            evenement -> {
+                if (evenement instanceof Concert) {
+                    concerts.add(evenement);
+                }
+            },
+            (octetsLus, tailleTotale, nombre) -> derniereProgression[0] = octetsLus);
+
+        assertEquals(2, lus);
+        assertEquals(1, concerts.size());
+        assertEquals("CONC001", concerts.get(0).getId());
+        assertEquals(fichierTest.length(), derniereProgression[0]);
+    }
+
+    @Test
+    @Order(19)
+    @DisplayName("Test compatibilité de l'export XML en flux avec le lecteur existant")
+    void testSerialisationXMLEnFlux(@TempDir File tempDir) throws Exception {
+        conference.setNom("R&D <Innovation> \"2025\"");
+        conference.ajouterParticipant(participant1);
+        conference.ajouterParticipant(participant2);
+        concert.ajouterParticipant(participant1);
+        gestion.ajouterEvenement(conference);
+        gestion.ajouterEvenement(concert);
+
+        File fichierTest = new File(tempDir, "test_evenements.xml");
+        SerializationManager.sauvegarderEvenementsXML(gestion.getEvenements(), fichierTest.getPath());
+
+        Map<String, Evenement> evenementsCharges = SerializationManager.chargerEvenementsXML(fichierTest.getPath());
+        assertEquals(2, evenementsCharges.size());
+
+        for (Evenement original : gestion.getEvenements().values()) {
+            Evenement charge = evenementsCharges.get(original.getId());
+            assertNotNull(charge);
+            assertEquals(original.getClass(), charge.getClass());
+            assertEquals(original.getNom(), charge.getNom());
+            assertEquals(original.getDate(), charge.getDate());
+            assertEquals(original.getLieu(), charge.getLieu());
+            assertEquals(original.getCapaciteMax(), charge.getCapaciteMax());
+            assertEquals(original.getParticipants(), charge.getParticipants());
+        }
+        assertEquals("Test Theme", ((Conference) evenementsCharges.get("CONF001")).getTheme());
+        assertEquals("Rock", ((Concert) evenementsCharges.get("CONC001")).getGenreMusical());
+    }
+
+    @Test
+    @Order(20)
+    @DisplayName("Test chargement XML en flux : hydratation en bloc et capacité")
+    void testChargementXMLEnFlux(@TempDir File tempDir) throws Exception {
+        File fichierTest = new File(tempDir, "capacite.xml");
+        java.nio.file.Files.writeString(fichierTest.toPath(),
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<evenements count=\"1\">\n" +
+            "  <evenement id=\"CONF009\" type=\"conference\">\n" +
+            "    <nom>Petite salle</nom>\n" +
+            "    <date>2030-01-15T09:00:00</date>\n" +
+            "    <lieu>Douala</lieu>\n" +
+            "    <capaciteMax>2</capaciteMax>\n" +
+            "    <notes><note>inconnue</note></notes>\n" +
+            "    <participants count=\"3\">\n" +
+            "      <participant id=\"P1\"><nom>Un</nom><email>un@test.com</email></participant>\n" +
+            "      <participant id=\"P2\"><nom>Deux</nom><email>deux@test.com</email></participant>\n" +
+            "      <participant id=\"P3\"><nom>Trois</nom><email>trois@test.com</email></participant>\n" +
+            "    </participants>\n" +
+            "    <theme>IA</theme>\n" +
+            "  </evenement>\n" +
+            "</evenements>\n");
+
+        Map<String, Evenement> evenementsCharges = SerializationManager.chargerEvenementsXML(fichierTest.getPath());
+
+        Conference chargee = (Conference) evenementsCharges.get("CONF009");
+        assertEquals("Petite salle", chargee.getNom());
+        assertEquals("IA", chargee.getTheme());
+        // Les participants au-delà de la capacité sont ignorés, comme avec ajouterParticipant
+        assertEquals(2, chargee.getParticipants().size());
+        assertEquals("Deux", chargee.getParticipants().get(1).getNom());
+    }
+
+    @Test
+    @Order(21)
+    @DisplayName("Test snapshot binaire : événements et utilisateurs")
+    void testSnapshotBinaire(@TempDir File tempDir) throws Exception {
+        conference.ajouterParticipant(participant1);
+        conference.getIntervenants().add(new Intervenant("Dr. Test", "IA"));
+        concert.ajouterParticipant(participant2);
+        gestion.ajouterEvenement(conference);
+        gestion.ajouterEvenement(concert);
+
+        File fichierTest = new File(tempDir, "evenements.bin");
+        SerializationManager.sauvegarderEvenementsBinaire(gestion.getEvenements(), fichierTest.getPath());
+        Map<String, Evenement> evenementsCharges = SerializationManager.chargerEvenementsBinaire(fichierTest.getPath());
+
+        assertEquals(2, evenementsCharges.size());
+        Conference confChargee = (Conference) evenementsCharges.get("CONF001");
+        assertEquals(conference.getDate(), confChargee.getDate());
+        assertEquals("Test Location", confChargee.getLieu());
+        assertEquals(2, confChargee.getCapaciteMax());
+        assertEquals("Test Theme", confChargee.getTheme());
+        assertEquals("IA", confChargee.getIntervenants().get(0).getSpecialite());
+        assertEquals("alice@test.com", confChargee.getParticipants().get(0).getEmail());
+        Concert concertCharge = (Concert) evenementsCharges.get("CONC001");
+        assertEquals("Test Artist", concertCharge.getArtiste());
+        assertEquals("Rock", concertCharge.getGenreMusical());
+        assertEquals(participant2, concertCharge.getParticipants().get(0));
+
+        User organisateur = new User("U1", "Marie", "marie@test.com", "secret", UserRole.ORGANISATEUR,
+            null, "EventCorp");
+        organisateur.marquerAcces();
+        File fichierUsers = new File(tempDir, "users.bin");
+        SerializationManager.sauvegarderUtilisateursBinaire(Map.of("marie@test.com", organisateur),
+            fichierUsers.getPath());
+        User charge = SerializationManager.chargerUtilisateursBinaire(fichierUsers.getPath()).get("marie@test.com");
+
+        assertEquals(UserRole.ORGANISATEUR, charge.getRole());
+        assertEquals("EventCorp", charge.getOrganisation());
+        assertNull(charge.getTelephone());
+        assertEquals(organisateur.getDernierAcces(), charge.getDernierAcces());
+        assertTrue(charge.verifierMotDePasse("secret"));
+    }
+
+    @Test
+    @Order(22)
+    @DisplayName("Test registre de participants partagé entre événements")
+    void testRegistreParticipants(@TempDir File tempDir) throws Exception {
+        Map<String, Evenement> evenements = new java.util.LinkedHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            Conference evenement = new Conference("CONF_R" + i, "Conference " + i, LocalDateTime.now().plusDays(i),
+                "Centre", 50, "Theme");
+            // Les mêmes 50 personnes, recréées pour chaque événement
+            for (int j = 0; j < 50; j++) {
+                evenement.ajouterParticipant(new Participant("P" + j, "Participant " + j, "p" + j + "@test.com"));
+            }
+            evenements.put(evenement.getId(), evenement);
+        }
+
+        File fichierTest = new File(tempDir, "registre.bin");
+        SerializationManager.sauvegarderEvenementsBinaire(evenements, fichierTest.getPath());
+        // 5 000 inscriptions : chaque personne n'est écrite qu'une fois, les événements portent des références
+        assertTrue(fichierTest.length() < 20 * 1024, "Snapshot trop volumineux: " + fichierTest.length());
+
+        RegistreParticipants registre = new RegistreParticipants();
+        Map<String, Evenement> charges = SerializationManager.chargerEvenementsBinaire(fichierTest.getPath(), registre);
+        assertEquals(50, registre.taille());
+        Participant premier = charges.get("CONF_R0").getParticipants().get(7);
+        assertEquals("p7@test.com", premier.getEmail());
+        assertSame(premier, charges.get("CONF_R99").getParticipants().get(7));
+        assertSame(premier, registre.rechercher("P7"));
+    }
+
+    @Test
+    @Order(23)
+    @DisplayName("Test chargement des listes de participants à la demande")
+    void testParticipantsDifferes(@TempDir File tempDir) throws Exception {
+        Map<String, Evenement> evenements = new java.util.LinkedHashMap<>();
+        for (int i = 0; i < 20; i++) {
+            Conference evenement = new Conference("CONF_D" + i, "Conference " + i, LocalDateTime.now().plusDays(i),
+                "Centre", 30, "Theme");
+            for (int j = 0; j < 10 + i; j++) {
+                evenement.ajouterParticipant(new Participant("P" + j, "Participant " + j, "p" + j + "@test.com"));
+            }
+            evenements.put(evenement.getId(), evenement);
+        }
+        File fichierTest = new File(tempDir, "differe.bin");
+        SerializationManager.sauvegarderEvenementsBinaire(evenements, fichierTest.getPath());
+
+        RegistreParticipants registre = new RegistreParticipants();
+        Map<String, Evenement> charges = SerializationManager.chargerEvenementsBinaire(fichierTest.getPath(),
+            registre, true);
+        Evenement evenement = charges.get("CONF_D5");
+        assertEquals(15, evenement.getNombreParticipants());
+        assertTrue(evenement.estInscrit(registre.rechercher("P14")));
+        assertFalse(evenement.estInscrit(registre.rechercher("P15")));
+
+        // La liste se décode au premier accès et reste modifiable
+        evenement.ajouterParticipant(registre.rechercher("P15"));
+        assertEquals(16, evenement.getNombreParticipants());
+        assertEquals("P0", evenement.getParticipants().get(0).getId());
+
+        // Doublon sur une liste encore encodée : refusé sans consommer de place
+        Evenement autre = charges.get("CONF_D6");
+        assertEquals(0, autre.ajouterParticipants(List.of(registre.rechercher("P3"))));
+        assertEquals(16, autre.getNombreParticipants());
+        assertEquals(14, autre.getPlacesDisponibles());
+
+        SerializationManager.sauvegarderEvenementsBinaire(charges, fichierTest.getPath());
+        Map<String, Evenement> recharges = SerializationManager.chargerEvenementsBinaire(fichierTest.getPath());
+        assertEquals(16, recharges.get("CONF_D5").getNombreParticipants());
+        assertEquals(29, recharges.get("CONF_D19").getParticipants().size());
+
+        // P28 retiré de son seul événement : le registre ne le garde pas et les blocs restés
+        // encodés sont transcodés vers les nouveaux rangs
+        Map<String, Evenement> differes = SerializationManager.chargerEvenementsBinaire(fichierTest.getPath(),
+            new RegistreParticipants(), true);
+        Evenement dernier = differes.get("CONF_D19");
+        dernier.retirerParticipant(dernier.getParticipants().get(28));
+        java.util.Set<String> identifiants = new java.util.HashSet<>();
+        for (Evenement charge : differes.values()) {
+            charge.lireParticipants(participants -> {
+                BinarySnapshotCodec.parcourirIdentifiants(participants, identifiants::add);
+                return null;
+            });
+        }
+        assertEquals(28, identifiants.size());
+        SerializationManager.sauvegarderEvenementsBinaire(differes, fichierTest.getPath());
+        RegistreParticipants registreRelu = new RegistreParticipants();
+        recharges = SerializationManager.chargerEvenementsBinaire(fichierTest.getPath(), registreRelu);
+        assertEquals(28, registreRelu.taille());
+        assertEquals(28, recharges.get("CONF_D18").getNombreParticipants());
+        assertEquals("P27", recharges.get("CONF_D18").getParticipants().get(27).getId());
+        assertEquals(28, recharges.get("CONF_D19").getNombreParticipants());
+        assertEquals(16, recharges.get("CONF_D5").getNombreParticipants());
+        assertEquals("P9", recharges.get("CONF_D0").getParticipants().get(9).getId());
+    }
+
     // ======================== TESTS PROGRAMMATION ASYNCHRONE ========================
 
     @Test
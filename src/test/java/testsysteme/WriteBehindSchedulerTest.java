@@ -0,0 +1,95 @@
+package testsysteme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.gestion.evenements.util.WriteBehindScheduler;
+
+public class WriteBehindSchedulerTest {
+
+    @Test
+    @DisplayName("Test regroupement d'une rafale de mutations en une écriture")
+    void testRegroupementRafale() {
+        AtomicInteger ecritures = new AtomicInteger();
+        WriteBehindScheduler scheduler = new WriteBehindScheduler(
+            "test-write-behind", ecritures::incrementAndGet, 60_000, 10_000);
+
+        for (int i = 0; i < 1000; i++) {
+            scheduler.signaler();
+        }
+        scheduler.flush();
+
+        assertEquals(1, ecritures.get());
+        WriteBehindScheduler.Statistiques stats = scheduler.getStatistiques();
+        assertEquals(1, stats.getLotsEcrits());
+        assertEquals(1000, stats.getMutationsEcrites());
+        assertEquals(0, stats.getMutationsEnAttente());
+        scheduler.close();
+    }
+
+    @Test
+    @DisplayName("Test bornes de lot et de latence")
+    void testBornes() throws Exception {
+        AtomicInteger ecritures = new AtomicInteger();
+        CountDownLatch premiereEcriture = new CountDownLatch(1);
+        CountDownLatch secondeEcriture = new CountDownLatch(2);
+        // Latence longue : seule la taille du lot peut déclencher la première écriture
+        WriteBehindScheduler scheduler = new WriteBehindScheduler("test-write-behind", () -> {
+            ecritures.incrementAndGet();
+            premiereEcriture.countDown();
+            secondeEcriture.countDown();
+        }, 60_000, 100);
+
+        // Lot plein : écriture sans attendre la latence
+        scheduler.signaler(100);
+        assertTrue(premiereEcriture.await(5, TimeUnit.SECONDS));
+        // Écriture en cours : la barrière attend son acquittement sans en lancer d'autre
+        assertTrue(scheduler.flush());
+        assertEquals(1, ecritures.get());
+        assertEquals(100, scheduler.getStatistiques().getMutationsEcrites());
+
+        // Lot partiel : rien avant la latence maximale, puis écrit une fois qu'elle est atteinte
+        scheduler.configurer(200, 100);
+        scheduler.signaler(3);
+        assertFalse(secondeEcriture.await(50, TimeUnit.MILLISECONDS));
+        assertEquals(1, ecritures.get());
+        assertTrue(secondeEcriture.await(5, TimeUnit.SECONDS));
+        assertTrue(scheduler.flush());
+
+        WriteBehindScheduler.Statistiques stats = scheduler.getStatistiques();
+        assertEquals(2, ecritures.get());
+        assertEquals(103, stats.getMutationsEcrites());
+        assertEquals(100, stats.getPlusGrosLot());
+        assertTrue(stats.getMutationsParLot() > 1);
+        scheduler.close();
+    }
+
+    @Test
+    @DisplayName("Test échec d'écriture compté et rapporté par la barrière")
+    void testEchecEcriture() {
+        AtomicInteger tentatives = new AtomicInteger();
+        WriteBehindScheduler scheduler = new WriteBehindScheduler("test-write-behind", () -> {
+            if (tentatives.incrementAndGet() == 1) {
+                throw new IllegalStateException("disque plein");
+            }
+        }, 60_000, 10_000);
+
+        scheduler.signaler();
+        assertFalse(scheduler.flush());
+        assertEquals(1, scheduler.getStatistiques().getEchecs());
+
+        // L'écriture suivante couvre tout : la barrière rapporte de nouveau un succès
+        scheduler.signaler();
+        assertTrue(scheduler.flush());
+        assertEquals(2, tentatives.get());
+        scheduler.close();
+    }
+}